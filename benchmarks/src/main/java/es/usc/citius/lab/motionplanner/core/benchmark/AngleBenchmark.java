@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.lattice.PoseAdapter2D;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalization of angles with {@link MathFunctions}, for angles near the range and many
+ * turns away, and quantization of headings as binary angles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AngleBenchmark {
+
+    private static final int HEADINGS = 72;
+
+    @Param({"1", "100"})
+    public float turns;
+
+    private float[] angles;
+    private PoseAdapter2D adapter;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        angles = BenchmarkData.angles();
+        for (int i = 0; i < angles.length; i++) {
+            angles[i] *= turns;
+        }
+        adapter = new PoseAdapter2D(0.1f, 0.1f, HEADINGS);
+        index = 0;
+    }
+
+    @Benchmark
+    public float adjustAngleP() {
+        index = BenchmarkData.next(index);
+        return MathFunctions.adjustAngleP(angles[index]);
+    }
+
+    @Benchmark
+    public float adjustAngle2P() {
+        index = BenchmarkData.next(index);
+        return MathFunctions.adjustAngle2P(angles[index]);
+    }
+
+    @Benchmark
+    public int radiansToBam() {
+        index = BenchmarkData.next(index);
+        return MathFunctions.radiansToBam(angles[index]);
+    }
+
+    @Benchmark
+    public int headingIndex() {
+        index = BenchmarkData.next(index);
+        return adapter.headingIndex(angles[index]);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose3D;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+
+import java.util.Random;
+
+/**
+ * Generation of the random inputs shared by the benchmarks. Inputs are
+ * pre-generated in arrays of {@link #SIZE} elements and consumed cyclically,
+ * so the JIT cannot constant-fold them and the generation cost is not measured.
+ */
+final class BenchmarkData {
+
+    /**
+     * Number of pre-generated inputs (power of two, see {@link #next(int)}).
+     */
+    static final int SIZE = 1024;
+    private static final float RANGE = 100f;
+    private static final long SEED = 20170822L;
+
+    /**
+     * Private constructor, only static methods.
+     */
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param index current index
+     * @return following index in [0, SIZE)
+     */
+    static int next(int index) {
+        return (index + 1) & (SIZE - 1);
+    }
+
+    static Random random() {
+        return new Random(SEED);
+    }
+
+    static float coordinate(Random random) {
+        return (random.nextFloat() - 0.5f) * 2 * RANGE;
+    }
+
+    static float angle(Random random) {
+        return MathFunctions.adjustAngleP((random.nextFloat() - 0.5f) * MathFunctions.PITIMES2);
+    }
+
+    static Point2D[] points2D() {
+        Random random = random();
+        Point2D[] points = new Point2D[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            points[i] = new Point2D(coordinate(random), coordinate(random));
+        }
+        return points;
+    }
+
+    static Point3D[] points3D() {
+        Random random = random();
+        Point3D[] points = new Point3D[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            points[i] = new Point3D(coordinate(random), coordinate(random), coordinate(random));
+        }
+        return points;
+    }
+
+    static Pose2D[] poses2D() {
+        Random random = random();
+        Pose2D[] poses = new Pose2D[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            poses[i] = new Pose2D(coordinate(random), coordinate(random), angle(random));
+        }
+        return poses;
+    }
+
+    static Pose3D[] poses3D() {
+        Random random = random();
+        Pose3D[] poses = new Pose3D[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            poses[i] = new Pose3D(coordinate(random), coordinate(random), coordinate(random),
+                    angle(random), angle(random) / 2, angle(random));
+        }
+        return poses;
+    }
+
+    static float[] angles() {
+        Random random = random();
+        float[] angles = new float[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            angles[i] = angle(random);
+        }
+        return angles;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2DNonSimmetric;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of obtaining the distance to the border of the rectangular shapes:
+ * table with 1º resolution, table with 0.1º resolution and interpolation, and the
+ * analytic calculation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BorderBenchmark {
+
+    @Param({"ShapeSquare2D", "ShapeSquare2DNonSimmetric"})
+    public String shapeName;
+
+    @Param({"table", "interpolated", "exact"})
+    public String mode;
+
+    private Shape2D shape;
+    private float[] angles;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        boolean exact = mode.equals("exact");
+        boolean interpolated = mode.equals("interpolated");
+        float resolution = interpolated ? 0.1f : 1f;
+        if (shapeName.equals("ShapeSquare2D")) {
+            ShapeSquare2D square = new ShapeSquare2D(2.5f, 0.5f, resolution, interpolated);
+            square.setExactBorder(exact);
+            shape = square;
+        } else {
+            ShapeSquare2DNonSimmetric square = new ShapeSquare2DNonSimmetric(0.5f, 0.25f, 2f, 0.25f, resolution, interpolated);
+            square.setExactBorder(exact);
+            shape = square;
+        }
+        angles = BenchmarkData.angles();
+        index = 0;
+    }
+
+    @Benchmark
+    public float borderDistanceAtRelativeAngle() {
+        index = BenchmarkData.next(index);
+        return shape.borderDistanceAtRelativeAngle(angles[index], 0f);
+    }
+
+}
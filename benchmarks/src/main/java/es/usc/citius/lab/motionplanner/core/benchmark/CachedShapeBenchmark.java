@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.shapes.CachedShape2D;
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vertices of a {@link ShapeSquare2D} at poses with the headings of a lattice, computed by
+ * the shape and served by a {@link CachedShape2D}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachedShapeBenchmark {
+
+    @Param({"16", "72"})
+    public int headings;
+
+    private Shape2D shape;
+    private CachedShape2D cached;
+    private Pose2D[] poses;
+    private float[] buffer;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        shape = new ShapeSquare2D(2.5f, 0.5f);
+        cached = new CachedShape2D(shape, headings);
+        Random random = BenchmarkData.random();
+        poses = new Pose2D[BenchmarkData.SIZE];
+        for (int i = 0; i < BenchmarkData.SIZE; i++) {
+            poses[i] = new Pose2D(BenchmarkData.coordinate(random), BenchmarkData.coordinate(random), cached.headingAt(random.nextInt(headings)));
+        }
+        buffer = new float[3 * shape.getVertexCount()];
+        index = 0;
+    }
+
+    @Benchmark
+    public Point[] vertexAt() {
+        index = BenchmarkData.next(index);
+        return shape.vertexAt(poses[index]);
+    }
+
+    @Benchmark
+    public Point[] cachedVertexAt() {
+        index = BenchmarkData.next(index);
+        return cached.vertexAt(poses[index]);
+    }
+
+    @Benchmark
+    public float[] vertexAtBuffer() {
+        index = BenchmarkData.next(index);
+        shape.vertexAt(poses[index], buffer, 0);
+        return buffer;
+    }
+
+    @Benchmark
+    public float[] cachedVertexAtBuffer() {
+        index = BenchmarkData.next(index);
+        cached.vertexAt(poses[index], buffer, 0);
+        return buffer;
+    }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.collision.ShapeCollision;
+import es.usc.citius.lab.motionplanner.core.shapes.Shape;
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose3D;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap test of {@link ShapeCollision} between two instances of each shape, placed at
+ * random poses close enough to pass the early-out of the bounding radius in most cases.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    private static final float RANGE = 2f;
+
+    @Param({"ShapeSquare2D", "ShapeSquare2DNonSimmetric", "ShapeCircle2D", "ShapeSphere3D", "ShapeRectangle3D"})
+    public String shapeName;
+
+    private Shape shape;
+    private Pose[] poses;
+    private ShapeCollision collision;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        shape = ShapeBenchmark.create(shapeName);
+        Random random = BenchmarkData.random();
+        poses = new Pose[BenchmarkData.SIZE];
+        for (int i = 0; i < BenchmarkData.SIZE; i++) {
+            float x = (random.nextFloat() - 0.5f) * RANGE;
+            float y = (random.nextFloat() - 0.5f) * RANGE;
+            if (shape instanceof Shape2D) {
+                poses[i] = new Pose2D(x, y, BenchmarkData.angle(random));
+            } else {
+                float z = (random.nextFloat() - 0.5f) * RANGE;
+                poses[i] = new Pose3D(x, y, z, BenchmarkData.angle(random), BenchmarkData.angle(random) / 2, BenchmarkData.angle(random));
+            }
+        }
+        collision = new ShapeCollision();
+        index = 0;
+    }
+
+    @Benchmark
+    public boolean collide() {
+        index = BenchmarkData.next(index);
+        return collision.collide(shape, poses[index], shape, poses[BenchmarkData.next(index)]);
+    }
+
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.grid.DistanceField2D;
+import es.usc.citius.lab.motionplanner.core.grid.OccupancyGrid2D;
+import es.usc.citius.lab.motionplanner.core.index.KdTree2D;
+import es.usc.citius.lab.motionplanner.core.index.ShapeClearance;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2D;
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of a {@link DistanceField2D} in one and several threads, and the clearance
+ * lookup compared with a {@link ShapeClearance} query over the same obstacles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceFieldBenchmark {
+
+    private static final float RESOLUTION = 0.1f;
+    private static final int CELLS = 2000;
+    private static final int OBSTACLES = 10000;
+
+    private OccupancyGrid2D grid;
+    private DistanceField2D field;
+    private ShapeClearance clearance;
+    private ShapeSquare2D shape;
+    private ExecutorService executor;
+    private Pose2D[] poses;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        grid = new OccupancyGrid2D(-CELLS / 2, -CELLS / 2, CELLS, CELLS, RESOLUTION, RESOLUTION);
+        PointCloud2D obstacles = new PointCloud2D(OBSTACLES);
+        for (int i = 0; i < OBSTACLES; i++) {
+            int x = random.nextInt(CELLS), y = random.nextInt(CELLS);
+            grid.set(x, y);
+            obstacles.add((x + grid.getMinCellX()) * RESOLUTION, (y + grid.getMinCellY()) * RESOLUTION);
+        }
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        field = new DistanceField2D(grid);
+        shape = new ShapeSquare2D(2f, 1f);
+        clearance = new ShapeClearance(new KdTree2D(obstacles), shape);
+        poses = BenchmarkData.poses2D();
+        index = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public DistanceField2D build() {
+        return new DistanceField2D(grid);
+    }
+
+    @Benchmark
+    public DistanceField2D buildParallel() {
+        return new DistanceField2D(grid, executor);
+    }
+
+    @Benchmark
+    public boolean fieldCheck() {
+        index = BenchmarkData.next(index);
+        return field.certainlyFree(shape, poses[index]);
+    }
+
+    @Benchmark
+    public float clearanceQuery() {
+        index = BenchmarkData.next(index);
+        return clearance.clearance(poses[index]);
+    }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.index.KdTree2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud2D;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest obstacle to a query point, scanning all the obstacles of a {@link PointCloud2D}
+ * and using a {@link KdTree2D}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KdTreeBenchmark {
+
+    @Param({"1000", "100000"})
+    public int obstacles;
+
+    private PointCloud2D cloud;
+    private KdTree2D tree;
+    private Point2D[] queries;
+    private int[] indexes;
+    private float[] distances;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        cloud = new PointCloud2D(obstacles);
+        for (int i = 0; i < obstacles; i++) {
+            cloud.add(BenchmarkData.coordinate(random), BenchmarkData.coordinate(random));
+        }
+        tree = new KdTree2D(cloud);
+        queries = BenchmarkData.points2D();
+        indexes = new int[8];
+        distances = new float[8];
+        index = 0;
+    }
+
+    @Benchmark
+    public int linearNearest() {
+        index = BenchmarkData.next(index);
+        return cloud.nearest(queries[index].x, queries[index].y);
+    }
+
+    @Benchmark
+    public int treeNearest() {
+        index = BenchmarkData.next(index);
+        return tree.nearest(queries[index].x, queries[index].y);
+    }
+
+    @Benchmark
+    public int treeKNearest() {
+        index = BenchmarkData.next(index);
+        return tree.kNearest(queries[index].x, queries[index].y, indexes.length, indexes, distances);
+    }
+
+    @Benchmark
+    public KdTree2D build() {
+        return new KdTree2D(cloud);
+    }
+
+}
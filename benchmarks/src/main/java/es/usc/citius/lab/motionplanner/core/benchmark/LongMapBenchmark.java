@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.collections.LongFloatMap;
+import es.usc.citius.lab.motionplanner.core.lattice.PointAdapter2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costs of the nodes of a search stored in a {@link HashMap} keyed by adapted {@link Point2D}
+ * and in a {@link LongFloatMap} keyed by the packed keys of {@link PointAdapter2D}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongMapBenchmark {
+
+    private PointAdapter2D adapter;
+    private Point2D[] points;
+    private Map<Point, Float> objectMap;
+    private LongFloatMap longMap;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        adapter = new PointAdapter2D(0.1f, 0.1f);
+        points = BenchmarkData.points2D();
+        objectMap = new HashMap<Point, Float>();
+        longMap = new LongFloatMap();
+        for (int i = 0; i < points.length; i += 2) {
+            objectMap.put(adapter.adaptNodeID(points[i]), (float) i);
+            longMap.put(adapter.keyOf(points[i]), i);
+        }
+        index = 0;
+    }
+
+    @Benchmark
+    public Float objectGet() {
+        index = BenchmarkData.next(index);
+        return objectMap.get(adapter.adaptNodeID(points[index]));
+    }
+
+    @Benchmark
+    public float longGet() {
+        index = BenchmarkData.next(index);
+        return longMap.get(adapter.keyOf(points[index]));
+    }
+
+    @Benchmark
+    public Map<Point, Float> objectFill() {
+        Map<Point, Float> map = new HashMap<Point, Float>();
+        for (int i = 0; i < points.length; i++) {
+            map.put(adapter.adaptNodeID(points[i]), (float) i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public LongFloatMap longFill() {
+        LongFloatMap map = new LongFloatMap();
+        for (int i = 0; i < points.length; i++) {
+            map.put(adapter.keyOf(points[i]), i);
+        }
+        return map;
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import es.usc.citius.lab.motionplanner.core.util.MathKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of each {@link MathKernel} for the trigonometric functions, and of the rotations
+ * and distances of the spatial classes with the kernel selected in {@link MathFunctions}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathKernelBenchmark {
+
+    @Param({"EXACT", "TABLE", "POLYNOMIAL"})
+    public String kernelName;
+
+    private MathKernel kernel;
+    private float[] angles;
+    private Point2D[] points;
+    private Pose2D[] poses;
+    private double[] out;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        kernel = MathKernel.valueOf(kernelName);
+        MathFunctions.setKernel(kernel);
+        angles = BenchmarkData.angles();
+        points = BenchmarkData.points2D();
+        poses = BenchmarkData.poses2D();
+        out = new double[2];
+        index = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        MathFunctions.setKernel(MathKernel.EXACT);
+    }
+
+    @Benchmark
+    public double sin() {
+        index = BenchmarkData.next(index);
+        return kernel.sin(angles[index]);
+    }
+
+    @Benchmark
+    public double cos() {
+        index = BenchmarkData.next(index);
+        return kernel.cos(angles[index]);
+    }
+
+    @Benchmark
+    public double[] sinCos() {
+        index = BenchmarkData.next(index);
+        kernel.sinCos(angles[index], out);
+        return out;
+    }
+
+    @Benchmark
+    public double atan2() {
+        index = BenchmarkData.next(index);
+        Point2D point = points[index];
+        return kernel.atan2(point.y, point.x);
+    }
+
+    @Benchmark
+    public double hypot() {
+        index = BenchmarkData.next(index);
+        Point2D point = points[index];
+        return kernel.hypot(point.x, point.y);
+    }
+
+    @Benchmark
+    public Point2D rotatePoint2D() {
+        index = BenchmarkData.next(index);
+        return points[index].rotate(angles[index], 0f, 0f);
+    }
+
+    @Benchmark
+    public float relativeYawTo() {
+        index = BenchmarkData.next(index);
+        return poses[index].relativeYawTo(points[index]);
+    }
+}
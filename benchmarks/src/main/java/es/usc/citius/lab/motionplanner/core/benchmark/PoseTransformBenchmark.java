@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Transform2D;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transformation of {@link BenchmarkData#SIZE} points to the frame of a pose, point by
+ * point with {@link Point2D#rotate(float, float, float)} and {@link Point2D#add(es.usc.citius.lab.motionplanner.core.spatial.Point)},
+ * and in batch with {@link Transform2D} over separate and packed coordinate arrays. Scores are
+ * given per point.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoseTransformBenchmark {
+
+    private Point2D[] points;
+    private Pose2D[] poses;
+    private float[] xs, ys, outXs, outYs;
+    private float[] packed, outPacked;
+    private Transform2D transform;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        points = BenchmarkData.points2D();
+        poses = BenchmarkData.poses2D();
+        xs = new float[BenchmarkData.SIZE];
+        ys = new float[BenchmarkData.SIZE];
+        outXs = new float[BenchmarkData.SIZE];
+        outYs = new float[BenchmarkData.SIZE];
+        packed = new float[2 * BenchmarkData.SIZE];
+        outPacked = new float[2 * BenchmarkData.SIZE];
+        for (int i = 0; i < BenchmarkData.SIZE; i++) {
+            xs[i] = points[i].x;
+            ys[i] = points[i].y;
+            packed[2 * i] = points[i].x;
+            packed[2 * i + 1] = points[i].y;
+        }
+        transform = new Transform2D();
+        index = 0;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkData.SIZE)
+    public void rotateAndAdd(Blackhole blackhole) {
+        index = BenchmarkData.next(index);
+        Pose2D pose = poses[index];
+        for (int i = 0; i < points.length; i++) {
+            blackhole.consume(points[i].rotate(pose.yaw, 0f, 0f).add(pose));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkData.SIZE)
+    public float[] batchTransform() {
+        index = BenchmarkData.next(index);
+        transform.set(poses[index]).apply(xs, ys, outXs, outYs, 0, xs.length);
+        return outXs;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkData.SIZE)
+    public float[] packedTransform() {
+        index = BenchmarkData.next(index);
+        System.arraycopy(packed, 0, outPacked, 0, packed.length);
+        transform.set(poses[index]).applyPacked(outPacked, 0, BenchmarkData.SIZE);
+        return outPacked;
+    }
+
+    @Benchmark
+    public Transform2D relativeTransform() {
+        int reference = index;
+        index = BenchmarkData.next(index);
+        return Transform2D.relative(poses[reference], poses[index]);
+    }
+
+}
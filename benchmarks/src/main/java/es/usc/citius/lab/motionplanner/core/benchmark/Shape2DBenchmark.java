@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import org.ejml.data.FixedMatrix2x2_64F;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the methods only available in {@link Shape2D}, for every concrete 2D shape.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Shape2DBenchmark {
+
+    @Param({"ShapeSquare2D", "ShapeSquare2DNonSimmetric", "ShapeCircle2D"})
+    public String shapeName;
+
+    private Shape2D shape;
+    private Pose2D[] poses;
+    private Point2D[] points;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        shape = (Shape2D) ShapeBenchmark.create(shapeName);
+        poses = BenchmarkData.poses2D();
+        points = BenchmarkData.points2D();
+        index = 0;
+    }
+
+    @Benchmark
+    public double[][] distanceVectorToPoint() {
+        index = BenchmarkData.next(index);
+        return shape.distanceVectorToPoint(poses[index], points[index]);
+    }
+
+    @Benchmark
+    public FixedMatrix2x2_64F axesMatrix2DAt() {
+        index = BenchmarkData.next(index);
+        return shape.axesMatrix2DAt(poses[index]);
+    }
+
+}
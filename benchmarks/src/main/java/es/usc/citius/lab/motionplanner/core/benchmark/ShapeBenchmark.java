@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.shapes.*;
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import es.usc.citius.lab.motionplanner.core.spatial.Vector3D;
+import org.ejml.data.FixedMatrix3x3_64F;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the methods of {@link Shape} for every concrete shape of the library.
+ * 2D shapes are evaluated with random {@link es.usc.citius.lab.motionplanner.core.spatial.Pose2D},
+ * and 3D shapes with random {@link es.usc.citius.lab.motionplanner.core.spatial.Pose3D}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShapeBenchmark {
+
+    @Param({"ShapeSquare2D", "ShapeSquare2DNonSimmetric", "ShapeCircle2D", "ShapeSphere3D", "ShapeRectangle3D"})
+    public String shapeName;
+
+    private Shape shape;
+    private Pose[] poses;
+    private float[] angles;
+    private float[] buffer;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        shape = create(shapeName);
+        poses = shape instanceof Shape2D ? BenchmarkData.poses2D() : BenchmarkData.poses3D();
+        angles = BenchmarkData.angles();
+        buffer = new float[3 * Math.max(shape.getVertexCount(), shape.getAxisCount())];
+        index = 0;
+    }
+
+    /**
+     * Instantiates the shapes with the dimensions of a small vehicle.
+     *
+     * @param name simple name of the class of the shape
+     * @return shape instance
+     */
+    static Shape create(String name) {
+        if (name.equals("ShapeSquare2D")) {
+            return new ShapeSquare2D(2.5f, 0.5f);
+        } else if (name.equals("ShapeSquare2DNonSimmetric")) {
+            return new ShapeSquare2DNonSimmetric(0.5f, 0.25f, 2f, 0.25f);
+        } else if (name.equals("ShapeCircle2D")) {
+            return new ShapeCircle2D(1.25f);
+        } else if (name.equals("ShapeSphere3D")) {
+            return new ShapeSphere3D(1.25f);
+        } else if (name.equals("ShapeRectangle3D")) {
+            return new ShapeRectangle3D(2.5f, 0.5f, 0.5f);
+        }
+        throw new IllegalArgumentException("unknown shape " + name);
+    }
+
+    @Benchmark
+    public Point[] vertexAt() {
+        index = BenchmarkData.next(index);
+        return shape.vertexAt(poses[index]);
+    }
+
+    @Benchmark
+    public float[] vertexAtBuffer() {
+        index = BenchmarkData.next(index);
+        shape.vertexAt(poses[index], buffer, 0);
+        return buffer;
+    }
+
+    @Benchmark
+    public Vector3D[] axisAt() {
+        index = BenchmarkData.next(index);
+        return shape.axisAt(poses[index]);
+    }
+
+    @Benchmark
+    public float[] axisAtBuffer() {
+        index = BenchmarkData.next(index);
+        shape.axisAt(poses[index], buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public FixedMatrix3x3_64F axesMatrixAt() {
+        index = BenchmarkData.next(index);
+        return shape.axesMatrixAt(poses[index]);
+    }
+
+    @Benchmark
+    public float borderDistanceAtRelativeAngle() {
+        index = BenchmarkData.next(index);
+        return shape.borderDistanceAtRelativeAngle(angles[index], 0f);
+    }
+
+    @Benchmark
+    public Point borderPointAtRelativeAngle() {
+        index = BenchmarkData.next(index);
+        return shape.borderPointAtRelativeAngle(angles[index], 0f);
+    }
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Quaternion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the basic operations (rotate, add, distance) of {@link Point2D},
+ * {@link Point3D} and {@link Pose3D}, and of the rotations by the angles of a pose
+ * compared with its cached {@link Quaternion}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialBenchmark {
+
+    private Point2D[] points2D;
+    private Point3D[] points3D;
+    private Pose3D[] poses3D;
+    private float[] angles;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        points2D = BenchmarkData.points2D();
+        points3D = BenchmarkData.points3D();
+        poses3D = BenchmarkData.poses3D();
+        angles = BenchmarkData.angles();
+        index = 0;
+    }
+
+    @Benchmark
+    public Point2D point2DRotate() {
+        index = BenchmarkData.next(index);
+        return points2D[index].rotate(angles[index], 0f, 0f);
+    }
+
+    @Benchmark
+    public Point2D point2DAdd() {
+        index = BenchmarkData.next(index);
+        return points2D[index].add(points2D[BenchmarkData.next(index)]);
+    }
+
+    @Benchmark
+    public float point2DDistance() {
+        index = BenchmarkData.next(index);
+        return points2D[index].distance(points2D[BenchmarkData.next(index)]);
+    }
+
+    @Benchmark
+    public Point3D point3DRotate() {
+        index = BenchmarkData.next(index);
+        return points3D[index].rotate(angles[index], angles[BenchmarkData.next(index)] / 2, 0f);
+    }
+
+    @Benchmark
+    public Point3D point3DAdd() {
+        index = BenchmarkData.next(index);
+        return points3D[index].add(points3D[BenchmarkData.next(index)]);
+    }
+
+    @Benchmark
+    public float point3DDistance() {
+        index = BenchmarkData.next(index);
+        return points3D[index].distance(points3D[BenchmarkData.next(index)]);
+    }
+
+    @Benchmark
+    public Pose3D pose3DRotate() {
+        index = BenchmarkData.next(index);
+        return poses3D[index].rotate(angles[index], angles[BenchmarkData.next(index)] / 2, 0f);
+    }
+
+    @Benchmark
+    public Point3D point3DRotateByPoseAngles() {
+        index = BenchmarkData.next(index);
+        Pose3D pose = poses3D[index & 7];
+        return points3D[index].rotate(pose.yaw, pose.pitch, pose.roll);
+    }
+
+    @Benchmark
+    public Point3D point3DRotateByPoseOrientation() {
+        index = BenchmarkData.next(index);
+        return points3D[index].rotate(poses3D[index & 7].getOrientation());
+    }
+
+    @Benchmark
+    public Pose3D pose3DRotateQuaternion() {
+        index = BenchmarkData.next(index);
+        return poses3D[index].rotate(poses3D[BenchmarkData.next(index)].getOrientation());
+    }
+
+    @Benchmark
+    public Pose3D pose3DAdd() {
+        index = BenchmarkData.next(index);
+        return poses3D[index].add(points3D[index]);
+    }
+
+    @Benchmark
+    public float pose3DDistance() {
+        index = BenchmarkData.next(index);
+        return poses3D[index].distance(points3D[index]);
+    }
+
+}
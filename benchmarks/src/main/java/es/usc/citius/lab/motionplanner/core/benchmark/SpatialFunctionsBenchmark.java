@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import es.usc.citius.lab.motionplanner.core.spatial.SpatialFunctions;
+import es.usc.citius.lab.motionplanner.core.spatial.Vector3D;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the intersection methods of {@link SpatialFunctions}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialFunctionsBenchmark {
+
+    private static final Vector3D NORMAL = new Vector3D(0.267f, 0.535f, 0.802f);
+
+    private Point2D[] points2D;
+    private Point3D[] points3D;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        points2D = BenchmarkData.points2D();
+        points3D = BenchmarkData.points3D();
+        index = 0;
+    }
+
+    @Benchmark
+    public Point3D intersectionBetweenLineAndPlane() {
+        index = BenchmarkData.next(index);
+        return SpatialFunctions.intersectionBetweenLineAndPlane(points3D[index], points3D[BenchmarkData.next(index)], NORMAL, 1f);
+    }
+
+    @Benchmark
+    public Point2D getLineLineIntersection() {
+        int a1 = BenchmarkData.next(index);
+        int a2 = BenchmarkData.next(a1);
+        int b1 = BenchmarkData.next(a2);
+        index = BenchmarkData.next(b1);
+        return SpatialFunctions.getLineLineIntersection(points2D[a1], points2D[a2], points2D[b1], points2D[index]);
+    }
+
+}
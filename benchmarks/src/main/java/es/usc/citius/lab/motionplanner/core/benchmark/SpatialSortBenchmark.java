@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.benchmark;
+
+import es.usc.citius.lab.motionplanner.core.index.KdTree2D;
+import es.usc.citius.lab.motionplanner.core.index.SpatialSort;
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud2D;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of sorting a {@link PointCloud2D} along the Morton and Hilbert curves, and construction of
+ * a {@link KdTree2D} from the unsorted and the sorted clouds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialSortBenchmark {
+
+    private static final float RESOLUTION = 0.1f;
+
+    @Param({"100000"})
+    public int points;
+
+    private PointCloud2D unsorted;
+    private PointCloud2D sorted;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        unsorted = new PointCloud2D(points);
+        for (int i = 0; i < points; i++) {
+            unsorted.add(BenchmarkData.coordinate(random), BenchmarkData.coordinate(random));
+        }
+        sorted = new PointCloud2D(unsorted.toList());
+        SpatialSort.sortHilbert(sorted, RESOLUTION, RESOLUTION);
+    }
+
+    @Benchmark
+    public int[] sortMorton() {
+        return SpatialSort.argsort(SpatialSort.mortonCodes(unsorted, RESOLUTION, RESOLUTION));
+    }
+
+    @Benchmark
+    public int[] sortHilbert() {
+        return SpatialSort.argsort(SpatialSort.hilbertCodes(unsorted, RESOLUTION, RESOLUTION));
+    }
+
+    @Benchmark
+    public KdTree2D buildUnsorted() {
+        return new KdTree2D(unsorted);
+    }
+
+    @Benchmark
+    public KdTree2D buildSorted() {
+        return new KdTree2D(sorted);
+    }
+
+}
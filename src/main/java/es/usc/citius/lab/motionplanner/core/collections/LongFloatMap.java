@@ -0,0 +1,259 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.collections;
+
+import java.util.Arrays;
+
+/**
+ * Map from primitive {@code long} keys to {@code float} values, with the same open addressing
+ * table than {@link LongSet}. Missing keys are reported with a configurable value, NaN by
+ * default, so lookups do not allocate.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class LongFloatMap {
+
+    private long[] keys;
+    private float[] values;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private boolean containsZero;
+    private float zeroValue;
+    private final float noEntryValue;
+
+    public LongFloatMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize number of entries to store without resizing
+     */
+    public LongFloatMap(int expectedSize) {
+        this(expectedSize, Float.NaN);
+    }
+
+    /**
+     * @param expectedSize number of entries to store without resizing
+     * @param noEntryValue value returned for the keys not in the map
+     */
+    public LongFloatMap(int expectedSize, float noEntryValue) {
+        this.noEntryValue = noEntryValue;
+        allocate(LongHashing.capacityFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new float[capacity];
+        this.mask = capacity - 1;
+        this.maxFill = LongHashing.maxFill(capacity);
+    }
+
+    /**
+     * @param key key to search
+     * @return slot of the key, or -1 if it is not in the table (or it is 0)
+     */
+    private int find(long key) {
+        int slot = LongHashing.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @param key key to search
+     * @return value of the key, or the value for missing keys
+     */
+    public float get(long key) {
+        return get(key, noEntryValue);
+    }
+
+    /**
+     * @param key key to search
+     * @param defaultValue value returned if the key is not in the map
+     * @return value of the key, or the default value
+     */
+    public float get(long key, float defaultValue) {
+        if (key == 0) {
+            return containsZero ? zeroValue : defaultValue;
+        }
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? containsZero : find(key) >= 0;
+    }
+
+    /**
+     * @param key key of the entry
+     * @param value new value of the key
+     * @return previous value of the key, or the value for missing keys
+     */
+    public float put(long key, float value) {
+        if (key == 0) {
+            float previous = containsZero ? zeroValue : noEntryValue;
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        int slot = LongHashing.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                float previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= maxFill) {
+            rehash(keys.length * 2);
+        }
+        return noEntryValue;
+    }
+
+    /**
+     * Stores a value only if the key is not in the map or its current value is greater, as when
+     * relaxing the cost of the nodes of a search.
+     *
+     * @param key key of the entry
+     * @param value candidate value of the key
+     * @return true if the value was stored
+     */
+    public boolean putIfLess(long key, float value) {
+        if (key == 0) {
+            if (containsZero && !(value < zeroValue)) {
+                return false;
+            }
+            put(0L, value);
+            return true;
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            if (!(value < values[slot])) {
+                return false;
+            }
+            values[slot] = value;
+            return true;
+        }
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * @param key key of the entry
+     * @return value of the removed key, or the value for missing keys
+     */
+    public float remove(long key) {
+        if (key == 0) {
+            if (!containsZero) {
+                return noEntryValue;
+            }
+            containsZero = false;
+            size--;
+            return zeroValue;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return noEntryValue;
+        }
+        float previous = values[slot];
+        shiftKeys(slot);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Fills the slot of a removed key moving back the following keys of its cluster which
+     * are not in their ideal slot.
+     */
+    private void shiftKeys(int gap) {
+        int slot = (gap + 1) & mask;
+        while (keys[slot] != 0) {
+            int ideal = LongHashing.mix(keys[slot]) & mask;
+            if (((slot - ideal) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[gap] = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        float[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = LongHashing.mix(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Removes all the entries, keeping the capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        containsZero = false;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public float getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /**
+     * @return new array with the keys of the map, in no particular order
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        int n = 0;
+        if (containsZero) {
+            result[n++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+}
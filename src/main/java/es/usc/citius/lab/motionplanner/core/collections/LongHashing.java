@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.collections;
+
+/**
+ * Hashing functions shared by the open addressing tables of {@code long} keys.
+ */
+final class LongHashing {
+
+    /**
+     * Maximum ratio between the number of keys and the capacity of the tables.
+     */
+    static final float LOAD_FACTOR = 0.5f;
+    static final int MIN_CAPACITY = 8;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Private constructor, only static methods.
+     */
+    private LongHashing() {
+    }
+
+    /**
+     * Finalization step of MurmurHash3: every bit of the key affects the lowest bits of the
+     * hash, which are the ones used to index the tables. Keys with structure in their highest
+     * bits, such as Morton codes of nearby cells, are then spread across the table.
+     *
+     * @param key key to hash
+     * @return mixed key
+     */
+    static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * @param expectedSize number of keys to store without resizing
+     * @return power of two capacity of the table
+     */
+    static int capacityFor(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expected size must not be negative: " + expectedSize);
+        }
+        long required = (long) Math.ceil(expectedSize / LOAD_FACTOR);
+        if (required > MAX_CAPACITY) {
+            throw new IllegalArgumentException("expected size too large: " + expectedSize);
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < required) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * @param capacity capacity of the table
+     * @return number of keys which trigger the resize of the table
+     */
+    static int maxFill(int capacity) {
+        return (int) (capacity * LOAD_FACTOR);
+    }
+}
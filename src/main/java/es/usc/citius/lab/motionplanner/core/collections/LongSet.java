@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.collections;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive {@code long} values, stored in an open addressing table with linear probing
+ * and power of two capacity. The keys are hashed with {@link LongHashing#mix(long)}, so keys with
+ * structure such as the ones of {@link es.usc.citius.lab.motionplanner.core.lattice.PackedKeyAdapter}
+ * are spread across the table. The key 0 marks the empty slots, and it is stored apart.
+ * Removals shift back the following keys of the cluster instead of leaving markers.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class LongSet {
+
+    private long[] keys;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private boolean containsZero;
+
+    public LongSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize number of values to store without resizing
+     */
+    public LongSet(int expectedSize) {
+        allocate(LongHashing.capacityFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+        this.maxFill = LongHashing.maxFill(capacity);
+    }
+
+    /**
+     * @param key value to add
+     * @return true if the value was not in the set
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int slot = LongHashing.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size >= maxFill) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * @param key value to check
+     * @return true if the value is in the set
+     */
+    public boolean contains(long key) {
+        if (key == 0) {
+            return containsZero;
+        }
+        int slot = LongHashing.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @param key value to remove
+     * @return true if the value was in the set
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int slot = LongHashing.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                shiftKeys(slot);
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Fills the slot of a removed key moving back the following keys of its cluster which
+     * are not in their ideal slot.
+     */
+    private void shiftKeys(int gap) {
+        int slot = (gap + 1) & mask;
+        while (keys[slot] != 0) {
+            int ideal = LongHashing.mix(keys[slot]) & mask;
+            if (((slot - ideal) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[gap] = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = keys;
+        allocate(capacity);
+        for (long key : old) {
+            if (key != 0) {
+                int slot = LongHashing.mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    /**
+     * Removes all the values, keeping the capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        containsZero = false;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return new array with the values of the set, in no particular order
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int n = 0;
+        if (containsZero) {
+            result[n++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+}
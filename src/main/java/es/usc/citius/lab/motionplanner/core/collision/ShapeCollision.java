@@ -0,0 +1,317 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.collision;
+
+import es.usc.citius.lab.motionplanner.core.shapes.CachedShape2D;
+import es.usc.citius.lab.motionplanner.core.shapes.Shape;
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.shapes.Shape3D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeCircle2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeRectangle3D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSphere3D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2DNonSimmetric;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Overlap test between two shapes placed at given poses. Rectangles and cuboids are
+ * treated as oriented boxes and tested with the Separating Axis Theorem (4 axes in 2D,
+ * 15 in 3D); circles and spheres are tested by the distance from their center to the other
+ * shape. Before the exact test, the shapes are discarded if their centers are farther than
+ * the sum of their {@link Shape#getMaxRadius()}.
+ *
+ * The supported combinations are those of {@link ShapeSquare2D}, {@link ShapeSquare2DNonSimmetric}
+ * and {@link ShapeCircle2D} among them, and those of {@link ShapeRectangle3D} and {@link ShapeSphere3D}
+ * among them, also when they are decorated by {@link CachedShape2D}. Shapes in contact are
+ * considered in collision.
+ *
+ * The tests work with primitive values and do not allocate any object. The rotations of
+ * the cuboids are stored in the instance, so each thread must use its own {@link ShapeCollision}.
+ */
+public class ShapeCollision {
+
+    /**
+     * Value added to the absolute values of the rotation between cuboids, to avoid
+     * numerical errors in the axes given by the cross product of parallel edges.
+     */
+    private static final double EPSILON = 1E-6;
+
+    //rotation matrices (row-major) and half dimensions of the cuboids being tested
+    private final double[] rotationA = new double[9];
+    private final double[] rotationB = new double[9];
+    private final double[] halfA = new double[3];
+    private final double[] halfB = new double[3];
+    //rotation of B in the frame of A, its absolute values and the translation in the frame of A
+    private final double[] relative = new double[9];
+    private final double[] absRelative = new double[9];
+    private final double[] translation = new double[3];
+
+    /**
+     * Checks if two shapes overlap.
+     *
+     * @param shapeA first shape
+     * @param poseA pose of the first shape
+     * @param shapeB second shape
+     * @param poseB pose of the second shape
+     * @return true if the shapes overlap or are in contact
+     * @throws IllegalArgumentException if the combination of shapes is not supported
+     */
+    public boolean collide(Shape shapeA, Pose poseA, Shape shapeB, Pose poseB) {
+        //the decorated shapes have the same geometry
+        if (shapeA instanceof CachedShape2D) {
+            shapeA = ((CachedShape2D) shapeA).getShape();
+        }
+        if (shapeB instanceof CachedShape2D) {
+            shapeB = ((CachedShape2D) shapeB).getShape();
+        }
+        if (shapeA instanceof Shape2D && shapeB instanceof Shape2D) {
+            return collide2D((Shape2D) shapeA, poseA, (Shape2D) shapeB, poseB);
+        } else if (shapeA instanceof Shape3D && shapeB instanceof Shape3D) {
+            return collide3D((Shape3D) shapeA, poseA, (Shape3D) shapeB, poseB);
+        }
+        throw new IllegalArgumentException("collision between " + shapeA.getClass().getSimpleName()
+                + " and " + shapeB.getClass().getSimpleName() + " is not supported");
+    }
+
+    /************************************************************************
+     *                                2D
+     ************************************************************************/
+
+    private boolean collide2D(Shape2D shapeA, Pose poseA, Shape2D shapeB, Pose poseB) {
+        //early out with the bounding circles
+        float dx = poseB.getX() - poseA.getX();
+        float dy = poseB.getY() - poseA.getY();
+        float bound = shapeA.getMaxRadius() + shapeB.getMaxRadius();
+        if (dx * dx + dy * dy > bound * bound) {
+            return false;
+        }
+        boolean circleA = shapeA instanceof ShapeCircle2D;
+        boolean circleB = shapeB instanceof ShapeCircle2D;
+        if (circleA && circleB) {
+            //bounding circles are the shapes
+            return true;
+        } else if (circleA) {
+            return circleBox2D(poseA.getX(), poseA.getY(), ((ShapeCircle2D) shapeA).getRadius(), shapeB, poseB);
+        } else if (circleB) {
+            return circleBox2D(poseB.getX(), poseB.getY(), ((ShapeCircle2D) shapeB).getRadius(), shapeA, poseA);
+        }
+        //box against box: frames of both shapes
+        float yawA = poseA.getYaw(), yawB = poseB.getYaw();
+        float cosA = (float) FastMath.cos(yawA), sinA = (float) FastMath.sin(yawA);
+        float cosB = (float) FastMath.cos(yawB), sinB = (float) FastMath.sin(yawB);
+        float halfXA = halfX2D(shapeA), halfYA = halfY2D(shapeA);
+        float halfXB = halfX2D(shapeB), halfYB = halfY2D(shapeB);
+        float offsetXA = offsetX2D(shapeA), offsetYA = offsetY2D(shapeA);
+        float offsetXB = offsetX2D(shapeB), offsetYB = offsetY2D(shapeB);
+        //vector between the centers of the boxes
+        float tx = dx + cosB * offsetXB - sinB * offsetYB - cosA * offsetXA + sinA * offsetYA;
+        float ty = dy + sinB * offsetXB + cosB * offsetYB - sinA * offsetXA - cosA * offsetYA;
+        //rotation of B in the frame of A: cosine and sine of the difference of angles
+        float cos = cosA * cosB + sinA * sinB;
+        float sin = cosA * sinB - sinA * cosB;
+        float absCos = FastMath.abs(cos), absSin = FastMath.abs(sin);
+        //axes of A
+        float tA = cosA * tx + sinA * ty;
+        if (FastMath.abs(tA) > halfXA + halfXB * absCos + halfYB * absSin) {
+            return false;
+        }
+        tA = -sinA * tx + cosA * ty;
+        if (FastMath.abs(tA) > halfYA + halfXB * absSin + halfYB * absCos) {
+            return false;
+        }
+        //axes of B
+        float tB = cosB * tx + sinB * ty;
+        if (FastMath.abs(tB) > halfXB + halfXA * absCos + halfYA * absSin) {
+            return false;
+        }
+        tB = -sinB * tx + cosB * ty;
+        return FastMath.abs(tB) <= halfYB + halfXA * absSin + halfYA * absCos;
+    }
+
+    /**
+     * Circle against the rectangle of a 2D shape: distance from the center of the circle
+     * to the closest point of the rectangle.
+     */
+    private static boolean circleBox2D(float x, float y, float radius, Shape2D box, Pose pose) {
+        float yaw = pose.getYaw();
+        return box.distanceToPoint(pose.getX(), pose.getY(), (float) FastMath.cos(yaw), (float) FastMath.sin(yaw), x, y) <= radius;
+    }
+
+    private static float halfX2D(Shape2D shape) {
+        if (shape instanceof ShapeSquare2D) {
+            return ((ShapeSquare2D) shape).getDimX() / 2;
+        } else if (shape instanceof ShapeSquare2DNonSimmetric) {
+            ShapeSquare2DNonSimmetric square = (ShapeSquare2DNonSimmetric) shape;
+            return (square.getPositiveX() + square.getNegativeX()) / 2;
+        }
+        throw new IllegalArgumentException("collision with " + shape.getClass().getSimpleName() + " is not supported");
+    }
+
+    private static float halfY2D(Shape2D shape) {
+        if (shape instanceof ShapeSquare2DNonSimmetric) {
+            ShapeSquare2DNonSimmetric square = (ShapeSquare2DNonSimmetric) shape;
+            return (square.getPositiveY() + square.getNegativeY()) / 2;
+        }
+        return ((ShapeSquare2D) shape).getDimY() / 2;
+    }
+
+    /**
+     * Position of the center of the box in the frame of the shape.
+     */
+    private static float offsetX2D(Shape2D shape) {
+        if (shape instanceof ShapeSquare2DNonSimmetric) {
+            ShapeSquare2DNonSimmetric square = (ShapeSquare2DNonSimmetric) shape;
+            return (square.getPositiveX() - square.getNegativeX()) / 2;
+        }
+        return 0f;
+    }
+
+    private static float offsetY2D(Shape2D shape) {
+        if (shape instanceof ShapeSquare2DNonSimmetric) {
+            ShapeSquare2DNonSimmetric square = (ShapeSquare2DNonSimmetric) shape;
+            return (square.getPositiveY() - square.getNegativeY()) / 2;
+        }
+        return 0f;
+    }
+
+    /************************************************************************
+     *                                3D
+     ************************************************************************/
+
+    private boolean collide3D(Shape3D shapeA, Pose poseA, Shape3D shapeB, Pose poseB) {
+        checkSupported3D(shapeA);
+        checkSupported3D(shapeB);
+        //early out with the bounding spheres
+        float dx = poseB.getX() - poseA.getX();
+        float dy = poseB.getY() - poseA.getY();
+        float dz = poseB.getZ() - poseA.getZ();
+        float bound = shapeA.getMaxRadius() + shapeB.getMaxRadius();
+        if (dx * dx + dy * dy + dz * dz > bound * bound) {
+            return false;
+        }
+        boolean sphereA = shapeA instanceof ShapeSphere3D;
+        boolean sphereB = shapeB instanceof ShapeSphere3D;
+        if (sphereA && sphereB) {
+            return true;
+        } else if (sphereA) {
+            return sphereBox3D(-dx, -dy, -dz, ((ShapeSphere3D) shapeA).getRadius(), (ShapeRectangle3D) shapeB, poseB);
+        } else if (sphereB) {
+            return sphereBox3D(dx, dy, dz, ((ShapeSphere3D) shapeB).getRadius(), (ShapeRectangle3D) shapeA, poseA);
+        }
+        return boxBox3D((ShapeRectangle3D) shapeA, poseA, (ShapeRectangle3D) shapeB, poseB, dx, dy, dz);
+    }
+
+    private static void checkSupported3D(Shape3D shape) {
+        if (!(shape instanceof ShapeSphere3D) && !(shape instanceof ShapeRectangle3D)) {
+            throw new IllegalArgumentException("collision with " + shape.getClass().getSimpleName() + " is not supported");
+        }
+    }
+
+    /**
+     * Sphere against cuboid: distance from the center of the sphere, given relative to the
+     * center of the cuboid, to the closest point of the cuboid.
+     */
+    private boolean sphereBox3D(float dx, float dy, float dz, float radius, ShapeRectangle3D box, Pose pose) {
+        rotation(pose, rotationA);
+        double[] r = rotationA;
+        //center of the sphere in the frame of the cuboid (transposed rotation)
+        double localX = r[0] * dx + r[3] * dy + r[6] * dz;
+        double localY = r[1] * dx + r[4] * dy + r[7] * dz;
+        double localZ = r[2] * dx + r[5] * dy + r[8] * dz;
+        double outX = FastMath.max(FastMath.abs(localX) - box.distanceToCentroidX(), 0);
+        double outY = FastMath.max(FastMath.abs(localY) - box.distanceToCentroidY(), 0);
+        double outZ = FastMath.max(FastMath.abs(localZ) - box.distanceToCentroidZ(), 0);
+        return outX * outX + outY * outY + outZ * outZ <= radius * radius;
+    }
+
+    /**
+     * Cuboid against cuboid, testing the 15 separating axes of two oriented boxes: the
+     * 3 faces of each one and the 9 cross products of their edges.
+     */
+    private boolean boxBox3D(ShapeRectangle3D boxA, Pose poseA, ShapeRectangle3D boxB, Pose poseB, float dx, float dy, float dz) {
+        rotation(poseA, rotationA);
+        rotation(poseB, rotationB);
+        halfA[0] = boxA.distanceToCentroidX();
+        halfA[1] = boxA.distanceToCentroidY();
+        halfA[2] = boxA.distanceToCentroidZ();
+        halfB[0] = boxB.distanceToCentroidX();
+        halfB[1] = boxB.distanceToCentroidY();
+        halfB[2] = boxB.distanceToCentroidZ();
+        //rotation of B in the frame of A (dot products of their axes, which are the columns)
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                double value = rotationA[i] * rotationB[j] + rotationA[3 + i] * rotationB[3 + j] + rotationA[6 + i] * rotationB[6 + j];
+                relative[3 * i + j] = value;
+                absRelative[3 * i + j] = FastMath.abs(value) + EPSILON;
+            }
+            //translation in the frame of A
+            translation[i] = rotationA[i] * dx + rotationA[3 + i] * dy + rotationA[6 + i] * dz;
+        }
+        //axes of A
+        for (int i = 0; i < 3; i++) {
+            double radiusB = halfB[0] * absRelative[3 * i] + halfB[1] * absRelative[3 * i + 1] + halfB[2] * absRelative[3 * i + 2];
+            if (FastMath.abs(translation[i]) > halfA[i] + radiusB) {
+                return false;
+            }
+        }
+        //axes of B
+        for (int j = 0; j < 3; j++) {
+            double radiusA = halfA[0] * absRelative[j] + halfA[1] * absRelative[3 + j] + halfA[2] * absRelative[6 + j];
+            double projection = translation[0] * relative[j] + translation[1] * relative[3 + j] + translation[2] * relative[6 + j];
+            if (FastMath.abs(projection) > radiusA + halfB[j]) {
+                return false;
+            }
+        }
+        //cross products of the axes of A and B
+        for (int i = 0; i < 3; i++) {
+            int i1 = (i + 1) % 3, i2 = (i + 2) % 3;
+            for (int j = 0; j < 3; j++) {
+                int j1 = (j + 1) % 3, j2 = (j + 2) % 3;
+                double radiusA = halfA[i1] * absRelative[3 * i2 + j] + halfA[i2] * absRelative[3 * i1 + j];
+                double radiusB = halfB[j1] * absRelative[3 * i + j2] + halfB[j2] * absRelative[3 * i + j1];
+                double projection = translation[i2] * relative[3 * i1 + j] - translation[i1] * relative[3 * i2 + j];
+                if (FastMath.abs(projection) > radiusA + radiusB) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the rotation matrix of a pose (row-major), as in {@link es.usc.citius.lab.motionplanner.core.spatial.Point3D#rotate(float, float, float)}.
+     * Its columns are the axes of a shape at that pose.
+     */
+    private static void rotation(Pose pose, double[] out) {
+        double sinyaw = FastMath.sin(pose.getYaw());
+        double sinpitch = FastMath.sin(pose.getPitch());
+        double sinroll = FastMath.sin(pose.getRoll());
+        double cosyaw = FastMath.cos(pose.getYaw());
+        double cospitch = FastMath.cos(pose.getPitch());
+        double cosroll = FastMath.cos(pose.getRoll());
+        out[0] = cosyaw * cospitch;
+        out[1] = -sinyaw * cosroll + cosyaw * sinpitch * sinroll;
+        out[2] = sinyaw * sinroll + cosyaw * sinpitch * cosroll;
+        out[3] = sinyaw * cospitch;
+        out[4] = cosyaw * cosroll + sinyaw * sinpitch * sinroll;
+        out[5] = -cosyaw * sinroll + sinyaw * sinpitch * cosroll;
+        out[6] = -sinpitch;
+        out[7] = cospitch * sinroll;
+        out[8] = cospitch * cosroll;
+    }
+
+}
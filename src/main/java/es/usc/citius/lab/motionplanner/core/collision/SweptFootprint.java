@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.collision;
+
+import es.usc.citius.lab.motionplanner.core.index.KdTree2D;
+import es.usc.citius.lab.motionplanner.core.index.ShapeClearance;
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Collision check of a {@link Shape2D} swept along a sequence of poses (for example, the
+ * {@link es.usc.citius.lab.motionplanner.core.spatial.State2D} samples of a motion primitive)
+ * against a set of obstacles indexed in a {@link KdTree2D}, in a single pass.
+ *
+ * Not every sample is evaluated: after obtaining the clearance of the shape at a pose, the
+ * following samples are skipped while the motion from that pose cannot consume it. No point
+ * of the shape moves more than {@code |translation| + maxRadius * |rotation|}, so the clearance
+ * of a sample is at least the clearance of the last evaluated one minus that displacement
+ * (conservative advancement). The sine and cosine of the heading are reused between
+ * consecutive evaluated samples with the same heading.
+ *
+ * The checks store their state in the instance, so each thread must use its own
+ * {@link SweptFootprint}.
+ */
+public class SweptFootprint {
+
+    private final ShapeClearance clearance;
+    private final float maxRadius;
+    private final float margin;
+    //state of the current check
+    private float lastX, lastY, lastYaw, lastCos, lastSin, lastClearance;
+    private boolean hasLast;
+    private int evaluations;
+
+    /**
+     * @param obstacles index of the points of the obstacles
+     * @param shape shape of the robot
+     */
+    public SweptFootprint(KdTree2D obstacles, Shape2D shape) {
+        this(obstacles, shape, 0f);
+    }
+
+    /**
+     * @param obstacles index of the points of the obstacles
+     * @param shape shape of the robot
+     * @param margin minimum distance between the shape and the obstacles; poses with a lower or equal clearance are in collision
+     */
+    public SweptFootprint(KdTree2D obstacles, Shape2D shape, float margin) {
+        this.clearance = new ShapeClearance(obstacles, shape);
+        this.maxRadius = shape.getMaxRadius();
+        this.margin = margin;
+    }
+
+    /**
+     * Finds the first sample of a sequence of poses where the shape collides.
+     *
+     * @param samples poses of the shape, in order
+     * @return position of the first colliding sample, -1 if all of them are free
+     */
+    public int firstCollision(Iterable<? extends Pose> samples) {
+        reset();
+        int index = 0;
+        for (Pose sample : samples) {
+            if (collides(sample.getX(), sample.getY(), sample.getYaw())) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first sample of a sequence of poses, given in arrays, where the shape collides.
+     *
+     * @param xs X coordinates of the samples
+     * @param ys Y coordinates of the samples
+     * @param yaws headings of the samples
+     * @param offset position of the first sample in the arrays
+     * @param length number of samples
+     * @return position in the arrays of the first colliding sample, -1 if all of them are free
+     */
+    public int firstCollision(float[] xs, float[] ys, float[] yaws, int offset, int length) {
+        reset();
+        for (int i = offset; i < offset + length; i++) {
+            if (collides(xs[i], ys[i], yaws[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param samples poses of the shape
+     * @return true if the shape does not collide in any of the samples
+     */
+    public boolean isFree(Iterable<? extends Pose> samples) {
+        return firstCollision(samples) < 0;
+    }
+
+    /**
+     * @return number of samples evaluated with {@link ShapeClearance} in the last check
+     */
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    public float getMargin() {
+        return margin;
+    }
+
+    private void reset() {
+        this.hasLast = false;
+        this.evaluations = 0;
+    }
+
+    /**
+     * Checks a sample, which is skipped if the displacement from the last evaluated one
+     * is lower than its clearance.
+     */
+    private boolean collides(float x, float y, float yaw) {
+        if (hasLast) {
+            float displacement = (float) FastMath.hypot(x - lastX, y - lastY)
+                    + maxRadius * FastMath.abs(MathFunctions.adjustAngleP(yaw - lastYaw));
+            if (displacement < lastClearance - margin) {
+                return false;
+            }
+        }
+        if (!hasLast || yaw != lastYaw) {
+            lastCos = (float) FastMath.cos(yaw);
+            lastSin = (float) FastMath.sin(yaw);
+        }
+        lastX = x;
+        lastY = y;
+        lastYaw = yaw;
+        lastClearance = clearance.clearance(x, y, lastCos, lastSin);
+        hasLast = true;
+        evaluations++;
+        return lastClearance <= margin;
+    }
+
+}
@@ -0,0 +1,345 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.grid;
+
+import es.usc.citius.lab.motionplanner.core.shapes.Shape;
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import org.apache.commons.math3.util.FastMath;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Exact euclidean distance transform of an {@link OccupancyGrid2D}: stores, for each cell, the
+ * distance from its center to the center of the closest occupied cell, where the cells out of the
+ * grid are occupied as in {@link OccupancyGrid2D#get(int, int)}. The cells follow the
+ * discretization of {@link es.usc.citius.lab.motionplanner.core.lattice.PointAdapter2D}, and the
+ * resolution of each axis may be different.
+ * <p>
+ * The field is computed in linear time with the lower envelope of parabolas of Felzenszwalb and
+ * Huttenlocher, first along the columns and then along the rows. Each pass transforms its lines
+ * independently, so they can be split between the threads of an {@link ExecutorService}.
+ * <p>
+ * Once computed, the clearance of a pose is obtained with a single lookup, and compared with
+ * {@link Shape#getInscribedRadius()} and {@link Shape#getMaxRadius()} it decides most collision checks
+ * without testing the geometry of the shape, see {@link #certainlyFree(Shape, Pose)} and
+ * {@link #certainlyColliding(Shape, Pose)}.
+ */
+public class DistanceField2D implements Serializable {
+
+    private static final long serialVersionUID = 20190218L;
+    /**
+     * Squared distance of the cells without obstacles in their line.
+     */
+    private static final double INFINITY = 1e20;
+    /**
+     * Number of lines transformed by each parallel task.
+     */
+    private static final int LINES_PER_TASK = 64;
+
+    private final float dx;
+    private final float dy;
+    private final int minCellX;
+    private final int minCellY;
+    private final int width;
+    private final int height;
+    private final float tolerance;
+    private final float[] field;
+
+    /**
+     * Computes the distance field of a grid in the current thread.
+     *
+     * @param grid occupancy grid
+     */
+    public DistanceField2D(OccupancyGrid2D grid) {
+        this(grid, null);
+    }
+
+    /**
+     * Computes the distance field of a grid, splitting the transform of the rows and columns
+     * between the threads of an executor.
+     *
+     * @param grid occupancy grid
+     * @param executor executor where the transform is run, or null to compute it in the current thread
+     */
+    public DistanceField2D(OccupancyGrid2D grid, ExecutorService executor) {
+        this.dx = grid.getDx();
+        this.dy = grid.getDy();
+        this.minCellX = grid.getMinCellX();
+        this.minCellY = grid.getMinCellY();
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.tolerance = (float) FastMath.hypot(dx, dy) / 2;
+        this.field = new float[width * height];
+        //squared distances of the obstacles
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                field[y * width + x] = grid.get(x, y) ? 0f : (float) INFINITY;
+            }
+        }
+        //columns (stride width) and then rows (stride 1)
+        transform(executor, width, 1, width, height, dy * dy);
+        transform(executor, height, width, 1, width, dx * dx);
+        //cells out of the grid are occupied, as in OccupancyGrid2D
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y * width + x;
+                field[i] = FastMath.min((float) FastMath.sqrt(field[i]), distanceToBorder(x, y, width, height, dx, dy));
+            }
+        }
+    }
+
+    /**
+     * Transforms a set of lines of the field.
+     *
+     * @param executor executor, or null to run in the current thread
+     * @param lines number of lines
+     * @param lineStride distance between the first cells of consecutive lines
+     * @param cellStride distance between consecutive cells of a line
+     * @param length number of cells of each line
+     * @param weight squared resolution along the lines
+     */
+    private void transform(ExecutorService executor, int lines, int lineStride, int cellStride, int length, float weight) {
+        if (executor == null || lines <= LINES_PER_TASK) {
+            new LineTransform(0, lines, lineStride, cellStride, length, weight).call();
+            return;
+        }
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for (int from = 0; from < lines; from += LINES_PER_TASK) {
+            int to = Math.min(lines, from + LINES_PER_TASK);
+            futures.add(executor.submit(new LineTransform(from, to, lineStride, cellStride, length, weight)));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while computing the distance field", ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("error computing the distance field", ex.getCause());
+        }
+    }
+
+    /**
+     * One-dimensional distance transform of a range of lines, with its own working arrays.
+     */
+    private class LineTransform implements Callable<Void> {
+
+        private final int from;
+        private final int to;
+        private final int lineStride;
+        private final int cellStride;
+        private final int length;
+        private final double weight;
+        private final double[] f;
+        private final int[] v;
+        private final double[] z;
+
+        LineTransform(int from, int to, int lineStride, int cellStride, int length, float weight) {
+            this.from = from;
+            this.to = to;
+            this.lineStride = lineStride;
+            this.cellStride = cellStride;
+            this.length = length;
+            this.weight = weight;
+            this.f = new double[length];
+            this.v = new int[length];
+            this.z = new double[length + 1];
+        }
+
+        @Override
+        public Void call() {
+            for (int line = from; line < to; line++) {
+                transform(line * lineStride);
+            }
+            return null;
+        }
+
+        private void transform(int offset) {
+            for (int q = 0; q < length; q++) {
+                f[q] = field[offset + q * cellStride];
+            }
+            //lower envelope of the parabolas of the cells with a finite value
+            int k = -1;
+            for (int q = 0; q < length; q++) {
+                if (f[q] >= INFINITY) {
+                    continue;
+                }
+                double s = Double.NEGATIVE_INFINITY;
+                while (k >= 0) {
+                    int p = v[k];
+                    s = ((f[q] + weight * q * q) - (f[p] + weight * p * p)) / (2 * weight * (q - p));
+                    if (s > z[k]) {
+                        break;
+                    }
+                    k--;
+                }
+                k++;
+                v[k] = q;
+                z[k] = k == 0 ? Double.NEGATIVE_INFINITY : s;
+                z[k + 1] = Double.POSITIVE_INFINITY;
+            }
+            //no obstacles in this line: values remain infinite
+            if (k < 0) {
+                return;
+            }
+            k = 0;
+            for (int q = 0; q < length; q++) {
+                while (z[k + 1] < q) {
+                    k++;
+                }
+                int p = v[k];
+                field[offset + q * cellStride] = (float) (weight * (q - p) * (q - p) + f[p]);
+            }
+        }
+    }
+
+    /************************************************************************
+     *                            LOOKUPS
+     ************************************************************************/
+
+    /**
+     * @param x column of the grid
+     * @param y row of the grid
+     * @return distance to the closest obstacle or cell out of the grid, 0 out of the grid
+     */
+    public float distanceAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return 0f;
+        }
+        return field[y * width + x];
+    }
+
+    /**
+     * @param x coordinate X
+     * @param y coordinate Y
+     * @return distance from the center of the cell of (x, y) to the closest obstacle, 0 out of the grid
+     */
+    public float distance(float x, float y) {
+        return distanceAt(FastMath.round(x / dx) - minCellX, FastMath.round(y / dy) - minCellY);
+    }
+
+    /**
+     * @param point point of the map
+     * @return distance from the center of the cell of the point to the closest obstacle, 0 out of the grid
+     */
+    public float distance(Point point) {
+        return distance(point.getX(), point.getY());
+    }
+
+    /**
+     * Checks if a shape is free of obstacles at a pose with the clearance of its cell. The
+     * obstacles are the centers of the occupied cells, as in {@link FootprintRasterizer}, and the
+     * distance between the pose and the center of its cell is taken into account.
+     *
+     * @param shape shape to check
+     * @param pose pose of the shape
+     * @return true if the circle of {@link Shape#getMaxRadius()} is free; false means that
+     * the shape has to be checked in detail
+     */
+    public boolean certainlyFree(Shape shape, Pose pose) {
+        return certainlyFree(shape, distance(pose.getX(), pose.getY()), tolerance);
+    }
+
+    /**
+     * Checks if a shape collides at a pose with the clearance of its cell, see
+     * {@link #certainlyFree(Shape, Pose)}.
+     *
+     * @param shape shape to check
+     * @param pose pose of the shape
+     * @return true if an obstacle is within the circle of {@link Shape#getInscribedRadius()}; false
+     * means that the shape has to be checked in detail
+     */
+    public boolean certainlyColliding(Shape shape, Pose pose) {
+        return certainlyColliding(shape, distance(pose.getX(), pose.getY()), tolerance);
+    }
+
+    /**
+     * @param x column of the grid
+     * @param y row of the grid
+     * @param width number of columns of the grid
+     * @param height number of rows of the grid
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     * @return distance from the center of the cell to the center of the closest cell out of the grid
+     */
+    static float distanceToBorder(int x, int y, int width, int height, float dx, float dy) {
+        return FastMath.min(FastMath.min(x + 1, width - x) * dx, FastMath.min(y + 1, height - y) * dy);
+    }
+
+    /**
+     * @param shape shape to check
+     * @param clearance distance from the cell of the pose to the closest obstacle
+     * @param tolerance maximum distance between the pose and the center of its cell
+     * @return true if no obstacle is within the circle of {@link Shape#getMaxRadius()}
+     */
+    static boolean certainlyFree(Shape shape, float clearance, float tolerance) {
+        return clearance - tolerance > shape.getMaxRadius();
+    }
+
+    /**
+     * @param shape shape to check
+     * @param clearance distance from the cell of the pose to the closest obstacle
+     * @param tolerance maximum distance between the pose and the center of its cell
+     * @return true if an obstacle is within the circle of {@link Shape#getInscribedRadius()}
+     */
+    static boolean certainlyColliding(Shape shape, float clearance, float tolerance) {
+        return clearance + tolerance <= shape.getInscribedRadius();
+    }
+
+    /************************************************************************
+     *                            GETTERS
+     ************************************************************************/
+
+    public float getDx() {
+        return dx;
+    }
+
+    public float getDy() {
+        return dy;
+    }
+
+    public int getMinCellX() {
+        return minCellX;
+    }
+
+    public int getMinCellY() {
+        return minCellY;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return distances of the cells, row by row; it is the internal storage, so changes are visible in it
+     */
+    public float[] field() {
+        return field;
+    }
+
+}
@@ -0,0 +1,421 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.grid;
+
+import es.usc.citius.lab.motionplanner.core.shapes.Shape;
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.Arrays;
+
+/**
+ * Distance field of an {@link OccupancyGrid2D} which is updated incrementally when cells are
+ * occupied or freed, following the dynamic brushfire of Lau, Sprunk and Burgard: each cell keeps
+ * a reference to its closest obstacle, freed obstacles start a raise wave that clears the cells
+ * referencing them, and new or remaining obstacles start lower waves that propagate over
+ * the 8-neighbourhood. Only the cells whose closest obstacle changes are visited.
+ * <p>
+ * Changes are queued with {@link #setOccupied(int, int)} and {@link #setFree(int, int)} (or all
+ * at once with {@link #update(OccupancyGrid2D)}) and applied by {@link #update()}. After each
+ * update {@link #changedRegion(int[])} gives the bounding box of the cells whose distance
+ * changed, so caches of map areas can be invalidated selectively.
+ * <p>
+ * The distances are the ones to the centers of the occupied cells, as in {@link DistanceField2D},
+ * and the lookups are limited by the distance to the cells out of the grid, which are occupied;
+ * as any propagation over neighbouring cells, they may slightly overestimate the exact distance
+ * in some configurations. This class is not thread-safe.
+ */
+public class DynamicDistanceField2D {
+
+    /**
+     * Distance of the cells when there are no obstacles.
+     */
+    private static final float NO_OBSTACLE = 1e10f;
+    private static final int[] NEIGHBOURS_X = new int[]{-1, 0, 1, -1, 1, -1, 0, 1};
+    private static final int[] NEIGHBOURS_Y = new int[]{-1, -1, -1, 0, 0, 1, 1, 1};
+
+    private final OccupancyGrid2D occupancy;
+    private final int width;
+    private final int height;
+    private final float dx;
+    private final float dy;
+    private final float tolerance;
+    private final float[] field;
+    private final int[] obstacles;
+    private final boolean[] raise;
+    private final Heap open;
+    private final int[] changed;
+    private final int[] lastChanged;
+
+    /**
+     * Creates the distance field of a grid. The grid is copied, so later changes in it
+     * have to be applied with {@link #update(OccupancyGrid2D)}.
+     *
+     * @param grid occupancy grid
+     */
+    public DynamicDistanceField2D(OccupancyGrid2D grid) {
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.dx = grid.getDx();
+        this.dy = grid.getDy();
+        this.tolerance = (float) FastMath.hypot(dx, dy) / 2;
+        this.occupancy = new OccupancyGrid2D(grid.getMinCellX(), grid.getMinCellY(), width, height, dx, dy);
+        this.field = new float[width * height];
+        this.obstacles = new int[width * height];
+        this.raise = new boolean[width * height];
+        this.open = new Heap();
+        this.changed = new int[4];
+        this.lastChanged = new int[4];
+        resetRegion(changed);
+        Arrays.fill(field, NO_OBSTACLE);
+        Arrays.fill(obstacles, -1);
+        update(grid);
+    }
+
+    /************************************************************************
+     *                            CHANGES
+     ************************************************************************/
+
+    /**
+     * Queues a newly occupied cell; it is applied in the next {@link #update()}.
+     *
+     * @param x column
+     * @param y row
+     */
+    public void setOccupied(int x, int y) {
+        if (!occupancy.isInside(x, y) || occupancy.get(x, y)) {
+            return;
+        }
+        occupancy.set(x, y);
+        int cell = y * width + x;
+        field[cell] = 0f;
+        obstacles[cell] = cell;
+        raise[cell] = false;
+        markChanged(cell);
+        open.push(0f, cell);
+    }
+
+    /**
+     * Queues a freed cell; it is applied in the next {@link #update()}.
+     *
+     * @param x column
+     * @param y row
+     */
+    public void setFree(int x, int y) {
+        if (!occupancy.isInside(x, y) || !occupancy.get(x, y)) {
+            return;
+        }
+        occupancy.clear(x, y);
+        int cell = y * width + x;
+        field[cell] = NO_OBSTACLE;
+        obstacles[cell] = -1;
+        raise[cell] = true;
+        markChanged(cell);
+        open.push(0f, cell);
+    }
+
+    /**
+     * Applies the queued changes.
+     *
+     * @return true if the distance of any cell changed, see {@link #changedRegion(int[])}
+     */
+    public boolean update() {
+        while (!open.isEmpty()) {
+            float key = open.peekKey();
+            int cell = open.pop();
+            if (raise[cell]) {
+                raise(cell);
+            } else if (obstacles[cell] >= 0 && isOccupied(obstacles[cell]) && key <= field[cell]) {
+                lower(cell);
+            }
+        }
+        System.arraycopy(changed, 0, lastChanged, 0, 4);
+        resetRegion(changed);
+        return lastChanged[0] <= lastChanged[2];
+    }
+
+    /**
+     * Applies the differences between the current occupancy and a grid with the same dimensions,
+     * comparing them a word at a time.
+     *
+     * @param grid new occupancy of the map
+     * @return true if the distance of any cell changed, see {@link #changedRegion(int[])}
+     */
+    public boolean update(OccupancyGrid2D grid) {
+        if (grid.getWidth() != width || grid.getHeight() != height) {
+            throw new IllegalArgumentException("grids of different dimensions: " + width + "x" + height + ", " + grid.getWidth() + "x" + grid.getHeight());
+        }
+        long[] current = occupancy.words();
+        long[] target = grid.words();
+        int wordsPerRow = occupancy.getWordsPerRow();
+        for (int i = 0; i < current.length; i++) {
+            long diff = current[i] ^ target[i];
+            while (diff != 0) {
+                int bit = Long.numberOfTrailingZeros(diff);
+                diff &= diff - 1;
+                int x = ((i % wordsPerRow) << 6) + bit;
+                int y = i / wordsPerRow;
+                if ((target[i] & (1L << bit)) != 0) {
+                    setOccupied(x, y);
+                } else {
+                    setFree(x, y);
+                }
+            }
+        }
+        return update();
+    }
+
+    /**
+     * Bounding box of the cells changed in the last update.
+     *
+     * @param out array of length 4 where the region [minX, minY, maxX, maxY] is written, with both limits included
+     * @return false if no cell changed in the last update, and then the array is not modified
+     */
+    public boolean changedRegion(int[] out) {
+        if (lastChanged[0] > lastChanged[2]) {
+            return false;
+        }
+        System.arraycopy(lastChanged, 0, out, 0, 4);
+        return true;
+    }
+
+    private boolean isOccupied(int cell) {
+        return occupancy.get(cell % width, cell / width);
+    }
+
+    private void markChanged(int cell) {
+        int x = cell % width, y = cell / width;
+        changed[0] = Math.min(changed[0], x);
+        changed[1] = Math.min(changed[1], y);
+        changed[2] = Math.max(changed[2], x);
+        changed[3] = Math.max(changed[3], y);
+    }
+
+    private static void resetRegion(int[] region) {
+        region[0] = Integer.MAX_VALUE;
+        region[1] = Integer.MAX_VALUE;
+        region[2] = Integer.MIN_VALUE;
+        region[3] = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Clears the neighbours referencing freed obstacles, and queues the ones with a valid
+     * obstacle to lower the cleared region from them.
+     */
+    private void raise(int cell) {
+        int x = cell % width, y = cell / width;
+        for (int i = 0; i < NEIGHBOURS_X.length; i++) {
+            int nx = x + NEIGHBOURS_X[i], ny = y + NEIGHBOURS_Y[i];
+            if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                continue;
+            }
+            int neighbour = ny * width + nx;
+            if (obstacles[neighbour] < 0 || raise[neighbour]) {
+                continue;
+            }
+            float distance = field[neighbour];
+            if (!isOccupied(obstacles[neighbour])) {
+                field[neighbour] = NO_OBSTACLE;
+                obstacles[neighbour] = -1;
+                raise[neighbour] = true;
+                markChanged(neighbour);
+            }
+            open.push(distance, neighbour);
+        }
+        raise[cell] = false;
+    }
+
+    /**
+     * Propagates the obstacle of a cell to the neighbours which are closer to it than to their own.
+     */
+    private void lower(int cell) {
+        int x = cell % width, y = cell / width;
+        int obstacle = obstacles[cell];
+        int ox = obstacle % width, oy = obstacle / width;
+        for (int i = 0; i < NEIGHBOURS_X.length; i++) {
+            int nx = x + NEIGHBOURS_X[i], ny = y + NEIGHBOURS_Y[i];
+            if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                continue;
+            }
+            int neighbour = ny * width + nx;
+            if (raise[neighbour]) {
+                continue;
+            }
+            float distance = (float) FastMath.hypot((nx - ox) * dx, (ny - oy) * dy);
+            if (distance < field[neighbour]) {
+                field[neighbour] = distance;
+                obstacles[neighbour] = obstacle;
+                markChanged(neighbour);
+                open.push(distance, neighbour);
+            }
+        }
+    }
+
+    /************************************************************************
+     *                            LOOKUPS
+     ************************************************************************/
+
+    /**
+     * @param x column of the grid
+     * @param y row of the grid
+     * @return distance to the closest obstacle or cell out of the grid, 0 out of the grid
+     */
+    public float distanceAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return 0f;
+        }
+        return FastMath.min(field[y * width + x], DistanceField2D.distanceToBorder(x, y, width, height, dx, dy));
+    }
+
+    /**
+     * @param x coordinate X
+     * @param y coordinate Y
+     * @return distance from the center of the cell of (x, y) to the closest obstacle, 0 out of the grid
+     */
+    public float distance(float x, float y) {
+        return distanceAt(occupancy.cellX(x), occupancy.cellY(y));
+    }
+
+    /**
+     * @param point point of the map
+     * @return distance from the center of the cell of the point to the closest obstacle, 0 out of the grid
+     */
+    public float distance(Point point) {
+        return distance(point.getX(), point.getY());
+    }
+
+    /**
+     * @param x column of the grid
+     * @param y row of the grid
+     * @return index (y * width + x) of the closest occupied cell, -1 if there is none or out of the grid
+     */
+    public int closestObstacleAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return -1;
+        }
+        return obstacles[y * width + x];
+    }
+
+    /**
+     * @param shape shape to check
+     * @param pose pose of the shape
+     * @return true if the shape is free of obstacles, see {@link DistanceField2D#certainlyFree(Shape, Pose)}
+     */
+    public boolean certainlyFree(Shape shape, Pose pose) {
+        return DistanceField2D.certainlyFree(shape, distance(pose.getX(), pose.getY()), tolerance);
+    }
+
+    /**
+     * @param shape shape to check
+     * @param pose pose of the shape
+     * @return true if the shape collides, see {@link DistanceField2D#certainlyColliding(Shape, Pose)}
+     */
+    public boolean certainlyColliding(Shape shape, Pose pose) {
+        return DistanceField2D.certainlyColliding(shape, distance(pose.getX(), pose.getY()), tolerance);
+    }
+
+    /************************************************************************
+     *                            GETTERS
+     ************************************************************************/
+
+    /**
+     * @return current occupancy of the map; it is the internal state, so it must not be modified
+     */
+    public OccupancyGrid2D getOccupancy() {
+        return occupancy;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return distances of the cells to the occupied cells of the grid, row by row, without the limit of the
+     * cells out of the grid; it is the internal storage, so it must not be modified
+     */
+    public float[] field() {
+        return field;
+    }
+
+    /**
+     * Binary min-heap of cells with primitive keys, allowing repeated entries.
+     */
+    private static class Heap {
+
+        private float[] keys = new float[256];
+        private int[] cells = new int[256];
+        private int size = 0;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        float peekKey() {
+            return keys[0];
+        }
+
+        void push(float key, int cell) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                cells = Arrays.copyOf(cells, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                cells[i] = cells[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            cells[i] = cell;
+        }
+
+        int pop() {
+            int result = cells[0];
+            size--;
+            float key = keys[size];
+            int cell = cells[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                cells[i] = cells[child];
+                i = child;
+            }
+            keys[i] = key;
+            cells[i] = cell;
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.grid;
+
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Masks of a shape obtained with a {@link FootprintRasterizer} for a discrete set of
+ * headings, uniformly distributed in the circle (k * 2PI / headings). With them, checking
+ * the shape at a pose placed at the center of a cell is reduced to testing the bits of
+ * the covered cells in a bitmap of the grid. Headings out of the cache are rasterized when
+ * they are requested, so the masks are always the ones of the given heading.
+ *
+ * The bitmaps are {@code long[]} arrays where each row of the grid starts in a new
+ * word: the cell (x, y) is the bit {@code x & 63} of the word {@code y * wordsPerRow + (x >>> 6)},
+ * with {@code wordsPerRow = (width + 63) / 64}.
+ */
+public class FootprintMaskCache {
+
+    /**
+     * Maximum difference, in radians, between a heading and the closest one of the cache to use the cached masks.
+     */
+    public static final float TOLERANCE = 1E-4f;
+    private final FootprintRasterizer rasterizer;
+    private final int headings;
+    private final float step;
+    private final int[][] masks;
+    private final int[][] spans;
+
+    /**
+     * Rasterizes the masks of all the headings.
+     *
+     * @param rasterizer rasterizer of the shape
+     * @param headings number of headings
+     */
+    public FootprintMaskCache(FootprintRasterizer rasterizer, int headings) {
+        if (headings <= 0) {
+            throw new IllegalArgumentException("number of headings must be positive: " + headings);
+        }
+        this.rasterizer = rasterizer;
+        this.headings = headings;
+        this.step = MathFunctions.PITIMES2 / headings;
+        this.masks = new int[headings][];
+        this.spans = new int[headings][];
+        for (int i = 0; i < headings; i++) {
+            masks[i] = rasterizer.mask(headingAt(i));
+            spans[i] = FootprintRasterizer.toSpans(masks[i]);
+        }
+    }
+
+    /**
+     * @param index position of the heading
+     * @return heading, in the interval (-PI, PI]
+     */
+    public float headingAt(int index) {
+        return MathFunctions.adjustAngleP(index * step);
+    }
+
+    /**
+     * @param yaw heading
+     * @return position of the closest heading of the cache
+     */
+    public int headingIndex(float yaw) {
+        int index = Math.round(yaw / step) % headings;
+        return index < 0 ? index + headings : index;
+    }
+
+    /**
+     * @param yaw heading
+     * @return position of the heading of the cache, or -1 if the closest one differs more than {@link #TOLERANCE}
+     */
+    public int cachedHeadingIndex(float yaw) {
+        int index = Math.round(yaw / step);
+        if (FastMath.abs(yaw - index * step) > TOLERANCE) {
+            return -1;
+        }
+        index %= headings;
+        return index < 0 ? index + headings : index;
+    }
+
+    /**
+     * @param index position of the heading
+     * @return packed (x, y) offsets of the cells covered by the shape with that heading
+     */
+    public int[] maskAt(int index) {
+        return masks[index];
+    }
+
+    /**
+     * @param yaw heading of the shape
+     * @return packed (x, y) offsets of the cells covered by the shape with that heading, rasterized
+     * if it is not in the cache
+     */
+    public int[] mask(float yaw) {
+        int index = cachedHeadingIndex(yaw);
+        return index < 0 ? rasterizer.mask(yaw) : masks[index];
+    }
+
+    /**
+     * @param index position of the heading
+     * @return packed (y, fromX, toX) spans of the mask of that heading, see {@link FootprintRasterizer#toSpans(int[])}
+     */
+    public int[] spansAt(int index) {
+        return spans[index];
+    }
+
+    /**
+     * @param yaw heading of the shape
+     * @return packed (y, fromX, toX) spans of the mask of that heading, rasterized if it is not in the cache
+     */
+    public int[] spans(float yaw) {
+        int index = cachedHeadingIndex(yaw);
+        return index < 0 ? FootprintRasterizer.toSpans(rasterizer.mask(yaw)) : spans[index];
+    }
+
+    public int getHeadings() {
+        return headings;
+    }
+
+    public FootprintRasterizer getRasterizer() {
+        return rasterizer;
+    }
+
+    /**
+     * Checks if the shape with a heading, placed at the center of a cell, covers any
+     * occupied cell of a bitmap.
+     *
+     * @param cellX column of the pose
+     * @param cellY row of the pose
+     * @param yaw heading of the pose
+     * @param bits bitmap of the occupied cells
+     * @param width number of columns of the grid
+     * @param height number of rows of the grid
+     * @return true if any covered cell is occupied or out of the grid
+     */
+    public boolean collides(int cellX, int cellY, float yaw, long[] bits, int width, int height) {
+        return collides(mask(yaw), cellX, cellY, bits, width, height);
+    }
+
+    /**
+     * Checks if a mask, placed at a cell, covers any occupied cell of a bitmap. Cells out of
+     * the grid are considered occupied.
+     *
+     * @param mask packed (x, y) offsets of the covered cells
+     * @param cellX column where the mask is placed
+     * @param cellY row where the mask is placed
+     * @param bits bitmap of the occupied cells
+     * @param width number of columns of the grid
+     * @param height number of rows of the grid
+     * @return true if any covered cell is occupied or out of the grid
+     */
+    public static boolean collides(int[] mask, int cellX, int cellY, long[] bits, int width, int height) {
+        int wordsPerRow = (width + 63) >>> 6;
+        for (int i = 0; i < mask.length; i += 2) {
+            int x = cellX + mask[i];
+            int y = cellY + mask[i + 1];
+            if (x < 0 || y < 0 || x >= width || y >= height) {
+                return true;
+            }
+            if ((bits[y * wordsPerRow + (x >>> 6)] & (1L << (x & 63))) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.grid;
+
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.Arrays;
+
+/**
+ * Obtains the cells of a regular grid covered by a {@link Shape2D} at a given pose.
+ *
+ * The cells are aligned with {@link es.usc.citius.lab.motionplanner.core.lattice.PointAdapter2D}:
+ * the cell (i, j) is centered at (i * dx, j * dy), so the cell of a coordinate is obtained by
+ * rounding it to the closest multiple of the resolution. A cell is covered when its center
+ * is inside the shape or, in conservative mode, when the shape intersects any part of the cell
+ * (cells whose center is at a distance of the shape lower or equal than half of their diagonal,
+ * which may include some cells that are close to the shape without touching it).
+ *
+ * The covered cells are returned as packed arrays of (x, y) index pairs: [x0, y0, x1, y1, ...],
+ * sorted by row (y) and then by column (x).
+ */
+public class FootprintRasterizer {
+
+    private final Shape2D shape;
+    private final float dx;
+    private final float dy;
+    private final boolean conservative;
+    private final float threshold;
+
+    /**
+     * Creates a rasterizer which covers the cells with their center inside the shape.
+     *
+     * @param shape shape to rasterize
+     * @param dx resolution of the grid in the X axis
+     * @param dy resolution of the grid in the Y axis
+     */
+    public FootprintRasterizer(Shape2D shape, float dx, float dy) {
+        this(shape, dx, dy, false);
+    }
+
+    /**
+     * @param shape shape to rasterize
+     * @param dx resolution of the grid in the X axis
+     * @param dy resolution of the grid in the Y axis
+     * @param conservative true to cover all the cells intersected by the shape, false to cover only the ones with their center inside
+     */
+    public FootprintRasterizer(Shape2D shape, float dx, float dy, boolean conservative) {
+        if (dx <= 0 || dy <= 0) {
+            throw new IllegalArgumentException("resolution of the grid must be positive: " + dx + ", " + dy);
+        }
+        this.shape = shape;
+        this.dx = dx;
+        this.dy = dy;
+        this.conservative = conservative;
+        this.threshold = conservative ? (float) FastMath.hypot(dx, dy) / 2 : 0f;
+    }
+
+    /**
+     * @param x X coordinate
+     * @return column of the cell containing the coordinate
+     */
+    public int cellX(float x) {
+        return FastMath.round(x / dx);
+    }
+
+    /**
+     * @param y Y coordinate
+     * @return row of the cell containing the coordinate
+     */
+    public int cellY(float y) {
+        return FastMath.round(y / dy);
+    }
+
+    /**
+     * Obtains the cells covered by the shape at a pose.
+     *
+     * @param pose pose of the shape
+     * @return packed (x, y) indexes of the covered cells
+     */
+    public int[] rasterize(Pose pose) {
+        float x = pose.getX();
+        float y = pose.getY();
+        float yaw = pose.getYaw();
+        float cos = (float) FastMath.cos(yaw);
+        float sin = (float) FastMath.sin(yaw);
+        //cells in the bounding square of the shape
+        float radius = shape.getMaxRadius() + threshold;
+        int minX = cellX(x - radius), maxX = cellX(x + radius);
+        int minY = cellY(y - radius), maxY = cellY(y + radius);
+        int[] cells = new int[16];
+        int size = 0;
+        for (int j = minY; j <= maxY; j++) {
+            float centerY = j * dy;
+            for (int i = minX; i <= maxX; i++) {
+                if (shape.distanceToPoint(x, y, cos, sin, i * dx, centerY) <= threshold) {
+                    if (size + 2 > cells.length) {
+                        cells = Arrays.copyOf(cells, cells.length * 2);
+                    }
+                    cells[size++] = i;
+                    cells[size++] = j;
+                }
+            }
+        }
+        return Arrays.copyOf(cells, size);
+    }
+
+    /**
+     * Obtains the mask of the shape with a heading: the offsets of the covered cells from
+     * the cell of the pose, when the pose is at the center of its cell.
+     *
+     * @param yaw heading of the shape
+     * @return packed (x, y) offsets of the covered cells
+     */
+    public int[] mask(float yaw) {
+        return rasterize(new Pose2D(0f, 0f, yaw));
+    }
+
+    /**
+     * Groups the cells of a rasterization in horizontal spans of consecutive cells, which
+     * can be tested word by word in an {@link OccupancyGrid2D}.
+     *
+     * @param cells packed (x, y) indexes, sorted by row and then by column
+     * @return packed (y, fromX, toX) spans, with both limits included
+     */
+    public static int[] toSpans(int[] cells) {
+        int[] spans = new int[Math.max(3, cells.length / 2 * 3)];
+        int size = 0;
+        for (int i = 0; i < cells.length; i += 2) {
+            int x = cells[i], y = cells[i + 1];
+            if (size > 0 && spans[size - 3] == y && spans[size - 1] == x - 1) {
+                //consecutive cell of the current span
+                spans[size - 1] = x;
+            } else {
+                spans[size++] = y;
+                spans[size++] = x;
+                spans[size++] = x;
+            }
+        }
+        return Arrays.copyOf(spans, size);
+    }
+
+    public Shape2D getShape() {
+        return shape;
+    }
+
+    public float getDx() {
+        return dx;
+    }
+
+    public float getDy() {
+        return dy;
+    }
+
+    public boolean isConservative() {
+        return conservative;
+    }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.grid;
+
+import es.usc.citius.lab.motionplanner.core.shapes.Shape3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.Arrays;
+
+/**
+ * Obtains the cells of a regular 3D grid covered by a {@link Shape3D} at a given pose: the
+ * cells whose center is inside the shape, see {@link Shape3D#contains(Pose, float, float, float)}.
+ * The cells follow the same convention than {@link FootprintRasterizer}, and are returned as
+ * packed arrays of (x, y, z) index triplets sorted by layer (z), row (y) and column (x).
+ */
+public class FootprintRasterizer3D {
+
+    private final Shape3D shape;
+    private final float dx;
+    private final float dy;
+    private final float dz;
+
+    /**
+     * @param shape shape to rasterize
+     * @param dx resolution of the grid in the X axis
+     * @param dy resolution of the grid in the Y axis
+     * @param dz resolution of the grid in the Z axis
+     */
+    public FootprintRasterizer3D(Shape3D shape, float dx, float dy, float dz) {
+        if (dx <= 0 || dy <= 0 || dz <= 0) {
+            throw new IllegalArgumentException("resolution of the grid must be positive: " + dx + ", " + dy + ", " + dz);
+        }
+        this.shape = shape;
+        this.dx = dx;
+        this.dy = dy;
+        this.dz = dz;
+    }
+
+    /**
+     * Obtains the cells covered by the shape at a pose.
+     *
+     * @param pose pose of the shape
+     * @return packed (x, y, z) indexes of the covered cells
+     */
+    public int[] rasterize(Pose pose) {
+        float radius = shape.getMaxRadius();
+        int minX = FastMath.round((pose.getX() - radius) / dx), maxX = FastMath.round((pose.getX() + radius) / dx);
+        int minY = FastMath.round((pose.getY() - radius) / dy), maxY = FastMath.round((pose.getY() + radius) / dy);
+        int minZ = FastMath.round((pose.getZ() - radius) / dz), maxZ = FastMath.round((pose.getZ() + radius) / dz);
+        int[] cells = new int[48];
+        int size = 0;
+        for (int k = minZ; k <= maxZ; k++) {
+            for (int j = minY; j <= maxY; j++) {
+                for (int i = minX; i <= maxX; i++) {
+                    if (shape.contains(pose, i * dx, j * dy, k * dz)) {
+                        if (size + 3 > cells.length) {
+                            cells = Arrays.copyOf(cells, cells.length * 2);
+                        }
+                        cells[size++] = i;
+                        cells[size++] = j;
+                        cells[size++] = k;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(cells, size);
+    }
+
+    /**
+     * Groups the cells of a rasterization in spans of consecutive cells of the same row,
+     * which can be tested word by word in an {@link OccupancyGrid3D}.
+     *
+     * @param cells packed (x, y, z) indexes, sorted by layer, row and column
+     * @return packed (z, y, fromX, toX) spans, with both limits included
+     */
+    public static int[] toSpans(int[] cells) {
+        int[] spans = new int[Math.max(4, cells.length / 3 * 4)];
+        int size = 0;
+        for (int i = 0; i < cells.length; i += 3) {
+            int x = cells[i], y = cells[i + 1], z = cells[i + 2];
+            if (size > 0 && spans[size - 4] == z && spans[size - 3] == y && spans[size - 1] == x - 1) {
+                spans[size - 1] = x;
+            } else {
+                spans[size++] = z;
+                spans[size++] = y;
+                spans[size++] = x;
+                spans[size++] = x;
+            }
+        }
+        return Arrays.copyOf(spans, size);
+    }
+
+    public Shape3D getShape() {
+        return shape;
+    }
+
+    public float getDx() {
+        return dx;
+    }
+
+    public float getDy() {
+        return dy;
+    }
+
+    public float getDz() {
+        return dz;
+    }
+
+}
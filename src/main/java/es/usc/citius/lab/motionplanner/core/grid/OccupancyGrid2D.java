@@ -0,0 +1,439 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.grid;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import org.apache.commons.math3.util.FastMath;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Occupancy grid of a 2D map, storing one bit per cell in an array of {@code long} words,
+ * so a map of 10000 x 10000 cells takes about 12 MB.
+ *
+ * The cells are aligned with {@link es.usc.citius.lab.motionplanner.core.lattice.PointAdapter2D}
+ * (the cell of a coordinate is the closest multiple of the resolution); the grid covers the
+ * cells [minCellX, minCellX + width) x [minCellY, minCellY + height), and the methods that receive
+ * cell indexes use them relative to (minCellX, minCellY). Each row starts in a new word: the cell
+ * (x, y) is the bit {@code x & 63} of the word {@code y * wordsPerRow + (x >>> 6)}, the same layout
+ * used by {@link FootprintMaskCache}. Footprints are tested by spans of cells of the same row, which
+ * are checked a whole word at a time. The cells out of the grid are considered occupied.
+ */
+public class OccupancyGrid2D implements Serializable {
+
+    private static final long serialVersionUID = 20190211L;
+    /**
+     * Maximum distance between a pose and the center of its cell, relative to the resolution, to use the cached masks.
+     */
+    private static final float CENTER_TOLERANCE = 1E-4f;
+
+    private final float dx;
+    private final float dy;
+    private final int minCellX;
+    private final int minCellY;
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    /**
+     * Creates an empty grid whose first cell is the one of the origin.
+     *
+     * @param width number of columns
+     * @param height number of rows
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     */
+    public OccupancyGrid2D(int width, int height, float dx, float dy) {
+        this(0, 0, width, height, dx, dy);
+    }
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param minCellX column of the first cell, in the cells of the resolution adapter
+     * @param minCellY row of the first cell, in the cells of the resolution adapter
+     * @param width number of columns
+     * @param height number of rows
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     */
+    public OccupancyGrid2D(int minCellX, int minCellY, int width, int height, float dx, float dy) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("dimensions of the grid must be positive: " + width + "x" + height);
+        }
+        this.dx = dx;
+        this.dy = dy;
+        this.minCellX = minCellX;
+        this.minCellY = minCellY;
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.words = new long[wordsPerRow * height];
+    }
+
+    /************************************************************************
+     *                          CELL ACCESS
+     ************************************************************************/
+
+    /**
+     * @param x X coordinate
+     * @return column of the grid containing the coordinate (may be out of the grid)
+     */
+    public int cellX(float x) {
+        return FastMath.round(x / dx) - minCellX;
+    }
+
+    /**
+     * @param y Y coordinate
+     * @return row of the grid containing the coordinate (may be out of the grid)
+     */
+    public int cellY(float y) {
+        return FastMath.round(y / dy) - minCellY;
+    }
+
+    /**
+     * @param x column
+     * @param y row
+     * @return true if the cell is in the grid
+     */
+    public boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * @param x column
+     * @param y row
+     * @return true if the cell is occupied or out of the grid
+     */
+    public boolean get(int x, int y) {
+        if (!isInside(x, y)) {
+            return true;
+        }
+        return (words[y * wordsPerRow + (x >>> 6)] & (1L << (x & 63))) != 0;
+    }
+
+    /**
+     * Marks a cell as occupied.
+     *
+     * @param x column
+     * @param y row
+     * @throws IllegalArgumentException if the cell is out of the grid
+     */
+    public void set(int x, int y) {
+        checkInside(x, y);
+        words[y * wordsPerRow + (x >>> 6)] |= 1L << (x & 63);
+    }
+
+    /**
+     * Marks a cell as free.
+     *
+     * @param x column
+     * @param y row
+     * @throws IllegalArgumentException if the cell is out of the grid
+     */
+    public void clear(int x, int y) {
+        checkInside(x, y);
+        words[y * wordsPerRow + (x >>> 6)] &= ~(1L << (x & 63));
+    }
+
+    public void set(int x, int y, boolean occupied) {
+        if (occupied) {
+            set(x, y);
+        } else {
+            clear(x, y);
+        }
+    }
+
+    /**
+     * @param point point of the map
+     * @return true if the cell of the point is occupied or out of the grid
+     */
+    public boolean isOccupied(Point point) {
+        return get(cellX(point.getX()), cellY(point.getY()));
+    }
+
+    /**
+     * Marks the cell of a point as occupied; points out of the grid are ignored.
+     *
+     * @param point point of the map
+     */
+    public void setOccupied(Point point) {
+        int x = cellX(point.getX()), y = cellY(point.getY());
+        if (isInside(x, y)) {
+            set(x, y);
+        }
+    }
+
+    /**
+     * Marks all the cells as free.
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * @return number of occupied cells
+     */
+    public int countOccupied() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /************************************************************************
+     *                         SPAN OPERATIONS
+     ************************************************************************/
+
+    /**
+     * Checks if any cell of a row segment is occupied, a word at a time.
+     *
+     * @param y row
+     * @param fromX first column, included
+     * @param toX last column, included
+     * @return true if any cell in [fromX, toX] is occupied or out of the grid
+     */
+    public boolean anyInSpan(int y, int fromX, int toX) {
+        if (y < 0 || y >= height || fromX < 0 || toX >= width) {
+            return true;
+        }
+        int base = y * wordsPerRow;
+        int fromWord = fromX >>> 6, toWord = toX >>> 6;
+        long firstMask = -1L << (fromX & 63);
+        long lastMask = -1L >>> (63 - (toX & 63));
+        if (fromWord == toWord) {
+            return (words[base + fromWord] & firstMask & lastMask) != 0;
+        }
+        if ((words[base + fromWord] & firstMask) != 0) {
+            return true;
+        }
+        for (int w = fromWord + 1; w < toWord; w++) {
+            if (words[base + w] != 0) {
+                return true;
+            }
+        }
+        return (words[base + toWord] & lastMask) != 0;
+    }
+
+    /**
+     * Marks all the cells of a row segment as occupied, a word at a time. The segment is
+     * clipped to the grid, since the cells out of it are already considered occupied.
+     *
+     * @param y row
+     * @param fromX first column, included
+     * @param toX last column, included
+     */
+    public void setSpan(int y, int fromX, int toX) {
+        fromX = FastMath.max(fromX, 0);
+        toX = FastMath.min(toX, width - 1);
+        if (y < 0 || y >= height || fromX > toX) {
+            return;
+        }
+        int base = y * wordsPerRow;
+        int fromWord = fromX >>> 6, toWord = toX >>> 6;
+        long firstMask = -1L << (fromX & 63);
+        long lastMask = -1L >>> (63 - (toX & 63));
+        if (fromWord == toWord) {
+            words[base + fromWord] |= firstMask & lastMask;
+            return;
+        }
+        words[base + fromWord] |= firstMask;
+        for (int w = fromWord + 1; w < toWord; w++) {
+            words[base + w] = -1L;
+        }
+        words[base + toWord] |= lastMask;
+    }
+
+    /**
+     * Checks if any cell of a footprint is occupied.
+     *
+     * @param spans packed (y, fromX, toX) spans of the footprint, see {@link FootprintRasterizer#toSpans(int[])}
+     * @param cellX column where the footprint is placed
+     * @param cellY row where the footprint is placed
+     * @return true if any cell of the footprint is occupied or out of the grid
+     */
+    public boolean collides(int[] spans, int cellX, int cellY) {
+        for (int i = 0; i < spans.length; i += 3) {
+            if (anyInSpan(cellY + spans[i], cellX + spans[i + 1], cellX + spans[i + 2])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks the footprint of a shape using the cached mask of its heading, placed at the
+     * cell of the pose. Poses out of the center of their cell or with a heading out of the
+     * cache are rasterized, see {@link #collides(FootprintRasterizer, Pose)}.
+     *
+     * @param masks masks of the shape, with the same resolution than the grid
+     * @param pose pose of the shape
+     * @return true if any cell of the footprint is occupied or out of the grid
+     */
+    public boolean collides(FootprintMaskCache masks, Pose pose) {
+        int x = cellX(pose.getX()), y = cellY(pose.getY());
+        int index = masks.cachedHeadingIndex(pose.getYaw());
+        if (index < 0
+                || FastMath.abs(pose.getX() - (x + minCellX) * dx) > CENTER_TOLERANCE * dx
+                || FastMath.abs(pose.getY() - (y + minCellY) * dy) > CENTER_TOLERANCE * dy) {
+            return collides(masks.getRasterizer(), pose);
+        }
+        return collides(masks.spansAt(index), x, y);
+    }
+
+    /**
+     * Checks the footprint of a shape at any pose, rasterizing it.
+     *
+     * @param rasterizer rasterizer of the shape, with the same resolution than the grid
+     * @param pose pose of the shape
+     * @return true if any cell of the footprint is occupied or out of the grid
+     */
+    public boolean collides(FootprintRasterizer rasterizer, Pose pose) {
+        return collides(FootprintRasterizer.toSpans(rasterizer.rasterize(pose)), -minCellX, -minCellY);
+    }
+
+    /************************************************************************
+     *                         ROW OPERATIONS
+     ************************************************************************/
+
+    /**
+     * Occupied cells of a row of another grid with the same width are also occupied in a row of this one.
+     *
+     * @param y row of this grid
+     * @param other source grid
+     * @param otherY row of the source grid
+     */
+    public void orRow(int y, OccupancyGrid2D other, int otherY) {
+        checkWidth(other);
+        int base = y * wordsPerRow, otherBase = otherY * wordsPerRow;
+        for (int w = 0; w < wordsPerRow; w++) {
+            words[base + w] |= other.words[otherBase + w];
+        }
+    }
+
+    /**
+     * Only the cells occupied in both rows remain occupied in the row of this grid.
+     *
+     * @param y row of this grid
+     * @param other source grid
+     * @param otherY row of the source grid
+     */
+    public void andRow(int y, OccupancyGrid2D other, int otherY) {
+        checkWidth(other);
+        int base = y * wordsPerRow, otherBase = otherY * wordsPerRow;
+        for (int w = 0; w < wordsPerRow; w++) {
+            words[base + w] &= other.words[otherBase + w];
+        }
+    }
+
+    /**
+     * Union with the occupied cells of a grid with the same dimensions.
+     *
+     * @param other source grid
+     */
+    public void or(OccupancyGrid2D other) {
+        checkDimensions(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    /**
+     * Intersection with the occupied cells of a grid with the same dimensions.
+     *
+     * @param other source grid
+     */
+    public void and(OccupancyGrid2D other) {
+        checkDimensions(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+    }
+
+    /**
+     * Frees the cells occupied in a grid with the same dimensions.
+     *
+     * @param other source grid
+     */
+    public void andNot(OccupancyGrid2D other) {
+        checkDimensions(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    private void checkInside(int x, int y) {
+        if (!isInside(x, y)) {
+            throw new IllegalArgumentException("cell out of the grid: (" + x + ", " + y + ")");
+        }
+    }
+
+    private void checkWidth(OccupancyGrid2D other) {
+        if (other.width != width) {
+            throw new IllegalArgumentException("grids of different width: " + width + ", " + other.width);
+        }
+    }
+
+    private void checkDimensions(OccupancyGrid2D other) {
+        if (other.width != width || other.height != height) {
+            throw new IllegalArgumentException("grids of different dimensions: " + width + "x" + height + ", " + other.width + "x" + other.height);
+        }
+    }
+
+    /************************************************************************
+     *                            GETTERS
+     ************************************************************************/
+
+    public float getDx() {
+        return dx;
+    }
+
+    public float getDy() {
+        return dy;
+    }
+
+    public int getMinCellX() {
+        return minCellX;
+    }
+
+    public int getMinCellY() {
+        return minCellY;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * @return words of the grid; it is the internal storage, so changes are visible in it
+     */
+    public long[] words() {
+        return words;
+    }
+
+}
@@ -0,0 +1,369 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.grid;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import org.apache.commons.math3.util.FastMath;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Occupancy grid of a 3D map, storing one bit per cell in an array of {@code long} words.
+ * It follows the conventions of {@link OccupancyGrid2D}, stacking its layers: the cell (x, y, z)
+ * is the bit {@code x & 63} of the word {@code (z * height + y) * wordsPerRow + (x >>> 6)}.
+ * The cells out of the grid are considered occupied.
+ */
+public class OccupancyGrid3D implements Serializable {
+
+    private static final long serialVersionUID = 20190211L;
+
+    private final float dx;
+    private final float dy;
+    private final float dz;
+    private final int minCellX;
+    private final int minCellY;
+    private final int minCellZ;
+    private final int width;
+    private final int height;
+    private final int depth;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    /**
+     * Creates an empty grid whose first cell is the one of the origin.
+     *
+     * @param width number of columns
+     * @param height number of rows
+     * @param depth number of layers
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     * @param dz resolution in the Z axis
+     */
+    public OccupancyGrid3D(int width, int height, int depth, float dx, float dy, float dz) {
+        this(0, 0, 0, width, height, depth, dx, dy, dz);
+    }
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param minCellX column of the first cell
+     * @param minCellY row of the first cell
+     * @param minCellZ layer of the first cell
+     * @param width number of columns
+     * @param height number of rows
+     * @param depth number of layers
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     * @param dz resolution in the Z axis
+     */
+    public OccupancyGrid3D(int minCellX, int minCellY, int minCellZ, int width, int height, int depth, float dx, float dy, float dz) {
+        if (width <= 0 || height <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("dimensions of the grid must be positive: " + width + "x" + height + "x" + depth);
+        }
+        this.dx = dx;
+        this.dy = dy;
+        this.dz = dz;
+        this.minCellX = minCellX;
+        this.minCellY = minCellY;
+        this.minCellZ = minCellZ;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.words = new long[wordsPerRow * height * depth];
+    }
+
+    /************************************************************************
+     *                          CELL ACCESS
+     ************************************************************************/
+
+    public int cellX(float x) {
+        return FastMath.round(x / dx) - minCellX;
+    }
+
+    public int cellY(float y) {
+        return FastMath.round(y / dy) - minCellY;
+    }
+
+    public int cellZ(float z) {
+        return FastMath.round(z / dz) - minCellZ;
+    }
+
+    /**
+     * @param x column
+     * @param y row
+     * @param z layer
+     * @return true if the cell is in the grid
+     */
+    public boolean isInside(int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0 && x < width && y < height && z < depth;
+    }
+
+    private void checkInside(int x, int y, int z) {
+        if (!isInside(x, y, z)) {
+            throw new IllegalArgumentException("cell out of the grid: (" + x + ", " + y + ", " + z + ")");
+        }
+    }
+
+    private int wordIndex(int x, int y, int z) {
+        return (z * height + y) * wordsPerRow + (x >>> 6);
+    }
+
+    /**
+     * @param x column
+     * @param y row
+     * @param z layer
+     * @return true if the cell is occupied or out of the grid
+     */
+    public boolean get(int x, int y, int z) {
+        if (!isInside(x, y, z)) {
+            return true;
+        }
+        return (words[wordIndex(x, y, z)] & (1L << (x & 63))) != 0;
+    }
+
+    /**
+     * Marks a cell as occupied.
+     *
+     * @param x column
+     * @param y row
+     * @param z layer
+     * @throws IllegalArgumentException if the cell is out of the grid
+     */
+    public void set(int x, int y, int z) {
+        checkInside(x, y, z);
+        words[wordIndex(x, y, z)] |= 1L << (x & 63);
+    }
+
+    /**
+     * Marks a cell as free.
+     *
+     * @param x column
+     * @param y row
+     * @param z layer
+     * @throws IllegalArgumentException if the cell is out of the grid
+     */
+    public void clear(int x, int y, int z) {
+        checkInside(x, y, z);
+        words[wordIndex(x, y, z)] &= ~(1L << (x & 63));
+    }
+
+    /**
+     * @param point point of the map
+     * @return true if the cell of the point is occupied or out of the grid
+     */
+    public boolean isOccupied(Point point) {
+        return get(cellX(point.getX()), cellY(point.getY()), cellZ(point.getZ()));
+    }
+
+    /**
+     * Marks the cell of a point as occupied; points out of the grid are ignored.
+     *
+     * @param point point of the map
+     */
+    public void setOccupied(Point point) {
+        int x = cellX(point.getX()), y = cellY(point.getY()), z = cellZ(point.getZ());
+        if (isInside(x, y, z)) {
+            set(x, y, z);
+        }
+    }
+
+    /**
+     * Marks all the cells as free.
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * @return number of occupied cells
+     */
+    public int countOccupied() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /************************************************************************
+     *                         SPAN OPERATIONS
+     ************************************************************************/
+
+    /**
+     * Checks if any cell of a row segment is occupied, a word at a time.
+     *
+     * @param z layer
+     * @param y row
+     * @param fromX first column, included
+     * @param toX last column, included
+     * @return true if any cell in [fromX, toX] is occupied or out of the grid
+     */
+    public boolean anyInSpan(int z, int y, int fromX, int toX) {
+        if (z < 0 || z >= depth || y < 0 || y >= height || fromX < 0 || toX >= width) {
+            return true;
+        }
+        int base = (z * height + y) * wordsPerRow;
+        int fromWord = fromX >>> 6, toWord = toX >>> 6;
+        long firstMask = -1L << (fromX & 63);
+        long lastMask = -1L >>> (63 - (toX & 63));
+        if (fromWord == toWord) {
+            return (words[base + fromWord] & firstMask & lastMask) != 0;
+        }
+        if ((words[base + fromWord] & firstMask) != 0) {
+            return true;
+        }
+        for (int w = fromWord + 1; w < toWord; w++) {
+            if (words[base + w] != 0) {
+                return true;
+            }
+        }
+        return (words[base + toWord] & lastMask) != 0;
+    }
+
+    /**
+     * Checks if any cell of a footprint is occupied.
+     *
+     * @param spans packed (z, y, fromX, toX) spans of the footprint, see {@link FootprintRasterizer3D#toSpans(int[])}
+     * @param cellX column where the footprint is placed
+     * @param cellY row where the footprint is placed
+     * @param cellZ layer where the footprint is placed
+     * @return true if any cell of the footprint is occupied or out of the grid
+     */
+    public boolean collides(int[] spans, int cellX, int cellY, int cellZ) {
+        for (int i = 0; i < spans.length; i += 4) {
+            if (anyInSpan(cellZ + spans[i], cellY + spans[i + 1], cellX + spans[i + 2], cellX + spans[i + 3])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks the footprint of a shape at a pose, rasterizing it.
+     *
+     * @param rasterizer rasterizer of the shape, with the same resolution than the grid
+     * @param pose pose of the shape
+     * @return true if any cell of the footprint is occupied or out of the grid
+     */
+    public boolean collides(FootprintRasterizer3D rasterizer, Pose pose) {
+        return collides(FootprintRasterizer3D.toSpans(rasterizer.rasterize(pose)), -minCellX, -minCellY, -minCellZ);
+    }
+
+    /************************************************************************
+     *                         LAYER OPERATIONS
+     ************************************************************************/
+
+    /**
+     * Union with the occupied cells of a grid with the same dimensions.
+     *
+     * @param other source grid
+     */
+    public void or(OccupancyGrid3D other) {
+        checkDimensions(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    /**
+     * Intersection with the occupied cells of a grid with the same dimensions.
+     *
+     * @param other source grid
+     */
+    public void and(OccupancyGrid3D other) {
+        checkDimensions(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+    }
+
+    /**
+     * Projects the grid over the XY plane: a cell of the 2D grid is occupied if it is occupied
+     * in any layer. The 2D grid must have the same width and height.
+     *
+     * @param out 2D grid where the occupied cells are added
+     */
+    public void projectTo(OccupancyGrid2D out) {
+        if (out.getWidth() != width || out.getHeight() != height) {
+            throw new IllegalArgumentException("grids of different dimensions: " + width + "x" + height + ", " + out.getWidth() + "x" + out.getHeight());
+        }
+        long[] target = out.words();
+        int layer = height * wordsPerRow;
+        for (int z = 0; z < depth; z++) {
+            for (int i = 0; i < layer; i++) {
+                target[i] |= words[z * layer + i];
+            }
+        }
+    }
+
+    private void checkDimensions(OccupancyGrid3D other) {
+        if (other.width != width || other.height != height || other.depth != depth) {
+            throw new IllegalArgumentException("grids of different dimensions: " + width + "x" + height + "x" + depth
+                    + ", " + other.width + "x" + other.height + "x" + other.depth);
+        }
+    }
+
+    /************************************************************************
+     *                            GETTERS
+     ************************************************************************/
+
+    public float getDx() {
+        return dx;
+    }
+
+    public float getDy() {
+        return dy;
+    }
+
+    public float getDz() {
+        return dz;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getMinCellX() {
+        return minCellX;
+    }
+
+    public int getMinCellY() {
+        return minCellY;
+    }
+
+    public int getMinCellZ() {
+        return minCellZ;
+    }
+
+    /**
+     * @return words of the grid; it is the internal storage, so changes are visible in it
+     */
+    public long[] words() {
+        return words;
+    }
+
+}
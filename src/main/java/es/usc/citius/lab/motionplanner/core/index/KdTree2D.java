@@ -0,0 +1,391 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.index;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud2D;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * Static k-d tree over a set of 2D points, for nearest-neighbour, k-nearest
+ * and radius queries.
+ *
+ * The tree is implicit: the coordinates are copied and reordered so that the
+ * median of each range [lo, hi) is stored at (lo + hi) / 2, with the lower half on
+ * its left and the upper half on its right. The splitting axis of each node is the one
+ * with the largest extent in its range. Building takes O(n log n) and the queries
+ * do not allocate any object, so a tree can be shared among threads.
+ *
+ * The queries return the position of the points in the collection used to build
+ * the tree.
+ */
+public class KdTree2D implements Serializable {
+
+    private static final long serialVersionUID = 20190122L;
+    /**
+     * Ranges with this number of points or less are scanned linearly.
+     */
+    static final int LEAF_SIZE = 8;
+
+    final float[] xs;
+    final float[] ys;
+    final int[] ids;
+    final byte[] axes;
+    final int size;
+
+    /**
+     * Builds the tree with the (x, y) coordinates of a collection of points.
+     *
+     * @param points points to index
+     */
+    public KdTree2D(Collection<? extends Point> points) {
+        this(points.size());
+        int i = 0;
+        for (Point point : points) {
+            xs[i] = point.getX();
+            ys[i] = point.getY();
+            i++;
+        }
+        build(0, size);
+    }
+
+    /**
+     * Builds the tree with the points of a cloud.
+     *
+     * @param cloud points to index
+     */
+    public KdTree2D(PointCloud2D cloud) {
+        this(cloud.xs(), cloud.ys(), 0, cloud.size());
+    }
+
+    /**
+     * Builds the tree with a range of coordinates given in arrays, which are not modified.
+     * The indexes returned by the queries are relative to the offset.
+     *
+     * @param xs X coordinates
+     * @param ys Y coordinates
+     * @param offset first position of the arrays
+     * @param length number of points
+     */
+    public KdTree2D(float[] xs, float[] ys, int offset, int length) {
+        this(length);
+        System.arraycopy(xs, offset, this.xs, 0, length);
+        System.arraycopy(ys, offset, this.ys, 0, length);
+        build(0, size);
+    }
+
+    private KdTree2D(int size) {
+        this.size = size;
+        this.xs = new float[size];
+        this.ys = new float[size];
+        this.ids = new int[size];
+        this.axes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+        }
+    }
+
+    /**
+     * @return number of indexed points
+     */
+    public int size() {
+        return size;
+    }
+
+    /************************************************************************
+     *                             QUERIES
+     ************************************************************************/
+
+    /**
+     * Finds the closest indexed point to the given coordinates.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return position of the closest point, -1 if the tree is empty
+     */
+    public int nearest(float x, float y) {
+        if (size == 0) {
+            return -1;
+        }
+        return ids[nearest(0, size, x, y, -1)];
+    }
+
+    /**
+     * @param point query point
+     * @return position of the closest point to the (x, y) coordinates of the query, -1 if the tree is empty
+     */
+    public int nearest(Point point) {
+        return nearest(point.getX(), point.getY());
+    }
+
+    /**
+     * Obtains the distance between the given coordinates and the closest indexed point.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return distance to the closest point, {@link Float#POSITIVE_INFINITY} if the tree is empty
+     */
+    public float nearestDistance(float x, float y) {
+        if (size == 0) {
+            return Float.POSITIVE_INFINITY;
+        }
+        return (float) Math.sqrt(distanceSquared(nearest(0, size, x, y, -1), x, y));
+    }
+
+    /**
+     * Finds the k closest indexed points to the given coordinates, sorted by
+     * increasing distance.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param k maximum number of points to retrieve
+     * @param outIndexes array where the positions of the points are written, with at least k elements
+     * @param outDistances array where the squared distances to the points are written, with at least k elements
+     * @return number of points found, min(k, size())
+     */
+    public int kNearest(float x, float y, int k, int[] outIndexes, float[] outDistances) {
+        if (k <= 0 || size == 0) {
+            return 0;
+        }
+        int count = kNearest(0, size, x, y, k, outIndexes, outDistances, 0);
+        for (int i = 0; i < count; i++) {
+            outIndexes[i] = ids[outIndexes[i]];
+        }
+        return count;
+    }
+
+    /**
+     * Finds the indexed points whose distance to the given coordinates is lower or equal
+     * than a radius, in no particular order. If there are more points than positions in
+     * the output array, only the first ones found are written, but all of them are counted.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param radius maximum distance
+     * @param outIndexes array where the positions of the points are written
+     * @return number of points within the radius
+     */
+    public int radius(float x, float y, float radius, int[] outIndexes) {
+        if (size == 0 || radius < 0) {
+            return 0;
+        }
+        return radius(0, size, x, y, radius * radius, outIndexes, 0);
+    }
+
+    /**
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param radius maximum distance
+     * @return true if there is any indexed point within the radius of the given coordinates
+     */
+    public boolean anyWithin(float x, float y, float radius) {
+        return size > 0 && radius >= 0 && distanceSquared(nearest(0, size, x, y, -1), x, y) <= radius * radius;
+    }
+
+    /************************************************************************
+     *                          TREE TRAVERSAL
+     ************************************************************************/
+
+    float distanceSquared(int node, float x, float y) {
+        float dx = xs[node] - x;
+        float dy = ys[node] - y;
+        return dx * dx + dy * dy;
+    }
+
+    private int nearest(int lo, int hi, float x, float y, int best) {
+        if (hi - lo <= LEAF_SIZE) {
+            float bestDistance = best < 0 ? Float.POSITIVE_INFINITY : distanceSquared(best, x, y);
+            for (int i = lo; i < hi; i++) {
+                float distance = distanceSquared(i, x, y);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = i;
+                }
+            }
+            return best;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (best < 0 || distanceSquared(mid, x, y) < distanceSquared(best, x, y)) {
+            best = mid;
+        }
+        float diff = axes[mid] == 0 ? x - xs[mid] : y - ys[mid];
+        if (diff < 0) {
+            best = nearest(lo, mid, x, y, best);
+            if (diff * diff < distanceSquared(best, x, y)) {
+                best = nearest(mid + 1, hi, x, y, best);
+            }
+        } else {
+            best = nearest(mid + 1, hi, x, y, best);
+            if (diff * diff < distanceSquared(best, x, y)) {
+                best = nearest(lo, mid, x, y, best);
+            }
+        }
+        return best;
+    }
+
+    private int kNearest(int lo, int hi, float x, float y, int k, int[] outIndexes, float[] outDistances, int count) {
+        if (hi - lo <= LEAF_SIZE) {
+            for (int i = lo; i < hi; i++) {
+                count = insert(i, distanceSquared(i, x, y), k, outIndexes, outDistances, count);
+            }
+            return count;
+        }
+        int mid = (lo + hi) >>> 1;
+        count = insert(mid, distanceSquared(mid, x, y), k, outIndexes, outDistances, count);
+        float diff = axes[mid] == 0 ? x - xs[mid] : y - ys[mid];
+        if (diff < 0) {
+            count = kNearest(lo, mid, x, y, k, outIndexes, outDistances, count);
+            if (count < k || diff * diff < outDistances[count - 1]) {
+                count = kNearest(mid + 1, hi, x, y, k, outIndexes, outDistances, count);
+            }
+        } else {
+            count = kNearest(mid + 1, hi, x, y, k, outIndexes, outDistances, count);
+            if (count < k || diff * diff < outDistances[count - 1]) {
+                count = kNearest(lo, mid, x, y, k, outIndexes, outDistances, count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Inserts a candidate in the list of k-nearest points, sorted by distance.
+     *
+     * @return new number of elements of the list
+     */
+    static int insert(int node, float distance, int k, int[] outIndexes, float[] outDistances, int count) {
+        if (count == k && distance >= outDistances[count - 1]) {
+            return count;
+        }
+        int i = count < k ? count++ : count - 1;
+        while (i > 0 && outDistances[i - 1] > distance) {
+            outDistances[i] = outDistances[i - 1];
+            outIndexes[i] = outIndexes[i - 1];
+            i--;
+        }
+        outDistances[i] = distance;
+        outIndexes[i] = node;
+        return count;
+    }
+
+    private int radius(int lo, int hi, float x, float y, float radius2, int[] outIndexes, int count) {
+        if (hi - lo <= LEAF_SIZE) {
+            for (int i = lo; i < hi; i++) {
+                if (distanceSquared(i, x, y) <= radius2) {
+                    if (count < outIndexes.length) {
+                        outIndexes[count] = ids[i];
+                    }
+                    count++;
+                }
+            }
+            return count;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (distanceSquared(mid, x, y) <= radius2) {
+            if (count < outIndexes.length) {
+                outIndexes[count] = ids[mid];
+            }
+            count++;
+        }
+        float diff = axes[mid] == 0 ? x - xs[mid] : y - ys[mid];
+        if (diff <= 0 || diff * diff <= radius2) {
+            count = radius(lo, mid, x, y, radius2, outIndexes, count);
+        }
+        if (diff >= 0 || diff * diff <= radius2) {
+            count = radius(mid + 1, hi, x, y, radius2, outIndexes, count);
+        }
+        return count;
+    }
+
+    /************************************************************************
+     *                          CONSTRUCTION
+     ************************************************************************/
+
+    private void build(int lo, int hi) {
+        if (hi - lo <= LEAF_SIZE) {
+            return;
+        }
+        float minX = xs[lo], maxX = xs[lo], minY = ys[lo], maxY = ys[lo];
+        for (int i = lo + 1; i < hi; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        int axis = maxX - minX >= maxY - minY ? 0 : 1;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis == 0 ? xs : ys);
+        axes[mid] = (byte) axis;
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    /**
+     * Reorders the range [lo, hi] so that the element at position k is the one which would be
+     * there if the range was sorted by the given coordinate, the lower ones on its left and the
+     * greater ones on its right (quickselect with median of three pivot).
+     */
+    private void select(int lo, int hi, int k, float[] coordinate) {
+        while (hi > lo) {
+            int mid = (lo + hi) >>> 1;
+            if (coordinate[mid] < coordinate[lo]) {
+                swap(lo, mid);
+            }
+            if (coordinate[hi] < coordinate[lo]) {
+                swap(lo, hi);
+            }
+            if (coordinate[hi] < coordinate[mid]) {
+                swap(mid, hi);
+            }
+            float pivot = coordinate[mid];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (coordinate[i] < pivot) {
+                    i++;
+                }
+                while (coordinate[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        float x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        float y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+    }
+
+}
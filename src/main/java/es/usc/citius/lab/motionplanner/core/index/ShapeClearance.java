@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.index;
+
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Clearance of a {@link Shape2D} placed at a pose, this is, the distance between its
+ * border and the closest point of a set of obstacles indexed in a {@link KdTree2D}.
+ *
+ * The tree is traversed in a branch and bound fashion: the distance from the shape to any
+ * point is at least its distance to the center of the pose minus {@link Shape2D#getMaxRadius()},
+ * so the subtrees and points for which this bound is not better than the best clearance found
+ * so far are pruned, and only the remaining ones are evaluated with
+ * {@link Shape2D#distanceToPoint(float, float, float, float, float, float)}.
+ *
+ * The queries do not allocate objects, but they store their state in the instance, so
+ * each thread must use its own {@link ShapeClearance} (the tree can be shared).
+ */
+public class ShapeClearance {
+
+    private final KdTree2D obstacles;
+    private final Shape2D shape;
+    private final float maxRadius;
+    //state of the current query
+    private float x, y, cos, sin;
+    private float bestDistance;
+    private int bestNode;
+
+    /**
+     * @param obstacles index of the points of the obstacles
+     * @param shape shape of the robot
+     */
+    public ShapeClearance(KdTree2D obstacles, Shape2D shape) {
+        this.obstacles = obstacles;
+        this.shape = shape;
+        this.maxRadius = shape.getMaxRadius();
+    }
+
+    /**
+     * Obtains the distance between the shape at the given pose and the closest obstacle.
+     *
+     * @param pose pose of the shape
+     * @return clearance of the shape, 0 if it contains any obstacle, {@link Float#POSITIVE_INFINITY} if there are no obstacles
+     */
+    public float clearance(Pose pose) {
+        query(pose, Float.POSITIVE_INFINITY);
+        return bestDistance;
+    }
+
+    /**
+     * Obtains the distance between the shape at the given pose and the closest obstacle. The
+     * heading is given by its cosine and sine, so they can be reused among queries.
+     *
+     * @param x X coordinate of the pose
+     * @param y Y coordinate of the pose
+     * @param cos cosine of the heading
+     * @param sin sine of the heading
+     * @return clearance of the shape, 0 if it contains any obstacle, {@link Float#POSITIVE_INFINITY} if there are no obstacles
+     */
+    public float clearance(float x, float y, float cos, float sin) {
+        query(x, y, cos, sin, Float.POSITIVE_INFINITY);
+        return bestDistance;
+    }
+
+    /**
+     * Obtains the distance between the shape at the given pose and the closest obstacle, and
+     * the position of that obstacle.
+     *
+     * @param pose pose of the shape
+     * @param witness point where the coordinates of the closest obstacle are written, if any
+     * @return clearance of the shape, 0 if it contains any obstacle, {@link Float#POSITIVE_INFINITY} if there are no obstacles
+     */
+    public float clearance(Pose pose, Point2D witness) {
+        query(pose, Float.POSITIVE_INFINITY);
+        if (bestNode >= 0) {
+            witness.x = obstacles.xs[bestNode];
+            witness.y = obstacles.ys[bestNode];
+        }
+        return bestDistance;
+    }
+
+    /**
+     * Finds the closest obstacle to the shape at the given pose.
+     *
+     * @param pose pose of the shape
+     * @return position of the obstacle in the collection used to build the tree, -1 if there are no obstacles
+     */
+    public int nearestObstacle(Pose pose) {
+        query(pose, Float.POSITIVE_INFINITY);
+        return bestNode < 0 ? -1 : obstacles.ids[bestNode];
+    }
+
+    /**
+     * Checks if the clearance of the shape at the given pose is greater than a margin. This is
+     * faster than comparing the result of {@link #clearance(Pose)}, because only the obstacles
+     * within the margin are evaluated.
+     *
+     * @param pose pose of the shape
+     * @param margin minimum distance to the obstacles
+     * @return true if no obstacle is at a distance lower or equal than the margin
+     */
+    public boolean isFree(Pose pose, float margin) {
+        query(pose, FastMath.nextUp(margin));
+        return bestNode < 0;
+    }
+
+    public KdTree2D getObstacles() {
+        return obstacles;
+    }
+
+    public Shape2D getShape() {
+        return shape;
+    }
+
+    /**
+     * Runs a query, considering only the obstacles closer than a bound.
+     */
+    private void query(Pose pose, float bound) {
+        float yaw = pose.getYaw();
+        query(pose.getX(), pose.getY(), (float) FastMath.cos(yaw), (float) FastMath.sin(yaw), bound);
+    }
+
+    private void query(float x, float y, float cos, float sin, float bound) {
+        this.x = x;
+        this.y = y;
+        this.cos = cos;
+        this.sin = sin;
+        this.bestDistance = bound;
+        this.bestNode = -1;
+        if (obstacles.size > 0) {
+            search(0, obstacles.size);
+        }
+    }
+
+    /**
+     * Evaluates an obstacle, updating the best one if it is closer.
+     */
+    private void evaluate(int node) {
+        //centerDistance - maxRadius < bestDistance, without the square root
+        float bound = bestDistance + maxRadius;
+        if (obstacles.distanceSquared(node, x, y) < bound * bound) {
+            float distance = shape.distanceToPoint(x, y, cos, sin, obstacles.xs[node], obstacles.ys[node]);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestNode = node;
+            }
+        }
+    }
+
+    private void search(int lo, int hi) {
+        //an obstacle inside the shape cannot be improved
+        if (bestDistance <= 0) {
+            return;
+        }
+        if (hi - lo <= KdTree2D.LEAF_SIZE) {
+            for (int i = lo; i < hi && bestDistance > 0; i++) {
+                evaluate(i);
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        evaluate(mid);
+        float diff = obstacles.axes[mid] == 0 ? x - obstacles.xs[mid] : y - obstacles.ys[mid];
+        //nearest side first, the other one only if it can contain a closer obstacle
+        if (diff < 0) {
+            search(lo, mid);
+            if (-diff - maxRadius < bestDistance) {
+                search(mid + 1, hi);
+            }
+        } else {
+            search(mid + 1, hi);
+            if (diff - maxRadius < bestDistance) {
+                search(lo, mid);
+            }
+        }
+    }
+
+}
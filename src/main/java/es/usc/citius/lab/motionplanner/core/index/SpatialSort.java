@@ -0,0 +1,214 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.index;
+
+import es.usc.citius.lab.motionplanner.core.lattice.HilbertCode;
+import es.usc.citius.lab.motionplanner.core.lattice.MortonCode;
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud2D;
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud3D;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorts points along a space-filling curve, so points close in space end up close in memory and
+ * the iterations over them (building a {@link KdTree2D}, filling a grid, scanning neighbours)
+ * access the memory in order.
+ * <p>
+ * The points are discretized in cells as {@link es.usc.citius.lab.motionplanner.core.lattice.PointAdapter2D}
+ * ({@code round(x / dx)}), the cells are encoded with {@link MortonCode} or {@link HilbertCode},
+ * and the codes are sorted with a stable radix sort, so points in the same cell keep their order.
+ */
+public final class SpatialSort {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * Private constructor, only static methods.
+     */
+    private SpatialSort() {
+    }
+
+    /************************************************************************
+     *                          CURVE CODES
+     ************************************************************************/
+
+    /**
+     * @param cloud points to encode
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     * @return Morton codes of the cells of the points
+     */
+    public static long[] mortonCodes(PointCloud2D cloud, float dx, float dy) {
+        float[] xs = cloud.xs(), ys = cloud.ys();
+        long[] codes = new long[cloud.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = MortonCode.encode2D(FastMath.round(xs[i] / dx), FastMath.round(ys[i] / dy));
+        }
+        return codes;
+    }
+
+    /**
+     * @param cloud points to encode
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     * @param dz resolution in the Z axis
+     * @return Morton codes of the cells of the points, whose indexes must be in [-2^20, 2^20)
+     */
+    public static long[] mortonCodes(PointCloud3D cloud, float dx, float dy, float dz) {
+        float[] xs = cloud.xs(), ys = cloud.ys(), zs = cloud.zs();
+        long[] codes = new long[cloud.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = MortonCode.encode3D(FastMath.round(xs[i] / dx), FastMath.round(ys[i] / dy), FastMath.round(zs[i] / dz));
+        }
+        return codes;
+    }
+
+    /**
+     * @param cloud points to encode
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     * @return Hilbert codes of the cells of the points, whose indexes must be in [-2^30, 2^30)
+     */
+    public static long[] hilbertCodes(PointCloud2D cloud, float dx, float dy) {
+        float[] xs = cloud.xs(), ys = cloud.ys();
+        long[] codes = new long[cloud.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = HilbertCode.encode2D(FastMath.round(xs[i] / dx), FastMath.round(ys[i] / dy));
+        }
+        return codes;
+    }
+
+    /************************************************************************
+     *                             SORTING
+     ************************************************************************/
+
+    /**
+     * Obtains the order of a set of codes with a stable LSD radix sort of 8 bits per pass,
+     * skipping the passes where all the codes have the same digit. The codes are compared
+     * as unsigned values.
+     *
+     * @param codes codes to sort, not modified
+     * @return indexes of the codes in ascending order
+     */
+    public static int[] argsort(long[] codes) {
+        int n = codes.length;
+        int[] order = new int[n];
+        int[] buffer = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        int[] counts = new int[RADIX];
+        for (int shift = 0; shift < 64; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[(int) (codes[i] >>> shift) & (RADIX - 1)]++;
+            }
+            //all the codes in the same bucket: this digit does not change the order
+            if (n == 0 || counts[(int) (codes[0] >>> shift) & (RADIX - 1)] == n) {
+                continue;
+            }
+            int total = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int count = counts[d];
+                counts[d] = total;
+                total += count;
+            }
+            for (int i = 0; i < n; i++) {
+                int index = order[i];
+                buffer[counts[(int) (codes[index] >>> shift) & (RADIX - 1)]++] = index;
+            }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
+
+    /**
+     * Sorts a cloud along the Morton curve, in place.
+     *
+     * @param cloud points to sort
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     * @return previous indexes of the points, to reorder the data associated to them
+     */
+    public static int[] sortMorton(PointCloud2D cloud, float dx, float dy) {
+        int[] order = argsort(mortonCodes(cloud, dx, dy));
+        cloud.reorder(order);
+        return order;
+    }
+
+    /**
+     * Sorts a cloud along the Morton curve, in place.
+     *
+     * @param cloud points to sort
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     * @param dz resolution in the Z axis
+     * @return previous indexes of the points, to reorder the data associated to them
+     */
+    public static int[] sortMorton(PointCloud3D cloud, float dx, float dy, float dz) {
+        int[] order = argsort(mortonCodes(cloud, dx, dy, dz));
+        cloud.reorder(order);
+        return order;
+    }
+
+    /**
+     * Sorts a cloud along the Hilbert curve, in place.
+     *
+     * @param cloud points to sort
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     * @return previous indexes of the points, to reorder the data associated to them
+     */
+    public static int[] sortHilbert(PointCloud2D cloud, float dx, float dy) {
+        int[] order = argsort(hilbertCodes(cloud, dx, dy));
+        cloud.reorder(order);
+        return order;
+    }
+
+    /**
+     * Sorts a list of points along the Morton curve, in place. The points are encoded in 2D
+     * if the resolution in Z is 0.
+     *
+     * @param points points to sort
+     * @param dx resolution in the X axis
+     * @param dy resolution in the Y axis
+     * @param dz resolution in the Z axis, 0 to ignore it
+     * @param <T> type of the points
+     */
+    public static <T extends Point> void sortMorton(List<T> points, float dx, float dy, float dz) {
+        long[] codes = new long[points.size()];
+        for (int i = 0; i < codes.length; i++) {
+            Point point = points.get(i);
+            int cellX = FastMath.round(point.getX() / dx), cellY = FastMath.round(point.getY() / dy);
+            codes[i] = dz == 0 ? MortonCode.encode2D(cellX, cellY) : MortonCode.encode3D(cellX, cellY, FastMath.round(point.getZ() / dz));
+        }
+        int[] order = argsort(codes);
+        List<T> sorted = new ArrayList<T>(points.size());
+        for (int index : order) {
+            sorted.add(points.get(index));
+        }
+        for (int i = 0; i < order.length; i++) {
+            points.set(i, sorted.get(i));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package es.usc.citius.lab.motionplanner.core.lattice;
+
+/**
+ * Indexes of 2D cells along a Hilbert curve. Unlike {@link MortonCode}, consecutive indexes are
+ * always neighbouring cells, which gives a better locality when sorting by them. Signed indexes
+ * in [-2^30, 2^30) are stored with an offset, in a curve of 2^31 x 2^31 cells.
+ */
+public final class HilbertCode {
+
+    public static final int BITS_2D = 31;
+
+    /**
+     * Private constructor, only static methods.
+     */
+    private HilbertCode() {
+    }
+
+    /**
+     * @param x index in the X axis, in [-2^30, 2^30)
+     * @param y index in the Y axis, in [-2^30, 2^30)
+     * @return position of the cell (x, y) along the curve, in [0, 2^62)
+     */
+    public static long encode2D(int x, int y) {
+        int ux = MortonCode.toUnsigned(x, BITS_2D);
+        int uy = MortonCode.toUnsigned(y, BITS_2D);
+        long d = 0;
+        for (int s = 1 << (BITS_2D - 1); s > 0; s >>>= 1) {
+            int rx = (ux & s) != 0 ? 1 : 0;
+            int ry = (uy & s) != 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            //rotate the quadrant, so the curve of the next level is oriented as this one
+            if (ry == 0) {
+                if (rx == 1) {
+                    ux = s - 1 - (ux & (s - 1));
+                    uy = s - 1 - (uy & (s - 1));
+                }
+                int t = ux;
+                ux = uy;
+                uy = t;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * @param d position along the curve, see {@link #encode2D(int, int)}
+     * @param out array where the indexes [x, y] of the cell are written
+     */
+    public static void decode2D(long d, int[] out) {
+        int ux = 0, uy = 0;
+        for (int s = 1; s > 0 && s <= 1 << (BITS_2D - 1); s <<= 1) {
+            int rx = (int) (1 & (d >>> 1));
+            int ry = (int) (1 & (d ^ rx));
+            if (ry == 0) {
+                if (rx == 1) {
+                    ux = s - 1 - ux;
+                    uy = s - 1 - uy;
+                }
+                int t = ux;
+                ux = uy;
+                uy = t;
+            }
+            ux += s * rx;
+            uy += s * ry;
+            d >>>= 2;
+        }
+        out[0] = MortonCode.fromUnsigned(ux, BITS_2D);
+        out[1] = MortonCode.fromUnsigned(uy, BITS_2D);
+    }
+}
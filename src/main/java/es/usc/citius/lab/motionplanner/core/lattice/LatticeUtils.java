@@ -4,7 +4,6 @@ import es.usc.citius.lab.motionplanner.core.spatial.Point;
 import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 
 public class LatticeUtils {
@@ -18,20 +17,113 @@ public class LatticeUtils {
      * @return list of points withing n-steps of neighborhood from (0,0,0)
      */
     public static List<Point> generateGridPoints(int level, float rX, float rY, float rZ) {
-        HashSet<Point> positions = new HashSet<Point>();
-        for (int x = -level; x <= level; x++) {
-            for (int y = -level; y <= level; y++) {
-                for (int z = -level; z <= level; z++) {
-                    if (
-                            (Math.abs(rX) > 0 && (x == -level || x == level)) ||
-                                    (Math.abs(rY) > 0 && (y == -level || y == level)) ||
-                                    (Math.abs(rZ) > 0 && (z == -level || z == level))) {
-                        positions.add(new Point3D(rX * x, rY * y, rZ * z));
-                    }
+        float[] shell = generateShell(level, rX, rY, rZ);
+        List<Point> positions = new ArrayList<Point>(shell.length / 3);
+        for (int i = 0; i < shell.length; i += 3) {
+            positions.add(new Point3D(shell[i], shell[i + 1], shell[i + 2]));
+        }
+        return positions;
+    }
+
+    /**
+     * Generates the points at a given level of neighborhood from (0,0,0): the cells with a number
+     * of steps equal to the level in some axis. Only the cells of the shell are visited, without
+     * iterating the interior of the cube. Axes with resolution 0 are not used, and their
+     * coordinate is always 0.
+     *
+     * @param level desired level of neighborhood (distance in n-steps)
+     * @param rX resolution in X
+     * @param rY resolution in Y
+     * @param rZ resolution in Z
+     * @return packed (x, y, z) coordinates of the points
+     */
+    public static float[] generateShell(int level, float rX, float rY, float rZ) {
+        return generateShell(level, new float[]{rX, rY, rZ});
+    }
+
+    /**
+     * Generates the points at a given level of neighborhood from (0,0) in the plane, see
+     * {@link #generateShell(int, float, float, float)}.
+     *
+     * @param level desired level of neighborhood (distance in n-steps)
+     * @param rX resolution in X
+     * @param rY resolution in Y
+     * @return packed (x, y) coordinates of the points
+     */
+    public static float[] generateShell2D(int level, float rX, float rY) {
+        return generateShell(level, new float[]{rX, rY});
+    }
+
+    /**
+     * Number of cells at a given level of neighborhood.
+     *
+     * @param level desired level of neighborhood (distance in n-steps)
+     * @param dimensions number of axes with resolution different than 0
+     * @return (2 level + 1)^dimensions - (2 level - 1)^dimensions, 1 for level 0
+     */
+    public static int shellSize(int level, int dimensions) {
+        if (level < 0 || dimensions == 0) {
+            return 0;
+        }
+        if (level == 0) {
+            return 1;
+        }
+        int outer = 1, inner = 1;
+        for (int i = 0; i < dimensions; i++) {
+            outer *= 2 * level + 1;
+            inner *= 2 * level - 1;
+        }
+        return outer - inner;
+    }
+
+    /**
+     * Enumerates the shell iterating the first active axis in the inner loop, and the rest of them
+     * as the digits of a counter. When no outer axis is in the border, only the two extremes of
+     * the inner axis belong to the shell.
+     */
+    private static float[] generateShell(int level, float[] resolutions) {
+        int dimensions = resolutions.length;
+        int[] axes = new int[dimensions];
+        int active = 0;
+        for (int i = 0; i < dimensions; i++) {
+            if (Math.abs(resolutions[i]) > 0) {
+                axes[active++] = i;
+            }
+        }
+        float[] out = new float[dimensions * shellSize(level, active)];
+        if (out.length == 0) {
+            return out;
+        }
+        int inner = axes[0];
+        int[] counters = new int[active];
+        for (int i = 1; i < active; i++) {
+            counters[i] = -level;
+        }
+        int n = 0;
+        while (true) {
+            boolean border = level == 0;
+            for (int i = 1; i < active; i++) {
+                border |= counters[i] == -level || counters[i] == level;
+            }
+            int step = border ? 1 : 2 * level;
+            for (int value = -level; value <= level; value += step) {
+                for (int i = 1; i < active; i++) {
+                    out[n + axes[i]] = counters[i] * resolutions[axes[i]];
                 }
+                out[n + inner] = value * resolutions[inner];
+                n += dimensions;
+            }
+            //next combination of the outer axes
+            int i = 1;
+            while (i < active && counters[i] == level) {
+                counters[i] = -level;
+                i++;
+            }
+            if (i >= active) {
+                return out;
             }
+            counters[i]++;
         }
-        return new ArrayList<Point>(positions);
     }
 
 }
@@ -0,0 +1,163 @@
+package es.usc.citius.lab.motionplanner.core.lattice;
+
+/**
+ * Morton (Z-order) codes of integer cells: the bits of the indexes of each axis are interleaved in
+ * a single {@code long}, so cells close in space tend to have close codes. Signed indexes are
+ * stored with an offset of half their range, which keeps the order of the codes.
+ * <p>
+ * 2D codes use 32 bits per axis (the whole range of {@code int}), and 3D codes 21 bits per axis,
+ * so they store indexes in [-2^20, 2^20).
+ */
+public final class MortonCode {
+
+    public static final int BITS_2D = 32;
+    public static final int BITS_3D = 21;
+
+    /**
+     * Private constructor, only static methods.
+     */
+    private MortonCode() {
+    }
+
+    /**
+     * @param x index in the X axis
+     * @param y index in the Y axis
+     * @return code of the cell (x, y)
+     */
+    public static long encode2D(int x, int y) {
+        return interleave2D(x ^ Integer.MIN_VALUE, y ^ Integer.MIN_VALUE);
+    }
+
+    public static int decode2DX(long code) {
+        return compact2(code) ^ Integer.MIN_VALUE;
+    }
+
+    public static int decode2DY(long code) {
+        return compact2(code >>> 1) ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * @param x index in the X axis, in [-2^20, 2^20)
+     * @param y index in the Y axis, in [-2^20, 2^20)
+     * @param z index in the Z axis, in [-2^20, 2^20)
+     * @return code of the cell (x, y, z)
+     */
+    public static long encode3D(int x, int y, int z) {
+        return interleave3D(toUnsigned(x, BITS_3D), toUnsigned(y, BITS_3D), toUnsigned(z, BITS_3D));
+    }
+
+    public static int decode3DX(long code) {
+        return fromUnsigned(compact3(code), BITS_3D);
+    }
+
+    public static int decode3DY(long code) {
+        return fromUnsigned(compact3(code >>> 1), BITS_3D);
+    }
+
+    public static int decode3DZ(long code) {
+        return fromUnsigned(compact3(code >>> 2), BITS_3D);
+    }
+
+    /**
+     * Interleaves two unsigned values, X in the even bits and Y in the odd ones.
+     *
+     * @param x unsigned value of 32 bits
+     * @param y unsigned value of 32 bits
+     * @return interleaved bits
+     */
+    public static long interleave2D(int x, int y) {
+        return spread2(x) | (spread2(y) << 1);
+    }
+
+    /**
+     * Interleaves three unsigned values of 21 bits: X in the bits 3k, Y in 3k + 1 and Z in 3k + 2.
+     *
+     * @param x unsigned value of 21 bits
+     * @param y unsigned value of 21 bits
+     * @param z unsigned value of 21 bits
+     * @return interleaved bits
+     */
+    public static long interleave3D(int x, int y, int z) {
+        return spread3(x) | (spread3(y) << 1) | (spread3(z) << 2);
+    }
+
+    /**
+     * @param code interleaved bits of two values
+     * @return value stored in the even bits
+     */
+    public static int compact2(long code) {
+        long x = code & 0x5555555555555555L;
+        x = (x | (x >>> 1)) & 0x3333333333333333L;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+        return (int) x;
+    }
+
+    /**
+     * @param code interleaved bits of three values
+     * @return value stored in the bits 3k
+     */
+    public static int compact3(long code) {
+        long x = code & 0x1249249249249249L;
+        x = (x | (x >>> 2)) & 0x10C30C30C30C30C3L;
+        x = (x | (x >>> 4)) & 0x100F00F00F00F00FL;
+        x = (x | (x >>> 8)) & 0x001F0000FF0000FFL;
+        x = (x | (x >>> 16)) & 0x001F00000000FFFFL;
+        x = (x | (x >>> 32)) & 0x00000000001FFFFFL;
+        return (int) x;
+    }
+
+    private static long spread2(int value) {
+        long x = value & 0x00000000FFFFFFFFL;
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+
+    private static long spread3(int value) {
+        long x = value & 0x00000000001FFFFFL;
+        x = (x | (x << 32)) & 0x001F00000000FFFFL;
+        x = (x | (x << 16)) & 0x001F0000FF0000FFL;
+        x = (x | (x << 8)) & 0x100F00F00F00F00FL;
+        x = (x | (x << 4)) & 0x10C30C30C30C30C3L;
+        x = (x | (x << 2)) & 0x1249249249249249L;
+        return x;
+    }
+
+    /**
+     * Offset encoding of a signed index.
+     *
+     * @param value signed index, in [-2^(bits-1), 2^(bits-1))
+     * @param bits number of bits of the encoding, at most 31
+     * @return value + 2^(bits-1)
+     */
+    public static int toUnsigned(int value, int bits) {
+        int offset = 1 << (bits - 1);
+        if (value < -offset || value >= offset) {
+            throw new IllegalArgumentException("index " + value + " out of the range of " + bits + " bits");
+        }
+        return value + offset;
+    }
+
+    /**
+     * @param value offset encoding of a signed index, see {@link #toUnsigned(int, int)}
+     * @param bits number of bits of the encoding, at most 31
+     * @return signed index
+     */
+    public static int fromUnsigned(int value, int bits) {
+        return value - (1 << (bits - 1));
+    }
+
+    /**
+     * @param values number of different values
+     * @return number of bits needed to store values in [0, values)
+     */
+    public static int bitsFor(int values) {
+        return values <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(values - 1);
+    }
+}
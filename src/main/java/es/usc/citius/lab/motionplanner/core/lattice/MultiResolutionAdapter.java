@@ -0,0 +1,201 @@
+package es.usc.citius.lab.motionplanner.core.lattice;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Hierarchy of grids where each cell of a level is divided in 2 cells per axis in the level
+ * below. The level 0 is the finest one, and its cells are the ones of {@link PointAdapter2D}
+ * (or {@link PointAdapter3D}); a cell of the level {@code l} groups {@code 2^l} cells of the
+ * level 0 per axis, so the indexes of the levels are related by shifts: the parent of the cell
+ * {@code i} is {@code i >> 1} and its children are {@code 2i} and {@code 2i + 1}.
+ * <p>
+ * A search can then move between levels operating on the integer indexes, without converting
+ * them to coordinates. The grid is 2D when the resolution in Z is 0.
+ */
+public class MultiResolutionAdapter implements ResolutionAdapter<Point> {
+
+    private final float dx;
+    private final float dy;
+    private final float dz;
+    private final int levels;
+
+    /**
+     * @param dx difference between positions X in the finest level
+     * @param dy difference between positions Y in the finest level
+     * @param dz difference between positions Z in the finest level, 0 for 2D grids
+     * @param levels number of levels of the hierarchy
+     */
+    public MultiResolutionAdapter(float dx, float dy, float dz, int levels) {
+        if (levels <= 0 || levels > 30) {
+            throw new IllegalArgumentException("number of levels must be in [1, 30]: " + levels);
+        }
+        this.dx = dx;
+        this.dy = dy;
+        this.dz = dz;
+        this.levels = levels;
+    }
+
+    /**
+     * Adapts a point to the center of its cell in the finest level.
+     *
+     * @param id position instance to be adapted
+     * @return the adapted position, {@link Point2D} if the grid is 2D
+     */
+    @Override
+    public Point adaptNodeID(Point id) {
+        return adaptNodeID(id, 0);
+    }
+
+    /**
+     * Adapts a point to the center of its cell in a level.
+     *
+     * @param id position instance to be adapted
+     * @param level level of the hierarchy
+     * @return the adapted position, {@link Point2D} if the grid is 2D
+     */
+    public Point adaptNodeID(Point id, int level) {
+        float x = PointAdapter3D.snap(centerX(cellX(id.getX(), level), level));
+        float y = PointAdapter3D.snap(centerY(cellY(id.getY(), level), level));
+        if (!is3D()) {
+            return new Point2D(x, y);
+        }
+        return new Point3D(x, y, PointAdapter3D.snap(centerZ(cellZ(id.getZ(), level), level)));
+    }
+
+    @Override
+    public Collection<Point> getIDFromPosition(float x, float y, float z) {
+        return Collections.<Point>singletonList(is3D() ? new Point3D(x, y, z) : new Point2D(x, y));
+    }
+
+    /************************************************************************
+     *                          CELL INDEXES
+     ************************************************************************/
+
+    public int cellX(float x, int level) {
+        return FastMath.round(x / dx) >> checkLevel(level);
+    }
+
+    public int cellY(float y, int level) {
+        return FastMath.round(y / dy) >> checkLevel(level);
+    }
+
+    /**
+     * @param z coordinate Z
+     * @param level level of the hierarchy
+     * @return index of the cell, always 0 if the grid is 2D
+     */
+    public int cellZ(float z, int level) {
+        return is3D() ? FastMath.round(z / dz) >> checkLevel(level) : 0;
+    }
+
+    /**
+     * @param cell index of a cell in the X axis
+     * @param level level of the cell
+     * @return coordinate X of the center of the cell
+     */
+    public float centerX(int cell, int level) {
+        return center(cell, level, dx);
+    }
+
+    public float centerY(int cell, int level) {
+        return center(cell, level, dy);
+    }
+
+    public float centerZ(int cell, int level) {
+        return center(cell, level, dz);
+    }
+
+    /**
+     * The center of a coarse cell is the middle point between the centers of its first and
+     * last cells of the level 0.
+     */
+    private float center(int cell, int level, float resolution) {
+        int size = 1 << checkLevel(level);
+        return (cell * size + (size - 1) / 2f) * resolution;
+    }
+
+    /**
+     * @param cell index of a cell in any axis
+     * @return index of the cell containing it in the level above
+     */
+    public static int parent(int cell) {
+        return cell >> 1;
+    }
+
+    /**
+     * @param cell index of a cell in any axis
+     * @param levels number of levels to go up
+     * @return index of the cell containing it the given number of levels above
+     */
+    public static int ancestor(int cell, int levels) {
+        return cell >> levels;
+    }
+
+    /**
+     * @param cell index of a cell in any axis
+     * @return index of its first child in the level below; the second one is the following index
+     */
+    public static int firstChild(int cell) {
+        return cell << 1;
+    }
+
+    /**
+     * @param coarse index of a cell in any axis
+     * @param coarseLevel level of the coarse cell
+     * @param fine index of a cell in the same axis
+     * @param fineLevel level of the fine cell, not above the coarse one
+     * @return true if the fine cell is inside the coarse one
+     */
+    public static boolean contains(int coarse, int coarseLevel, int fine, int fineLevel) {
+        return coarseLevel >= fineLevel && (fine >> (coarseLevel - fineLevel)) == coarse;
+    }
+
+    /**
+     * @param level level of the hierarchy
+     * @return size of its cells in the X axis
+     */
+    public float resolutionX(int level) {
+        return dx * (1 << checkLevel(level));
+    }
+
+    public float resolutionY(int level) {
+        return dy * (1 << checkLevel(level));
+    }
+
+    public float resolutionZ(int level) {
+        return dz * (1 << checkLevel(level));
+    }
+
+    private int checkLevel(int level) {
+        if (level < 0 || level >= levels) {
+            throw new IllegalArgumentException("level " + level + " not in [0, " + levels + ")");
+        }
+        return level;
+    }
+
+    public boolean is3D() {
+        return dz != 0;
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    public float getDx() {
+        return dx;
+    }
+
+    public float getDy() {
+        return dy;
+    }
+
+    public float getDz() {
+        return dz;
+    }
+}
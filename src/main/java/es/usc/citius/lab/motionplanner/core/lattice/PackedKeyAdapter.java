@@ -0,0 +1,24 @@
+package es.usc.citius.lab.motionplanner.core.lattice;
+
+/**
+ * {@link ResolutionAdapter} which also encodes the adapted identifiers in a single {@code long},
+ * so they can be stored in collections of primitive keys instead of hashing the identifiers.
+ * Two identifiers have the same key if and only if they are adapted to the same cell.
+ *
+ * @param <T> object type
+ */
+public interface PackedKeyAdapter<T> extends ResolutionAdapter<T> {
+
+    /**
+     * @param id identifier of the node, adapted or not
+     * @return key of the cell of the identifier
+     */
+    public long keyOf(T id);
+
+    /**
+     * @param key key of a cell, see {@link #keyOf(Object)}
+     * @return adapted identifier of the cell, equal to {@link #adaptNodeID(Object)} of any identifier in it
+     */
+    public T fromKey(long key);
+
+}
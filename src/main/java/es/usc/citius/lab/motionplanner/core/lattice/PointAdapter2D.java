@@ -4,8 +4,8 @@ import es.usc.citius.lab.motionplanner.core.spatial.Point;
 import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
 import org.apache.commons.math3.util.FastMath;
 
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * This class adapts the position instance to a defined number of decimals of
@@ -15,7 +15,7 @@ import java.util.Collection;
  * @author Adrián González Sieira <<a href="mailto:adrian.gonzalez@usc.es">adrian.gonzalez@usc.es</a>>
  * @since 28/03/2011
  */
-public class PointAdapter2D implements ResolutionAdapter<Point> {
+public class PointAdapter2D implements PackedKeyAdapter<Point> {
 
     private float dx;
     private float dy;
@@ -51,6 +51,42 @@ public class PointAdapter2D implements ResolutionAdapter<Point> {
 
     @Override
     public Collection<Point> getIDFromPosition(float x, float y, float z) {
-        return Arrays.asList((Point) new Point2D(x, y));
+        return Collections.<Point>singletonList(new Point2D(x, y));
+    }
+
+    /**
+     * Encodes the cell of a point with its {@link MortonCode}.
+     *
+     * @param id position instance
+     * @return key of the cell of the position
+     */
+    @Override
+    public long keyOf(Point id) {
+        return MortonCode.encode2D(cellX(id.getX()), cellY(id.getY()));
+    }
+
+    /**
+     * @param cellX index of the cell in the X axis
+     * @param cellY index of the cell in the Y axis
+     * @return key of the cell
+     */
+    public long key(int cellX, int cellY) {
+        return MortonCode.encode2D(cellX, cellY);
+    }
+
+    @Override
+    public Point2D fromKey(long key) {
+        return new Point2D(
+                PointAdapter3D.snap(MortonCode.decode2DX(key) * dx),
+                PointAdapter3D.snap(MortonCode.decode2DY(key) * dy)
+        );
+    }
+
+    public int cellX(float x) {
+        return FastMath.round(x / dx);
+    }
+
+    public int cellY(float y) {
+        return FastMath.round(y / dy);
     }
 }
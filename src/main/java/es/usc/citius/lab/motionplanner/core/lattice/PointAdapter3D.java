@@ -0,0 +1,98 @@
+package es.usc.citius.lab.motionplanner.core.lattice;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Adapts 3D positions to the centers of the cells of a regular grid, with the same
+ * convention than {@link PointAdapter2D}: the cell of a coordinate is {@code round(x / dx)}.
+ * The keys of the cells are their 3D {@link MortonCode}, which limits the indexes of
+ * each axis to [-2^20, 2^20).
+ */
+public class PointAdapter3D implements PackedKeyAdapter<Point> {
+
+    private final float dx;
+    private final float dy;
+    private final float dz;
+
+    /**
+     * @param dx difference between positions X
+     * @param dy difference between positions Y
+     * @param dz difference between positions Z
+     */
+    public PointAdapter3D(float dx, float dy, float dz) {
+        this.dx = dx;
+        this.dy = dy;
+        this.dz = dz;
+    }
+
+    @Override
+    public Point3D adaptNodeID(Point id) {
+        return new Point3D(
+                snap(cellX(id.getX()) * dx),
+                snap(cellY(id.getY()) * dy),
+                snap(cellZ(id.getZ()) * dz)
+        );
+    }
+
+    @Override
+    public Collection<Point> getIDFromPosition(float x, float y, float z) {
+        return Collections.<Point>singletonList(new Point3D(x, y, z));
+    }
+
+    @Override
+    public long keyOf(Point id) {
+        return MortonCode.encode3D(cellX(id.getX()), cellY(id.getY()), cellZ(id.getZ()));
+    }
+
+    /**
+     * @param cellX index of the cell in the X axis
+     * @param cellY index of the cell in the Y axis
+     * @param cellZ index of the cell in the Z axis
+     * @return key of the cell
+     */
+    public long key(int cellX, int cellY, int cellZ) {
+        return MortonCode.encode3D(cellX, cellY, cellZ);
+    }
+
+    @Override
+    public Point3D fromKey(long key) {
+        return new Point3D(
+                snap(MortonCode.decode3DX(key) * dx),
+                snap(MortonCode.decode3DY(key) * dy),
+                snap(MortonCode.decode3DZ(key) * dz)
+        );
+    }
+
+    public int cellX(float x) {
+        return FastMath.round(x / dx);
+    }
+
+    public int cellY(float y) {
+        return FastMath.round(y / dy);
+    }
+
+    public int cellZ(float z) {
+        return FastMath.round(z / dz);
+    }
+
+    public float getDx() {
+        return dx;
+    }
+
+    public float getDy() {
+        return dy;
+    }
+
+    public float getDz() {
+        return dz;
+    }
+
+    static float snap(float value) {
+        return FastMath.round(value * PRECISION) / PRECISION;
+    }
+}
@@ -0,0 +1,139 @@
+package es.usc.citius.lab.motionplanner.core.lattice;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Adapts 2D poses to the centers of the cells of a regular grid, as {@link PointAdapter2D}, and
+ * their headings to a number of equally spaced bins in the interval (-PI, PI].
+ * <p>
+ * The keys store the bin of the heading in the lowest bits, and the {@link MortonCode} of the
+ * cell in the rest of them, split equally between both axes: with 16 headings, the indexes of
+ * each axis are limited to [-2^29, 2^29).
+ */
+public class PoseAdapter2D implements PackedKeyAdapter<Pose2D> {
+
+    private final float dx;
+    private final float dy;
+    private final int headings;
+    private final float dyaw;
+    private final int headingBits;
+    private final int cellBits;
+
+    /**
+     * @param dx difference between positions X
+     * @param dy difference between positions Y
+     * @param headings number of bins of the heading
+     */
+    public PoseAdapter2D(float dx, float dy, int headings) {
+        if (headings <= 0) {
+            throw new IllegalArgumentException("number of headings must be positive: " + headings);
+        }
+        this.dx = dx;
+        this.dy = dy;
+        this.headings = headings;
+        this.dyaw = MathFunctions.PITIMES2 / headings;
+        this.headingBits = MortonCode.bitsFor(headings);
+        this.cellBits = Math.min(MortonCode.BITS_2D, (64 - headingBits) / 2);
+    }
+
+    @Override
+    public Pose2D adaptNodeID(Pose2D id) {
+        return new Pose2D(
+                PointAdapter3D.snap(cellX(id.getX()) * dx),
+                PointAdapter3D.snap(cellY(id.getY()) * dy),
+                headingAt(headingIndex(id.getYaw()))
+        );
+    }
+
+    /**
+     * The position does not define the heading, so there is a pose for each bin.
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param z z coordinate, ignored
+     * @return poses in (x, y) with each of the headings
+     */
+    @Override
+    public Collection<Pose2D> getIDFromPosition(float x, float y, float z) {
+        List<Pose2D> poses = new ArrayList<Pose2D>(headings);
+        for (int i = 0; i < headings; i++) {
+            poses.add(new Pose2D(x, y, headingAt(i)));
+        }
+        return poses;
+    }
+
+    @Override
+    public long keyOf(Pose2D id) {
+        return key(cellX(id.getX()), cellY(id.getY()), headingIndex(id.getYaw()));
+    }
+
+    /**
+     * @param cellX index of the cell in the X axis
+     * @param cellY index of the cell in the Y axis
+     * @param heading index of the bin of the heading
+     * @return key of the cell
+     */
+    public long key(int cellX, int cellY, int heading) {
+        long cell = cellBits == MortonCode.BITS_2D
+                ? MortonCode.encode2D(cellX, cellY)
+                : MortonCode.interleave2D(MortonCode.toUnsigned(cellX, cellBits), MortonCode.toUnsigned(cellY, cellBits));
+        return (cell << headingBits) | heading;
+    }
+
+    @Override
+    public Pose2D fromKey(long key) {
+        long cell = key >>> headingBits;
+        int cellX, cellY;
+        if (cellBits == MortonCode.BITS_2D) {
+            cellX = MortonCode.decode2DX(cell);
+            cellY = MortonCode.decode2DY(cell);
+        } else {
+            cellX = MortonCode.fromUnsigned(MortonCode.compact2(cell), cellBits);
+            cellY = MortonCode.fromUnsigned(MortonCode.compact2(cell >>> 1), cellBits);
+        }
+        int heading = (int) (key & ((1L << headingBits) - 1));
+        return new Pose2D(PointAdapter3D.snap(cellX * dx), PointAdapter3D.snap(cellY * dy), headingAt(heading));
+    }
+
+    public int cellX(float x) {
+        return FastMath.round(x / dx);
+    }
+
+    public int cellY(float y) {
+        return FastMath.round(y / dy);
+    }
+
+    /**
+     * @param yaw heading in radians
+     * @return index of the closest bin, in [0, headings)
+     */
+    public int headingIndex(float yaw) {
+        return MathFunctions.bamToIndex(MathFunctions.radiansToBam(yaw), headings);
+    }
+
+    /**
+     * @param index index of a bin
+     * @return heading of the bin, in (-PI, PI]
+     */
+    public float headingAt(int index) {
+        return MathFunctions.adjustAngleP(index * dyaw);
+    }
+
+    public float getDx() {
+        return dx;
+    }
+
+    public float getDy() {
+        return dy;
+    }
+
+    public int getHeadings() {
+        return headings;
+    }
+}
@@ -0,0 +1,153 @@
+package es.usc.citius.lab.motionplanner.core.lattice;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Pose3D;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Adapts 3D poses to the centers of the cells of a regular grid, as {@link PointAdapter3D}, and
+ * each of their angles to a number of equally spaced bins in the interval (-PI, PI]. An angle
+ * with a single bin is always adapted to 0, which ignores it.
+ * <p>
+ * The keys store the bins of the angles in the lowest bits (yaw, pitch and roll, from the highest
+ * to the lowest), and the {@link MortonCode} of the cell in the rest of them, split equally
+ * between the three axes up to 21 bits per axis.
+ */
+public class PoseAdapter3D implements PackedKeyAdapter<Pose3D> {
+
+    private final PointAdapter3D position;
+    private final int yawBins;
+    private final int pitchBins;
+    private final int rollBins;
+    private final int pitchShift;
+    private final int yawShift;
+    private final int angleBits;
+    private final int cellBits;
+
+    /**
+     * @param dx difference between positions X
+     * @param dy difference between positions Y
+     * @param dz difference between positions Z
+     * @param yawBins number of bins of the yaw
+     * @param pitchBins number of bins of the pitch
+     * @param rollBins number of bins of the roll
+     */
+    public PoseAdapter3D(float dx, float dy, float dz, int yawBins, int pitchBins, int rollBins) {
+        if (yawBins <= 0 || pitchBins <= 0 || rollBins <= 0) {
+            throw new IllegalArgumentException("number of bins must be positive: " + yawBins + ", " + pitchBins + ", " + rollBins);
+        }
+        this.position = new PointAdapter3D(dx, dy, dz);
+        this.yawBins = yawBins;
+        this.pitchBins = pitchBins;
+        this.rollBins = rollBins;
+        this.pitchShift = MortonCode.bitsFor(rollBins);
+        this.yawShift = pitchShift + MortonCode.bitsFor(pitchBins);
+        this.angleBits = yawShift + MortonCode.bitsFor(yawBins);
+        this.cellBits = Math.min(MortonCode.BITS_3D, (64 - angleBits) / 3);
+    }
+
+    @Override
+    public Pose3D adaptNodeID(Pose3D id) {
+        return new Pose3D(
+                position.adaptNodeID(id),
+                angleAt(angleIndex(id.getYaw(), yawBins), yawBins),
+                angleAt(angleIndex(id.getPitch(), pitchBins), pitchBins),
+                angleAt(angleIndex(id.getRoll(), rollBins), rollBins)
+        );
+    }
+
+    /**
+     * The position does not define the orientation, so there is a pose for each combination of bins.
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param z z coordinate
+     * @return poses in (x, y, z) with each of the orientations
+     */
+    @Override
+    public Collection<Pose3D> getIDFromPosition(float x, float y, float z) {
+        List<Pose3D> poses = new ArrayList<Pose3D>(yawBins * pitchBins * rollBins);
+        for (int i = 0; i < yawBins; i++) {
+            for (int j = 0; j < pitchBins; j++) {
+                for (int k = 0; k < rollBins; k++) {
+                    poses.add(new Pose3D(x, y, z, angleAt(i, yawBins), angleAt(j, pitchBins), angleAt(k, rollBins)));
+                }
+            }
+        }
+        return poses;
+    }
+
+    @Override
+    public long keyOf(Pose3D id) {
+        long cell = MortonCode.interleave3D(
+                MortonCode.toUnsigned(position.cellX(id.getX()), cellBits),
+                MortonCode.toUnsigned(position.cellY(id.getY()), cellBits),
+                MortonCode.toUnsigned(position.cellZ(id.getZ()), cellBits));
+        return (cell << angleBits)
+                | ((long) yawIndex(id.getYaw()) << yawShift)
+                | ((long) pitchIndex(id.getPitch()) << pitchShift)
+                | rollIndex(id.getRoll());
+    }
+
+    @Override
+    public Pose3D fromKey(long key) {
+        long cell = key >>> angleBits;
+        int cellX = MortonCode.fromUnsigned(MortonCode.compact3(cell), cellBits);
+        int cellY = MortonCode.fromUnsigned(MortonCode.compact3(cell >>> 1), cellBits);
+        int cellZ = MortonCode.fromUnsigned(MortonCode.compact3(cell >>> 2), cellBits);
+        int yaw = (int) ((key >>> yawShift) & ((1L << (angleBits - yawShift)) - 1));
+        int pitch = (int) ((key >>> pitchShift) & ((1L << (yawShift - pitchShift)) - 1));
+        int roll = (int) (key & ((1L << pitchShift) - 1));
+        return new Pose3D(
+                PointAdapter3D.snap(cellX * position.getDx()),
+                PointAdapter3D.snap(cellY * position.getDy()),
+                PointAdapter3D.snap(cellZ * position.getDz()),
+                angleAt(yaw, yawBins), angleAt(pitch, pitchBins), angleAt(roll, rollBins));
+    }
+
+    public int yawIndex(float yaw) {
+        return angleIndex(yaw, yawBins);
+    }
+
+    public int pitchIndex(float pitch) {
+        return angleIndex(pitch, pitchBins);
+    }
+
+    public int rollIndex(float roll) {
+        return angleIndex(roll, rollBins);
+    }
+
+    /**
+     * @param angle angle in radians
+     * @param bins number of bins
+     * @return index of the closest bin, in [0, bins)
+     */
+    private static int angleIndex(float angle, int bins) {
+        int index = FastMath.round(MathFunctions.adjustAngle2P(angle) * bins / MathFunctions.PITIMES2);
+        return index == bins ? 0 : index;
+    }
+
+    private static float angleAt(int index, int bins) {
+        return MathFunctions.adjustAngleP(index * MathFunctions.PITIMES2 / bins);
+    }
+
+    public PointAdapter3D getPositionAdapter() {
+        return position;
+    }
+
+    public int getYawBins() {
+        return yawBins;
+    }
+
+    public int getPitchBins() {
+        return pitchBins;
+    }
+
+    public int getRollBins() {
+        return rollBins;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.shapes;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import org.apache.commons.math3.util.FastMath;
+
+import java.io.Serializable;
+
+/**
+ * Lookup table of the border of a 2D shape, indexed by the relative angle to
+ * the heading in the interval [-PI, PI]. The values are stored in primitive
+ * arrays, so a query is an array load (or two, when interpolating) instead of
+ * boxing and hashing the angle.
+ */
+final class BorderTable implements Serializable {
+
+    private static final long serialVersionUID = 20190115L;
+
+    private final int bins; //number of intervals between -PI and PI
+    private final float step; //angle between consecutive positions of the table, in radians
+    private final float inverseStep;
+    private final boolean interpolate;
+    private final float[] distances; //distance to the border of the shape, by angle
+    private final Point2D[] borderPoints; //points of the border of the shape, by angle
+
+    /**
+     * Creates an empty table; it is filled with {@link #set(int, Point2D)} for
+     * every position in [0, {@link #size()}).
+     *
+     * @param resolution angular resolution of the table, in degrees; it is adjusted to divide exactly 360º
+     * @param interpolate true to interpolate linearly between the two closest positions of the table,
+     *                    false to retrieve the closest one
+     */
+    BorderTable(float resolution, boolean interpolate){
+        if(!(resolution > 0)){
+            throw new RuntimeException("angular resolution must be positive: " + resolution);
+        }
+        this.bins = FastMath.max(1, FastMath.round(360f / resolution));
+        this.step = MathFunctions.PITIMES2 / bins;
+        this.inverseStep = 1f / step;
+        this.interpolate = interpolate;
+        //position 0 is -PI and position bins is PI, to avoid extra comparisons when querying
+        this.distances = new float[bins + 1];
+        this.borderPoints = new Point2D[bins + 1];
+    }
+
+    /**
+     * @return number of positions of the table
+     */
+    int size(){
+        return bins + 1;
+    }
+
+    /**
+     * @param index position of the table
+     * @return angle of the given position, in radians
+     */
+    float angleAt(int index){
+        return index == bins ? MathFunctions.PI : -MathFunctions.PI + index * step;
+    }
+
+    /**
+     * Stores the point of the border at the angle of the given position.
+     *
+     * @param index position of the table
+     * @param border point of the border at {@link #angleAt(int)}
+     */
+    void set(int index, Point2D border){
+        borderPoints[index] = border;
+        distances[index] = border.distance(Point2D.ZERO);
+    }
+
+    /**
+     * @return angular resolution of the table, in degrees
+     */
+    float getResolution(){
+        return MathFunctions.radiansToDeg(step);
+    }
+
+    boolean isInterpolated(){
+        return interpolate;
+    }
+
+    /**
+     * @param angle relative angle to the heading, in radians (-PI, PI]
+     * @return distance between the rotation center and the border at the given angle
+     */
+    float distance(float angle){
+        float position = (angle + MathFunctions.PI) * inverseStep;
+        if(interpolate){
+            int index = lowerIndex(position);
+            float weight = position - index;
+            return distances[index] + weight * (distances[index + 1] - distances[index]);
+        }
+        return distances[closestIndex(position)];
+    }
+
+    /**
+     * @param angle relative angle to the heading, in radians (-PI, PI]
+     * @return point of the border at the given angle
+     */
+    Point2D point(float angle){
+        float position = (angle + MathFunctions.PI) * inverseStep;
+        if(interpolate){
+            int index = lowerIndex(position);
+            float weight = position - index;
+            Point2D p1 = borderPoints[index];
+            Point2D p2 = borderPoints[index + 1];
+            return new Point2D(p1.x + weight * (p2.x - p1.x), p1.y + weight * (p2.y - p1.y));
+        }
+        return borderPoints[closestIndex(position)];
+    }
+
+    /**
+     * @param position fractional position in the table
+     * @return closest position of the table, in [0, bins]
+     */
+    private int closestIndex(float position){
+        return FastMath.min(bins, FastMath.max(0, (int) (position + 0.5f)));
+    }
+
+    /**
+     * @param position fractional position in the table
+     * @return position of the table immediately before the given one, in [0, bins - 1]
+     */
+    private int lowerIndex(float position){
+        return FastMath.min(bins - 1, FastMath.max(0, (int) position));
+    }
+}
@@ -0,0 +1,299 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.shapes;
+
+import es.usc.citius.lab.motionplanner.core.spatial.*;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.math3.util.FastMath;
+import org.ejml.data.FixedMatrix2x2_64F;
+import org.ejml.data.FixedMatrix3x3_64F;
+
+/**
+ * Decorator of a {@link Shape2D} which precomputes its rotated vertices, axes and axes
+ * matrices for a discrete set of headings, uniformly distributed in the circle (k * 2PI / headings).
+ * For poses with one of those headings, the methods only translate the cached values; for
+ * other headings, the calls are forwarded to the decorated shape. The rest of methods
+ * are always forwarded.
+ *
+ * In a {@link HierarchicalConfiguration} it is defined with the number of headings and the
+ * configuration of the decorated shape:
+ * <pre>
+ * {@code <shape>}
+ *     {@code <class>es.usc.citius.lab.motionplanner.core.shapes.CachedShape2D</class>}
+ *     {@code <parameters>}
+ *         {@code <headings>72</headings>}
+ *         {@code <shape>...</shape>}
+ *     {@code </parameters>}
+ * {@code </shape>}
+ * </pre>
+ */
+public class CachedShape2D extends Shape2D {
+
+    private static final long serialVersionUID = 20190204L;
+    private static final String SUBID_HEADINGS = SUBID_PARAM + ".headings";
+    private static final String SUBID_SHAPE = SUBID_PARAM + ".shape";
+    /**
+     * Maximum difference, in radians, between a heading and the closest one of the cache to use the cached values.
+     */
+    private static final float TOLERANCE = 1E-4f;
+    private Shape2D shape;
+    private int headings;
+    private float step;
+    //cached values by heading: vertices and axes as (x, y, z) triplets, and axes matrices
+    private float[][] vertices;
+    private float[][] axes;
+    private FixedMatrix2x2_64F[] matrices2D;
+    private FixedMatrix3x3_64F[] matrices;
+
+    /**
+     * Builds the cache of a shape.
+     *
+     * @param shape decorated shape
+     * @param headings number of headings of the cache
+     */
+    public CachedShape2D(Shape2D shape, int headings) {
+        super();
+        this.shape = shape;
+        this.headings = headings;
+        initialize();
+    }
+
+    /**
+     * Builds the cache from the information of a {@code <shape>...</shape>}.
+     *
+     * @param config information of the {@code <shape>...</shape>} in XML format
+     */
+    public CachedShape2D(HierarchicalConfiguration config) {
+        super(config);
+        initialize();
+    }
+
+    @Override
+    protected final void loadConfig(HierarchicalConfiguration config) {
+        this.headings = config.getInt(SUBID_HEADINGS, 0);
+        if(headings <= 0){
+            throw new RuntimeException("required field " + SUBID_HEADINGS + " is empty");
+        }
+        if(config.configurationsAt(SUBID_SHAPE).isEmpty()){
+            throw new RuntimeException("required field " + SUBID_SHAPE + " is empty");
+        }
+        Shape decorated = Shape.create(config.configurationAt(SUBID_SHAPE));
+        if(!(decorated instanceof Shape2D)){
+            throw new RuntimeException("field " + SUBID_SHAPE + " must be a 2D shape");
+        }
+        this.shape = (Shape2D) decorated;
+    }
+
+    private void initialize(){
+        if(headings <= 0){
+            throw new IllegalArgumentException("number of headings must be positive: " + headings);
+        }
+        this.step = MathFunctions.PITIMES2 / headings;
+        this.vertices = new float[headings][3 * shape.getVertexCount()];
+        this.axes = new float[headings][3 * shape.getAxisCount()];
+        this.matrices2D = new FixedMatrix2x2_64F[headings];
+        this.matrices = new FixedMatrix3x3_64F[headings];
+        for(int i = 0; i < headings; i++){
+            //values of the shape at the origin, with the heading of the cache
+            Pose2D origin = new Pose2D(0f, 0f, headingAt(i));
+            shape.vertexAt(origin, vertices[i], 0);
+            shape.axisAt(origin, axes[i], 0);
+            matrices2D[i] = shape.axesMatrix2DAt(origin);
+            matrices[i] = shape.axesMatrixAt(origin);
+        }
+    }
+
+    /**
+     * @param index position of the heading in the cache
+     * @return heading, in the interval (-PI, PI]
+     */
+    public float headingAt(int index) {
+        return MathFunctions.adjustAngleP(index * step);
+    }
+
+    /**
+     * Obtains the position in the cache of a heading.
+     *
+     * @param yaw heading
+     * @return position of the heading, -1 if the values of that heading are not cached
+     */
+    public int headingIndex(float yaw) {
+        int index = Math.round(yaw / step);
+        if(FastMath.abs(yaw - index * step) > TOLERANCE){
+            return -1;
+        }
+        index %= headings;
+        return index < 0 ? index + headings : index;
+    }
+
+    /**
+     * @return decorated shape
+     */
+    public Shape2D getShape() {
+        return shape;
+    }
+
+    /**
+     * @return number of headings of the cache
+     */
+    public int getHeadings() {
+        return headings;
+    }
+
+    /************************************************************************
+     *                          CACHED METHODS
+     ************************************************************************/
+
+    @Override
+    public Point3D[] vertexAt(Pose pose) {
+        int index = headingIndex(pose.getYaw());
+        if(index < 0){
+            return shape.vertexAt(pose);
+        }
+        float[] cached = vertices[index];
+        Point3D[] result = new Point3D[cached.length / 3];
+        for(int i = 0, j = 0; i < result.length; i++, j += 3){
+            result[i] = new Point3D(cached[j] + pose.getX(), cached[j + 1] + pose.getY(), cached[j + 2]);
+        }
+        return result;
+    }
+
+    @Override
+    public int vertexAt(Pose pose, float[] out, int offset) {
+        int index = headingIndex(pose.getYaw());
+        if(index < 0){
+            return shape.vertexAt(pose, out, offset);
+        }
+        float[] cached = vertices[index];
+        float x = pose.getX();
+        float y = pose.getY();
+        for(int j = 0; j < cached.length; j += 3){
+            out[offset + j] = cached[j] + x;
+            out[offset + j + 1] = cached[j + 1] + y;
+            out[offset + j + 2] = cached[j + 2];
+        }
+        return cached.length / 3;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return shape.getVertexCount();
+    }
+
+    @Override
+    public Vector3D[] axisAt(Pose pose) {
+        int index = headingIndex(pose.getYaw());
+        if(index < 0){
+            return shape.axisAt(pose);
+        }
+        float[] cached = axes[index];
+        Vector3D[] result = new Vector3D[cached.length / 3];
+        for(int i = 0, j = 0; i < result.length; i++, j += 3){
+            result[i] = new Vector3D(cached[j], cached[j + 1], cached[j + 2]);
+        }
+        return result;
+    }
+
+    @Override
+    public int axisAt(Pose pose, float[] out, int offset) {
+        int index = headingIndex(pose.getYaw());
+        if(index < 0){
+            return shape.axisAt(pose, out, offset);
+        }
+        float[] cached = axes[index];
+        System.arraycopy(cached, 0, out, offset, cached.length);
+        return cached.length / 3;
+    }
+
+    @Override
+    public int getAxisCount() {
+        return shape.getAxisCount();
+    }
+
+    @Override
+    public FixedMatrix2x2_64F axesMatrix2DAt(Pose pose) {
+        int index = headingIndex(pose.getYaw());
+        //copy of the cached matrix, as they are mutable
+        return index < 0 ? shape.axesMatrix2DAt(pose) : new FixedMatrix2x2_64F(matrices2D[index]);
+    }
+
+    @Override
+    public FixedMatrix3x3_64F axesMatrixAt(Pose pose) {
+        int index = headingIndex(pose.getYaw());
+        return index < 0 ? shape.axesMatrixAt(pose) : new FixedMatrix3x3_64F(matrices[index]);
+    }
+
+    /************************************************************************
+     *                        FORWARDED METHODS
+     ************************************************************************/
+
+    @Override
+    public Point2D borderPointAtRelativeAngle(float yaw, float pitch) {
+        return shape.borderPointAtRelativeAngle(yaw, pitch);
+    }
+
+    @Override
+    public float borderDistanceAtRelativeAngle(float yaw, float pitch) {
+        return shape.borderDistanceAtRelativeAngle(yaw, pitch);
+    }
+
+    @Override
+    public double[][] distanceVectorToPoint(Pose robotPose, Point point, float angle) {
+        return shape.distanceVectorToPoint(robotPose, point, angle);
+    }
+
+    @Override
+    public float distanceToPoint(float x, float y, float cos, float sin, float px, float py) {
+        return shape.distanceToPoint(x, y, cos, sin, px, py);
+    }
+
+    @Override
+    public float getMinRadius() {
+        return shape.getMinRadius();
+    }
+
+    @Override
+    public float getInscribedRadius() {
+        return shape.getInscribedRadius();
+    }
+
+    @Override
+    public float getMaxRadius() {
+        return shape.getMaxRadius();
+    }
+
+    @Override
+    public Vector3D distanceBetweenCenterandCentroid(Pose pose) {
+        return shape.distanceBetweenCenterandCentroid(pose);
+    }
+
+    @Override
+    public double distanceToCentroidX() {
+        return shape.distanceToCentroidX();
+    }
+
+    @Override
+    public double distanceToCentroidY() {
+        return shape.distanceToCentroidY();
+    }
+
+    @Override
+    public double distanceToCentroidZ() {
+        return shape.distanceToCentroidZ();
+    }
+
+}
@@ -18,6 +18,7 @@ package es.usc.citius.lab.motionplanner.core.shapes;
 import es.usc.citius.lab.motionplanner.core.spatial.Point;
 import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
 import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose3D;
 import es.usc.citius.lab.motionplanner.core.spatial.Vector3D;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.ejml.data.FixedMatrix3x3_64F;
@@ -57,6 +58,75 @@ public abstract class Shape implements Serializable {
      */
     public abstract Point3D[] vertexAt(Pose pose);
 
+    /**
+     * Writes the vertex of the shape, given the pose of the rotation center, as
+     * consecutive (x, y, z) triplets in the array passed as argument. Obtains the
+     * same values than {@link #vertexAt(Pose)}, but concrete shapes override this
+     * method to avoid creating any object, so a single buffer can be reused.
+     *
+     * @param pose of the rotation center of the shape
+     * @param out array to write the coordinates, with at least 3 * {@link #getVertexCount()} positions from offset
+     * @param offset first position of the array to be written
+     * @return number of vertex written
+     */
+    public int vertexAt(Pose pose, float[] out, int offset){
+        Point3D[] vertex = vertexAt(pose);
+        for(int i = 0; i < vertex.length; i++){
+            out[offset++] = vertex[i].x;
+            out[offset++] = vertex[i].y;
+            out[offset++] = vertex[i].z;
+        }
+        return vertex.length;
+    }
+
+    /**
+     * Writes the axis of the shape, given the pose of the rotation center, as
+     * consecutive (x, y, z) triplets from the first position of the array passed as argument;
+     * see {@link #axisAt(Pose, float[], int)}.
+     *
+     * @param pose of the rotation center of the shape
+     * @param out array to write the coordinates, with at least 3 * {@link #getAxisCount()} positions
+     * @return number of axis written
+     */
+    public int axisAt(Pose pose, float[] out){
+        return axisAt(pose, out, 0);
+    }
+
+    /**
+     * Writes the axis of the shape, given the pose of the rotation center, as
+     * consecutive (x, y, z) triplets in the array passed as argument. Obtains the
+     * same values than {@link #axisAt(Pose)}, but concrete shapes override this
+     * method to avoid creating any object.
+     *
+     * @param pose of the rotation center of the shape
+     * @param out array to write the coordinates, with at least 3 * {@link #getAxisCount()} positions from offset
+     * @param offset first position of the array to be written
+     * @return number of axis written
+     */
+    public int axisAt(Pose pose, float[] out, int offset){
+        Vector3D[] axis = axisAt(pose);
+        for(int i = 0; i < axis.length; i++){
+            out[offset++] = axis[i].x;
+            out[offset++] = axis[i].y;
+            out[offset++] = axis[i].z;
+        }
+        return axis.length;
+    }
+
+    /**
+     * @return number of vertex returned by {@link #vertexAt(Pose)}
+     */
+    public int getVertexCount(){
+        return vertexAt(Pose3D.ZERO).length;
+    }
+
+    /**
+     * @return number of axis returned by {@link #axisAt(Pose)}
+     */
+    public int getAxisCount(){
+        return axisAt(Pose3D.ZERO).length;
+    }
+
     /**
      * Returns a 3x3 matrix with the axis of the shape given the pose
      * of the rotation center.
@@ -97,6 +167,77 @@ public abstract class Shape implements Serializable {
      */
     public abstract float getMaxRadius();
 
+    /**
+     * Retrieves the radius of the largest circle (or sphere) centered in the rotation center that
+     * is entirely inside the shape, so any point within it collides with the shape. It is
+     * {@link #getMinRadius()} when the rotation center is the centroid of the shape, and 0 when
+     * the rotation center is out of the shape.
+     *
+     * @return inscribed radius around the rotation center
+     */
+    public float getInscribedRadius() {
+        return getMinRadius();
+    }
+
+    /**
+     * Retrieves the square of {@link #getMinRadius()}, to be compared with squared distances.
+     *
+     * @return squared optimistic radius
+     */
+    public float getMinRadiusSquared() {
+        float radius = getMinRadius();
+        return radius * radius;
+    }
+
+    /**
+     * Retrieves the square of {@link #getMaxRadius()}, to be compared with squared distances.
+     *
+     * @return squared pessimistic radius
+     */
+    public float getMaxRadiusSquared() {
+        float radius = getMaxRadius();
+        return radius * radius;
+    }
+
+    /**
+     * Checks if a point is within the circle (or sphere) of {@link #getMinRadius()}
+     * centered in the pose. The optimistic radius is not measured around the rotation
+     * center for every shape, so a true result does not imply that the point is inside
+     * the shape; use {@link #withinInscribedRadius(Pose, Point)} for that.
+     *
+     * @param pose pose of the rotation center of the shape
+     * @param point point of the map
+     * @return true if the point is within the optimistic radius
+     */
+    public boolean withinMinRadius(Pose pose, Point point) {
+        return pose.distanceSquared(point) <= getMinRadiusSquared();
+    }
+
+    /**
+     * Checks if a point is within the circle (or sphere) of {@link #getInscribedRadius()}
+     * centered in the pose; in that case the point is inside the shape.
+     *
+     * @param pose pose of the rotation center of the shape
+     * @param point point of the map
+     * @return true if the point is certainly inside the shape
+     */
+    public boolean withinInscribedRadius(Pose pose, Point point) {
+        float radius = getInscribedRadius();
+        return pose.distanceSquared(point) <= radius * radius;
+    }
+
+    /**
+     * Checks if a point is within the circle (or sphere) of {@link #getMaxRadius()}
+     * centered in the pose; otherwise the point is outside the shape.
+     *
+     * @param pose pose of the rotation center of the shape
+     * @param point point of the map
+     * @return false if the point is certainly outside the shape
+     */
+    public boolean withinMaxRadius(Pose pose, Point point) {
+        return pose.distanceSquared(point) <= getMaxRadiusSquared();
+    }
+
     /**
      * Retrieves the position of the border of this shape in a relative
      * orientation from the heading.
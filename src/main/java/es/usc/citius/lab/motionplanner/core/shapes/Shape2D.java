@@ -76,6 +76,49 @@ public abstract class Shape2D extends Shape{
      */
     public abstract double[][] distanceVectorToPoint(Pose robotPose, Point point, float angle);
 
+    /**
+     * Calculates the distance between the border of the shape and a point in the map, which
+     * is 0 when the point is inside the shape; this method calls
+     * {@link #distanceToPoint(float, float, float, float, float, float)}.
+     *
+     * @param robotPose current robot pose
+     * @param px X coordinate of the point in the map
+     * @param py Y coordinate of the point in the map
+     * @return distance from the shape to the point
+     */
+    public float distanceToPoint(Pose robotPose, float px, float py){
+        float yaw = robotPose.getYaw();
+        return distanceToPoint(robotPose.getX(), robotPose.getY(), (float) MathFunctions.cos(yaw), (float) MathFunctions.sin(yaw), px, py);
+    }
+
+    /**
+     * Calculates the distance between the border of the shape and a point in the map, which
+     * is 0 when the point is inside the shape. The pose is given by its position and the
+     * cosine and sine of its heading, so they can be reused for many points; subclasses
+     * calculate this value without allocating intermediate objects.
+     *
+     * @param x X coordinate of the robot pose
+     * @param y Y coordinate of the robot pose
+     * @param cos cosine of the heading of the robot pose
+     * @param sin sine of the heading of the robot pose
+     * @param px X coordinate of the point in the map
+     * @param py Y coordinate of the point in the map
+     * @return distance from the shape to the point
+     */
+    public float distanceToPoint(float x, float y, float cos, float sin, float px, float py){
+        float dx = px - x;
+        float dy = py - y;
+        float distanceSquared = dx * dx + dy * dy;
+        float angle = (float) MathFunctions.atan2(-sin * dx + cos * dy, cos * dx + sin * dy);
+        float border = borderDistanceAtRelativeAngle(angle, 0f);
+        if(distanceSquared <= border * border){
+            return 0f;
+        }
+        Pose2D pose = new Pose2D(x, y, (float) MathFunctions.atan2(sin, cos));
+        double[][] vector = distanceVectorToPoint(pose, new Point2D(px, py), angle);
+        return (float) MathFunctions.hypot(vector[0][0], vector[1][0]);
+    }
+
     /**
      * Returns a 2x2 matrix with the axis of the shape given the pose
      * of the rotation center.
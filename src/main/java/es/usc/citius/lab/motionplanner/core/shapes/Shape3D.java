@@ -16,6 +16,7 @@
 package es.usc.citius.lab.motionplanner.core.shapes;
 
 import es.usc.citius.lab.motionplanner.core.spatial.*;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 
 /**
@@ -54,4 +55,40 @@ public abstract class Shape3D extends Shape {
     @Override
     public abstract Vector3D[] axisAt(Pose pose);
 
+    /**
+     * Checks if a point of the map is inside the shape placed at a pose. This implementation
+     * compares the distance from the point to the rotation center with the distance to the
+     * border in its direction; subclasses check it analytically.
+     *
+     * @param pose pose of the rotation center of the shape
+     * @param px X coordinate of the point
+     * @param py Y coordinate of the point
+     * @param pz Z coordinate of the point
+     * @return true if the point is inside the shape or in its border
+     */
+    public boolean contains(Pose pose, float px, float py, float pz){
+        //outside the bounding sphere
+        float distanceSquared = SpatialFunctions.distanceSquared(pose.getX(), pose.getY(), pose.getZ(), px, py, pz);
+        if(distanceSquared > getMaxRadiusSquared()){
+            return false;
+        }
+        Quaternion q = Quaternion.of(pose);
+        double dx = px - pose.getX();
+        double dy = py - pose.getY();
+        double dz = pz - pose.getZ();
+        //point in the frame of the shape: inverse rotation, see Quaternion#inverseRotate
+        double tx = 2 * (q.z * dy - q.y * dz);
+        double ty = 2 * (q.x * dz - q.z * dx);
+        double tz = 2 * (q.y * dx - q.x * dy);
+        double localX = dx + q.w * tx - q.y * tz + q.z * ty;
+        double localY = dy + q.w * ty - q.z * tx + q.x * tz;
+        double localZ = dz + q.w * tz - q.x * ty + q.y * tx;
+        double horizontal = MathFunctions.hypot(localX, localY);
+        //relative angles as in Point3D#rotate, where a positive pitch points downwards
+        float yaw = (float) MathFunctions.atan2(localY, localX);
+        float pitch = (float) MathFunctions.atan2(-localZ, horizontal);
+        float border = borderDistanceAtRelativeAngle(yaw, pitch);
+        return distanceSquared <= border * border;
+    }
+
 }
@@ -16,6 +16,7 @@
 package es.usc.citius.lab.motionplanner.core.shapes;
 
 import es.usc.citius.lab.motionplanner.core.spatial.*;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
 
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.commons.math3.util.FastMath;
@@ -68,8 +69,8 @@ public final class ShapeCircle2D extends Shape2D {
 
     @Override
     public Point2D borderPointAtRelativeAngle(float yaw, float pitch) {
-        float x = (float) FastMath.cos(yaw) * radius;
-        float y = (float) FastMath.sin(yaw) * radius;
+        float x = (float) MathFunctions.cos(yaw) * radius;
+        float y = (float) MathFunctions.sin(yaw) * radius;
         return new Point2D(x, y);
     }
 
@@ -88,6 +89,30 @@ public final class ShapeCircle2D extends Shape2D {
         };
     }
 
+    @Override
+    public int vertexAt(Pose pose, float[] out, int offset) {
+        float x = pose.getX();
+        float y = pose.getY();
+        out[offset] = x + radius;
+        out[offset + 1] = y;
+        out[offset + 2] = 0f;
+        out[offset + 3] = x - radius;
+        out[offset + 4] = y;
+        out[offset + 5] = 0f;
+        out[offset + 6] = x;
+        out[offset + 7] = y + radius;
+        out[offset + 8] = 0f;
+        out[offset + 9] = x;
+        out[offset + 10] = y - radius;
+        out[offset + 11] = 0f;
+        return 4;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return 4;
+    }
+
     @Override
     public float getMinRadius() {
         return radius;
@@ -104,6 +129,11 @@ public final class ShapeCircle2D extends Shape2D {
         return new double[][]{{point.getX() - border.getX()}, {point.getY() - border.getY()}};
     }
 
+    @Override
+    public float distanceToPoint(float x, float y, float cos, float sin, float px, float py) {
+        return FastMath.max((float) MathFunctions.hypot(px - x, py - y) - radius, 0f);
+    }
+
     @Override
     public Vector3D[] axisAt(Pose pose) {
         return new Vector3D[]{
@@ -112,6 +142,22 @@ public final class ShapeCircle2D extends Shape2D {
         };
     }
 
+    @Override
+    public int axisAt(Pose pose, float[] out, int offset) {
+        out[offset] = 1f;
+        out[offset + 1] = 0f;
+        out[offset + 2] = 0f;
+        out[offset + 3] = 0f;
+        out[offset + 4] = 1f;
+        out[offset + 5] = 0f;
+        return 2;
+    }
+
+    @Override
+    public int getAxisCount() {
+        return 2;
+    }
+
     @Override
     public FixedMatrix3x3_64F axesMatrixAt(Pose pose) {
         FixedMatrix3x3_64F matrix = new FixedMatrix3x3_64F();
@@ -1,11 +1,10 @@
 package es.usc.citius.lab.motionplanner.core.shapes;
 
 import es.usc.citius.lab.motionplanner.core.spatial.*;
-import es.usc.citius.lab.motionplanner.core.util.RotationUtils;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
 import org.apache.commons.math3.util.FastMath;
-import org.ejml.alg.fixed.FixedOps3;
 import org.ejml.data.FixedMatrix3x3_64F;
 
 import java.util.Comparator;
@@ -25,7 +24,6 @@ public class ShapeRectangle3D extends Shape3D{
     private Vector3D AXIS_X = new Vector3D(1, 0, 0);
     private Vector3D AXIS_Y = new Vector3D(0, 1, 0);
     private Vector3D AXIS_Z = new Vector3D(0, 0, 1);
-    private FixedMatrix3x3_64F AXES_MATRIX = new FixedMatrix3x3_64F();
     private Point3D UNIT = new Point3D(1, 0, 0);
 
     //hierarchical configuration params
@@ -58,15 +56,13 @@ public class ShapeRectangle3D extends Shape3D{
     }
 
     private void initialize(){
-        //initialize axes matrix
-        FixedOps3.setIdentity(AXES_MATRIX);
         //distances to border
         this.minRadius = FastMath.min(FastMath.min(halfDimX, halfDimY), halfDimZ);
         this.maxRadius = new Point3D(halfDimX, halfDimY, halfDimZ).distance(Point3D.ZERO);
 
         //angles to corners
-        this.yawCornerFront = (float) FastMath.atan2(halfDimY, halfDimX);
-        this.yawCornerBack = (float) FastMath.atan2(halfDimY, -halfDimX);
+        this.yawCornerFront = (float) MathFunctions.atan2(halfDimY, halfDimX);
+        this.yawCornerBack = (float) MathFunctions.atan2(halfDimY, -halfDimX);
 
         //generate corners
         CORNERS = new Point3D[8];
@@ -119,7 +115,7 @@ public class ShapeRectangle3D extends Shape3D{
 
                 @Override
                 public int compare(Point3D o1, Point3D o2) {
-                    return Float.compare(o1.distance(Point3D.ZERO), o2.distance(Point3D.ZERO));
+                    return Float.compare(o1.distanceSquared(Point3D.ZERO), o2.distanceSquared(Point3D.ZERO));
                 }
             }
 
@@ -176,9 +172,10 @@ public class ShapeRectangle3D extends Shape3D{
 
     @Override
     public Point3D[] vertexAt(Pose pose) {
+        Quaternion orientation = Quaternion.of(pose);
         Point3D[] corners_rotated = new Point3D[CORNERS.length];
         for(int i = 0; i < CORNERS.length; i++){
-            corners_rotated[i] = CORNERS[i].rotate(pose.getYaw(), pose.getPitch(), pose.getRoll());
+            corners_rotated[i] = CORNERS[i].rotate(orientation);
             corners_rotated[i].staticAdd(pose);
         }
         return corners_rotated;
@@ -186,13 +183,64 @@ public class ShapeRectangle3D extends Shape3D{
 
     @Override
     public Vector3D[] axisAt(Pose pose) {
+        Quaternion orientation = Quaternion.of(pose);
         return new Vector3D[]{
-            AXIS_X.rotate(pose.getYaw(), pose.getPitch(), pose.getRoll()),
-            AXIS_Y.rotate(pose.getYaw(), pose.getPitch(), pose.getRoll()),
-            AXIS_Z.rotate(pose.getYaw(), pose.getPitch(), pose.getRoll())
+            AXIS_X.rotate(orientation),
+            AXIS_Y.rotate(orientation),
+            AXIS_Z.rotate(orientation)
         };
     }
 
+    @Override
+    public int vertexAt(Pose pose, float[] out, int offset) {
+        Quaternion orientation = Quaternion.of(pose);
+        //rotate the corners and translate them to the pose
+        for(int i = 0; i < CORNERS.length; i++){
+            Point3D corner = CORNERS[i];
+            orientation.rotate(corner.x, corner.y, corner.z, out, offset);
+            out[offset++] += pose.getX();
+            out[offset++] += pose.getY();
+            out[offset++] += pose.getZ();
+        }
+        return CORNERS.length;
+    }
+
+    @Override
+    public boolean contains(Pose pose, float px, float py, float pz) {
+        Quaternion q = Quaternion.of(pose);
+        double dx = px - pose.getX();
+        double dy = py - pose.getY();
+        double dz = pz - pose.getZ();
+        //point in the frame of the shape: inverse rotation, see Quaternion#inverseRotate
+        double tx = 2 * (q.z * dy - q.y * dz);
+        double ty = 2 * (q.x * dz - q.z * dx);
+        double tz = 2 * (q.y * dx - q.x * dy);
+        double localX = dx + q.w * tx - q.y * tz + q.z * ty;
+        double localY = dy + q.w * ty - q.z * tx + q.x * tz;
+        double localZ = dz + q.w * tz - q.x * ty + q.y * tx;
+        return FastMath.abs(localX) <= halfDimX && FastMath.abs(localY) <= halfDimY && FastMath.abs(localZ) <= halfDimZ;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return CORNERS.length;
+    }
+
+    @Override
+    public int axisAt(Pose pose, float[] out, int offset) {
+        Quaternion orientation = Quaternion.of(pose);
+        //rotated axes are the columns of the rotation matrix
+        orientation.rotate(1f, 0f, 0f, out, offset);
+        orientation.rotate(0f, 1f, 0f, out, offset + 3);
+        orientation.rotate(0f, 0f, 1f, out, offset + 6);
+        return 3;
+    }
+
+    @Override
+    public int getAxisCount() {
+        return 3;
+    }
+
     @Override
     public float getMinRadius() {
         return minRadius;
@@ -221,14 +269,8 @@ public class ShapeRectangle3D extends Shape3D{
 
     @Override
     public FixedMatrix3x3_64F axesMatrixAt(Pose pose) {
-        //get rotation matrix
-        FixedMatrix3x3_64F rotationMatrix = RotationUtils.rotationMatrix(pose.getYaw(), pose.getPitch(), pose.getRoll());
-
-        //rotate axes
-        FixedOps3.mult(rotationMatrix, AXES_MATRIX, rotationMatrix);
-
-        //return result
-        return rotationMatrix;
+        //axes of the shape are the identity, so the rotated axes are the rotation matrix
+        return Quaternion.of(pose).rotationMatrix();
     }
 
     @Override
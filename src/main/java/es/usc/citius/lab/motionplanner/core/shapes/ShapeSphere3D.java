@@ -52,6 +52,18 @@ public class ShapeSphere3D extends Shape3D{
         super(config);
     }
 
+    @Override
+    public boolean contains(Pose pose, float px, float py, float pz) {
+        float dx = px - pose.getX();
+        float dy = py - pose.getY();
+        float dz = pz - pose.getZ();
+        return dx * dx + dy * dy + dz * dz <= radius * radius;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
     @Override
     public Point3D borderPointAtRelativeAngle(float yaw, float pitch) {
         //create point in the border of the sphere
@@ -78,6 +90,37 @@ public class ShapeSphere3D extends Shape3D{
         };
     }
 
+    @Override
+    public int vertexAt(Pose pose, float[] out, int offset) {
+        float x = pose.getX();
+        float y = pose.getY();
+        float z = pose.getZ();
+        out[offset] = x + radius;
+        out[offset + 1] = y;
+        out[offset + 2] = z;
+        out[offset + 3] = x - radius;
+        out[offset + 4] = y;
+        out[offset + 5] = z;
+        out[offset + 6] = x;
+        out[offset + 7] = y + radius;
+        out[offset + 8] = z;
+        out[offset + 9] = x;
+        out[offset + 10] = y - radius;
+        out[offset + 11] = z;
+        out[offset + 12] = x;
+        out[offset + 13] = y;
+        out[offset + 14] = z + radius;
+        out[offset + 15] = x;
+        out[offset + 16] = y;
+        out[offset + 17] = z - radius;
+        return 6;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return 6;
+    }
+
     @Override
     public Vector3D[] axisAt(Pose pose) {
         return new Vector3D[]{
@@ -87,6 +130,25 @@ public class ShapeSphere3D extends Shape3D{
         };
     }
 
+    @Override
+    public int axisAt(Pose pose, float[] out, int offset) {
+        out[offset] = 1f;
+        out[offset + 1] = 0f;
+        out[offset + 2] = 0f;
+        out[offset + 3] = 0f;
+        out[offset + 4] = 1f;
+        out[offset + 5] = 0f;
+        out[offset + 6] = 0f;
+        out[offset + 7] = 0f;
+        out[offset + 8] = 1f;
+        return 3;
+    }
+
+    @Override
+    public int getAxisCount() {
+        return 3;
+    }
+
     @Override
     public float getMinRadius() {
         return radius;
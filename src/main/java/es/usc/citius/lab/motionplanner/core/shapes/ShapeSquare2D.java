@@ -17,13 +17,11 @@ package es.usc.citius.lab.motionplanner.core.shapes;
 
 import es.usc.citius.lab.motionplanner.core.spatial.*;
 
-import java.util.*;
-
 import es.usc.citius.lab.motionplanner.core.util.RotationUtils;
 import org.apache.commons.math3.util.FastMath;
 
-import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
 import es.usc.citius.lab.motionplanner.core.util.Pair;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.ejml.alg.fixed.FixedOps3;
 import org.ejml.data.FixedMatrix2x2_64F;
@@ -39,10 +37,16 @@ public final class ShapeSquare2D extends Shape2D {
 
     private static final String SUBID_DIMX = SUBID_PARAM + ".dimX";
     private static final String SUBID_DIMY = SUBID_PARAM + ".dimY";
-    private static final long serialVersionUID = 201507171L;
+    private static final String SUBID_RESOLUTION = SUBID_PARAM + ".angularResolution";
+    private static final String SUBID_INTERPOLATE = SUBID_PARAM + ".interpolate";
+    private static final String SUBID_EXACT = SUBID_PARAM + ".exactBorder";
+    private static final float DEFAULT_RESOLUTION = 1f;
+    private static final long serialVersionUID = 201901151L;
     
-    private Map<Integer, Point2D> borderPositionsByAngle; //stores the points of the border of the shape, by angle, in degree precision
-    private Map<Integer, Float> distancesByAngle; //stores the distances to the border of the shape, by angle, in degegree precision
+    private BorderTable border; //stores the points of the border of the shape and their distances, by angle
+    private float angularResolution; //resolution of the border table, in degrees
+    private boolean interpolate; //interpolate between the positions of the border table
+    private boolean exactBorder; //calculate the border analytically instead of using the table
     private float halfDimX;
     private float halfDimY;
     private float angleFront; //angle of the front-left corner
@@ -57,10 +61,25 @@ public final class ShapeSquare2D extends Shape2D {
      * @param dimY maximum lenght of the shape in the Y axis
      */
     public ShapeSquare2D(float dimX, float dimY) {
+        this(dimX, dimY, DEFAULT_RESOLUTION, false);
+    }
+
+    /**
+     * Constructor for bidimensional squared shape specifying the precision of the
+     * table used to retrieve the border of the shape by angle.
+     *
+     * @param dimX maximum lenght of the shape in the X axis
+     * @param dimY maximum lenght of the shape in the Y axis
+     * @param angularResolution resolution of the border table, in degrees
+     * @param interpolate true to interpolate linearly between the positions of the border table
+     */
+    public ShapeSquare2D(float dimX, float dimY, float angularResolution, boolean interpolate) {
         super();
         //assign the dimensions
         this.halfDimX = dimX / 2;
         this.halfDimY = dimY / 2;
+        this.angularResolution = angularResolution;
+        this.interpolate = interpolate;
         initialize();
     }
     
@@ -85,6 +104,9 @@ public final class ShapeSquare2D extends Shape2D {
         if(Float.isNaN(halfDimY)){
             throw new RuntimeException("required field " + SUBID_DIMY + " is empty");
         }
+        this.angularResolution = config.getFloat(SUBID_RESOLUTION, DEFAULT_RESOLUTION);
+        this.interpolate = config.getBoolean(SUBID_INTERPOLATE, false);
+        this.exactBorder = config.getBoolean(SUBID_EXACT, false);
     }
     
     /**
@@ -94,29 +116,24 @@ public final class ShapeSquare2D extends Shape2D {
     private void initialize(){
         //assign optimistic and pessimistic radius
         this.optimisticRadius = FastMath.min(halfDimX, halfDimY);
-        this.pessimisticRadius = (float) FastMath.hypot(halfDimX, halfDimY);
+        this.pessimisticRadius = (float) MathFunctions.hypot(halfDimX, halfDimY);
         //assign the corner angles
-        this.angleFront = (float) FastMath.atan2(halfDimY, halfDimX);
-        this.angleBack = (float) FastMath.atan2(halfDimY, -halfDimX);
-        //generates the distances to the border by angle (from -PI/2 to PI/2)
-        this.borderPositionsByAngle = new HashMap<Integer, Point2D>(360);
-        this.distancesByAngle = new HashMap<Integer, Float>(360);
+        this.angleFront = (float) MathFunctions.atan2(halfDimY, halfDimX);
+        this.angleBack = (float) MathFunctions.atan2(halfDimY, -halfDimX);
+        //generates the distances to the border by angle (from -PI to PI)
+        this.border = new BorderTable(angularResolution, interpolate);
         Point2D p1 = new Point2D(1, 0); //rotation basis to generate the straight line
-        //from -179 to 180 would be enough, but -180 is added to avoid
-        //extra comparisons in roundToDegrees(float) method
-        for(int i = -180; i <= 180; i++){
-        	//convert angle to radians
-            float angle = MathFunctions.degToRadians(i);
+        for(int i = 0; i < border.size(); i++){
+            //angle of the current position of the table, in radians
+            float angle = border.angleAt(i);
             //create straight line of the side at that angle
             Pair<Point2D, Point2D> side = sideOfAngle(Pose2D.ZERO, angle);
             //rotated basis
             Point2D p2 = p1.rotate(angle, 0f, 0f);
             //select point of intersection
             Point2D intersection = SpatialFunctions.getLineLineIntersection(Point2D.ZERO, p2, side.getKey(), side.getContent());
-            //add position in the border to the map, with degree resolution
-            borderPositionsByAngle.put(i, intersection);
-            //add distance to the map, with degree resolution
-            distancesByAngle.put(i, intersection.distance(Point2D.ZERO));
+            //add position in the border and distance to the table
+            border.set(i, intersection);
         }
     }
 
@@ -133,8 +150,8 @@ public final class ShapeSquare2D extends Shape2D {
         float y = pose.getY();
         float yaw = pose.getYaw();
         //pre-calculated values for effiency
-        float cos = (float) FastMath.cos(yaw);
-        float sin = (float) FastMath.sin(yaw);
+        float cos = (float) MathFunctions.cos(yaw);
+        float sin = (float) MathFunctions.sin(yaw);
         float halfDimXDotCos = halfDimX * cos;
         float halfDimYDotCos = halfDimY * cos;
         float halfDimXDotSin = halfDimX * sin;
@@ -147,6 +164,39 @@ public final class ShapeSquare2D extends Shape2D {
                 new Point3D(x - halfDimXDotCos + halfDimYDotSin, y - halfDimXDotSin - halfDimYDotCos, 0f)
         };
     }
+
+    @Override
+    public int vertexAt(Pose pose, float[] out, int offset) {
+        float x = pose.getX();
+        float y = pose.getY();
+        float yaw = pose.getYaw();
+        //pre-calculated values for effiency
+        float cos = (float) MathFunctions.cos(yaw);
+        float sin = (float) MathFunctions.sin(yaw);
+        float halfDimXDotCos = halfDimX * cos;
+        float halfDimYDotCos = halfDimY * cos;
+        float halfDimXDotSin = halfDimX * sin;
+        float halfDimYDotSin = halfDimY * sin;
+        //same corners than vertexAt(Pose), written as (x, y, z) triplets
+        out[offset] = x + halfDimXDotCos + halfDimYDotSin;
+        out[offset + 1] = y + halfDimXDotSin - halfDimYDotCos;
+        out[offset + 2] = 0f;
+        out[offset + 3] = x + halfDimXDotCos - halfDimYDotSin;
+        out[offset + 4] = y + halfDimXDotSin + halfDimYDotCos;
+        out[offset + 5] = 0f;
+        out[offset + 6] = x - halfDimXDotCos - halfDimYDotSin;
+        out[offset + 7] = y - halfDimXDotSin + halfDimYDotCos;
+        out[offset + 8] = 0f;
+        out[offset + 9] = x - halfDimXDotCos + halfDimYDotSin;
+        out[offset + 10] = y - halfDimXDotSin - halfDimYDotCos;
+        out[offset + 11] = 0f;
+        return 4;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return 4;
+    }
     
     /**
      * Returns the straight line of the robot border in a concrete orientation. The angle is the orientation relative
@@ -203,6 +253,19 @@ public final class ShapeSquare2D extends Shape2D {
         return new double[][]{{point.getX() - pointProjectedOverSide.getX()}, {point.getY() - pointProjectedOverSide.getY()}};
     }
 
+    @Override
+    public float distanceToPoint(float x, float y, float cos, float sin, float px, float py){
+        //coordinates of the point in the frame of the shape
+        float dx = px - x;
+        float dy = py - y;
+        float localX = FastMath.abs(cos * dx + sin * dy);
+        float localY = FastMath.abs(-sin * dx + cos * dy);
+        //distance outside the sides in each axis
+        float outX = FastMath.max(localX - halfDimX, 0f);
+        float outY = FastMath.max(localY - halfDimY, 0f);
+        return (float) MathFunctions.sqrt(outX * outX + outY * outY);
+    }
+
     public float getDimX() {
         return halfDimX * 2;
     }
@@ -211,24 +274,70 @@ public final class ShapeSquare2D extends Shape2D {
         return halfDimY * 2;
     }
 
+    /**
+     * @return resolution of the table of the border, in degrees
+     */
+    public float getAngularResolution() {
+        return border.getResolution();
+    }
+
+    /**
+     * @return true if the values of the table of the border are interpolated
+     */
+    public boolean isInterpolated() {
+        return border.isInterpolated();
+    }
+
+    /**
+     * @return true if the border is calculated analytically, false if it is retrieved from the table
+     */
+    public boolean isExactBorder() {
+        return exactBorder;
+    }
+
+    /**
+     * Selects how the border of the shape is obtained in {@link #borderPointAtRelativeAngle(float, float)}
+     * and {@link #borderDistanceAtRelativeAngle(float, float)}: analytically, intersecting the ray
+     * at the given angle with the sides of the rectangle, or from the precomputed table, limited by
+     * its angular resolution.
+     *
+     * @param exactBorder true to calculate the border analytically, false to use the table
+     */
+    public void setExactBorder(boolean exactBorder) {
+        this.exactBorder = exactBorder;
+    }
+
     @Override
     public Point2D borderPointAtRelativeAngle(float yaw, float pitch) {
-        return borderPositionsByAngle.get(roundDegrees(yaw));
+        if(exactBorder){
+            float cos = (float) MathFunctions.cos(yaw);
+            float sin = (float) MathFunctions.sin(yaw);
+            float distance = exactBorderDistance(cos, sin);
+            return new Point2D(distance * cos, distance * sin);
+        }
+        return border.point(yaw);
     }
 
     @Override
     public float borderDistanceAtRelativeAngle(float yaw, float pitch) {
-        return distancesByAngle.get(roundDegrees(yaw));
+        if(exactBorder){
+            return exactBorderDistance((float) MathFunctions.cos(yaw), (float) MathFunctions.sin(yaw));
+        }
+        return border.distance(yaw);
     }
-    
+
     /**
-     * Obtains the rounded angle in degrees.
-     * 
-     * @param angle in rad (-pi, pi]
-     * @return 
+     * Distance from the rotation center to the border in the direction (cos, sin), in the frame of
+     * the shape: the ray reaches first the plane of the front/back side or the plane of the
+     * left/right one, which is the side it crosses. A zero component of the direction leads to an
+     * infinite distance to that pair of sides, which is discarded by the minimum.
+     *
+     * @param cos cosine of the relative angle to the heading
+     * @param sin sine of the relative angle to the heading
+     * @return distance between the rotation center and the border
      */
-    private int roundDegrees(float angle){
-        return FastMath.round(MathFunctions.radiansToDeg(angle));
+    private float exactBorderDistance(float cos, float sin){
+        return FastMath.min(halfDimX / FastMath.abs(cos), halfDimY / FastMath.abs(sin));
     }
 
     @Override
@@ -245,21 +354,41 @@ public final class ShapeSquare2D extends Shape2D {
     public Vector3D[] axisAt(Pose pose) {
         float yaw = pose.getYaw();
         //pre-calculated values for effiency
-        float cos = (float) FastMath.cos(yaw);
-        float sin = (float) FastMath.sin(yaw);
+        float cos = (float) MathFunctions.cos(yaw);
+        float sin = (float) MathFunctions.sin(yaw);
         return new Vector3D[]{
                 new Vector3D(halfDimX * cos, halfDimX * sin, 0f),
                 new Vector3D(-halfDimY * sin, halfDimY * cos, 0f)
         };
     }
 
+    @Override
+    public int axisAt(Pose pose, float[] out, int offset) {
+        float yaw = pose.getYaw();
+        //pre-calculated values for effiency
+        float cos = (float) MathFunctions.cos(yaw);
+        float sin = (float) MathFunctions.sin(yaw);
+        out[offset] = halfDimX * cos;
+        out[offset + 1] = halfDimX * sin;
+        out[offset + 2] = 0f;
+        out[offset + 3] = -halfDimY * sin;
+        out[offset + 4] = halfDimY * cos;
+        out[offset + 5] = 0f;
+        return 2;
+    }
+
+    @Override
+    public int getAxisCount() {
+        return 2;
+    }
+
     @Override
     public FixedMatrix3x3_64F axesMatrixAt(Pose pose) {
         //get rotation matrix
         FixedMatrix3x3_64F axesMatrix = new FixedMatrix3x3_64F();
         //pre-calculated values for effiency
-        double cos = FastMath.cos(pose.getYaw());
-        double sin = FastMath.sin(pose.getYaw());
+        double cos = MathFunctions.cos(pose.getYaw());
+        double sin = MathFunctions.sin(pose.getYaw());
 
         //first column
         axesMatrix.a11 = cos;
@@ -278,8 +407,8 @@ public final class ShapeSquare2D extends Shape2D {
         //get rotation matrix
         FixedMatrix2x2_64F axesMatrix = new FixedMatrix2x2_64F();
         //pre-calculated values for effiency
-        double cos = FastMath.cos(pose.getYaw());
-        double sin = FastMath.sin(pose.getYaw());
+        double cos = MathFunctions.cos(pose.getYaw());
+        double sin = MathFunctions.sin(pose.getYaw());
 
         //first column
         axesMatrix.a11 = cos;
@@ -16,18 +16,15 @@
 package es.usc.citius.lab.motionplanner.core.shapes;
 
 import es.usc.citius.lab.motionplanner.core.spatial.*;
-import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
 import es.usc.citius.lab.motionplanner.core.util.Pair;
 import es.usc.citius.lab.motionplanner.core.util.RotationUtils;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.commons.math3.util.FastMath;
 import org.ejml.alg.fixed.FixedOps3;
 import org.ejml.data.FixedMatrix2x2_64F;
 import org.ejml.data.FixedMatrix3x3_64F;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Created by adrian.gonzalez on 19/04/17.
  */
@@ -37,8 +34,14 @@ public class ShapeSquare2DNonSimmetric extends Shape2D{
     private static final String SUBID_NEGX = SUBID_PARAM + ".negativeX";
     private static final String SUBID_POSY = SUBID_PARAM + ".positiveY";
     private static final String SUBID_NEGY = SUBID_PARAM + ".negativeY";
-    private Map<Integer, Point2D> borderPositionsByAngle; //stores the points of the border of the shape, by angle, in degree precision
-    private Map<Integer, Float> distancesByAngle; //stores the distances to the border of the shape, by angle, in degegree precision
+    private static final String SUBID_RESOLUTION = SUBID_PARAM + ".angularResolution";
+    private static final String SUBID_INTERPOLATE = SUBID_PARAM + ".interpolate";
+    private static final String SUBID_EXACT = SUBID_PARAM + ".exactBorder";
+    private static final float DEFAULT_RESOLUTION = 1f;
+    private BorderTable border; //stores the points of the border of the shape and their distances, by angle
+    private float angularResolution; //resolution of the border table, in degrees
+    private boolean interpolate; //interpolate between the positions of the border table
+    private boolean exactBorder; //calculate the border analytically instead of using the table
     private Point2D[] corners; //stores the corners of the shape
     private float positiveX;
     private float positiveY;
@@ -50,6 +53,7 @@ public class ShapeSquare2DNonSimmetric extends Shape2D{
     private float angle4; //angle of the front-right corner
     private float optimisticRadius;
     private float pessimisticRadius;
+    private float inscribedRadius;
     private float distanceToCentroidX;
     private float distanceToCentroidY;
     private Vector3D distanceBetweenCenterAndCentroid;
@@ -63,10 +67,28 @@ public class ShapeSquare2DNonSimmetric extends Shape2D{
      * @param positiveY length of the front side
      */
     public ShapeSquare2DNonSimmetric(float negativeX, float negativeY, float positiveX, float positiveY){
+        this(negativeX, negativeY, positiveX, positiveY, DEFAULT_RESOLUTION, false);
+    }
+
+    /**
+     * Initializes the squared shape based on the dimensions from its rotation center, specifying
+     * the precision of the table used to retrieve the border of the shape by angle.
+     *
+     * @param negativeX length of the back side
+     * @param negativeY length of the right side
+     * @param positiveX length of the left side
+     * @param positiveY length of the front side
+     * @param angularResolution resolution of the border table, in degrees
+     * @param interpolate true to interpolate linearly between the positions of the border table
+     */
+    public ShapeSquare2DNonSimmetric(float negativeX, float negativeY, float positiveX, float positiveY,
+                                     float angularResolution, boolean interpolate){
         this.negativeX = -negativeX;
         this.negativeY = -negativeY;
         this.positiveX = positiveX;
         this.positiveY = positiveY;
+        this.angularResolution = angularResolution;
+        this.interpolate = interpolate;
         this.initialize();
     }
 
@@ -85,31 +107,28 @@ public class ShapeSquare2DNonSimmetric extends Shape2D{
         float radiusX = FastMath.max(FastMath.abs(positiveX), FastMath.abs(negativeX));
         float radiusY = FastMath.max(FastMath.abs(positiveY), FastMath.abs(negativeY));
         this.optimisticRadius = FastMath.min(radiusX, radiusY);
-        this.pessimisticRadius = (float) FastMath.hypot(radiusX, radiusY);
+        this.pessimisticRadius = (float) MathFunctions.hypot(radiusX, radiusY);
+        //closest side to the rotation center, which may be out of the shape
+        this.inscribedRadius = FastMath.max(0f, FastMath.min(FastMath.min(positiveX, -negativeX), FastMath.min(positiveY, -negativeY)));
         //assign the corner angles
-        this.angle1 = (float) FastMath.atan2(positiveY, positiveX);
-        this.angle2 = (float) FastMath.atan2(positiveY, negativeX);
-        this.angle3 = (float) FastMath.atan2(negativeY, negativeX);
-        this.angle4 = (float) FastMath.atan2(negativeY, positiveX);
-        //generates the distances to the border by angle (from -PI/2 to PI/2)
-        this.borderPositionsByAngle = new HashMap<Integer, Point2D>(360);
-        this.distancesByAngle = new HashMap<Integer, Float>(360);
+        this.angle1 = (float) MathFunctions.atan2(positiveY, positiveX);
+        this.angle2 = (float) MathFunctions.atan2(positiveY, negativeX);
+        this.angle3 = (float) MathFunctions.atan2(negativeY, negativeX);
+        this.angle4 = (float) MathFunctions.atan2(negativeY, positiveX);
+        //generates the distances to the border by angle (from -PI to PI)
+        this.border = new BorderTable(angularResolution, interpolate);
         Point2D p1 = new Point2D(1, 0); //rotation basis to generate the straight line
-        //from -179 to 180 would be enough, but -180 is added to avoid
-        //extra comparisons in roundToDegrees(float) method
-        for(int i = -180; i <= 180; i++){
-            //convert angle to radians
-            float angle = MathFunctions.degToRadians(i);
+        for(int i = 0; i < border.size(); i++){
+            //angle of the current position of the table, in radians
+            float angle = border.angleAt(i);
             //create straight line of the side at that angle
             Pair<Point2D, Point2D> side = sideOfAngle(Pose2D.ZERO, angle);
             //rotated basis
             Point2D p2 = p1.rotate(angle, 0f, 0f);
             //select point of intersection
             Point2D intersection = SpatialFunctions.getLineLineIntersection(Point2D.ZERO, p2, side.getKey(), side.getContent());
-            //add position in the border to the map, with degree resolution
-            borderPositionsByAngle.put(i, intersection);
-            //add distance to the map, with degree resolution
-            distancesByAngle.put(i, intersection.distance(Point2D.ZERO));
+            //add position in the border and distance to the table
+            border.set(i, intersection);
         }
         //obtain the corners of the shape
         this.corners = new Point2D[]{
@@ -182,6 +201,19 @@ public class ShapeSquare2DNonSimmetric extends Shape2D{
         return new double[][]{{point.getX() - pointProjectedOverSide.x}, {point.getY() - pointProjectedOverSide.y}};
     }
 
+    @Override
+    public float distanceToPoint(float x, float y, float cos, float sin, float px, float py){
+        //coordinates of the point in the frame of the shape
+        float dx = px - x;
+        float dy = py - y;
+        float localX = cos * dx + sin * dy;
+        float localY = -sin * dx + cos * dy;
+        //distance outside the sides in each axis
+        float outX = localX > positiveX ? localX - positiveX : (localX < negativeX ? negativeX - localX : 0f);
+        float outY = localY > positiveY ? localY - positiveY : (localY < negativeY ? negativeY - localY : 0f);
+        return (float) MathFunctions.sqrt(outX * outX + outY * outY);
+    }
+
     @Override
     protected final void loadConfig(HierarchicalConfiguration config) {
         this.positiveX = config.getFloat(SUBID_POSX, Float.NaN);
@@ -200,6 +232,9 @@ public class ShapeSquare2DNonSimmetric extends Shape2D{
         if(Float.isNaN(negativeY)){
             throw new RuntimeException("required field " + SUBID_NEGY + " is empty");
         }
+        this.angularResolution = config.getFloat(SUBID_RESOLUTION, DEFAULT_RESOLUTION);
+        this.interpolate = config.getBoolean(SUBID_INTERPOLATE, false);
+        this.exactBorder = config.getBoolean(SUBID_EXACT, false);
     }
 
     @Override
@@ -207,43 +242,143 @@ public class ShapeSquare2DNonSimmetric extends Shape2D{
         return optimisticRadius;
     }
 
+    @Override
+    public float getInscribedRadius() {
+        return inscribedRadius;
+    }
+
     @Override
     public float getMaxRadius() {
         return pessimisticRadius;
     }
 
     /**
-     * Obtains the rounded angle in degrees.
+     * @return length of the back side, from the rotation center
+     */
+    public float getNegativeX() {
+        return -negativeX;
+    }
+
+    /**
+     * @return length of the right side, from the rotation center
+     */
+    public float getNegativeY() {
+        return -negativeY;
+    }
+
+    /**
+     * @return length of the front side, from the rotation center
+     */
+    public float getPositiveX() {
+        return positiveX;
+    }
+
+    /**
+     * @return length of the left side, from the rotation center
+     */
+    public float getPositiveY() {
+        return positiveY;
+    }
+
+    /**
+     * @return resolution of the table of the border, in degrees
+     */
+    public float getAngularResolution() {
+        return border.getResolution();
+    }
+
+    /**
+     * @return true if the values of the table of the border are interpolated
+     */
+    public boolean isInterpolated() {
+        return border.isInterpolated();
+    }
+
+    /**
+     * @return true if the border is calculated analytically, false if it is retrieved from the table
+     */
+    public boolean isExactBorder() {
+        return exactBorder;
+    }
+
+    /**
+     * Selects how the border of the shape is obtained in {@link #borderPointAtRelativeAngle(float, float)}
+     * and {@link #borderDistanceAtRelativeAngle(float, float)}: analytically, intersecting the ray
+     * at the given angle with the sides of the rectangle, or from the precomputed table, limited by
+     * its angular resolution.
      *
-     * @param angle in rad (-pi, pi]
-     * @return
+     * @param exactBorder true to calculate the border analytically, false to use the table
      */
-    private int roundDegrees(float angle){
-        return FastMath.round(MathFunctions.radiansToDeg(angle));
+    public void setExactBorder(boolean exactBorder) {
+        this.exactBorder = exactBorder;
     }
 
     @Override
     public Point2D borderPointAtRelativeAngle(float yaw, float pitch) {
-        return borderPositionsByAngle.get(roundDegrees(yaw));
+        if(exactBorder){
+            float cos = (float) MathFunctions.cos(yaw);
+            float sin = (float) MathFunctions.sin(yaw);
+            float distance = exactBorderDistance(cos, sin);
+            return new Point2D(distance * cos, distance * sin);
+        }
+        return border.point(yaw);
     }
 
     @Override
     public float borderDistanceAtRelativeAngle(float yaw, float pitch) {
-        return distancesByAngle.get(roundDegrees(yaw));
+        if(exactBorder){
+            return exactBorderDistance((float) MathFunctions.cos(yaw), (float) MathFunctions.sin(yaw));
+        }
+        return border.distance(yaw);
+    }
+
+    /**
+     * Distance from the rotation center to the border in the direction (cos, sin), in the frame of
+     * the shape: the side crossed by the ray is selected by the sign of each component, and the
+     * ray reaches first either the front/back side or the left/right one.
+     *
+     * @param cos cosine of the relative angle to the heading
+     * @param sin sine of the relative angle to the heading
+     * @return distance between the rotation center and the border
+     */
+    private float exactBorderDistance(float cos, float sin){
+        float sideX = cos >= 0 ? positiveX : -negativeX;
+        float sideY = sin >= 0 ? positiveY : -negativeY;
+        return FastMath.min(sideX / FastMath.abs(cos), sideY / FastMath.abs(sin));
     }
 
     @Override
     public Vector3D[] axisAt(Pose pose) {
         float yaw = pose.getYaw();
         //pre-calculated values for effiency
-        float cos = (float) FastMath.cos(yaw);
-        float sin = (float) FastMath.sin(yaw);
+        float cos = (float) MathFunctions.cos(yaw);
+        float sin = (float) MathFunctions.sin(yaw);
         return new Vector3D[]{
                 new Vector3D(positiveX * cos, positiveX * sin, 0f),
                 new Vector3D(negativeY * sin, positiveY * cos, 0f)
         };
     }
 
+    @Override
+    public int axisAt(Pose pose, float[] out, int offset) {
+        float yaw = pose.getYaw();
+        //pre-calculated values for effiency
+        float cos = (float) MathFunctions.cos(yaw);
+        float sin = (float) MathFunctions.sin(yaw);
+        out[offset] = positiveX * cos;
+        out[offset + 1] = positiveX * sin;
+        out[offset + 2] = 0f;
+        out[offset + 3] = negativeY * sin;
+        out[offset + 4] = positiveY * cos;
+        out[offset + 5] = 0f;
+        return 2;
+    }
+
+    @Override
+    public int getAxisCount() {
+        return 2;
+    }
+
     /**
      * Returns the position of the corners of the robot shape centered in the
      * pose specified.
@@ -257,8 +392,8 @@ public class ShapeSquare2DNonSimmetric extends Shape2D{
         float y = pose.getY();
         float yaw = pose.getYaw();
         //pre-calculated values for effiency
-        float cos = (float) FastMath.cos(yaw);
-        float sin = (float) FastMath.sin(yaw);
+        float cos = (float) MathFunctions.cos(yaw);
+        float sin = (float) MathFunctions.sin(yaw);
         float negativeXDotCos = negativeX * cos;
         float positiveXDotCos = positiveX * cos;
         float negativeXDotSin = negativeX * sin;
@@ -276,13 +411,50 @@ public class ShapeSquare2DNonSimmetric extends Shape2D{
         };
     }
 
+    @Override
+    public int vertexAt(Pose pose, float[] out, int offset) {
+        float x = pose.getX();
+        float y = pose.getY();
+        float yaw = pose.getYaw();
+        //pre-calculated values for effiency
+        float cos = (float) MathFunctions.cos(yaw);
+        float sin = (float) MathFunctions.sin(yaw);
+        float negativeXDotCos = negativeX * cos;
+        float positiveXDotCos = positiveX * cos;
+        float negativeXDotSin = negativeX * sin;
+        float positiveXDotSin = positiveX * sin;
+        float negativeYDotCos = negativeY * cos;
+        float positiveYDotCos = positiveY * cos;
+        float negativeYDotSin = negativeY * sin;
+        float positiveYDotSin = positiveY * sin;
+        //same corners than vertexAt(Pose), written as (x, y, z) triplets
+        out[offset] = x + positiveXDotCos - negativeYDotSin;
+        out[offset + 1] = y + positiveXDotSin + negativeYDotCos;
+        out[offset + 2] = 0f;
+        out[offset + 3] = x + positiveXDotCos - positiveYDotSin;
+        out[offset + 4] = y + positiveXDotSin + positiveYDotCos;
+        out[offset + 5] = 0f;
+        out[offset + 6] = x + negativeXDotCos - positiveYDotSin;
+        out[offset + 7] = y + negativeXDotSin + positiveYDotCos;
+        out[offset + 8] = 0f;
+        out[offset + 9] = x + negativeXDotCos - negativeYDotSin;
+        out[offset + 10] = y + negativeXDotSin + negativeYDotCos;
+        out[offset + 11] = 0f;
+        return 4;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return 4;
+    }
+
     @Override
     public FixedMatrix3x3_64F axesMatrixAt(Pose pose) {
         //get rotation matrix
         FixedMatrix3x3_64F axesMatrix = new FixedMatrix3x3_64F();
         //pre-calculated values for effiency
-        double cos = FastMath.cos(pose.getYaw());
-        double sin = FastMath.sin(pose.getYaw());
+        double cos = MathFunctions.cos(pose.getYaw());
+        double sin = MathFunctions.sin(pose.getYaw());
 
         //first column
         axesMatrix.a11 = cos;
@@ -301,8 +473,8 @@ public class ShapeSquare2DNonSimmetric extends Shape2D{
         //get rotation matrix
         FixedMatrix2x2_64F axesMatrix = new FixedMatrix2x2_64F();
         //pre-calculated values for effiency
-        double cos = FastMath.cos(pose.getYaw());
-        double sin = FastMath.sin(pose.getYaw());
+        double cos = MathFunctions.cos(pose.getYaw());
+        double sin = MathFunctions.sin(pose.getYaw());
 
         //first column
         axesMatrix.a11 = cos;
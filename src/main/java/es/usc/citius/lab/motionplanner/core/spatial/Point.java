@@ -10,6 +10,24 @@ public interface Point extends Rotable<Point>{
 
     public float distance(Point other);
 
+    /**
+     * Obtains the square of {@link #distance(Point)}, avoiding the square root when the
+     * distance is only compared with others or with a threshold.
+     *
+     * @param other other point
+     * @return squared distance between the points
+     */
+    public float distanceSquared(Point other);
+
+    /**
+     * Checks if other point is closer than a given distance, comparing the squared values.
+     *
+     * @param other other point
+     * @param distance maximum distance, included; a negative value is never satisfied
+     * @return true if {@code distance(other) <= distance}
+     */
+    public boolean withinDistance(Point other, float distance);
+
     /**
      * Obtains the state adding the X, Y, Z values of the state and the given point.
      *
@@ -15,11 +15,9 @@
  */
 package es.usc.citius.lab.motionplanner.core.spatial;
 
-import org.apache.commons.math3.util.FastMath;
-
-import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
 import java.io.Serializable;
 
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
 import org.ejml.data.DenseMatrix64F;
 import org.ejml.simple.SimpleMatrix;
 
@@ -141,7 +139,7 @@ public class Point2D implements Point, Serializable{
      */
     @Override
     public float yawTo(Point point) {
-        return MathFunctions.adjustAngleP((float) FastMath.atan2(point.getY() - y, point.getX() - x));
+        return MathFunctions.adjustAngleP((float) MathFunctions.atan2(point.getY() - y, point.getX() - x));
     }
 
     @Override
@@ -161,7 +159,19 @@ public class Point2D implements Point, Serializable{
      * @return scalar distance between them
      */
     public float distance(Point point) {
-        return (float) FastMath.hypot(x - point.getX(), y - point.getY());
+        return (float) MathFunctions.sqrt(distanceSquared(point));
+    }
+
+    @Override
+    public float distanceSquared(Point point) {
+        float dx = x - point.getX();
+        float dy = y - point.getY();
+        return dx * dx + dy * dy;
+    }
+
+    @Override
+    public boolean withinDistance(Point point, float distance) {
+        return distance >= 0 && distanceSquared(point) <= distance * distance;
     }
 
     /**
@@ -224,8 +234,8 @@ public class Point2D implements Point, Serializable{
      */
     protected static float[] rotateXYCoordinates(float x, float y, float angle) {
         //obtain the a-priori
-        float cos = (float) FastMath.cos(angle);
-        float sin = (float) FastMath.sin(angle);
+        float cos = (float) MathFunctions.cos(angle);
+        float sin = (float) MathFunctions.sin(angle);
         //calculate new point
         return new float[]{
             x * cos - y * sin,
@@ -19,7 +19,6 @@ import java.io.Serializable;
 
 import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
 import es.usc.citius.lab.motionplanner.core.util.Pair;
-import org.apache.commons.math3.util.FastMath;
 import org.ejml.data.DenseMatrix64F;
 import org.ejml.simple.SimpleMatrix;
 
@@ -104,10 +103,18 @@ public class Point3D implements Point, Serializable{
      ************************************************************************/
 
     public float distance(Point point) {
+        return (float) MathFunctions.sqrt(distanceSquared(point));
+    }
+
+    public float distanceSquared(Point point) {
         float dx = this.x - point.getX();
         float dy = this.y - point.getY();
         float dz = this.z - point.getZ();
-        return (float) FastMath.sqrt(dx * dx + dy * dy + dz * dz );
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    public boolean withinDistance(Point point, float distance) {
+        return distance >= 0 && distanceSquared(point) <= distance * distance;
     }
 
     @Override
@@ -143,17 +150,17 @@ public class Point3D implements Point, Serializable{
     }
 
     public float yawTo(Point point){
-        return MathFunctions.adjustAngleP((float) FastMath.atan2(point.getY() - y, point.getX() - x));
+        return MathFunctions.adjustAngleP((float) MathFunctions.atan2(point.getY() - y, point.getX() - x));
     }
 
     public float pitchTo(Point point){
         float dx = point.getX() - x;
         float dy = point.getY() - y;
-        return MathFunctions.adjustAngleP((float) FastMath.atan2(point.getZ() - z, FastMath.sqrt(dx * dx + dy * dy)));
+        return MathFunctions.adjustAngleP((float) MathFunctions.atan2(point.getZ() - z, MathFunctions.sqrt(dx * dx + dy * dy)));
     }
 
     public float rollTo(Point point){
-        return MathFunctions.adjustAngleP((float) FastMath.atan2(point.getY() - y, point.getZ() - z));
+        return MathFunctions.adjustAngleP((float) MathFunctions.atan2(point.getY() - y, point.getZ() - z));
     }
 
     /**
@@ -165,8 +172,8 @@ public class Point3D implements Point, Serializable{
         float dy = point.y - y;
         float dz = point.z - z;
         return new Pair<Float, Float>(
-                MathFunctions.adjustAngleP((float) FastMath.atan2(dy, dx)),
-                MathFunctions.adjustAngleP((float) FastMath.atan2(dz, FastMath.sqrt(dx * dx + dy * dy)))
+                MathFunctions.adjustAngleP((float) MathFunctions.atan2(dy, dx)),
+                MathFunctions.adjustAngleP((float) MathFunctions.atan2(dz, MathFunctions.sqrt(dx * dx + dy * dy)))
         );
     }
 
@@ -177,7 +184,10 @@ public class Point3D implements Point, Serializable{
      * @return euclidean distance
      */
     public float distance(Point3D point) {
-        return (float) FastMath.sqrt(FastMath.pow(point.x - this.x, 2) + FastMath.pow(point.y - this.y, 2) + FastMath.pow(point.z - this.z, 2));
+        float dx = point.x - this.x;
+        float dy = point.y - this.y;
+        float dz = point.z - this.z;
+        return (float) MathFunctions.sqrt(dx * dx + dy * dy + dz * dz);
     }
 
     /**
@@ -287,6 +297,16 @@ public class Point3D implements Point, Serializable{
         return new Point3D(rotated[0], rotated[1], rotated[2]);
     }
     
+    /**
+     * Rotates this instance of {@link Point3D} by a {@link Quaternion}, returning a new instance.
+     *
+     * @param rotation rotation to apply
+     * @return rotated instance of {@link Point3D}
+     */
+    public Point3D rotate(Quaternion rotation){
+        return rotation.rotate(this);
+    }
+
     /**
      * Implements the rotation for the x-y coordinates and returns an array with
      * the rotated ones; see 3D rotation angles and matrix in LaValle:
@@ -305,12 +325,12 @@ public class Point3D implements Point, Serializable{
             float yaw, float pitch, float roll) {
         
         //obtain values a-priori
-        double sinyaw = FastMath.sin(yaw);
-        double sinpitch = FastMath.sin(pitch);
-        double sinroll = FastMath.sin(roll);
-        double cosyaw = FastMath.cos(yaw);
-        double cospitch = FastMath.cos(pitch);
-        double cosroll = FastMath.cos(roll);
+        double sinyaw = MathFunctions.sin(yaw);
+        double sinpitch = MathFunctions.sin(pitch);
+        double sinroll = MathFunctions.sin(roll);
+        double cosyaw = MathFunctions.cos(yaw);
+        double cospitch = MathFunctions.cos(pitch);
+        double cosroll = MathFunctions.cos(roll);
         
         return new float[]{
             (float) (x * (cosyaw * cospitch) 
@@ -361,4 +381,17 @@ public class Point3D implements Point, Serializable{
         this.z = rotated[2];
     }
 
+    /**
+     * Rotates the Point3D instance by a {@link Quaternion}, applying the result in the same instance.
+     *
+     * @param rotation rotation to apply
+     */
+    public void staticRotate(Quaternion rotation){
+        float[] rotated = new float[3];
+        rotation.rotate(this.x, this.y, this.z, rotated, 0);
+        this.x = rotated[0];
+        this.y = rotated[1];
+        this.z = rotated[2];
+    }
+
 }
@@ -0,0 +1,514 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.spatial;
+
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import org.apache.commons.math3.util.FastMath;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Collection of 2D points stored in packed primitive arrays (one per coordinate),
+ * instead of a {@code List<Point>} of {@link Point2D} instances. This avoids the
+ * header of one object per point and keeps consecutive points contiguous in memory.
+ * Interoperability with the methods that use {@link Point} is provided by
+ * {@link #view(int)} and {@link #asList()}, which expose the stored coordinates
+ * without copying them.
+ */
+public class PointCloud2D implements Serializable {
+
+    private static final long serialVersionUID = 20190115L;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private float[] xs;
+    private float[] ys;
+    private int size;
+
+    /**
+     * Creates an empty cloud with the default capacity.
+     */
+    public PointCloud2D() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty cloud.
+     *
+     * @param capacity initial number of points that can be stored without growing the arrays
+     */
+    public PointCloud2D(int capacity) {
+        this.xs = new float[capacity];
+        this.ys = new float[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Creates a cloud with the (x, y) coordinates of a collection of points.
+     *
+     * @param points points to copy
+     */
+    public PointCloud2D(Collection<? extends Point> points) {
+        this(points.size());
+        addAll(points);
+    }
+
+    /************************************************************************
+     *                              ACCESS
+     ************************************************************************/
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public float getX(int index) {
+        return xs[index];
+    }
+
+    public float getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * Array with the X coordinates; only the first {@link #size()} positions are valid. It
+     * is the internal storage of the cloud, so changes are visible in it.
+     *
+     * @return X coordinates
+     */
+    public float[] xs() {
+        return xs;
+    }
+
+    /**
+     * Array with the Y coordinates; only the first {@link #size()} positions are valid. It
+     * is the internal storage of the cloud, so changes are visible in it.
+     *
+     * @return Y coordinates
+     */
+    public float[] ys() {
+        return ys;
+    }
+
+    /**
+     * @param index position of the point
+     * @return new {@link Point2D} with the coordinates of the point
+     */
+    public Point2D get(int index) {
+        return new Point2D(xs[index], ys[index]);
+    }
+
+    public void set(int index, float x, float y) {
+        xs[index] = x;
+        ys[index] = y;
+    }
+
+    /**
+     * Obtains a view of a point of the cloud, which reads and writes the
+     * coordinates stored in the cloud.
+     *
+     * @param index position of the point
+     * @return {@link Point} backed by the cloud
+     */
+    public PointView view(int index) {
+        return new PointView(index);
+    }
+
+    /**
+     * @return list of views of the points of the cloud, see {@link #view(int)}
+     */
+    public List<Point> asList() {
+        return new AbstractList<Point>() {
+            @Override
+            public Point get(int index) {
+                if (index >= size) {
+                    throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+                }
+                return new PointView(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return new list of {@link Point2D} with the coordinates of the cloud
+     */
+    public List<Point> toList() {
+        List<Point> points = new ArrayList<Point>(size);
+        for (int i = 0; i < size; i++) {
+            points.add(new Point2D(xs[i], ys[i]));
+        }
+        return points;
+    }
+
+    /************************************************************************
+     *                           MODIFICATION
+     ************************************************************************/
+
+    public void add(float x, float y) {
+        ensureCapacity(size + 1);
+        xs[size] = x;
+        ys[size] = y;
+        size++;
+    }
+
+    public void add(Point point) {
+        add(point.getX(), point.getY());
+    }
+
+    public void addAll(Collection<? extends Point> points) {
+        ensureCapacity(size + points.size());
+        for (Point point : points) {
+            xs[size] = point.getX();
+            ys[size] = point.getY();
+            size++;
+        }
+    }
+
+    /**
+     * Adds a range of coordinates given in arrays.
+     *
+     * @param xs X coordinates
+     * @param ys Y coordinates
+     * @param offset first position to copy
+     * @param length number of points to copy
+     */
+    public void addAll(float[] xs, float[] ys, int offset, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(xs, offset, this.xs, size, length);
+        System.arraycopy(ys, offset, this.ys, size, length);
+        size += length;
+    }
+
+    public void addAll(PointCloud2D other) {
+        addAll(other.xs, other.ys, 0, other.size);
+    }
+
+    /**
+     * Removes all the points, keeping the capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Grows the arrays, if needed, to store the given number of points.
+     *
+     * @param capacity number of points
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > xs.length) {
+            int newCapacity = FastMath.max(capacity, xs.length + (xs.length >> 1) + 1);
+            xs = Arrays.copyOf(xs, newCapacity);
+            ys = Arrays.copyOf(ys, newCapacity);
+        }
+    }
+
+    /**
+     * Releases the capacity not used by the points of the cloud.
+     */
+    public void trimToSize() {
+        if (size < xs.length) {
+            xs = Arrays.copyOf(xs, size);
+            ys = Arrays.copyOf(ys, size);
+        }
+    }
+
+    /**
+     * Reorders the points of the cloud, as done by
+     * {@link es.usc.citius.lab.motionplanner.core.index.SpatialSort}.
+     *
+     * @param order indexes of the points in their new order: the point {@code order[i]} is moved to the position i
+     */
+    public void reorder(int[] order) {
+        if (order.length != size) {
+            throw new IllegalArgumentException("order of " + order.length + " points for a cloud of " + size);
+        }
+        xs = reorder(xs, order);
+        ys = reorder(ys, order);
+    }
+
+    private static float[] reorder(float[] values, int[] order) {
+        float[] result = new float[values.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = values[order[i]];
+        }
+        return result;
+    }
+
+    /************************************************************************
+     *                     BULK GEOMETRIC OPERATIONS
+     ************************************************************************/
+
+    /**
+     * Transforms all the points from the frame of a pose to the global frame, in place.
+     *
+     * @param transform transformation of the pose
+     */
+    public void transform(Transform2D transform) {
+        transform.apply(xs, ys, 0, size);
+    }
+
+    /**
+     * Transforms all the points from the frame of a pose to the global frame, in place;
+     * equivalent to {@code rotate(yaw, 0, 0)} + {@code add(pose)} for each point.
+     *
+     * @param pose origin of the frame of the points
+     */
+    public void transform(Pose pose) {
+        transform(new Transform2D(pose));
+    }
+
+    /**
+     * Translates all the points, in place.
+     *
+     * @param move coordinates to add
+     */
+    public void translate(Point move) {
+        final float dx = move.getX(), dy = move.getY();
+        for (int i = 0; i < size; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+        }
+    }
+
+    /**
+     * Calculates the distance between each point of the cloud and a given point.
+     *
+     * @param point reference point
+     * @param out array where the distances are written, with at least {@link #size()} positions
+     */
+    public void distances(Point point, float[] out) {
+        final float px = point.getX(), py = point.getY();
+        for (int i = 0; i < size; i++) {
+            float dx = xs[i] - px;
+            float dy = ys[i] - py;
+            out[i] = (float) MathFunctions.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    /**
+     * Calculates the squared distance between each point of the cloud and a given point.
+     *
+     * @param point reference point
+     * @param out array where the squared distances are written, with at least {@link #size()} positions
+     */
+    public void distancesSquared(Point point, float[] out) {
+        final float px = point.getX(), py = point.getY();
+        for (int i = 0; i < size; i++) {
+            float dx = xs[i] - px;
+            float dy = ys[i] - py;
+            out[i] = dx * dx + dy * dy;
+        }
+    }
+
+    /**
+     * Checks if any point of the cloud is closer to a given point than a distance, scanning
+     * them until one is found.
+     *
+     * @param point reference point
+     * @param distance maximum distance, included; a negative value is never satisfied
+     * @return true if there is a point of the cloud within the distance
+     */
+    public boolean anyWithinDistance(Point point, float distance) {
+        if (distance < 0) {
+            return false;
+        }
+        final float px = point.getX(), py = point.getY();
+        final float limit = distance * distance;
+        for (int i = 0; i < size; i++) {
+            float dx = xs[i] - px;
+            float dy = ys[i] - py;
+            if (dx * dx + dy * dy <= limit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the closest point of the cloud to the given coordinates, scanning all of them.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return index of the closest point, -1 if the cloud is empty
+     */
+    public int nearest(float x, float y) {
+        int nearest = -1;
+        float nearestDistance = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            float dx = xs[i] - x;
+            float dy = ys[i] - y;
+            float distance = dx * dx + dy * dy;
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Calculates the axis-aligned bounding box of the points.
+     *
+     * @param out array where [minX, minY, maxX, maxY] are written; all the values are NaN if the cloud is empty
+     */
+    public void boundingBox(float[] out) {
+        if (size == 0) {
+            Arrays.fill(out, 0, 4, Float.NaN);
+            return;
+        }
+        float minX = xs[0], minY = ys[0], maxX = xs[0], maxY = ys[0];
+        for (int i = 1; i < size; i++) {
+            float x = xs[i], y = ys[i];
+            minX = FastMath.min(minX, x);
+            maxX = FastMath.max(maxX, x);
+            minY = FastMath.min(minY, y);
+            maxY = FastMath.max(maxY, y);
+        }
+        out[0] = minX;
+        out[1] = minY;
+        out[2] = maxX;
+        out[3] = maxY;
+    }
+
+    @Override
+    public String toString() {
+        return "PointCloud2D[size=" + size + "]";
+    }
+
+    /**
+     * Flyweight {@link Point} which reads and writes the coordinates of a position
+     * of the cloud. The position can be changed with {@link #moveTo(int)}, so a single
+     * instance can be used to go over all the points. Operations which return a new
+     * point return a {@link Point2D}.
+     */
+    public class PointView implements Point {
+
+        private int index;
+
+        private PointView(int index) {
+            this.index = index;
+        }
+
+        /**
+         * @return position of the cloud represented by this view
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Changes the position of the cloud represented by this view.
+         *
+         * @param index new position
+         */
+        public void moveTo(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public float getX() {
+            return xs[index];
+        }
+
+        @Override
+        public float getY() {
+            return ys[index];
+        }
+
+        @Override
+        public float getZ() {
+            return 0;
+        }
+
+        @Override
+        public float distance(Point other) {
+            return (float) MathFunctions.sqrt(distanceSquared(other));
+        }
+
+        @Override
+        public float distanceSquared(Point other) {
+            float dx = xs[index] - other.getX();
+            float dy = ys[index] - other.getY();
+            return dx * dx + dy * dy;
+        }
+
+        @Override
+        public boolean withinDistance(Point other, float distance) {
+            return distance >= 0 && distanceSquared(other) <= distance * distance;
+        }
+
+        @Override
+        public Point2D add(Point move) {
+            return new Point2D(xs[index] + move.getX(), ys[index] + move.getY());
+        }
+
+        @Override
+        public void staticAdd(Point move) {
+            xs[index] += move.getX();
+            ys[index] += move.getY();
+        }
+
+        @Override
+        public Point2D subtract(Point move) {
+            return new Point2D(xs[index] - move.getX(), ys[index] - move.getY());
+        }
+
+        @Override
+        public void staticSubtract(Point move) {
+            xs[index] -= move.getX();
+            ys[index] -= move.getY();
+        }
+
+        @Override
+        public float yawTo(Point point) {
+            return MathFunctions.adjustAngleP((float) MathFunctions.atan2(point.getY() - ys[index], point.getX() - xs[index]));
+        }
+
+        @Override
+        public float pitchTo(Point point) {
+            return 0;
+        }
+
+        @Override
+        public float rollTo(Point point) {
+            return 0;
+        }
+
+        @Override
+        public Point2D rotate(float yaw, float pitch, float roll) {
+            return get(index).rotate(yaw, pitch, roll);
+        }
+
+        @Override
+        public String toString() {
+            return "[x=" + xs[index] + ", y=" + ys[index] + "]";
+        }
+    }
+
+}
@@ -19,7 +19,6 @@ import java.io.Serializable;
 
 import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
 
-import org.apache.commons.math3.util.FastMath;
 import org.ejml.data.DenseMatrix64F;
 
 /**
@@ -82,6 +81,35 @@ public class Pose2D extends Point2D implements Pose, Serializable{
         return yaw;
     }
 
+    /**
+     * Retrieves the heading as a binary angle, see {@link MathFunctions#radiansToBam(float)}.
+     *
+     * @return binary angle of the yaw
+     */
+    public int getYawBam() {
+        return MathFunctions.radiansToBam(yaw);
+    }
+
+    /**
+     * Assigns the heading from a binary angle, see {@link MathFunctions#bamToRadians(int)}.
+     *
+     * @param bam binary angle of the yaw
+     */
+    public void setYawBam(int bam) {
+        this.yaw = MathFunctions.bamToRadians(bam);
+    }
+
+    /**
+     * Obtains the index of the closest bin of the heading when the turn is divided in
+     * a number of bins, to index tables of values by angle.
+     *
+     * @param bins number of bins of the turn
+     * @return index of the bin, in [0, bins)
+     */
+    public int yawIndex(int bins) {
+        return MathFunctions.bamToIndex(getYawBam(), bins);
+    }
+
     @Override
     public float getPitch() {
         return 0;
@@ -109,7 +137,7 @@ public class Pose2D extends Point2D implements Pose, Serializable{
      * @return relative angle to the point, adjusted to (-PI, PI]
      */
     public float relativeYawTo(Point2D point){
-    	return MathFunctions.adjustAngleP((float) FastMath.atan2(point.y - y, point.x - x) - yaw);
+    	return MathFunctions.adjustAngleP((float) MathFunctions.atan2(point.y - y, point.x - x) - yaw);
     }
 
     /**
@@ -31,6 +31,10 @@ public class Pose3D extends Point3D implements Pose, Serializable{
     private static final long serialVersionUID = 20171003L;
 
     public float yaw, pitch, roll;
+    /**
+     * Orientation derived from the last angles requested, see {@link #getOrientation()}.
+     */
+    private transient volatile CachedOrientation orientation;
 
     /**
      * Constructor specifying all values independently.
@@ -64,6 +68,18 @@ public class Pose3D extends Point3D implements Pose, Serializable{
         this.roll = roll;
     }
 
+    /**
+     * Constructor from a {@link Point3D} and the orientation as a {@link Quaternion}; the
+     * angles are obtained from it, and it is kept as the cached orientation.
+     *
+     * @param other position in 3D space, instance of {@link Point3D}
+     * @param orientation rotation of the pose
+     */
+    public Pose3D(Point3D other, Quaternion orientation) {
+        this(other, orientation.getYaw(), orientation.getPitch(), orientation.getRoll());
+        this.orientation = new CachedOrientation(yaw, pitch, roll, orientation);
+    }
+
     /**
      * Constructor to generate a copy of a {@link Pose3D}
      *
@@ -89,6 +105,46 @@ public class Pose3D extends Point3D implements Pose, Serializable{
         return roll;
     }
 
+    /**
+     * Retrieves the orientation of the pose as a {@link Quaternion}. It is calculated from yaw,
+     * pitch and roll the first time and kept while they do not change, so rotating many points
+     * by the same pose evaluates the sines and cosines once.
+     *
+     * @return rotation of the pose
+     */
+    public Quaternion getOrientation() {
+        CachedOrientation cached = orientation;
+        if (cached == null || cached.yaw != yaw || cached.pitch != pitch || cached.roll != roll) {
+            cached = new CachedOrientation(yaw, pitch, roll, Quaternion.fromEuler(yaw, pitch, roll));
+            orientation = cached;
+        }
+        return cached.quaternion;
+    }
+
+    /**
+     * Transforms a point from the frame of this pose to the global frame: rotated by the
+     * orientation of the pose and translated to its position.
+     *
+     * @param point coordinates in the frame of the pose
+     * @return new {@link Point3D} in the global frame
+     */
+    public Point3D toGlobal(Point point) {
+        Point3D global = getOrientation().rotate(point);
+        global.staticAdd(this);
+        return global;
+    }
+
+    /**
+     * Rotates the position and the orientation of the pose by a {@link Quaternion}; unlike
+     * {@link #rotate(float, float, float)}, the orientations are composed, not their angles added.
+     *
+     * @param rotation rotation to apply
+     * @return rotated pose
+     */
+    public Pose3D rotate(Quaternion rotation) {
+        return new Pose3D(rotation.rotate(this), rotation.multiply(getOrientation()).normalize());
+    }
+
     public static float[][] rotateXYZCoordinates(float x, float y, float z, float yaw, float pitch, float roll, float rotateYaw, float rotatePitch, float rotateRoll){
         float[] coordinates = Point3D.rotateXYZCoordinates(x, y, z, rotateYaw, rotatePitch, rotateRoll);
         float[] angles = new float[]{
@@ -167,4 +223,21 @@ public class Pose3D extends Point3D implements Pose, Serializable{
         result = 31 * result + Math.round(roll * PRECISION);
         return result;
     }
+
+    /**
+     * Quaternion with the angles it was derived from, replaced as a whole so concurrent readers
+     * never see angles and quaternion of different orientations.
+     */
+    private static final class CachedOrientation {
+
+        private final float yaw, pitch, roll;
+        private final Quaternion quaternion;
+
+        private CachedOrientation(float yaw, float pitch, float roll, Quaternion quaternion) {
+            this.yaw = yaw;
+            this.pitch = pitch;
+            this.roll = roll;
+            this.quaternion = quaternion;
+        }
+    }
 }
@@ -0,0 +1,268 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.spatial;
+
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import org.apache.commons.math3.util.FastMath;
+import org.ejml.data.FixedMatrix3x3_64F;
+
+import java.io.Serializable;
+
+/**
+ * Unit quaternion (w, x, y, z) representing a rotation in 3D. It is equivalent to the rotation
+ * by yaw, pitch and roll of {@link Point3D#rotate(float, float, float)}, but rotations are
+ * composed by multiplying them, and rotating a point only takes products: the sines and
+ * cosines of the angles are evaluated once, when the quaternion is built from them.
+ * Instances are immutable.
+ */
+public class Quaternion implements Serializable {
+
+    private static final long serialVersionUID = 20190301L;
+    public static final Quaternion IDENTITY = new Quaternion(1, 0, 0, 0);
+
+    public final double w, x, y, z;
+
+    /**
+     * Builds a quaternion given its components; they are not normalized.
+     *
+     * @param w scalar part
+     * @param x first component of the vector part
+     * @param y second component of the vector part
+     * @param z third component of the vector part
+     */
+    public Quaternion(double w, double x, double y, double z) {
+        this.w = w;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Builds the rotation by yaw (around Z), then pitch (around Y) and roll (around X), in the
+     * same convention than {@link Point3D#rotate(float, float, float)}: R = Rz(yaw) Ry(pitch) Rx(roll).
+     *
+     * @param yaw rotation around Z
+     * @param pitch rotation around Y
+     * @param roll rotation around X
+     * @return quaternion of the rotation
+     */
+    public static Quaternion fromEuler(float yaw, float pitch, float roll) {
+        double sy = MathFunctions.sin(yaw * 0.5), cy = MathFunctions.cos(yaw * 0.5);
+        double sp = MathFunctions.sin(pitch * 0.5), cp = MathFunctions.cos(pitch * 0.5);
+        double sr = MathFunctions.sin(roll * 0.5), cr = MathFunctions.cos(roll * 0.5);
+        return new Quaternion(
+                cr * cp * cy + sr * sp * sy,
+                sr * cp * cy - cr * sp * sy,
+                cr * sp * cy + sr * cp * sy,
+                cr * cp * sy - sr * sp * cy
+        );
+    }
+
+    /**
+     * Builds the rotation of an angle around an axis.
+     *
+     * @param axis axis of the rotation, not necessarily unitary
+     * @param angle angle of the rotation, in radians (counterclockwise looking from the end of the axis)
+     * @return quaternion of the rotation
+     */
+    public static Quaternion fromAxisAngle(Vector3D axis, float angle) {
+        double norm = FastMath.sqrt(axis.dotProduct(axis));
+        if (norm == 0) {
+            throw new IllegalArgumentException("axis of the rotation must not be zero");
+        }
+        double s = MathFunctions.sin(angle * 0.5) / norm;
+        return new Quaternion(MathFunctions.cos(angle * 0.5), axis.x * s, axis.y * s, axis.z * s);
+    }
+
+    /**
+     * Obtains the orientation of a pose; for {@link Pose3D} it is the cached one, see
+     * {@link Pose3D#getOrientation()}.
+     *
+     * @param pose pose
+     * @return quaternion of the orientation of the pose
+     */
+    public static Quaternion of(Pose pose) {
+        if (pose instanceof Pose3D) {
+            return ((Pose3D) pose).getOrientation();
+        }
+        return fromEuler(pose.getYaw(), pose.getPitch(), pose.getRoll());
+    }
+
+    /************************************************************************
+     *                       ALGEBRAIC OPERATIONS
+     ************************************************************************/
+
+    /**
+     * Composes two rotations: the result applies first {@code other} and then this one.
+     *
+     * @param other rotation applied first
+     * @return product this * other
+     */
+    public Quaternion multiply(Quaternion other) {
+        return new Quaternion(
+                w * other.w - x * other.x - y * other.y - z * other.z,
+                w * other.x + x * other.w + y * other.z - z * other.y,
+                w * other.y - x * other.z + y * other.w + z * other.x,
+                w * other.z + x * other.y - y * other.x + z * other.w
+        );
+    }
+
+    /**
+     * @return conjugate (w, -x, -y, -z), which is the inverse rotation for unit quaternions
+     */
+    public Quaternion conjugate() {
+        return new Quaternion(w, -x, -y, -z);
+    }
+
+    /**
+     * @return inverse of the quaternion, also valid if it is not unitary
+     */
+    public Quaternion inverse() {
+        double norm2 = w * w + x * x + y * y + z * z;
+        return new Quaternion(w / norm2, -x / norm2, -y / norm2, -z / norm2);
+    }
+
+    public double norm() {
+        return FastMath.sqrt(w * w + x * x + y * y + z * z);
+    }
+
+    /**
+     * Removes the drift of the norm accumulated by chains of products.
+     *
+     * @return unit quaternion of the same rotation
+     */
+    public Quaternion normalize() {
+        double norm = norm();
+        return new Quaternion(w / norm, x / norm, y / norm, z / norm);
+    }
+
+    /************************************************************************
+     *                        ROTATION OF VECTORS
+     ************************************************************************/
+
+    /**
+     * Rotates the coordinates (px, py, pz) and writes the result in an array, as
+     * v + w * t + q x t, where t = 2 * q x v (q being the vector part of this quaternion).
+     *
+     * @param px X coordinate
+     * @param py Y coordinate
+     * @param pz Z coordinate
+     * @param out array where the rotated coordinates are written
+     * @param offset position of the rotated X coordinate in the array
+     */
+    public void rotate(float px, float py, float pz, float[] out, int offset) {
+        double tx = 2 * (y * pz - z * py);
+        double ty = 2 * (z * px - x * pz);
+        double tz = 2 * (x * py - y * px);
+        out[offset] = (float) (px + w * tx + y * tz - z * ty);
+        out[offset + 1] = (float) (py + w * ty + z * tx - x * tz);
+        out[offset + 2] = (float) (pz + w * tz + x * ty - y * tx);
+    }
+
+    /**
+     * Applies the inverse rotation to the coordinates (px, py, pz), writing the result in an array.
+     *
+     * @param px X coordinate
+     * @param py Y coordinate
+     * @param pz Z coordinate
+     * @param out array where the rotated coordinates are written
+     * @param offset position of the rotated X coordinate in the array
+     */
+    public void inverseRotate(float px, float py, float pz, float[] out, int offset) {
+        double tx = 2 * (z * py - y * pz);
+        double ty = 2 * (x * pz - z * px);
+        double tz = 2 * (y * px - x * py);
+        out[offset] = (float) (px + w * tx - y * tz + z * ty);
+        out[offset + 1] = (float) (py + w * ty - z * tx + x * tz);
+        out[offset + 2] = (float) (pz + w * tz - x * ty + y * tx);
+    }
+
+    /**
+     * @param point point to rotate
+     * @return new {@link Point3D} with the rotated coordinates
+     */
+    public Point3D rotate(Point point) {
+        float[] out = new float[3];
+        rotate(point.getX(), point.getY(), point.getZ(), out, 0);
+        return new Point3D(out[0], out[1], out[2]);
+    }
+
+    /**
+     * @param vector vector to rotate
+     * @return new {@link Vector3D} with the rotated components
+     */
+    public Vector3D rotate(Vector3D vector) {
+        float[] out = new float[3];
+        rotate(vector.x, vector.y, vector.z, out, 0);
+        return new Vector3D(out[0], out[1], out[2]);
+    }
+
+    /**
+     * Builds the rotation matrix of this quaternion, equal to the one of
+     * {@link es.usc.citius.lab.motionplanner.core.util.RotationUtils#rotationMatrix(float, float, float)}
+     * for the same angles.
+     *
+     * @return 3x3 rotation matrix
+     */
+    public FixedMatrix3x3_64F rotationMatrix() {
+        FixedMatrix3x3_64F matrix = new FixedMatrix3x3_64F();
+        double xx = x * x, yy = y * y, zz = z * z;
+        double xy = x * y, xz = x * z, yz = y * z;
+        double wx = w * x, wy = w * y, wz = w * z;
+        matrix.a11 = 1 - 2 * (yy + zz);
+        matrix.a12 = 2 * (xy - wz);
+        matrix.a13 = 2 * (xz + wy);
+        matrix.a21 = 2 * (xy + wz);
+        matrix.a22 = 1 - 2 * (xx + zz);
+        matrix.a23 = 2 * (yz - wx);
+        matrix.a31 = 2 * (xz - wy);
+        matrix.a32 = 2 * (yz + wx);
+        matrix.a33 = 1 - 2 * (xx + yy);
+        return matrix;
+    }
+
+    /************************************************************************
+     *                          EULER ANGLES
+     ************************************************************************/
+
+    /**
+     * @return rotation around Z, in (-PI, PI]
+     */
+    public float getYaw() {
+        return MathFunctions.adjustAngleP((float) MathFunctions.atan2(2 * (w * z + x * y), 1 - 2 * (y * y + z * z)));
+    }
+
+    /**
+     * @return rotation around Y, in [-PI/2, PI/2]
+     */
+    public float getPitch() {
+        double sin = 2 * (w * y - z * x);
+        //rounding may leave the sine slightly out of [-1, 1] near the poles
+        return (float) FastMath.asin(FastMath.max(-1, FastMath.min(1, sin)));
+    }
+
+    /**
+     * @return rotation around X, in (-PI, PI]
+     */
+    public float getRoll() {
+        return MathFunctions.adjustAngleP((float) MathFunctions.atan2(2 * (w * x + y * z), 1 - 2 * (x * x + y * y)));
+    }
+
+    @Override
+    public String toString() {
+        return "[w=" + w + ", x=" + x + ", y=" + y + ", z=" + z + "]";
+    }
+}
@@ -20,6 +20,7 @@ package es.usc.citius.lab.motionplanner.core.spatial;
  * <ul>
  * <li>Intersection point between a plane and a 3D line</li>
  * <li>Intersection point between 2D lines</li>
+ * <li>Squared distances and distance thresholds without square roots</li>
  * </ul>
  *
  * @author Adrián González Sieira <a
@@ -27,6 +28,69 @@ package es.usc.citius.lab.motionplanner.core.spatial;
  */
 public class SpatialFunctions {
 
+    /**
+     * Squared euclidean distance between two 2D coordinates.
+     *
+     * @param x1 X of the first point
+     * @param y1 Y of the first point
+     * @param x2 X of the second point
+     * @param y2 Y of the second point
+     * @return squared distance
+     */
+    public static float distanceSquared(float x1, float y1, float x2, float y2) {
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Squared euclidean distance between two 3D coordinates.
+     *
+     * @param x1 X of the first point
+     * @param y1 Y of the first point
+     * @param z1 Z of the first point
+     * @param x2 X of the second point
+     * @param y2 Y of the second point
+     * @param z2 Z of the second point
+     * @return squared distance
+     */
+    public static float distanceSquared(float x1, float y1, float z1, float x2, float y2, float z2) {
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        float dz = z2 - z1;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Checks if two 2D coordinates are closer than a given distance.
+     *
+     * @param x1 X of the first point
+     * @param y1 Y of the first point
+     * @param x2 X of the second point
+     * @param y2 Y of the second point
+     * @param distance maximum distance, included; a negative value is never satisfied
+     * @return true if the distance between the points is not greater than the given one
+     */
+    public static boolean withinDistance(float x1, float y1, float x2, float y2, float distance) {
+        return distance >= 0 && distanceSquared(x1, y1, x2, y2) <= distance * distance;
+    }
+
+    /**
+     * Checks if two 3D coordinates are closer than a given distance.
+     *
+     * @param x1 X of the first point
+     * @param y1 Y of the first point
+     * @param z1 Z of the first point
+     * @param x2 X of the second point
+     * @param y2 Y of the second point
+     * @param z2 Z of the second point
+     * @param distance maximum distance, included; a negative value is never satisfied
+     * @return true if the distance between the points is not greater than the given one
+     */
+    public static boolean withinDistance(float x1, float y1, float z1, float x2, float y2, float z2, float distance) {
+        return distance >= 0 && distanceSquared(x1, y1, z1, x2, y2, z2) <= distance * distance;
+    }
+
     /**
      * Performs the intersection between a point and a plane in 3D coordinates,
      * as detailed in
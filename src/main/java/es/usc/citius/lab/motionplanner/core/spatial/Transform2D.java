@@ -0,0 +1,348 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.spatial;
+
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+
+import java.io.Serializable;
+
+/**
+ * Rigid transformation in the X-Y plane (SE(2)) from the local frame of a {@link Pose} to the
+ * global frame: the points are rotated by the yaw of the pose and then translated to its
+ * position, as {@code point.rotate(yaw, 0, 0).add(pose)}. The sine and cosine of the yaw are
+ * cached, and compose and inverse operate on them without trigonometric functions. The
+ * operations modify the instance and return it, so frames can be chained with no allocations.
+ * <p>
+ * Points are given as {@link Point} instances, in structure-of-arrays form (one array per
+ * coordinate) or in packed arrays [x0, y0, x1, y1, ...]; the loops have no dependencies between
+ * iterations so they can be vectorized.
+ */
+public class Transform2D implements Serializable {
+
+    private static final long serialVersionUID = 20190320L;
+
+    private float x;
+    private float y;
+    private float yaw;
+    private float cos;
+    private float sin;
+
+    /**
+     * Builds the identity transformation.
+     */
+    public Transform2D() {
+        this(0f, 0f, 0f);
+    }
+
+    /**
+     * Builds the transformation defined by the position (x, y) and the yaw of a pose.
+     *
+     * @param pose origin of the local frame
+     */
+    public Transform2D(Pose pose) {
+        this(pose.getX(), pose.getY(), pose.getYaw());
+    }
+
+    /**
+     * Builds the transformation defined by a position and a heading.
+     *
+     * @param x position of the origin of the local frame in X
+     * @param y position of the origin of the local frame in Y
+     * @param yaw heading of the local frame
+     */
+    public Transform2D(float x, float y, float yaw) {
+        set(x, y, yaw);
+    }
+
+    /**
+     * Builds a copy of other transformation.
+     *
+     * @param other transformation to copy
+     */
+    public Transform2D(Transform2D other) {
+        set(other);
+    }
+
+    /**
+     * Replaces the transformation by the one of a position and a heading.
+     *
+     * @param x position of the origin of the local frame in X
+     * @param y position of the origin of the local frame in Y
+     * @param yaw heading of the local frame
+     * @return this instance
+     */
+    public Transform2D set(float x, float y, float yaw) {
+        this.x = x;
+        this.y = y;
+        this.yaw = yaw;
+        this.cos = (float) MathFunctions.cos(yaw);
+        this.sin = (float) MathFunctions.sin(yaw);
+        return this;
+    }
+
+    /**
+     * Replaces the transformation by the one of a pose.
+     *
+     * @param pose origin of the local frame
+     * @return this instance
+     */
+    public Transform2D set(Pose pose) {
+        return set(pose.getX(), pose.getY(), pose.getYaw());
+    }
+
+    /**
+     * Copies other transformation, with no trigonometric functions.
+     *
+     * @param other transformation to copy
+     * @return this instance
+     */
+    public Transform2D set(Transform2D other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.yaw = other.yaw;
+        this.cos = other.cos;
+        this.sin = other.sin;
+        return this;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getYaw() {
+        return yaw;
+    }
+
+    public float getCos() {
+        return cos;
+    }
+
+    public float getSin() {
+        return sin;
+    }
+
+    /************************************************************************
+     *                    COMPOSITION AND INVERSE
+     ************************************************************************/
+
+    /**
+     * Composes this transformation with other, in place: the result applies first
+     * {@code other} and then this one, so if {@code other} is the frame of a pose B relative
+     * to a pose A and this is the frame of A, the result is the frame of B.
+     *
+     * @param other transformation applied first
+     * @return this instance
+     */
+    public Transform2D compose(Transform2D other) {
+        float c = cos, s = sin;
+        this.x = c * other.x - s * other.y + x;
+        this.y = s * other.x + c * other.y + y;
+        this.cos = c * other.cos - s * other.sin;
+        this.sin = s * other.cos + c * other.sin;
+        this.yaw = MathFunctions.adjustAngleP(yaw + other.yaw);
+        return this;
+    }
+
+    /**
+     * Inverts this transformation in place, obtaining the one from the global frame to the
+     * local frame.
+     *
+     * @return this instance
+     */
+    public Transform2D invert() {
+        float c = cos, s = sin;
+        float tx = x, ty = y;
+        this.x = -(c * tx + s * ty);
+        this.y = s * tx - c * ty;
+        this.sin = -s;
+        this.yaw = MathFunctions.adjustAngleP(-yaw);
+        return this;
+    }
+
+    /**
+     * Obtains the transformation of a pose relative to another, this is, the frame of
+     * {@code pose} expressed in the frame of {@code reference}.
+     *
+     * @param reference origin of the frame
+     * @param pose pose to express in the frame of the reference
+     * @return new transformation inverse(reference) * pose
+     */
+    public static Transform2D relative(Pose reference, Pose pose) {
+        return new Transform2D(reference).invert().compose(new Transform2D(pose));
+    }
+
+    /**
+     * @return new {@link Pose2D} of the origin of the local frame
+     */
+    public Pose2D toPose() {
+        return new Pose2D(x, y, yaw);
+    }
+
+    /**
+     * Transforms a pose from the local to the global frame.
+     *
+     * @param pose pose in the local frame
+     * @return new {@link Pose2D} in the global frame
+     */
+    public Pose2D apply(Pose pose) {
+        float px = pose.getX();
+        float py = pose.getY();
+        return new Pose2D(cos * px - sin * py + x, sin * px + cos * py + y, MathFunctions.adjustAngleP(pose.getYaw() + yaw));
+    }
+
+    /************************************************************************
+     *                     TRANSFORMATION OF POINTS
+     ************************************************************************/
+
+    /**
+     * Transforms a point from the local to the global frame.
+     *
+     * @param point coordinates in the local frame
+     * @return new {@link Point2D} with the coordinates in the global frame
+     */
+    public Point2D apply(Point point) {
+        float px = point.getX();
+        float py = point.getY();
+        return new Point2D(cos * px - sin * py + x, sin * px + cos * py + y);
+    }
+
+    /**
+     * Transforms a point from the global to the local frame.
+     *
+     * @param point coordinates in the global frame
+     * @return new {@link Point2D} with the coordinates in the local frame
+     */
+    public Point2D applyInverse(Point point) {
+        float px = point.getX() - x;
+        float py = point.getY() - y;
+        return new Point2D(cos * px + sin * py, -sin * px + cos * py);
+    }
+
+    /**
+     * Transforms all the points of the arrays from the local to the global frame, in place.
+     *
+     * @param xs X coordinates
+     * @param ys Y coordinates
+     */
+    public void apply(float[] xs, float[] ys) {
+        apply(xs, ys, 0, xs.length);
+    }
+
+    /**
+     * Transforms a range of points from the local to the global frame, in place.
+     *
+     * @param xs X coordinates
+     * @param ys Y coordinates
+     * @param offset first point to transform
+     * @param length number of points to transform
+     */
+    public void apply(float[] xs, float[] ys, int offset, int length) {
+        apply(xs, ys, xs, ys, offset, length);
+    }
+
+    /**
+     * Transforms a range of points from the local to the global frame, writing
+     * the result in the same positions of the output arrays (which can be the
+     * input ones).
+     *
+     * @param xs X coordinates in the local frame
+     * @param ys Y coordinates in the local frame
+     * @param outXs X coordinates in the global frame
+     * @param outYs Y coordinates in the global frame
+     * @param offset first point to transform
+     * @param length number of points to transform
+     */
+    public void apply(float[] xs, float[] ys, float[] outXs, float[] outYs, int offset, int length) {
+        final float c = cos, s = sin, tx = x, ty = y;
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            float px = xs[i];
+            float py = ys[i];
+            outXs[i] = c * px - s * py + tx;
+            outYs[i] = s * px + c * py + ty;
+        }
+    }
+
+    /**
+     * Transforms a range of points from the global to the local frame, writing
+     * the result in the same positions of the output arrays (which can be the
+     * input ones).
+     *
+     * @param xs X coordinates in the global frame
+     * @param ys Y coordinates in the global frame
+     * @param outXs X coordinates in the local frame
+     * @param outYs Y coordinates in the local frame
+     * @param offset first point to transform
+     * @param length number of points to transform
+     */
+    public void applyInverse(float[] xs, float[] ys, float[] outXs, float[] outYs, int offset, int length) {
+        final float c = cos, s = sin, tx = x, ty = y;
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            float px = xs[i] - tx;
+            float py = ys[i] - ty;
+            outXs[i] = c * px + s * py;
+            outYs[i] = -s * px + c * py;
+        }
+    }
+
+    /**
+     * Transforms a range of points packed as [x0, y0, x1, y1, ...] from the local to the
+     * global frame, in place.
+     *
+     * @param points packed coordinates
+     * @param offset first point to transform (index of the point, not of the array)
+     * @param length number of points to transform
+     */
+    public void applyPacked(float[] points, int offset, int length) {
+        final float c = cos, s = sin, tx = x, ty = y;
+        final int end = 2 * (offset + length);
+        for (int i = 2 * offset; i < end; i += 2) {
+            float px = points[i];
+            float py = points[i + 1];
+            points[i] = c * px - s * py + tx;
+            points[i + 1] = s * px + c * py + ty;
+        }
+    }
+
+    /**
+     * Transforms a range of points packed as [x0, y0, x1, y1, ...] from the global to the
+     * local frame, in place.
+     *
+     * @param points packed coordinates
+     * @param offset first point to transform (index of the point, not of the array)
+     * @param length number of points to transform
+     */
+    public void applyInversePacked(float[] points, int offset, int length) {
+        final float c = cos, s = sin, tx = x, ty = y;
+        final int end = 2 * (offset + length);
+        for (int i = 2 * offset; i < end; i += 2) {
+            float px = points[i] - tx;
+            float py = points[i + 1] - ty;
+            points[i] = c * px + s * py;
+            points[i + 1] = -s * px + c * py;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[x=" + x + ", y=" + y + ", yaw=" + yaw + "]";
+    }
+}
@@ -0,0 +1,493 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.spatial;
+
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import es.usc.citius.lab.motionplanner.core.util.RotationUtils;
+import org.apache.commons.math3.util.FastMath;
+import org.ejml.data.FixedMatrix3x3_64F;
+
+import java.io.Serializable;
+
+/**
+ * Rigid transformation in 3D (SE(3)) from the local frame of a {@link Pose} to the global
+ * frame: the points are rotated by the yaw, pitch and roll of the pose (as in
+ * {@link Point3D#rotate(float, float, float)}) and then translated to its position. The
+ * rotation matrix is cached, and compose and inverse operate on it without trigonometric
+ * functions. The operations modify the instance and return it, so frames can be chained
+ * with no allocations.
+ * <p>
+ * Points are given as {@link Point} instances, in structure-of-arrays form (one array per
+ * coordinate) or in packed arrays [x0, y0, z0, x1, ...]; the loops have no dependencies between
+ * iterations so they can be vectorized.
+ */
+public class Transform3D implements Serializable {
+
+    private static final long serialVersionUID = 20190320L;
+
+    private float x, y, z;
+    private float r11, r12, r13;
+    private float r21, r22, r23;
+    private float r31, r32, r33;
+
+    /**
+     * Builds the identity transformation.
+     */
+    public Transform3D() {
+        this.r11 = 1f;
+        this.r22 = 1f;
+        this.r33 = 1f;
+    }
+
+    /**
+     * Builds the transformation defined by the position and heading of a pose; for a
+     * {@link Pose3D} the rotation is taken from its cached orientation.
+     *
+     * @param pose origin of the local frame
+     */
+    public Transform3D(Pose pose) {
+        set(pose);
+    }
+
+    /**
+     * Builds the transformation defined by a position and a heading.
+     *
+     * @param x position of the origin of the local frame in X
+     * @param y position of the origin of the local frame in Y
+     * @param z position of the origin of the local frame in Z
+     * @param yaw rotation around Z
+     * @param pitch rotation around Y
+     * @param roll rotation around X
+     */
+    public Transform3D(float x, float y, float z, float yaw, float pitch, float roll) {
+        set(x, y, z, yaw, pitch, roll);
+    }
+
+    /**
+     * Builds the transformation defined by a position and an orientation.
+     *
+     * @param position origin of the local frame
+     * @param orientation rotation of the local frame
+     */
+    public Transform3D(Point position, Quaternion orientation) {
+        set(position, orientation);
+    }
+
+    /**
+     * Builds a copy of other transformation.
+     *
+     * @param other transformation to copy
+     */
+    public Transform3D(Transform3D other) {
+        set(other);
+    }
+
+    /**
+     * Replaces the transformation by the one of a position and a heading, with the
+     * rotation matrix of {@link RotationUtils#rotationMatrix(float, float, float)}.
+     *
+     * @param x position of the origin of the local frame in X
+     * @param y position of the origin of the local frame in Y
+     * @param z position of the origin of the local frame in Z
+     * @param yaw rotation around Z
+     * @param pitch rotation around Y
+     * @param roll rotation around X
+     * @return this instance
+     */
+    public Transform3D set(float x, float y, float z, float yaw, float pitch, float roll) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return setRotation(RotationUtils.rotationMatrix(yaw, pitch, roll));
+    }
+
+    /**
+     * Replaces the transformation by the one of a pose.
+     *
+     * @param pose origin of the local frame
+     * @return this instance
+     */
+    public Transform3D set(Pose pose) {
+        if (pose instanceof Pose3D) {
+            return set(pose, ((Pose3D) pose).getOrientation());
+        }
+        return set(pose.getX(), pose.getY(), pose.getZ(), pose.getYaw(), pose.getPitch(), pose.getRoll());
+    }
+
+    /**
+     * Replaces the transformation by the one of a position and an orientation; the rotation
+     * matrix is obtained from the quaternion with no trigonometric functions.
+     *
+     * @param position origin of the local frame
+     * @param orientation rotation of the local frame
+     * @return this instance
+     */
+    public Transform3D set(Point position, Quaternion orientation) {
+        this.x = position.getX();
+        this.y = position.getY();
+        this.z = position.getZ();
+        double qw = orientation.w, qx = orientation.x, qy = orientation.y, qz = orientation.z;
+        this.r11 = (float) (1 - 2 * (qy * qy + qz * qz));
+        this.r12 = (float) (2 * (qx * qy - qw * qz));
+        this.r13 = (float) (2 * (qx * qz + qw * qy));
+        this.r21 = (float) (2 * (qx * qy + qw * qz));
+        this.r22 = (float) (1 - 2 * (qx * qx + qz * qz));
+        this.r23 = (float) (2 * (qy * qz - qw * qx));
+        this.r31 = (float) (2 * (qx * qz - qw * qy));
+        this.r32 = (float) (2 * (qy * qz + qw * qx));
+        this.r33 = (float) (1 - 2 * (qx * qx + qy * qy));
+        return this;
+    }
+
+    /**
+     * Copies other transformation.
+     *
+     * @param other transformation to copy
+     * @return this instance
+     */
+    public Transform3D set(Transform3D other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.z = other.z;
+        this.r11 = other.r11;
+        this.r12 = other.r12;
+        this.r13 = other.r13;
+        this.r21 = other.r21;
+        this.r22 = other.r22;
+        this.r23 = other.r23;
+        this.r31 = other.r31;
+        this.r32 = other.r32;
+        this.r33 = other.r33;
+        return this;
+    }
+
+    /**
+     * Replaces the rotation of the transformation, keeping the translation.
+     *
+     * @param rotation rotation matrix
+     * @return this instance
+     */
+    public Transform3D setRotation(FixedMatrix3x3_64F rotation) {
+        this.r11 = (float) rotation.a11;
+        this.r12 = (float) rotation.a12;
+        this.r13 = (float) rotation.a13;
+        this.r21 = (float) rotation.a21;
+        this.r22 = (float) rotation.a22;
+        this.r23 = (float) rotation.a23;
+        this.r31 = (float) rotation.a31;
+        this.r32 = (float) rotation.a32;
+        this.r33 = (float) rotation.a33;
+        return this;
+    }
+
+    /**
+     * @return new matrix with the rotation of the transformation
+     */
+    public FixedMatrix3x3_64F getRotationMatrix() {
+        return new FixedMatrix3x3_64F(r11, r12, r13, r21, r22, r23, r31, r32, r33);
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getZ() {
+        return z;
+    }
+
+    /**
+     * @return rotation around Z of the local frame, in (-PI, PI]
+     */
+    public float getYaw() {
+        return MathFunctions.adjustAngleP((float) MathFunctions.atan2(r21, r11));
+    }
+
+    /**
+     * @return rotation around Y of the local frame, in [-PI/2, PI/2]
+     */
+    public float getPitch() {
+        return (float) FastMath.asin(FastMath.max(-1f, FastMath.min(1f, -r31)));
+    }
+
+    /**
+     * @return rotation around X of the local frame, in (-PI, PI]
+     */
+    public float getRoll() {
+        return MathFunctions.adjustAngleP((float) MathFunctions.atan2(r32, r33));
+    }
+
+    /************************************************************************
+     *                    COMPOSITION AND INVERSE
+     ************************************************************************/
+
+    /**
+     * Composes this transformation with other, in place: the result applies first
+     * {@code other} and then this one, so if {@code other} is the frame of a pose B relative
+     * to a pose A and this is the frame of A, the result is the frame of B.
+     *
+     * @param other transformation applied first
+     * @return this instance
+     */
+    public Transform3D compose(Transform3D other) {
+        final float a11 = r11, a12 = r12, a13 = r13;
+        final float a21 = r21, a22 = r22, a23 = r23;
+        final float a31 = r31, a32 = r32, a33 = r33;
+        //translation: R * t' + t
+        float tx = a11 * other.x + a12 * other.y + a13 * other.z + x;
+        float ty = a21 * other.x + a22 * other.y + a23 * other.z + y;
+        float tz = a31 * other.x + a32 * other.y + a33 * other.z + z;
+        this.x = tx;
+        this.y = ty;
+        this.z = tz;
+        //rotation: R * R'
+        this.r11 = a11 * other.r11 + a12 * other.r21 + a13 * other.r31;
+        this.r12 = a11 * other.r12 + a12 * other.r22 + a13 * other.r32;
+        this.r13 = a11 * other.r13 + a12 * other.r23 + a13 * other.r33;
+        this.r21 = a21 * other.r11 + a22 * other.r21 + a23 * other.r31;
+        this.r22 = a21 * other.r12 + a22 * other.r22 + a23 * other.r32;
+        this.r23 = a21 * other.r13 + a22 * other.r23 + a23 * other.r33;
+        this.r31 = a31 * other.r11 + a32 * other.r21 + a33 * other.r31;
+        this.r32 = a31 * other.r12 + a32 * other.r22 + a33 * other.r32;
+        this.r33 = a31 * other.r13 + a32 * other.r23 + a33 * other.r33;
+        return this;
+    }
+
+    /**
+     * Inverts this transformation in place (transposed rotation and translation -R^T * t),
+     * obtaining the one from the global frame to the local frame.
+     *
+     * @return this instance
+     */
+    public Transform3D invert() {
+        float tx = x, ty = y, tz = z;
+        float swap;
+        swap = r12; r12 = r21; r21 = swap;
+        swap = r13; r13 = r31; r31 = swap;
+        swap = r23; r23 = r32; r32 = swap;
+        this.x = -(r11 * tx + r12 * ty + r13 * tz);
+        this.y = -(r21 * tx + r22 * ty + r23 * tz);
+        this.z = -(r31 * tx + r32 * ty + r33 * tz);
+        return this;
+    }
+
+    /**
+     * Obtains the transformation of a pose relative to another, this is, the frame of
+     * {@code pose} expressed in the frame of {@code reference}.
+     *
+     * @param reference origin of the frame
+     * @param pose pose to express in the frame of the reference
+     * @return new transformation inverse(reference) * pose
+     */
+    public static Transform3D relative(Pose reference, Pose pose) {
+        return new Transform3D(reference).invert().compose(new Transform3D(pose));
+    }
+
+    /**
+     * @return new {@link Pose3D} of the origin of the local frame
+     */
+    public Pose3D toPose() {
+        return new Pose3D(x, y, z, getYaw(), getPitch(), getRoll());
+    }
+
+    /**
+     * Transforms a pose from the local to the global frame, composing the orientations.
+     *
+     * @param pose pose in the local frame
+     * @return new {@link Pose3D} in the global frame
+     */
+    public Pose3D apply(Pose pose) {
+        return new Transform3D(this).compose(new Transform3D(pose)).toPose();
+    }
+
+    /************************************************************************
+     *                     TRANSFORMATION OF POINTS
+     ************************************************************************/
+
+    /**
+     * Transforms a point from the local to the global frame.
+     *
+     * @param point coordinates in the local frame
+     * @return new {@link Point3D} with the coordinates in the global frame
+     */
+    public Point3D apply(Point point) {
+        float px = point.getX();
+        float py = point.getY();
+        float pz = point.getZ();
+        return new Point3D(
+                r11 * px + r12 * py + r13 * pz + x,
+                r21 * px + r22 * py + r23 * pz + y,
+                r31 * px + r32 * py + r33 * pz + z
+        );
+    }
+
+    /**
+     * Transforms a point from the global to the local frame.
+     *
+     * @param point coordinates in the global frame
+     * @return new {@link Point3D} with the coordinates in the local frame
+     */
+    public Point3D applyInverse(Point point) {
+        float px = point.getX() - x;
+        float py = point.getY() - y;
+        float pz = point.getZ() - z;
+        return new Point3D(
+                r11 * px + r21 * py + r31 * pz,
+                r12 * px + r22 * py + r32 * pz,
+                r13 * px + r23 * py + r33 * pz
+        );
+    }
+
+    /**
+     * Transforms all the points of the arrays from the local to the global frame, in place.
+     *
+     * @param xs X coordinates
+     * @param ys Y coordinates
+     * @param zs Z coordinates
+     */
+    public void apply(float[] xs, float[] ys, float[] zs) {
+        apply(xs, ys, zs, xs, ys, zs, 0, xs.length);
+    }
+
+    /**
+     * Transforms a range of points from the local to the global frame, in place.
+     *
+     * @param xs X coordinates
+     * @param ys Y coordinates
+     * @param zs Z coordinates
+     * @param offset first point to transform
+     * @param length number of points to transform
+     */
+    public void apply(float[] xs, float[] ys, float[] zs, int offset, int length) {
+        apply(xs, ys, zs, xs, ys, zs, offset, length);
+    }
+
+    /**
+     * Transforms a range of points from the local to the global frame, writing
+     * the result in the same positions of the output arrays (which can be the
+     * input ones).
+     *
+     * @param xs X coordinates in the local frame
+     * @param ys Y coordinates in the local frame
+     * @param zs Z coordinates in the local frame
+     * @param outXs X coordinates in the global frame
+     * @param outYs Y coordinates in the global frame
+     * @param outZs Z coordinates in the global frame
+     * @param offset first point to transform
+     * @param length number of points to transform
+     */
+    public void apply(float[] xs, float[] ys, float[] zs, float[] outXs, float[] outYs, float[] outZs, int offset, int length) {
+        final float m11 = r11, m12 = r12, m13 = r13;
+        final float m21 = r21, m22 = r22, m23 = r23;
+        final float m31 = r31, m32 = r32, m33 = r33;
+        final float tx = x, ty = y, tz = z;
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            float px = xs[i];
+            float py = ys[i];
+            float pz = zs[i];
+            outXs[i] = m11 * px + m12 * py + m13 * pz + tx;
+            outYs[i] = m21 * px + m22 * py + m23 * pz + ty;
+            outZs[i] = m31 * px + m32 * py + m33 * pz + tz;
+        }
+    }
+
+    /**
+     * Transforms a range of points from the global to the local frame (applying the
+     * transposed rotation), writing the result in the same positions of the output
+     * arrays (which can be the input ones).
+     *
+     * @param xs X coordinates in the global frame
+     * @param ys Y coordinates in the global frame
+     * @param zs Z coordinates in the global frame
+     * @param outXs X coordinates in the local frame
+     * @param outYs Y coordinates in the local frame
+     * @param outZs Z coordinates in the local frame
+     * @param offset first point to transform
+     * @param length number of points to transform
+     */
+    public void applyInverse(float[] xs, float[] ys, float[] zs, float[] outXs, float[] outYs, float[] outZs, int offset, int length) {
+        final float m11 = r11, m12 = r12, m13 = r13;
+        final float m21 = r21, m22 = r22, m23 = r23;
+        final float m31 = r31, m32 = r32, m33 = r33;
+        final float tx = x, ty = y, tz = z;
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            float px = xs[i] - tx;
+            float py = ys[i] - ty;
+            float pz = zs[i] - tz;
+            outXs[i] = m11 * px + m21 * py + m31 * pz;
+            outYs[i] = m12 * px + m22 * py + m32 * pz;
+            outZs[i] = m13 * px + m23 * py + m33 * pz;
+        }
+    }
+
+    /**
+     * Transforms a range of points packed as [x0, y0, z0, x1, ...] from the local to the
+     * global frame, in place.
+     *
+     * @param points packed coordinates
+     * @param offset first point to transform (index of the point, not of the array)
+     * @param length number of points to transform
+     */
+    public void applyPacked(float[] points, int offset, int length) {
+        final float m11 = r11, m12 = r12, m13 = r13;
+        final float m21 = r21, m22 = r22, m23 = r23;
+        final float m31 = r31, m32 = r32, m33 = r33;
+        final float tx = x, ty = y, tz = z;
+        final int end = 3 * (offset + length);
+        for (int i = 3 * offset; i < end; i += 3) {
+            float px = points[i];
+            float py = points[i + 1];
+            float pz = points[i + 2];
+            points[i] = m11 * px + m12 * py + m13 * pz + tx;
+            points[i + 1] = m21 * px + m22 * py + m23 * pz + ty;
+            points[i + 2] = m31 * px + m32 * py + m33 * pz + tz;
+        }
+    }
+
+    /**
+     * Transforms a range of points packed as [x0, y0, z0, x1, ...] from the global to the
+     * local frame, in place.
+     *
+     * @param points packed coordinates
+     * @param offset first point to transform (index of the point, not of the array)
+     * @param length number of points to transform
+     */
+    public void applyInversePacked(float[] points, int offset, int length) {
+        final float m11 = r11, m12 = r12, m13 = r13;
+        final float m21 = r21, m22 = r22, m23 = r23;
+        final float m31 = r31, m32 = r32, m33 = r33;
+        final float tx = x, ty = y, tz = z;
+        final int end = 3 * (offset + length);
+        for (int i = 3 * offset; i < end; i += 3) {
+            float px = points[i] - tx;
+            float py = points[i + 1] - ty;
+            float pz = points[i + 2] - tz;
+            points[i] = m11 * px + m21 * py + m31 * pz;
+            points[i + 1] = m12 * px + m22 * py + m32 * pz;
+            points[i + 2] = m13 * px + m23 * py + m33 * pz;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[x=" + x + ", y=" + y + ", z=" + z + ", yaw=" + getYaw() + ", pitch=" + getPitch() + ", roll=" + getRoll() + "]";
+    }
+}
@@ -98,6 +98,16 @@ public class Vector3D implements Serializable{
         return new Vector3D(rotated[0], rotated[1], rotated[2]);
     }
 
+    /**
+     * Rotates the vector by a {@link Quaternion}, returning a new instance.
+     *
+     * @param rotation rotation to apply
+     * @return rotated vector
+     */
+    public Vector3D rotate(Quaternion rotation) {
+        return rotation.rotate(this);
+    }
+
     public void normalize(){
         float value = x * x + y * y + z * z;
         //avoids normalizing vectors when they are already unitary
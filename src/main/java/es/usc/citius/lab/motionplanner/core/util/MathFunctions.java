@@ -30,6 +30,17 @@ public abstract class MathFunctions {
     public static final float INV_PITIMES2 = (float) (1 / PITIMES2);
     public static final float PIDIV2 = (float) (FastMath.PI / 2);
     public static final float PIDIV4 = (float) (FastMath.PI / 4);
+    /**
+     * Period of {@link #adjustAngle2P(float)}: the float value of 2*PI, in double precision.
+     */
+    private static final double PITIMES2_D = PITIMES2;
+    /**
+     * Units of a binary angle in a radian, 2^32 / (2*PI).
+     */
+    public static final double BAM_PER_RADIAN = 4294967296.0 / (2 * FastMath.PI);
+    public static final double RADIANS_PER_BAM = (2 * FastMath.PI) / 4294967296.0;
+
+    private static MathKernel kernel = MathKernel.EXACT;
 
 
     /**
@@ -38,38 +49,181 @@ public abstract class MathFunctions {
     private MathFunctions() {
     }
 
+    /************************************************************************
+     *                      KERNEL OF MATH FUNCTIONS
+     ************************************************************************/
+
     /**
-     * This function adjusts an input angle into the range [0, 2*PI).
+     * Selects the implementation of the trigonometric and distance functions used by the spatial
+     * and shape classes. It is meant to be configured once at the start of the application: the
+     * change is not synchronized with other threads, and tables or shapes built before the change
+     * keep the values computed with the previous kernel.
+     *
+     * @param kernel new kernel, {@link MathKernel#EXACT} by default
+     */
+    public static void setKernel(MathKernel kernel) {
+        if (kernel == null) {
+            throw new IllegalArgumentException("kernel must not be null");
+        }
+        MathFunctions.kernel = kernel;
+    }
+
+    public static MathKernel getKernel() {
+        return kernel;
+    }
+
+    /**
+     * @param angle angle in radians
+     * @return sine of the angle, see {@link MathKernel#sin(double)}
+     */
+    public static double sin(double angle) {
+        return kernel.sin(angle);
+    }
+
+    /**
+     * @param angle angle in radians
+     * @return cosine of the angle, see {@link MathKernel#cos(double)}
+     */
+    public static double cos(double angle) {
+        return kernel.cos(angle);
+    }
+
+    /**
+     * @param angle angle in radians
+     * @param out array where [sin, cos] are written, see {@link MathKernel#sinCos(double, double[])}
+     */
+    public static void sinCos(double angle, double[] out) {
+        kernel.sinCos(angle, out);
+    }
+
+    /**
+     * @param y coordinate Y
+     * @param x coordinate X
+     * @return angle of the vector (x, y), see {@link MathKernel#atan2(double, double)}
+     */
+    public static double atan2(double y, double x) {
+        return kernel.atan2(y, x);
+    }
+
+    /**
+     * @param x coordinate X
+     * @param y coordinate Y
+     * @return length of the vector (x, y), see {@link MathKernel#hypot(double, double)}
+     */
+    public static double hypot(double x, double y) {
+        return kernel.hypot(x, y);
+    }
+
+    /**
+     * @param value non negative value
+     * @return square root of the value, see {@link MathKernel#sqrt(double)}
+     */
+    public static double sqrt(double value) {
+        return kernel.sqrt(value);
+    }
+
+    /************************************************************************
+     *                           ANGLES
+     ************************************************************************/
+
+    /**
+     * This function adjusts an input angle into the range [0, 2*PI). The cost
+     * does not depend on the magnitude of the angle.
      *
      * @param angle input value of the angle, in radians
      * @return an output value adapted to the angle range
      */
     public static float adjustAngle2P(float angle) {
-        float angleRange = angle;
-    	while(angleRange < 0){
-        	angleRange += PITIMES2;
+        //remainder of the division by the period, in double precision
+        float angleRange = (float) (angle - PITIMES2_D * Math.floor(angle / PITIMES2_D));
+        //rounding of the quotient and the cast to float may leave the result out of the interval
+        if(angleRange < 0){
+            angleRange += PITIMES2;
+        }
+        if(angleRange >= PITIMES2){
+            angleRange -= PITIMES2;
         }
-    	while(angleRange >= PITIMES2){
-    		angleRange -= PITIMES2;
-    	}
-    	return angleRange;
+        return angleRange;
     }
 
     /**
-     * This function adjusts an input angle into the range (-PI, PI].
+     * This function adjusts an input angle into the range (-PI, PI]. Angles already
+     * in the range are returned unchanged, and the cost does not depend on the
+     * magnitude of the angle.
      *
      * @param angle input value of the angle, in radians
      * @return an output value adapted to the angle range
      */
     public static float adjustAngleP(float angle) {
-        float angleRange = angle;
-    	while(angleRange <= -PI){
-        	angleRange += PITIMES2;
+        if(angle > -PI && angle <= PI){
+            return angle;
         }
-    	while(angleRange > PI){
-    		angleRange -= PITIMES2;
-    	}
-    	return angleRange;
+        //remainder of the division by the period centered in 0, rounded to float only once
+        float angleRange = (float) (angle - PITIMES2_D * Math.floor(((double) angle + PI) / PITIMES2_D));
+        //rounding of the quotient and the cast to float may leave the result out of the interval
+        if(angleRange <= -PI){
+            angleRange += PITIMES2;
+        }
+        if(angleRange > PI){
+            angleRange -= PITIMES2;
+        }
+        return angleRange;
+    }
+
+    /************************************************************************
+     *                       BINARY ANGLES (BAM)
+     ************************************************************************/
+
+    /**
+     * Converts an angle to its binary representation, where a full turn is 2^32 units of
+     * an int: the overflow of the integer arithmetic implements the wraparound of the angle
+     * exactly, so binary angles can be added and subtracted without adjusting them.
+     *
+     * @param angle angle in radians
+     * @return closest binary angle
+     */
+    public static int radiansToBam(float angle) {
+        //the cast from long keeps the lower 32 bits, which is the angle modulo a turn
+        return (int) Math.round(angle * BAM_PER_RADIAN);
+    }
+
+    /**
+     * Converts a binary angle to radians.
+     *
+     * @param bam binary angle
+     * @return angle in radians, in the range (-PI, PI]
+     */
+    public static float bamToRadians(int bam) {
+        float angle = (float) (bam * RADIANS_PER_BAM);
+        //-PI and the angles rounded to it in float precision
+        return angle <= -PI ? PI : angle;
+    }
+
+    /**
+     * Obtains the index of the closest bin of a binary angle when the turn is divided
+     * in a number of bins, the first one centered in 0. It allows indexing tables of
+     * values by angle with no normalization nor division.
+     *
+     * @param bam binary angle
+     * @param bins number of bins of the turn, up to 2^30
+     * @return index of the bin, in [0, bins)
+     */
+    public static int bamToIndex(int bam, int bins) {
+        //unsigned angle scaled by the number of bins, in 32.32 fixed point
+        long scaled = (bam & 0xFFFFFFFFL) * bins;
+        int index = (int) ((scaled + 0x80000000L) >>> 32);
+        return index == bins ? 0 : index;
+    }
+
+    /**
+     * Obtains the binary angle of the center of a bin, the inverse of {@link #bamToIndex(int, int)}.
+     *
+     * @param index index of the bin, in [0, bins)
+     * @param bins number of bins of the turn, up to 2^30
+     * @return binary angle of the bin
+     */
+    public static int indexToBam(int index, int bins) {
+        return (int) ((((long) index << 32) + bins / 2) / bins);
     }
 
     /**
@@ -0,0 +1,289 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.util;
+
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Implementations of the trigonometric and distance functions used by the spatial and shape
+ * classes, with different trade-offs between speed and accuracy. The kernel in use is selected
+ * with {@link MathFunctions#setKernel(MathKernel)}.
+ * <ul>
+ * <li>{@link #EXACT}: {@link FastMath}, correctly rounded up to 1 ulp.</li>
+ * <li>{@link #TABLE}: sin/cos interpolated in a table of 4096 values per turn (absolute error
+ * below 3E-7), atan2 interpolated in a table of 1024 values of atan in [0, 1] (below 1E-7 rad).</li>
+ * <li>{@link #POLYNOMIAL}: minimax polynomials of single precision for sin/cos in [-PI/4, PI/4]
+ * after reducing the angle by quadrants (absolute error below 1E-6 for angles up to 1E4 rad), and a
+ * degree 9 polynomial for atan in [-1, 1] (below 1.2E-5 rad).</li>
+ * </ul>
+ * The square root is an intrinsic of the JVM, faster than any approximation, so all the kernels
+ * compute sqrt with {@link Math#sqrt(double)}; the approximate ones also compute hypot as
+ * {@code sqrt(x * x + y * y)}, without the protection against overflow of {@link FastMath#hypot(double, double)}.
+ */
+public enum MathKernel {
+
+    EXACT {
+        @Override
+        public double sin(double angle) {
+            return FastMath.sin(angle);
+        }
+
+        @Override
+        public double cos(double angle) {
+            return FastMath.cos(angle);
+        }
+
+        @Override
+        public double atan2(double y, double x) {
+            return FastMath.atan2(y, x);
+        }
+
+        @Override
+        public double hypot(double x, double y) {
+            return FastMath.hypot(x, y);
+        }
+
+        @Override
+        public double maxError() {
+            return 0;
+        }
+    },
+
+    TABLE {
+        @Override
+        public double sin(double angle) {
+            return Tables.interpolateSin(angle * Tables.SIN_SCALE);
+        }
+
+        @Override
+        public double cos(double angle) {
+            return Tables.interpolateSin(angle * Tables.SIN_SCALE + Tables.SIN_SIZE / 4);
+        }
+
+        @Override
+        public void sinCos(double angle, double[] out) {
+            double position = angle * Tables.SIN_SCALE;
+            out[0] = Tables.interpolateSin(position);
+            out[1] = Tables.interpolateSin(position + Tables.SIN_SIZE / 4);
+        }
+
+        @Override
+        public double atan2(double y, double x) {
+            return Tables.atan2(y, x, this);
+        }
+
+        @Override
+        double atan(double t) {
+            double position = t * Tables.ATAN_SIZE;
+            int index = (int) position;
+            if (index >= Tables.ATAN_SIZE) {
+                return Tables.ATAN[Tables.ATAN_SIZE];
+            }
+            double fraction = position - index;
+            return Tables.ATAN[index] + fraction * (Tables.ATAN[index + 1] - Tables.ATAN[index]);
+        }
+
+        @Override
+        public double maxError() {
+            return 3E-7;
+        }
+    },
+
+    POLYNOMIAL {
+        @Override
+        public double sin(double angle) {
+            long quadrant = Math.round(angle * Tables.INV_PIDIV2);
+            double r = Tables.reduce(angle, quadrant);
+            switch ((int) (quadrant & 3)) {
+                case 0: return Tables.sinPolynomial(r);
+                case 1: return Tables.cosPolynomial(r);
+                case 2: return -Tables.sinPolynomial(r);
+                default: return -Tables.cosPolynomial(r);
+            }
+        }
+
+        @Override
+        public double cos(double angle) {
+            long quadrant = Math.round(angle * Tables.INV_PIDIV2);
+            double r = Tables.reduce(angle, quadrant);
+            switch ((int) (quadrant & 3)) {
+                case 0: return Tables.cosPolynomial(r);
+                case 1: return -Tables.sinPolynomial(r);
+                case 2: return -Tables.cosPolynomial(r);
+                default: return Tables.sinPolynomial(r);
+            }
+        }
+
+        @Override
+        public void sinCos(double angle, double[] out) {
+            long quadrant = Math.round(angle * Tables.INV_PIDIV2);
+            double r = Tables.reduce(angle, quadrant);
+            double s = Tables.sinPolynomial(r), c = Tables.cosPolynomial(r);
+            switch ((int) (quadrant & 3)) {
+                case 0: out[0] = s; out[1] = c; break;
+                case 1: out[0] = c; out[1] = -s; break;
+                case 2: out[0] = -s; out[1] = -c; break;
+                default: out[0] = -c; out[1] = s;
+            }
+        }
+
+        @Override
+        public double atan2(double y, double x) {
+            return Tables.atan2(y, x, this);
+        }
+
+        @Override
+        double atan(double t) {
+            double t2 = t * t;
+            return t * (0.9998660 + t2 * (-0.3302995 + t2 * (0.1801410 + t2 * (-0.0851330 + t2 * 0.0208351))));
+        }
+
+        @Override
+        public double maxError() {
+            return 1.2E-5;
+        }
+    };
+
+    /**
+     * @param angle angle in radians
+     * @return sine of the angle
+     */
+    public abstract double sin(double angle);
+
+    /**
+     * @param angle angle in radians
+     * @return cosine of the angle
+     */
+    public abstract double cos(double angle);
+
+    /**
+     * Computes the sine and the cosine of an angle, sharing the reduction of the angle when possible.
+     *
+     * @param angle angle in radians
+     * @param out array where [sin, cos] are written
+     */
+    public void sinCos(double angle, double[] out) {
+        out[0] = sin(angle);
+        out[1] = cos(angle);
+    }
+
+    /**
+     * @param y coordinate Y
+     * @param x coordinate X
+     * @return angle of the vector (x, y), in [-PI, PI]
+     */
+    public abstract double atan2(double y, double x);
+
+    /**
+     * @param x coordinate X
+     * @param y coordinate Y
+     * @return length of the vector (x, y)
+     */
+    public double hypot(double x, double y) {
+        return Math.sqrt(x * x + y * y);
+    }
+
+    /**
+     * @param value non negative value
+     * @return square root of the value
+     */
+    public double sqrt(double value) {
+        return Math.sqrt(value);
+    }
+
+    /**
+     * @param t value in [0, 1]
+     * @return arc tangent of the value, used by the approximate versions of atan2
+     */
+    double atan(double t) {
+        return FastMath.atan(t);
+    }
+
+    /**
+     * @return maximum absolute error of the trigonometric functions, in radians for atan2
+     */
+    public abstract double maxError();
+
+    /**
+     * Tables and helpers of the approximate kernels.
+     */
+    private static final class Tables {
+
+        static final int SIN_SIZE = 4096;
+        static final double SIN_SCALE = SIN_SIZE / (2 * FastMath.PI);
+        static final double[] SIN = new double[SIN_SIZE + 1];
+        static final int ATAN_SIZE = 1024;
+        static final double[] ATAN = new double[ATAN_SIZE + 1];
+        static final double INV_PIDIV2 = 2 / FastMath.PI;
+        /**
+         * PI/2 split in two parts, so the first one multiplied by the quadrant is exact.
+         */
+        private static final double PIDIV2_HIGH = 1.5707963267341256;
+        private static final double PIDIV2_LOW = 6.077100506506192E-11;
+
+        static {
+            for (int i = 0; i <= SIN_SIZE; i++) {
+                SIN[i] = FastMath.sin(i * 2 * FastMath.PI / SIN_SIZE);
+            }
+            for (int i = 0; i <= ATAN_SIZE; i++) {
+                ATAN[i] = FastMath.atan((double) i / ATAN_SIZE);
+            }
+        }
+
+        private Tables() {
+        }
+
+        /**
+         * @param position angle in table units (SIN_SIZE per turn)
+         * @return interpolated sine
+         */
+        static double interpolateSin(double position) {
+            double floor = Math.floor(position);
+            double fraction = position - floor;
+            int index = (int) ((long) floor & (SIN_SIZE - 1));
+            return SIN[index] + fraction * (SIN[index + 1] - SIN[index]);
+        }
+
+        static double reduce(double angle, long quadrant) {
+            return (angle - quadrant * PIDIV2_HIGH) - quadrant * PIDIV2_LOW;
+        }
+
+        static double sinPolynomial(double x) {
+            double z = x * x;
+            return ((-1.9515295891E-4 * z + 8.3321608736E-3) * z - 1.6666654611E-1) * z * x + x;
+        }
+
+        static double cosPolynomial(double x) {
+            double z = x * x;
+            return ((2.443315711809948E-5 * z - 1.388731625493765E-3) * z + 4.166664568298827E-2) * z * z - 0.5 * z + 1.0;
+        }
+
+        /**
+         * Reduces atan2 to the atan of a value in [0, 1] by the octant of (x, y).
+         */
+        static double atan2(double y, double x, MathKernel kernel) {
+            double ax = Math.abs(x), ay = Math.abs(y);
+            if (ax == 0 && ay == 0) {
+                return FastMath.atan2(y, x);
+            }
+            double angle = ay <= ax ? kernel.atan(ay / ax) : FastMath.PI / 2 - kernel.atan(ax / ay);
+            if (x < 0) {
+                angle = FastMath.PI - angle;
+            }
+            return y < 0 || (y == 0 && 1 / y < 0) ? -angle : angle;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package es.usc.citius.lab.motionplanner.core.util;
 
-import org.apache.commons.math3.util.FastMath;
 import org.ejml.data.FixedMatrix3x3_64F;
 
 public class RotationUtils {
@@ -17,12 +16,12 @@ public class RotationUtils {
         FixedMatrix3x3_64F rotation = new FixedMatrix3x3_64F();
 
         //pre-calculate sin/cos
-        double sinYaw = FastMath.sin(yaw);
-        double cosYaw = FastMath.cos(yaw);
-        double sinPitch = FastMath.sin(pitch);
-        double cosPitch = FastMath.cos(pitch);
-        double sinRoll = FastMath.sin(roll);
-        double cosRoll = FastMath.cos(roll);
+        double sinYaw = MathFunctions.sin(yaw);
+        double cosYaw = MathFunctions.cos(yaw);
+        double sinPitch = MathFunctions.sin(pitch);
+        double cosPitch = MathFunctions.cos(pitch);
+        double sinRoll = MathFunctions.sin(roll);
+        double cosRoll = MathFunctions.cos(roll);
 
         //first row
         rotation.a11 = cosYaw * cosPitch;
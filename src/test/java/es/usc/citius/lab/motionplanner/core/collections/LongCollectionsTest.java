@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.collections;
+
+import es.usc.citius.lab.motionplanner.core.lattice.MortonCode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the classes {@link LongSet}, {@link LongFloatMap} and {@link LongObjectMap}, comparing
+ * them with the collections of the JDK under random operations.
+ */
+public class LongCollectionsTest {
+
+    private final Random random = new Random(System.currentTimeMillis());
+
+    /**
+     * Keys in a small range, including 0 and Morton codes of nearby cells, so there are repeated
+     * keys, collisions and removals in the middle of clusters.
+     */
+    private long randomKey(){
+        if(random.nextBoolean()){
+            return random.nextInt(500) - 250;
+        }
+        return MortonCode.encode2D(random.nextInt(30) - 15, random.nextInt(30) - 15);
+    }
+
+    @Test
+    public void test_set(){
+        LongSet set = new LongSet(4);
+        Set<Long> expected = new HashSet<Long>();
+        for(int i = 0; i < 50000; i++){
+            long key = randomKey();
+            switch(random.nextInt(3)){
+                case 0: assertEquals(expected.add(key), set.add(key)); break;
+                case 1: assertEquals(expected.remove(key), set.remove(key)); break;
+                default: assertEquals(expected.contains(key), set.contains(key));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        for(long key : expected){
+            assertTrue(set.contains(key));
+        }
+        long[] values = set.toArray();
+        assertEquals(expected.size(), values.length);
+        for(long value : values){
+            assertTrue(expected.contains(value));
+        }
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0L));
+    }
+
+    @Test
+    public void test_floatMap(){
+        LongFloatMap map = new LongFloatMap();
+        Map<Long, Float> expected = new HashMap<Long, Float>();
+        for(int i = 0; i < 50000; i++){
+            long key = randomKey();
+            float value = random.nextFloat();
+            Float previous = expected.get(key);
+            switch(random.nextInt(4)){
+                case 0:
+                    assertEquals(previous == null ? Float.NaN : previous, map.put(key, value), 0f);
+                    expected.put(key, value);
+                    break;
+                case 1:
+                    assertEquals(previous == null ? Float.NaN : previous, map.remove(key), 0f);
+                    expected.remove(key);
+                    break;
+                case 2:
+                    boolean stored = previous == null || value < previous;
+                    assertEquals(stored, map.putIfLess(key, value));
+                    if(stored){
+                        expected.put(key, value);
+                    }
+                    break;
+                default:
+                    assertEquals(previous != null, map.containsKey(key));
+                    assertEquals(previous == null ? -1f : previous, map.get(key, -1f), 0f);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for(Map.Entry<Long, Float> entry : expected.entrySet()){
+            assertEquals(entry.getValue(), map.get(entry.getKey()), 0f);
+        }
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertEquals(expected.size(), keys.length);
+        assertTrue(Float.isNaN(new LongFloatMap().get(5L)));
+        assertEquals(Float.POSITIVE_INFINITY, new LongFloatMap(4, Float.POSITIVE_INFINITY).get(0L), 0f);
+    }
+
+    @Test
+    public void test_objectMap(){
+        LongObjectMap<String> map = new LongObjectMap<String>(2);
+        Map<Long, String> expected = new HashMap<Long, String>();
+        for(int i = 0; i < 50000; i++){
+            long key = randomKey();
+            String value = Integer.toString(random.nextInt(100));
+            switch(random.nextInt(3)){
+                case 0: assertEquals(expected.put(key, value), map.put(key, value)); break;
+                case 1: assertEquals(expected.remove(key), map.remove(key)); break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        long[] keys = map.keys();
+        List<String> values = map.values();
+        assertEquals(expected.size(), keys.length);
+        for(int i = 0; i < keys.length; i++){
+            assertEquals(expected.get(keys[i]), values.get(i));
+        }
+        map.clear();
+        assertNull(map.get(0L));
+        assertEquals(0, map.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_negativeSize(){
+        new LongSet(-1);
+    }
+
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.collision;
+
+import es.usc.citius.lab.motionplanner.core.shapes.Shape;
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeCircle2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeRectangle3D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSphere3D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2DNonSimmetric;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Vector3D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the class {@link ShapeCollision}. The overlap between boxes is compared with
+ * the projection of the vertices of the shapes over the candidate separating axes.
+ */
+public class ShapeCollisionTest {
+
+    private static final int TESTS = 2000;
+    private static final float MAX = 4f;
+
+    private final Random random = new Random(System.currentTimeMillis());
+    private final ShapeCollision collision = new ShapeCollision();
+
+    private float randomValue(float max){
+        return (random.nextFloat() - 0.5f) * 2 * max;
+    }
+
+    /**
+     * Checks if the projections of two sets of vertices over an axis are disjoint.
+     */
+    private static boolean separated(Vector3D axis, Point3D[] verticesA, Point3D[] verticesB){
+        float minA = Float.POSITIVE_INFINITY, maxA = Float.NEGATIVE_INFINITY;
+        float minB = Float.POSITIVE_INFINITY, maxB = Float.NEGATIVE_INFINITY;
+        for(Point3D vertex : verticesA){
+            float projection = vertex.x * axis.x + vertex.y * axis.y + vertex.z * axis.z;
+            minA = Math.min(minA, projection);
+            maxA = Math.max(maxA, projection);
+        }
+        for(Point3D vertex : verticesB){
+            float projection = vertex.x * axis.x + vertex.y * axis.y + vertex.z * axis.z;
+            minB = Math.min(minB, projection);
+            maxB = Math.max(maxB, projection);
+        }
+        return maxA < minB || maxB < minA;
+    }
+
+    /**
+     * Axes of a box; in 2D they are obtained from the heading, as the axes of
+     * {@link ShapeSquare2DNonSimmetric#axisAt(es.usc.citius.lab.motionplanner.core.spatial.Pose)} are not normalized.
+     */
+    private static Vector3D[] axes(Shape shape, Pose3D pose){
+        if(shape instanceof Shape2D){
+            float cos = (float) Math.cos(pose.getYaw()), sin = (float) Math.sin(pose.getYaw());
+            return new Vector3D[]{ new Vector3D(cos, sin, 0f), new Vector3D(-sin, cos, 0f) };
+        }
+        return shape.axisAt(pose);
+    }
+
+    /**
+     * Overlap of two boxes by projecting their vertices over the candidate axes.
+     */
+    private static boolean overlapByProjection(Shape shapeA, Pose3D poseA, Shape shapeB, Pose3D poseB){
+        Point3D[] verticesA = shapeA.vertexAt(poseA), verticesB = shapeB.vertexAt(poseB);
+        Vector3D[] axesA = axes(shapeA, poseA), axesB = axes(shapeB, poseB);
+        List<Vector3D> axes = new ArrayList<Vector3D>();
+        for(Vector3D axis : axesA){
+            axes.add(axis);
+        }
+        for(Vector3D axis : axesB){
+            axes.add(axis);
+        }
+        //cross products of the edges, only in 3D
+        if(axesA.length == 3){
+            for(Vector3D a : axesA){
+                for(Vector3D b : axesB){
+                    Vector3D cross = new Vector3D(a.y * b.z - a.z * b.y, a.z * b.x - a.x * b.z, a.x * b.y - a.y * b.x);
+                    if(cross.x * cross.x + cross.y * cross.y + cross.z * cross.z > 1E-8){
+                        axes.add(cross);
+                    }
+                }
+            }
+        }
+        for(Vector3D axis : axes){
+            if(separated(axis, verticesA, verticesB)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    public void test_boxBox2D(){
+        Shape2D[] shapes = new Shape2D[]{
+                new ShapeSquare2D(2.5f, 0.5f),
+                new ShapeSquare2DNonSimmetric(0.5f, 0.25f, 2f, 0.75f)
+        };
+        for(int i = 0; i < TESTS; i++){
+            Shape2D shapeA = shapes[random.nextInt(shapes.length)], shapeB = shapes[random.nextInt(shapes.length)];
+            Pose2D poseA = new Pose2D(randomValue(MAX), randomValue(MAX), randomValue(3.14f));
+            Pose2D poseB = new Pose2D(randomValue(MAX), randomValue(MAX), randomValue(3.14f));
+            boolean expected = overlapByProjection(shapeA, new Pose3D(poseA.x, poseA.y, 0f, poseA.yaw, 0f, 0f), shapeB, new Pose3D(poseB.x, poseB.y, 0f, poseB.yaw, 0f, 0f));
+            assertEquals(expected, collision.collide(shapeA, poseA, shapeB, poseB));
+            assertEquals(expected, collision.collide(shapeB, poseB, shapeA, poseA));
+        }
+    }
+
+    @Test
+    public void test_circles2D(){
+        ShapeCircle2D circle = new ShapeCircle2D(0.5f);
+        ShapeSquare2D square = new ShapeSquare2D(2f, 1f);
+        //circles
+        assertTrue(collision.collide(circle, new Pose2D(0f, 0f, 0f), new ShapeCircle2D(1f), new Pose2D(1.4f, 0f, 1f)));
+        assertFalse(collision.collide(circle, new Pose2D(0f, 0f, 0f), new ShapeCircle2D(1f), new Pose2D(1.6f, 0f, 1f)));
+        //circle in front of the rotated box and close to its corner
+        assertTrue(collision.collide(circle, new Pose2D(0f, 1.4f, 0f), square, new Pose2D(0f, 0f, (float) Math.PI / 2)));
+        assertFalse(collision.collide(square, new Pose2D(0f, 0f, (float) Math.PI / 2), circle, new Pose2D(0f, 1.6f, 0f)));
+        assertFalse(collision.collide(circle, new Pose2D(1f + 0.36f, 0.5f + 0.36f, 0f), square, Pose2D.ZERO));
+        assertTrue(collision.collide(circle, new Pose2D(1f + 0.34f, 0.5f + 0.34f, 0f), square, Pose2D.ZERO));
+        //random circles against boxes
+        for(int i = 0; i < TESTS; i++){
+            Pose2D poseA = new Pose2D(randomValue(MAX), randomValue(MAX), randomValue(3.14f));
+            Pose2D poseB = new Pose2D(randomValue(MAX), randomValue(MAX), randomValue(3.14f));
+            boolean expected = square.distanceToPoint(poseB, poseA.x, poseA.y) <= circle.getRadius();
+            assertEquals(expected, collision.collide(circle, poseA, square, poseB));
+        }
+    }
+
+    @Test
+    public void test_boxBox3D(){
+        ShapeRectangle3D[] shapes = new ShapeRectangle3D[]{
+                new ShapeRectangle3D(2.5f, 0.5f, 1f),
+                new ShapeRectangle3D(1f, 1f, 1f)
+        };
+        for(int i = 0; i < TESTS; i++){
+            ShapeRectangle3D shapeA = shapes[random.nextInt(shapes.length)], shapeB = shapes[random.nextInt(shapes.length)];
+            Pose3D poseA = new Pose3D(randomValue(MAX), randomValue(MAX), randomValue(MAX), randomValue(3.14f), randomValue(1.5f), randomValue(3.14f));
+            Pose3D poseB = new Pose3D(randomValue(MAX), randomValue(MAX), randomValue(MAX), randomValue(3.14f), randomValue(1.5f), randomValue(3.14f));
+            boolean expected = overlapByProjection(shapeA, poseA, shapeB, poseB);
+            assertEquals(expected, collision.collide(shapeA, poseA, shapeB, poseB));
+        }
+        //aligned boxes, with parallel edges
+        ShapeRectangle3D cube = shapes[1];
+        assertTrue(collision.collide(cube, new Pose3D(0f, 0f, 0f, 0f, 0f, 0f), cube, new Pose3D(0.99f, 0.5f, 0.5f, 0f, 0f, 0f)));
+        assertFalse(collision.collide(cube, new Pose3D(0f, 0f, 0f, 0f, 0f, 0f), cube, new Pose3D(1.01f, 0.5f, 0.5f, 0f, 0f, 0f)));
+    }
+
+    @Test
+    public void test_spheres3D(){
+        ShapeSphere3D sphere = new ShapeSphere3D(0.5f);
+        ShapeRectangle3D cube = new ShapeRectangle3D(2f, 2f, 2f);
+        assertTrue(collision.collide(sphere, new Pose3D(0f, 0f, 0f, 0f, 0f, 0f), sphere, new Pose3D(0.5f, 0.5f, 0.5f, 0f, 0f, 0f)));
+        assertFalse(collision.collide(sphere, new Pose3D(0f, 0f, 0f, 0f, 0f, 0f), sphere, new Pose3D(0.6f, 0.6f, 0.6f, 0f, 0f, 0f)));
+        //sphere close to a corner of the cube
+        float corner = 1f + 0.5f / (float) Math.sqrt(3);
+        assertTrue(collision.collide(sphere, new Pose3D(corner - 0.01f, corner - 0.01f, corner - 0.01f, 0f, 0f, 0f), cube, new Pose3D(0f, 0f, 0f, 0f, 0f, 0f)));
+        assertFalse(collision.collide(cube, new Pose3D(0f, 0f, 0f, 0f, 0f, 0f), sphere, new Pose3D(corner + 0.01f, corner + 0.01f, corner + 0.01f, 0f, 0f, 0f)));
+        //rotating the cube 45 degrees over Z, the corner of the sphere position is outside
+        assertFalse(collision.collide(cube, new Pose3D(0f, 0f, 0f, (float) Math.PI / 4, 0f, 0f), sphere, new Pose3D(1.2f, 1.2f, 0f, 0f, 0f, 0f)));
+        assertTrue(collision.collide(cube, new Pose3D(0f, 0f, 0f, (float) Math.PI / 4, 0f, 0f), sphere, new Pose3D(1.2f, 0f, 1.2f, 0f, 0f, 0f)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_mixedDimensions(){
+        collision.collide(new ShapeCircle2D(1f), Pose2D.ZERO, new ShapeSphere3D(1f), new Pose3D(0f, 0f, 0f, 0f, 0f, 0f));
+    }
+
+}
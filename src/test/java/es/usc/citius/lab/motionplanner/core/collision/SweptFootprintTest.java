@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.collision;
+
+import es.usc.citius.lab.motionplanner.core.index.KdTree2D;
+import es.usc.citius.lab.motionplanner.core.index.ShapeClearance;
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2D;
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.spatial.State2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the class {@link SweptFootprint}, comparing the first collision with the
+ * one found evaluating the clearance of every sample.
+ */
+public class SweptFootprintTest {
+
+    private static final float MAX = 20f;
+    private static final int OBSTACLES = 300;
+    private static final int TRAJECTORIES = 200;
+    private static final int SAMPLES = 100;
+
+    private final Random random = new Random(System.currentTimeMillis());
+
+    /**
+     * Arc of constant linear and angular speed from a random pose.
+     */
+    private List<State2D> randomArc(){
+        List<State2D> samples = new ArrayList<State2D>(SAMPLES);
+        float x = (random.nextFloat() - 0.5f) * MAX, y = (random.nextFloat() - 0.5f) * MAX;
+        float yaw = (random.nextFloat() - 0.5f) * 6.28f;
+        float v = random.nextFloat() * 0.5f, w = random.nextBoolean() ? 0f : (random.nextFloat() - 0.5f) * 0.2f;
+        for(int i = 0; i < SAMPLES; i++){
+            samples.add(new State2D(new Pose2D(x, y, yaw), v, 0f, w));
+            x += v * (float) Math.cos(yaw);
+            y += v * (float) Math.sin(yaw);
+            yaw += w;
+        }
+        return samples;
+    }
+
+    @Test
+    public void test_firstCollision(){
+        PointCloud2D cloud = new PointCloud2D(OBSTACLES);
+        for(int i = 0; i < OBSTACLES; i++){
+            cloud.add((random.nextFloat() - 0.5f) * 2 * MAX, (random.nextFloat() - 0.5f) * 2 * MAX);
+        }
+        KdTree2D tree = new KdTree2D(cloud);
+        Shape2D shape = new ShapeSquare2D(2.5f, 0.5f);
+        ShapeClearance clearance = new ShapeClearance(tree, shape);
+        float[] margins = new float[]{0f, 0.5f};
+        for(float margin : margins){
+            SweptFootprint swept = new SweptFootprint(tree, shape, margin);
+            int evaluations = 0;
+            for(int t = 0; t < TRAJECTORIES; t++){
+                List<State2D> samples = randomArc();
+                int expected = -1;
+                for(int i = 0; i < samples.size() && expected < 0; i++){
+                    if(clearance.clearance(samples.get(i)) <= margin){
+                        expected = i;
+                    }
+                }
+                assertEquals(expected, swept.firstCollision(samples));
+                assertEquals(expected < 0, swept.isFree(samples));
+                evaluations += swept.getEvaluations();
+                //same result with the samples in arrays
+                float[] xs = new float[SAMPLES + 1], ys = new float[SAMPLES + 1], yaws = new float[SAMPLES + 1];
+                for(int i = 0; i < SAMPLES; i++){
+                    xs[i + 1] = samples.get(i).x;
+                    ys[i + 1] = samples.get(i).y;
+                    yaws[i + 1] = samples.get(i).yaw;
+                }
+                assertEquals(expected < 0 ? -1 : expected + 1, swept.firstCollision(xs, ys, yaws, 1, SAMPLES));
+            }
+            //some samples must have been skipped
+            assertTrue(evaluations < TRAJECTORIES * SAMPLES);
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.grid;
+
+import es.usc.citius.lab.motionplanner.core.shapes.Shape;
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeCircle2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2DNonSimmetric;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the class {@link DistanceField2D}.
+ */
+public class DistanceField2DTest {
+
+    private static final float DX = 0.2f;
+    private static final float DY = 0.3f;
+    private final Random random = new Random(System.currentTimeMillis());
+
+    private OccupancyGrid2D randomGrid(int width, int height, float density){
+        OccupancyGrid2D grid = new OccupancyGrid2D(-10, 5, width, height, DX, DY);
+        for(int y = 0; y < height; y++){
+            for(int x = 0; x < width; x++){
+                grid.set(x, y, random.nextFloat() < density);
+            }
+        }
+        return grid;
+    }
+
+    private static float bruteForce(OccupancyGrid2D grid, int x, int y){
+        //cells out of the grid are occupied
+        double best = Math.min(Math.min(x + 1, grid.getWidth() - x) * grid.getDx(), Math.min(y + 1, grid.getHeight() - y) * grid.getDy());
+        for(int j = 0; j < grid.getHeight(); j++){
+            for(int i = 0; i < grid.getWidth(); i++){
+                if(grid.get(i, j)){
+                    best = Math.min(best, Math.hypot((i - x) * grid.getDx(), (j - y) * grid.getDy()));
+                }
+            }
+        }
+        return (float) best;
+    }
+
+    /**
+     * The transform matches the distance to the closest occupied cell, with different resolution in each axis.
+     */
+    @Test
+    public void test_exact(){
+        for(float density : new float[]{0.001f, 0.02f, 0.3f}){
+            OccupancyGrid2D grid = randomGrid(70, 50, density);
+            grid.set(3, 4);
+            DistanceField2D field = new DistanceField2D(grid);
+            for(int y = 0; y < grid.getHeight(); y++){
+                for(int x = 0; x < grid.getWidth(); x++){
+                    assertEquals(bruteForce(grid, x, y), field.distanceAt(x, y), 1e-4f);
+                }
+            }
+            //lookup by coordinates, with the offset of the grid
+            assertEquals(0f, field.distance((3 - 10) * DX, (4 + 5) * DY), 0f);
+            assertEquals(0f, field.distanceAt(-1, 0), 0f);
+        }
+    }
+
+    /**
+     * Splitting the lines between threads gives the same field.
+     */
+    @Test
+    public void test_parallel(){
+        OccupancyGrid2D grid = randomGrid(300, 200, 0.005f);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try{
+            DistanceField2D parallel = new DistanceField2D(grid, executor);
+            DistanceField2D sequential = new DistanceField2D(grid);
+            assertArrayEquals(sequential.field(), parallel.field(), 0f);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * The quick checks are consistent with the distance to the obstacles.
+     */
+    @Test
+    public void test_certainChecks(){
+        OccupancyGrid2D grid = randomGrid(100, 100, 0.003f);
+        DistanceField2D field = new DistanceField2D(grid);
+        Shape2D[] shapes = new Shape2D[]{ new ShapeSquare2D(2f, 1f), new ShapeCircle2D(0.8f), new ShapeSquare2DNonSimmetric(0.1f, 1f, 2f, 1f) };
+        for(Shape2D shape : shapes){
+            for(int i = 0; i < 2000; i++){
+                //poses inside the grid, out of it all the poses are colliding
+                Pose2D pose = new Pose2D((-10 + random.nextFloat() * 99) * DX, (5 + random.nextFloat() * 99) * DY, (random.nextFloat() - 0.5f) * 6.28f);
+                boolean free = field.certainlyFree(shape, pose);
+                boolean colliding = field.certainlyColliding(shape, pose);
+                assertFalse(free && colliding);
+                //closest obstacle with the exact position of the pose, and distance from the shape to it,
+                //including the ring of cells out of the grid
+                double closest = Double.POSITIVE_INFINITY;
+                float distanceToShape = Float.POSITIVE_INFINITY;
+                for(int y = -1; y <= grid.getHeight(); y++){
+                    for(int x = -1; x <= grid.getWidth(); x++){
+                        if(grid.get(x, y)){
+                            float ox = (x + grid.getMinCellX()) * DX;
+                            float oy = (y + grid.getMinCellY()) * DY;
+                            closest = Math.min(closest, Math.hypot(ox - pose.getX(), oy - pose.getY()));
+                            distanceToShape = Math.min(distanceToShape, shape.distanceToPoint(pose, ox, oy));
+                        }
+                    }
+                }
+                if(free){
+                    assertTrue(closest > shape.getMaxRadius() - 1e-4);
+                }
+                if(colliding){
+                    assertTrue(closest <= shape.getInscribedRadius() + 1e-4);
+                    assertEquals(0f, distanceToShape, 1e-4f);
+                }
+            }
+        }
+    }
+
+    /**
+     * The rotation center of a non symmetric shape may be close to one of its sides, so an
+     * obstacle closer than {@link ShapeSquare2DNonSimmetric#getMinRadius()} is not always colliding.
+     */
+    @Test
+    public void test_certainlyCollidingNonSimmetric(){
+        ShapeSquare2DNonSimmetric shape = new ShapeSquare2DNonSimmetric(0.1f, 1f, 2f, 1f);
+        assertEquals(1f, shape.getMinRadius(), 0f);
+        assertEquals(0.1f, shape.getInscribedRadius(), 1e-6f);
+        //obstacle behind the back side, 0.6 from the rotation center
+        OccupancyGrid2D grid = new OccupancyGrid2D(-10, -5, 20, 10, DX, DY);
+        grid.set(-3 + 10, 5);
+        DistanceField2D field = new DistanceField2D(grid);
+        assertEquals(0.6f, field.distance(0f, 0f), 1e-5f);
+        assertEquals(0.5f, shape.distanceToPoint(Pose2D.ZERO, -0.6f, 0f), 1e-5f);
+        assertFalse(field.certainlyColliding(shape, Pose2D.ZERO));
+        //rotation center out of the shape
+        assertEquals(0f, new ShapeSquare2DNonSimmetric(-0.5f, 1f, 2f, 1f).getInscribedRadius(), 0f);
+        //the obstacle is within the inscribed radius of a rectangle centered in the rotation center
+        assertTrue(field.certainlyColliding(new ShapeSquare2D(2f, 2f), Pose2D.ZERO));
+    }
+
+    /**
+     * The cells out of the grid are obstacles, so shapes leaving the grid are not certainly free.
+     */
+    @Test
+    public void test_border(){
+        OccupancyGrid2D grid = new OccupancyGrid2D(20, 20, 0.1f, 0.1f);
+        grid.set(19, 19);
+        Shape2D shape = new ShapeSquare2D(0.4f, 0.4f);
+        FootprintRasterizer rasterizer = new FootprintRasterizer(shape, 0.1f, 0.1f);
+        DistanceField2D field = new DistanceField2D(grid);
+        assertTrue(grid.collides(rasterizer, Pose2D.ZERO));
+        assertFalse(field.certainlyFree(shape, Pose2D.ZERO));
+        assertEquals(0.1f, field.distanceAt(0, 0), 1e-6f);
+        assertEquals(0.5f, field.distanceAt(4, 10), 1e-6f);
+        //the quick check never accepts a footprint which collides with the grid
+        for(int i = 0; i < 2000; i++){
+            Pose2D pose = new Pose2D(random.nextFloat() * 2f, random.nextFloat() * 2f, (random.nextFloat() - 0.5f) * 6.28f);
+            assertCertainlyFree(grid, rasterizer, shape, pose, field.certainlyFree(shape, pose));
+        }
+    }
+
+    /**
+     * Checks that a pose certainly free with a distance field does not collide with the grid.
+     */
+    static void assertCertainlyFree(OccupancyGrid2D grid, FootprintRasterizer rasterizer, Shape shape, Pose2D pose, boolean free){
+        if(free){
+            assertFalse("pose " + pose, grid.collides(rasterizer, pose));
+        }
+    }
+
+}
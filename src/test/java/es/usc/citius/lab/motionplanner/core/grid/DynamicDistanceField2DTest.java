@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.grid;
+
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the class {@link DynamicDistanceField2D}.
+ */
+public class DynamicDistanceField2DTest {
+
+    private static final float DX = 0.2f;
+    private static final float DY = 0.25f;
+    /**
+     * Maximum overestimation of the propagation over neighbouring cells.
+     */
+    private static final float ERROR = 0.1f * DY;
+    private final Random random = new Random(System.currentTimeMillis());
+
+    private OccupancyGrid2D randomGrid(int width, int height, float density){
+        OccupancyGrid2D grid = new OccupancyGrid2D(width, height, DX, DY);
+        for(int y = 0; y < height; y++){
+            for(int x = 0; x < width; x++){
+                grid.set(x, y, random.nextFloat() < density);
+            }
+        }
+        return grid;
+    }
+
+    private static void assertField(OccupancyGrid2D grid, DynamicDistanceField2D dynamic){
+        DistanceField2D exact = new DistanceField2D(grid);
+        for(int y = 0; y < grid.getHeight(); y++){
+            for(int x = 0; x < grid.getWidth(); x++){
+                float expected = exact.distanceAt(x, y);
+                float actual = dynamic.distanceAt(x, y);
+                assertTrue(actual >= expected - 1e-4f);
+                assertEquals(expected, actual, ERROR);
+            }
+        }
+    }
+
+    /**
+     * The initial field and the field after random changes are close to the exact transform.
+     */
+    @Test
+    public void test_updates(){
+        OccupancyGrid2D grid = randomGrid(120, 80, 0.01f);
+        DynamicDistanceField2D dynamic = new DynamicDistanceField2D(grid);
+        assertField(grid, dynamic);
+        for(int i = 0; i < 20; i++){
+            //add and remove some obstacles
+            for(int j = 0; j < 10; j++){
+                int x = random.nextInt(grid.getWidth()), y = random.nextInt(grid.getHeight());
+                if(random.nextBoolean()){
+                    grid.set(x, y);
+                    dynamic.setOccupied(x, y);
+                } else if(grid.get(x, y)){
+                    grid.clear(x, y);
+                    dynamic.setFree(x, y);
+                }
+            }
+            dynamic.update();
+            assertField(grid, dynamic);
+        }
+        //remove all the obstacles
+        dynamic.update(new OccupancyGrid2D(grid.getWidth(), grid.getHeight(), DX, DY));
+        //only the cells out of the grid remain as obstacles
+        assertEquals(6 * DX, dynamic.distanceAt(5, 5), 1e-6f);
+        assertEquals(-1, dynamic.closestObstacleAt(5, 5));
+    }
+
+    /**
+     * The changed region contains all the cells with a different distance after an update.
+     */
+    @Test
+    public void test_changedRegion(){
+        OccupancyGrid2D grid = randomGrid(100, 100, 0.02f);
+        DynamicDistanceField2D dynamic = new DynamicDistanceField2D(grid);
+        int[] region = new int[4];
+        //no changes
+        assertFalse(dynamic.update());
+        assertFalse(dynamic.changedRegion(region));
+        for(int i = 0; i < 50; i++){
+            float[] before = dynamic.field().clone();
+            OccupancyGrid2D next = new OccupancyGrid2D(grid.getWidth(), grid.getHeight(), DX, DY);
+            next.or(grid);
+            int x = random.nextInt(grid.getWidth()), y = random.nextInt(grid.getHeight());
+            next.set(x, y, !grid.get(x, y));
+            grid = next;
+            assertTrue(dynamic.update(grid));
+            assertTrue(dynamic.changedRegion(region));
+            assertTrue(region[0] <= x && x <= region[2] && region[1] <= y && y <= region[3]);
+            float[] after = dynamic.field();
+            for(int cy = 0; cy < grid.getHeight(); cy++){
+                for(int cx = 0; cx < grid.getWidth(); cx++){
+                    if(before[cy * grid.getWidth() + cx] != after[cy * grid.getWidth() + cx]){
+                        assertTrue(region[0] <= cx && cx <= region[2] && region[1] <= cy && cy <= region[3]);
+                    }
+                }
+            }
+            //the region of a local change does not cover the whole map
+            assertTrue((region[2] - region[0] + 1) * (region[3] - region[1] + 1) < grid.getWidth() * grid.getHeight());
+        }
+        assertField(grid, dynamic);
+    }
+
+    /**
+     * The cells out of the grid are obstacles, as in {@link DistanceField2D}.
+     */
+    @Test
+    public void test_border(){
+        OccupancyGrid2D grid = new OccupancyGrid2D(20, 20, 0.1f, 0.1f);
+        grid.set(19, 19);
+        Shape2D shape = new ShapeSquare2D(0.4f, 0.4f);
+        FootprintRasterizer rasterizer = new FootprintRasterizer(shape, 0.1f, 0.1f);
+        DynamicDistanceField2D dynamic = new DynamicDistanceField2D(grid);
+        assertTrue(grid.collides(rasterizer, Pose2D.ZERO));
+        assertFalse(dynamic.certainlyFree(shape, Pose2D.ZERO));
+        for(int i = 0; i < 2000; i++){
+            Pose2D pose = new Pose2D(random.nextFloat() * 2f, random.nextFloat() * 2f, (random.nextFloat() - 0.5f) * 6.28f);
+            DistanceField2DTest.assertCertainlyFree(grid, rasterizer, shape, pose, dynamic.certainlyFree(shape, pose));
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.grid;
+
+import es.usc.citius.lab.motionplanner.core.lattice.PointAdapter2D;
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeCircle2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the classes {@link FootprintRasterizer} and {@link FootprintMaskCache}.
+ */
+public class FootprintRasterizerTest {
+
+    private static final float DX = 0.2f;
+    private static final float DY = 0.25f;
+    private final Random random = new Random(System.currentTimeMillis());
+
+    private static Set<Point2D> cells(int[] packed, int offsetX, int offsetY){
+        Set<Point2D> cells = new HashSet<Point2D>();
+        for(int i = 0; i < packed.length; i += 2){
+            cells.add(new Point2D(packed[i] + offsetX, packed[i + 1] + offsetY));
+        }
+        return cells;
+    }
+
+    /**
+     * Cells of an axis-aligned rectangle, with the border in the center of the cells.
+     */
+    @Test
+    public void test_alignedRectangle(){
+        FootprintRasterizer rasterizer = new FootprintRasterizer(new ShapeSquare2D(2f, 1f), 0.5f, 0.5f);
+        int[] mask = rasterizer.mask(0f);
+        assertEquals(2 * 15, mask.length);
+        //sorted by row and then by column
+        assertArrayEquals(new int[]{-2, -1, -1, -1}, new int[]{mask[0], mask[1], mask[2], mask[3]});
+    }
+
+    /**
+     * The cells of the rasterization are aligned with the ones of {@link PointAdapter2D}, and
+     * the conservative mode covers all the cells with some point of the shape.
+     */
+    @Test
+    public void test_coverage(){
+        Shape2D[] shapes = new Shape2D[]{ new ShapeSquare2D(2.3f, 0.9f), new ShapeCircle2D(0.7f) };
+        PointAdapter2D adapter = new PointAdapter2D(DX, DY);
+        for(Shape2D shape : shapes){
+            FootprintRasterizer exact = new FootprintRasterizer(shape, DX, DY);
+            FootprintRasterizer conservative = new FootprintRasterizer(shape, DX, DY, true);
+            for(int i = 0; i < 50; i++){
+                Pose2D pose = new Pose2D(random.nextFloat() * 10, random.nextFloat() * 10, (random.nextFloat() - 0.5f) * 6.28f);
+                Set<Point2D> exactCells = cells(exact.rasterize(pose), 0, 0);
+                Set<Point2D> conservativeCells = cells(conservative.rasterize(pose), 0, 0);
+                assertTrue(conservativeCells.containsAll(exactCells));
+                for(Point2D cell : exactCells){
+                    assertEquals(0f, shape.distanceToPoint(pose, cell.x * DX, cell.y * DY), 0f);
+                }
+                //random points inside the shape
+                for(int j = 0; j < 100; j++){
+                    float angle = (random.nextFloat() - 0.5f) * 6.28f;
+                    Point2D border = shape.borderPointAtRelativeAngle(angle, 0f).rotate(pose.yaw, 0f, 0f);
+                    float scale = random.nextFloat() * 0.99f;
+                    Point2D inside = new Point2D(pose.x + border.x * scale, pose.y + border.y * scale);
+                    Point2D adapted = adapter.adaptNodeID(inside);
+                    Point2D cell = new Point2D(Math.round(adapted.x / DX), Math.round(adapted.y / DY));
+                    assertEquals(Math.round(inside.x / DX), exact.cellX(inside.x));
+                    assertTrue(conservativeCells.contains(cell));
+                }
+            }
+        }
+    }
+
+    /**
+     * The masks are the rasterization of the shape at the center of a cell, and the bit test
+     * detects the occupied cells covered by them.
+     */
+    @Test
+    public void test_masks(){
+        Shape2D shape = new ShapeSquare2D(2.3f, 0.9f);
+        FootprintRasterizer rasterizer = new FootprintRasterizer(shape, DX, DY);
+        FootprintMaskCache cache = new FootprintMaskCache(rasterizer, 16);
+        int width = 100, height = 70;
+        long[] bits = new long[((width + 63) / 64) * height];
+        int obstacleX = 50, obstacleY = 35;
+        bits[obstacleY * ((width + 63) / 64) + (obstacleX >>> 6)] |= 1L << (obstacleX & 63);
+        for(int i = 0; i < cache.getHeadings(); i++){
+            float yaw = cache.headingAt(i);
+            assertEquals(i, cache.headingIndex(yaw + 0.01f));
+            assertEquals(i, cache.cachedHeadingIndex(yaw + 1E-5f));
+            assertEquals(-1, cache.cachedHeadingIndex(yaw + 0.01f));
+            //headings out of the cache are rasterized
+            assertArrayEquals(rasterizer.mask(yaw + 0.1f), cache.mask(yaw + 0.1f));
+            int cellX = obstacleX + random.nextInt(15) - 7, cellY = obstacleY + random.nextInt(15) - 7;
+            Pose2D pose = new Pose2D(cellX * DX, cellY * DY, yaw);
+            Set<Point2D> expected = cells(rasterizer.rasterize(pose), 0, 0);
+            assertEquals(expected, cells(cache.maskAt(i), cellX, cellY));
+            assertEquals(expected.contains(new Point2D(obstacleX, obstacleY)), cache.collides(cellX, cellY, yaw, bits, width, height));
+        }
+        //out of the grid
+        assertTrue(cache.collides(0, 0, 0f, bits, width, height));
+        assertFalse(cache.collides(10, 10, 0f, bits, width, height));
+    }
+
+}
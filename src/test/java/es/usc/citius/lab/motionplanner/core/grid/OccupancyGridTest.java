@@ -0,0 +1,233 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.grid;
+
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeRectangle3D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSphere3D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose3D;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the classes {@link OccupancyGrid2D}, {@link OccupancyGrid3D} and {@link FootprintRasterizer3D}.
+ */
+public class OccupancyGridTest {
+
+    private static final float RESOLUTION = 0.25f;
+    private final Random random = new Random(System.currentTimeMillis());
+
+    private OccupancyGrid2D randomGrid2D(int width, int height, float density){
+        OccupancyGrid2D grid = new OccupancyGrid2D(width, height, RESOLUTION, RESOLUTION);
+        for(int y = 0; y < height; y++){
+            for(int x = 0; x < width; x++){
+                grid.set(x, y, random.nextFloat() < density);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * The word-parallel span test gives the same result than checking the cells one by one.
+     */
+    @Test
+    public void test_spans(){
+        OccupancyGrid2D grid = randomGrid2D(200, 20, 0.01f);
+        for(int i = 0; i < 1000; i++){
+            int y = random.nextInt(20);
+            int from = random.nextInt(200);
+            int to = from + random.nextInt(200 - from);
+            boolean expected = false;
+            for(int x = from; x <= to; x++){
+                expected |= grid.get(x, y);
+            }
+            assertEquals(expected, grid.anyInSpan(y, from, to));
+        }
+        //out of the grid
+        assertTrue(grid.anyInSpan(0, -1, 5));
+        assertTrue(grid.anyInSpan(20, 0, 5));
+        assertTrue(grid.get(200, 0));
+        //set a span crossing several words
+        grid.clear();
+        grid.setSpan(3, 60, 130);
+        assertEquals(71, grid.countOccupied());
+        assertFalse(grid.anyInSpan(3, 0, 59));
+        assertTrue(grid.anyInSpan(3, 130, 199));
+        assertFalse(grid.anyInSpan(3, 131, 199));
+    }
+
+    /**
+     * Spans crossing the edges of the grid are clipped, and single cells out of it are rejected.
+     */
+    @Test
+    public void test_bounds(){
+        OccupancyGrid2D grid = new OccupancyGrid2D(10, 4, RESOLUTION, RESOLUTION);
+        grid.setSpan(0, 5, 70);
+        assertEquals(5, grid.countOccupied());
+        assertFalse(grid.get(0, 1));
+        grid.setSpan(1, -30, 2);
+        assertEquals(8, grid.countOccupied());
+        //rows out of the grid and empty spans are ignored
+        grid.setSpan(-1, 0, 9);
+        grid.setSpan(4, 0, 9);
+        grid.setSpan(2, 12, 20);
+        assertEquals(8, grid.countOccupied());
+        //a single cell out of the grid does not write the padding bits of the row
+        try{
+            grid.set(12, 0);
+            fail("cell out of the grid");
+        } catch (IllegalArgumentException ex){
+            assertEquals(8, grid.countOccupied());
+        }
+        try{
+            grid.clear(0, 4);
+            fail("cell out of the grid");
+        } catch (IllegalArgumentException ex){
+            assertTrue(grid.get(0, 4));
+        }
+        OccupancyGrid3D grid3D = new OccupancyGrid3D(10, 4, 4, RESOLUTION, RESOLUTION, RESOLUTION);
+        try{
+            grid3D.set(12, 0, 0);
+            fail("cell out of the grid");
+        } catch (IllegalArgumentException ex){
+            assertEquals(0, grid3D.countOccupied());
+        }
+    }
+
+    /**
+     * The test with spans matches the cell by cell test of {@link FootprintMaskCache}.
+     */
+    @Test
+    public void test_collides(){
+        OccupancyGrid2D grid = randomGrid2D(150, 150, 0.002f);
+        FootprintMaskCache masks = new FootprintMaskCache(new FootprintRasterizer(new ShapeSquare2D(2f, 1f), RESOLUTION, RESOLUTION), 32);
+        for(int i = 0; i < 500; i++){
+            //poses in the center of the cells, so the rasterization at the pose matches the shifted mask
+            int cellX = random.nextInt(160) - 5, cellY = random.nextInt(160) - 5;
+            Pose2D pose = new Pose2D(cellX * RESOLUTION, cellY * RESOLUTION, masks.headingAt(random.nextInt(32)));
+            boolean expected = masks.collides(cellX, cellY, pose.getYaw(), grid.words(), grid.getWidth(), grid.getHeight());
+            assertEquals(expected, grid.collides(masks, pose));
+            assertEquals(expected, grid.collides(masks.getRasterizer(), pose));
+        }
+        //poses out of the center of the cells and of the headings of the cache are rasterized
+        for(int i = 0; i < 500; i++){
+            Pose2D pose = new Pose2D((random.nextFloat() * 160 - 5) * RESOLUTION, (random.nextFloat() * 160 - 5) * RESOLUTION, (random.nextFloat() - 0.5f) * 6.28f);
+            assertEquals(grid.collides(masks.getRasterizer(), pose), grid.collides(masks, pose));
+        }
+    }
+
+    /**
+     * Logical operations between grids and rows.
+     */
+    @Test
+    public void test_logicalOperations(){
+        OccupancyGrid2D a = randomGrid2D(100, 10, 0.3f);
+        OccupancyGrid2D b = randomGrid2D(100, 10, 0.3f);
+        OccupancyGrid2D or = randomGrid2D(100, 10, 0f), and = randomGrid2D(100, 10, 0f), andNot = randomGrid2D(100, 10, 0f);
+        or.or(a); or.or(b);
+        and.or(a); and.and(b);
+        andNot.or(a); andNot.andNot(b);
+        for(int y = 0; y < 10; y++){
+            for(int x = 0; x < 100; x++){
+                assertEquals(a.get(x, y) || b.get(x, y), or.get(x, y));
+                assertEquals(a.get(x, y) && b.get(x, y), and.get(x, y));
+                assertEquals(a.get(x, y) && !b.get(x, y), andNot.get(x, y));
+            }
+        }
+        OccupancyGrid2D row = randomGrid2D(100, 10, 0f);
+        row.orRow(4, a, 7);
+        for(int x = 0; x < 100; x++){
+            assertEquals(a.get(x, 7), row.get(x, 4));
+        }
+        assertFalse(row.anyInSpan(3, 0, 99));
+        assertFalse(row.anyInSpan(5, 0, 99));
+    }
+
+    /**
+     * Points inside and outside rotated 3D shapes.
+     */
+    @Test
+    public void test_contains3D(){
+        ShapeRectangle3D rectangle = new ShapeRectangle3D(2f, 1f, 0.6f);
+        for(int i = 0; i < 1000; i++){
+            Pose3D pose = new Pose3D(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10,
+                    (random.nextFloat() - 0.5f) * 6.28f, (random.nextFloat() - 0.5f) * 3.14f, (random.nextFloat() - 0.5f) * 6.28f);
+            //local point inside, and outside by a margin in one of the axes
+            Point3D inside = new Point3D((random.nextFloat() - 0.5f) * 1.98f, (random.nextFloat() - 0.5f) * 0.98f, (random.nextFloat() - 0.5f) * 0.58f);
+            Point3D outside = new Point3D(inside.x, inside.y, inside.z);
+            switch(random.nextInt(3)){
+                case 0: outside.x = Math.signum(inside.x) * 1.05f; break;
+                case 1: outside.y = Math.signum(inside.y) * 0.55f; break;
+                default: outside.z = Math.signum(inside.z) * 0.35f;
+            }
+            Point3D globalInside = inside.rotate(pose.getYaw(), pose.getPitch(), pose.getRoll()).add(new Point3D(pose.getX(), pose.getY(), pose.getZ()));
+            Point3D globalOutside = outside.rotate(pose.getYaw(), pose.getPitch(), pose.getRoll()).add(new Point3D(pose.getX(), pose.getY(), pose.getZ()));
+            assertTrue(rectangle.contains(pose, globalInside.x, globalInside.y, globalInside.z));
+            assertFalse(rectangle.contains(pose, globalOutside.x, globalOutside.y, globalOutside.z));
+        }
+    }
+
+    /**
+     * The 3D rasterization of a sphere covers the cells within its radius, and the grid detects
+     * the collisions with an occupied cell.
+     */
+    @Test
+    public void test_grid3D(){
+        ShapeSphere3D sphere = new ShapeSphere3D(0.6f);
+        FootprintRasterizer3D rasterizer = new FootprintRasterizer3D(sphere, RESOLUTION, RESOLUTION, RESOLUTION);
+        int[] cells = rasterizer.rasterize(new Pose3D(0f, 0f, 0f, 0f, 0f, 0f));
+        int count = 0;
+        for(int k = -3; k <= 3; k++){
+            for(int j = -3; j <= 3; j++){
+                for(int i = -3; i <= 3; i++){
+                    if((i * i + j * j + k * k) * RESOLUTION * RESOLUTION <= 0.36f){
+                        count++;
+                    }
+                }
+            }
+        }
+        assertEquals(3 * count, cells.length);
+        int[] spans = FootprintRasterizer3D.toSpans(cells);
+        int spanned = 0;
+        for(int i = 0; i < spans.length; i += 4){
+            spanned += spans[i + 3] - spans[i + 2] + 1;
+        }
+        assertEquals(count, spanned);
+        //grid with a single occupied cell
+        OccupancyGrid3D grid = new OccupancyGrid3D(40, 40, 40, RESOLUTION, RESOLUTION, RESOLUTION);
+        grid.set(20, 20, 20);
+        assertEquals(1, grid.countOccupied());
+        for(int i = 0; i < 500; i++){
+            int x = 4 + random.nextInt(32), y = 4 + random.nextInt(32), z = 4 + random.nextInt(32);
+            int d2 = (x - 20) * (x - 20) + (y - 20) * (y - 20) + (z - 20) * (z - 20);
+            Pose3D pose = new Pose3D(x * RESOLUTION, y * RESOLUTION, z * RESOLUTION, 0f, 0f, 0f);
+            assertEquals(d2 * RESOLUTION * RESOLUTION <= 0.36f, grid.collides(rasterizer, pose));
+        }
+        //near the borders the footprint goes out of the grid
+        assertTrue(grid.collides(rasterizer, new Pose3D(0f, 5f, 5f, 0f, 0f, 0f)));
+        //projection over the XY plane
+        OccupancyGrid2D projection = new OccupancyGrid2D(40, 40, RESOLUTION, RESOLUTION);
+        grid.set(3, 4, 7);
+        grid.projectTo(projection);
+        assertTrue(projection.get(20, 20));
+        assertTrue(projection.get(3, 4));
+        assertEquals(2, projection.countOccupied());
+    }
+
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.index;
+
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud2D;
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud3D;
+import es.usc.citius.lab.motionplanner.core.util.RandomUtils;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the classes {@link KdTree2D} and {@link KdTree3D}, comparing their
+ * results with a linear scan of the points.
+ */
+public class KdTreeTest {
+
+    private static final float ERR = 1E-4f;
+    private static final float MAX = 20f;
+    private static final int POINTS = 2000;
+    private static final int QUERIES = 200;
+    private static final int K = 10;
+
+    private final Random random = new Random(System.currentTimeMillis());
+
+    private float randomCoordinate(){
+        return RandomUtils.randomToValue(random.nextFloat(), MAX);
+    }
+
+    /**
+     * Nearest, k-nearest and radius queries in 2D.
+     */
+    @Test
+    public void test_queries2D(){
+        PointCloud2D cloud = new PointCloud2D(POINTS);
+        for(int i = 0; i < POINTS; i++){
+            //rounded coordinates to have repeated values in the splitting axes
+            cloud.add(Math.round(randomCoordinate()), randomCoordinate());
+        }
+        KdTree2D tree = new KdTree2D(cloud);
+        assertEquals(POINTS, tree.size());
+        float[] distances = new float[POINTS];
+        int[] indexes = new int[POINTS];
+        int[] kIndexes = new int[K];
+        float[] kDistances = new float[K];
+        for(int q = 0; q < QUERIES; q++){
+            float x = randomCoordinate(), y = randomCoordinate();
+            for(int i = 0; i < POINTS; i++){
+                float dx = cloud.getX(i) - x, dy = cloud.getY(i) - y;
+                distances[i] = dx * dx + dy * dy;
+            }
+            float[] sorted = Arrays.copyOf(distances, POINTS);
+            Arrays.sort(sorted);
+            //nearest
+            assertEquals(sorted[0], distances[tree.nearest(x, y)], ERR);
+            assertEquals(Math.sqrt(sorted[0]), tree.nearestDistance(x, y), ERR);
+            //k-nearest
+            assertEquals(K, tree.kNearest(x, y, K, kIndexes, kDistances));
+            for(int i = 0; i < K; i++){
+                assertEquals(sorted[i], kDistances[i], ERR);
+                assertEquals(sorted[i], distances[kIndexes[i]], ERR);
+            }
+            //radius
+            float radius = random.nextFloat() * MAX / 4;
+            int expected = 0;
+            for(int i = 0; i < POINTS; i++){
+                if(distances[i] <= radius * radius){
+                    expected++;
+                }
+            }
+            int found = tree.radius(x, y, radius, indexes);
+            assertEquals(expected, found);
+            for(int i = 0; i < found; i++){
+                assertTrue(distances[indexes[i]] <= radius * radius);
+            }
+            assertEquals(expected > 0, tree.anyWithin(x, y, radius));
+        }
+    }
+
+    /**
+     * Nearest, k-nearest and radius queries in 3D.
+     */
+    @Test
+    public void test_queries3D(){
+        PointCloud3D cloud = new PointCloud3D(POINTS);
+        for(int i = 0; i < POINTS; i++){
+            cloud.add(randomCoordinate(), randomCoordinate(), Math.round(randomCoordinate() / 4));
+        }
+        KdTree3D tree = new KdTree3D(cloud.toList());
+        float[] distances = new float[POINTS];
+        int[] indexes = new int[POINTS];
+        int[] kIndexes = new int[K];
+        float[] kDistances = new float[K];
+        for(int q = 0; q < QUERIES; q++){
+            float x = randomCoordinate(), y = randomCoordinate(), z = randomCoordinate();
+            for(int i = 0; i < POINTS; i++){
+                float dx = cloud.getX(i) - x, dy = cloud.getY(i) - y, dz = cloud.getZ(i) - z;
+                distances[i] = dx * dx + dy * dy + dz * dz;
+            }
+            float[] sorted = Arrays.copyOf(distances, POINTS);
+            Arrays.sort(sorted);
+            assertEquals(sorted[0], distances[tree.nearest(x, y, z)], ERR);
+            assertEquals(K, tree.kNearest(x, y, z, K, kIndexes, kDistances));
+            for(int i = 0; i < K; i++){
+                assertEquals(sorted[i], distances[kIndexes[i]], ERR);
+            }
+            float radius = random.nextFloat() * MAX / 2;
+            int expected = 0;
+            for(int i = 0; i < POINTS; i++){
+                if(distances[i] <= radius * radius){
+                    expected++;
+                }
+            }
+            assertEquals(expected, tree.radius(x, y, z, radius, indexes));
+        }
+    }
+
+    /**
+     * Queries over trees with less points than requested or without points.
+     */
+    @Test
+    public void test_smallTrees(){
+        KdTree2D empty = new KdTree2D(new PointCloud2D());
+        assertEquals(-1, empty.nearest(0f, 0f));
+        assertEquals(Float.POSITIVE_INFINITY, empty.nearestDistance(0f, 0f), 0f);
+        assertEquals(0, empty.kNearest(0f, 0f, K, new int[K], new float[K]));
+        PointCloud2D cloud = new PointCloud2D();
+        cloud.add(1f, 1f);
+        cloud.add(-1f, 0f);
+        cloud.add(3f, 3f);
+        KdTree2D tree = new KdTree2D(cloud);
+        int[] indexes = new int[K];
+        assertEquals(3, tree.kNearest(0f, 0f, K, indexes, new float[K]));
+        assertArrayEquals(new int[]{1, 0, 2}, Arrays.copyOf(indexes, 3));
+        assertEquals(1, tree.nearest(-2f, 0f));
+    }
+
+}
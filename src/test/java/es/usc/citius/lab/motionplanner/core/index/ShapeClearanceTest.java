@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.index;
+
+import es.usc.citius.lab.motionplanner.core.shapes.Shape2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeCircle2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2D;
+import es.usc.citius.lab.motionplanner.core.shapes.ShapeSquare2DNonSimmetric;
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the class {@link ShapeClearance}, comparing its results with the
+ * distance from the shape to all the obstacles.
+ */
+public class ShapeClearanceTest {
+
+    private static final float ERR = 1E-4f;
+    private static final float MAX = 20f;
+    private static final int POINTS = 1000;
+    private static final int QUERIES = 200;
+
+    private final Random random = new Random(System.currentTimeMillis());
+
+    @Test
+    public void test_clearance(){
+        PointCloud2D cloud = new PointCloud2D(POINTS);
+        for(int i = 0; i < POINTS; i++){
+            cloud.add((random.nextFloat() - 0.5f) * 2 * MAX, (random.nextFloat() - 0.5f) * 2 * MAX);
+        }
+        KdTree2D tree = new KdTree2D(cloud);
+        Shape2D[] shapes = new Shape2D[]{
+                new ShapeSquare2D(2.5f, 0.5f),
+                new ShapeSquare2DNonSimmetric(0.5f, 0.25f, 2f, 0.75f),
+                new ShapeCircle2D(1.5f)
+        };
+        Point2D witness = new Point2D(0f, 0f);
+        for(Shape2D shape : shapes){
+            ShapeClearance clearance = new ShapeClearance(tree, shape);
+            for(int q = 0; q < QUERIES; q++){
+                Pose2D pose = new Pose2D((random.nextFloat() - 0.5f) * 2 * MAX, (random.nextFloat() - 0.5f) * 2 * MAX, (random.nextFloat() - 0.5f) * 6.28f);
+                float expected = Float.POSITIVE_INFINITY;
+                for(int i = 0; i < POINTS; i++){
+                    expected = Math.min(expected, shape.distanceToPoint(pose, cloud.getX(i), cloud.getY(i)));
+                }
+                assertEquals(expected, clearance.clearance(pose), ERR);
+                assertEquals(expected, clearance.clearance(pose, witness), ERR);
+                assertEquals(expected, shape.distanceToPoint(pose, witness.x, witness.y), ERR);
+                int nearest = clearance.nearestObstacle(pose);
+                assertEquals(expected, shape.distanceToPoint(pose, cloud.getX(nearest), cloud.getY(nearest)), ERR);
+                assertEquals(expected > 0.5f, clearance.isFree(pose, 0.5f));
+            }
+        }
+    }
+
+    @Test
+    public void test_noObstacles(){
+        ShapeClearance clearance = new ShapeClearance(new KdTree2D(new PointCloud2D()), new ShapeCircle2D(1f));
+        assertEquals(Float.POSITIVE_INFINITY, clearance.clearance(Pose2D.ZERO), 0f);
+        assertEquals(-1, clearance.nearestObstacle(Pose2D.ZERO));
+        assertTrue(clearance.isFree(Pose2D.ZERO, 10f));
+    }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.index;
+
+import es.usc.citius.lab.motionplanner.core.lattice.HilbertCode;
+import es.usc.citius.lab.motionplanner.core.lattice.MortonCode;
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud2D;
+import es.usc.citius.lab.motionplanner.core.spatial.PointCloud3D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the classes {@link SpatialSort} and {@link HilbertCode}.
+ */
+public class SpatialSortTest {
+
+    private final Random random = new Random(System.currentTimeMillis());
+
+    private static boolean unsignedLessOrEqual(long a, long b){
+        return (a ^ Long.MIN_VALUE) <= (b ^ Long.MIN_VALUE);
+    }
+
+    /**
+     * The radix sort orders unsigned codes and keeps the order of equal codes.
+     */
+    @Test
+    public void test_argsort(){
+        long[] codes = new long[5000];
+        for(int i = 0; i < codes.length; i++){
+            //few different values to have repetitions, some of them negative (large unsigned)
+            codes[i] = random.nextBoolean() ? random.nextInt(100) : random.nextLong();
+        }
+        int[] order = SpatialSort.argsort(codes);
+        assertEquals(codes.length, order.length);
+        Set<Integer> indexes = new HashSet<Integer>();
+        for(int i = 0; i < order.length; i++){
+            indexes.add(order[i]);
+            if(i > 0){
+                assertTrue(unsignedLessOrEqual(codes[order[i - 1]], codes[order[i]]));
+                if(codes[order[i - 1]] == codes[order[i]]){
+                    assertTrue(order[i - 1] < order[i]);
+                }
+            }
+        }
+        assertEquals(codes.length, indexes.size());
+        assertEquals(0, SpatialSort.argsort(new long[0]).length);
+    }
+
+    /**
+     * Hilbert codes are decoded to the original cells, and consecutive codes are neighbour cells.
+     */
+    @Test
+    public void test_hilbert(){
+        int[] cell = new int[2];
+        for(int i = 0; i < 10000; i++){
+            int x = random.nextInt() >> 1, y = random.nextInt() >> 1;
+            long code = HilbertCode.encode2D(x, y);
+            assertTrue(code >= 0);
+            HilbertCode.decode2D(code, cell);
+            assertEquals(x, cell[0]);
+            assertEquals(y, cell[1]);
+            //neighbour along the curve
+            long next = code + 1;
+            if(next < (1L << 62)){
+                HilbertCode.decode2D(next, cell);
+                assertEquals(1, Math.abs(cell[0] - x) + Math.abs(cell[1] - y));
+            }
+        }
+    }
+
+    /**
+     * Sorted clouds are permutations of the original ones with ascending codes.
+     */
+    @Test
+    public void test_sortClouds(){
+        PointCloud2D cloud = new PointCloud2D();
+        PointCloud3D cloud3D = new PointCloud3D();
+        for(int i = 0; i < 2000; i++){
+            cloud.add((random.nextFloat() - 0.5f) * 100, (random.nextFloat() - 0.5f) * 100);
+            cloud3D.add((random.nextFloat() - 0.5f) * 100, (random.nextFloat() - 0.5f) * 100, (random.nextFloat() - 0.5f) * 100);
+        }
+        for(int mode = 0; mode < 2; mode++){
+            PointCloud2D sorted = new PointCloud2D();
+            sorted.addAll(cloud);
+            int[] order = mode == 0 ? SpatialSort.sortMorton(sorted, 0.5f, 0.5f) : SpatialSort.sortHilbert(sorted, 0.5f, 0.5f);
+            long[] codes = mode == 0 ? SpatialSort.mortonCodes(sorted, 0.5f, 0.5f) : SpatialSort.hilbertCodes(sorted, 0.5f, 0.5f);
+            for(int i = 0; i < sorted.size(); i++){
+                assertEquals(cloud.getX(order[i]), sorted.getX(i), 0f);
+                assertEquals(cloud.getY(order[i]), sorted.getY(i), 0f);
+                if(i > 0){
+                    assertTrue(unsignedLessOrEqual(codes[i - 1], codes[i]));
+                }
+            }
+        }
+        PointCloud3D sorted3D = new PointCloud3D();
+        sorted3D.addAll(cloud3D);
+        int[] order = SpatialSort.sortMorton(sorted3D, 0.5f, 0.5f, 0.5f);
+        long[] codes = SpatialSort.mortonCodes(sorted3D, 0.5f, 0.5f, 0.5f);
+        for(int i = 0; i < sorted3D.size(); i++){
+            assertEquals(cloud3D.getZ(order[i]), sorted3D.getZ(i), 0f);
+            if(i > 0){
+                assertTrue(codes[i - 1] <= codes[i]);
+            }
+        }
+    }
+
+    /**
+     * Lists are sorted in place.
+     */
+    @Test
+    public void test_sortList(){
+        List<Point> points = new ArrayList<Point>();
+        for(int i = 0; i < 1000; i++){
+            points.add(new Point3D(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10));
+        }
+        Set<Point> original = new HashSet<Point>(points);
+        SpatialSort.sortMorton(points, 0.1f, 0.1f, 0.1f);
+        assertEquals(original, new HashSet<Point>(points));
+        for(int i = 1; i < points.size(); i++){
+            Point a = points.get(i - 1), b = points.get(i);
+            assertTrue(MortonCode.encode3D(Math.round(a.getX() / 0.1f), Math.round(a.getY() / 0.1f), Math.round(a.getZ() / 0.1f))
+                    <= MortonCode.encode3D(Math.round(b.getX() / 0.1f), Math.round(b.getY() / 0.1f), Math.round(b.getZ() / 0.1f)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_reorderSize(){
+        PointCloud2D cloud = new PointCloud2D();
+        cloud.add(1f, 2f);
+        cloud.reorder(new int[2]);
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.lattice;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the class {@link LatticeUtils}.
+ */
+public class LatticeUtilsTest {
+
+    /**
+     * Shell obtained iterating the whole cube.
+     */
+    private static Set<Point> cube(int level, float rX, float rY, float rZ){
+        Set<Point> positions = new HashSet<Point>();
+        for (int x = -level; x <= level; x++) {
+            for (int y = -level; y <= level; y++) {
+                for (int z = -level; z <= level; z++) {
+                    if ((rX != 0 && Math.abs(x) == level) || (rY != 0 && Math.abs(y) == level) || (rZ != 0 && Math.abs(z) == level)) {
+                        positions.add(new Point3D(rX * x, rY * y, rZ * z));
+                    }
+                }
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * The shell has the same cells than the cube, without repetitions, for any combination of active axes.
+     */
+    @Test
+    public void test_shell(){
+        float[][] resolutions = new float[][]{
+            {0.1f, 0.2f, 0.3f}, {0.1f, 0.2f, 0f}, {0.1f, 0f, 0.3f}, {0f, 0.2f, 0.3f},
+            {0.1f, 0f, 0f}, {0f, 0f, 0.3f}, {0f, 0f, 0f}
+        };
+        for(float[] r : resolutions){
+            for(int level = 0; level <= 6; level++){
+                Set<Point> expected = cube(level, r[0], r[1], r[2]);
+                float[] shell = LatticeUtils.generateShell(level, r[0], r[1], r[2]);
+                Set<Point> actual = new HashSet<Point>();
+                for(int i = 0; i < shell.length; i += 3){
+                    actual.add(new Point3D(shell[i], shell[i + 1], shell[i + 2]));
+                }
+                assertEquals(expected.size() * 3, shell.length);
+                assertEquals(expected, actual);
+                assertEquals(expected, new HashSet<Point>(LatticeUtils.generateGridPoints(level, r[0], r[1], r[2])));
+            }
+        }
+    }
+
+    /**
+     * The 2D shell matches the 3D one without resolution in Z.
+     */
+    @Test
+    public void test_shell2D(){
+        for(int level = 0; level <= 6; level++){
+            float[] shell = LatticeUtils.generateShell2D(level, 0.5f, 0.25f);
+            assertEquals(2 * LatticeUtils.shellSize(level, 2), shell.length);
+            Set<Point> actual = new HashSet<Point>();
+            for(int i = 0; i < shell.length; i += 2){
+                actual.add(new Point3D(new Point2D(shell[i], shell[i + 1])));
+            }
+            assertEquals(cube(level, 0.5f, 0.25f, 0f), actual);
+        }
+        assertEquals(0, LatticeUtils.generateShell2D(-1, 0.5f, 0.25f).length);
+    }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.lattice;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose3D;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the class {@link MortonCode} and the implementations of {@link PackedKeyAdapter}.
+ */
+public class PackedKeyTest {
+
+    private final Random random = new Random(System.currentTimeMillis());
+
+    /**
+     * Codes are decoded to the original indexes, and keep their order in each axis.
+     */
+    @Test
+    public void test_morton(){
+        int[] extremes = new int[]{Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE};
+        for(int x : extremes){
+            for(int y : extremes){
+                long code = MortonCode.encode2D(x, y);
+                assertEquals(x, MortonCode.decode2DX(code));
+                assertEquals(y, MortonCode.decode2DY(code));
+            }
+        }
+        for(int i = 0; i < 10000; i++){
+            int x = random.nextInt(), y = random.nextInt();
+            long code = MortonCode.encode2D(x, y);
+            assertEquals(x, MortonCode.decode2DX(code));
+            assertEquals(y, MortonCode.decode2DY(code));
+            int x3 = random.nextInt(1 << 21) - (1 << 20), y3 = random.nextInt(1 << 21) - (1 << 20), z3 = random.nextInt(1 << 21) - (1 << 20);
+            long code3 = MortonCode.encode3D(x3, y3, z3);
+            assertEquals(x3, MortonCode.decode3DX(code3));
+            assertEquals(y3, MortonCode.decode3DY(code3));
+            assertEquals(z3, MortonCode.decode3DZ(code3));
+            assertTrue(code3 >= 0);
+            //order in each axis
+            if(x3 < (1 << 20) - 1){
+                assertTrue(Long.compare(MortonCode.encode3D(x3 + 1, y3, z3), code3) > 0);
+            }
+            if(y != Integer.MAX_VALUE){
+                assertTrue(unsignedLess(code, MortonCode.encode2D(x, y + 1)));
+            }
+        }
+        assertEquals(0, MortonCode.bitsFor(1));
+        assertEquals(4, MortonCode.bitsFor(16));
+        assertEquals(5, MortonCode.bitsFor(17));
+    }
+
+    private static boolean unsignedLess(long a, long b){
+        return (a ^ Long.MIN_VALUE) < (b ^ Long.MIN_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_mortonRange(){
+        MortonCode.encode3D(1 << 20, 0, 0);
+    }
+
+    /**
+     * With 72 headings there are 7 bits for them, and 28 bits for the cells of each axis.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void test_poseKeyRange(){
+        new PoseAdapter2D(1f, 1f, 72).key(1 << 27, 0, 0);
+    }
+
+    /**
+     * Two identifiers have the same key if they are adapted to the same cell, and the key is
+     * decoded to the adapted identifier.
+     */
+    private <T> void assertKeys(PackedKeyAdapter<T> adapter, T[] ids){
+        Map<T, Long> keys = new HashMap<T, Long>();
+        Map<Long, T> cells = new HashMap<Long, T>();
+        for(T id : ids){
+            T adapted = adapter.adaptNodeID(id);
+            long key = adapter.keyOf(id);
+            assertEquals(key, adapter.keyOf(adapted));
+            assertEquals(adapted, adapter.fromKey(key));
+            Long previous = keys.put(adapted, key);
+            assertTrue(previous == null || previous == key);
+            T previousCell = cells.put(key, adapted);
+            assertTrue(previousCell == null || previousCell.equals(adapted));
+        }
+    }
+
+    private float coordinate(){
+        //small range, to get repeated cells
+        return (random.nextFloat() - 0.5f) * 4;
+    }
+
+    private float angle(){
+        return (random.nextFloat() - 0.5f) * MathFunctions.PITIMES2;
+    }
+
+    @Test
+    public void test_adapters(){
+        int n = 5000;
+        Point[] points2D = new Point[n];
+        Point[] points3D = new Point[n];
+        Pose2D[] poses2D = new Pose2D[n];
+        Pose3D[] poses3D = new Pose3D[n];
+        for(int i = 0; i < n; i++){
+            points2D[i] = new Point2D(coordinate(), coordinate());
+            points3D[i] = new Point3D(coordinate(), coordinate(), coordinate());
+            poses2D[i] = new Pose2D(coordinate(), coordinate(), angle());
+            poses3D[i] = new Pose3D(coordinate(), coordinate(), coordinate(), angle(), angle(), angle());
+        }
+        assertKeys(new PointAdapter2D(0.2f, 0.3f), points2D);
+        assertKeys(new PointAdapter3D(0.2f, 0.3f, 0.25f), points3D);
+        assertKeys(new PoseAdapter2D(0.2f, 0.3f, 16), poses2D);
+        assertKeys(new PoseAdapter2D(0.2f, 0.3f, 1), poses2D);
+        assertKeys(new PoseAdapter3D(0.2f, 0.3f, 0.25f, 16, 3, 1), poses3D);
+        //far cells
+        PointAdapter2D adapter = new PointAdapter2D(1f, 1f);
+        assertEquals(new Point2D(-1e6f, 2e6f), adapter.fromKey(adapter.keyOf(new Point2D(-1e6f, 2e6f))));
+        PoseAdapter2D poseAdapter = new PoseAdapter2D(1f, 1f, 72);
+        long key = poseAdapter.key(-(1 << 20), (1 << 20) - 1, 71);
+        Pose2D pose = poseAdapter.fromKey(key);
+        assertEquals(-(1 << 20), poseAdapter.cellX(pose.getX()));
+        assertEquals((1 << 20) - 1, poseAdapter.cellY(pose.getY()));
+        assertEquals(71, poseAdapter.headingIndex(pose.getYaw()));
+        assertEquals(key, poseAdapter.keyOf(pose));
+    }
+
+}
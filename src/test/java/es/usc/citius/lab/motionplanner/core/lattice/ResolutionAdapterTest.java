@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.lattice;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point;
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose3D;
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the implementations of {@link ResolutionAdapter}.
+ */
+public class ResolutionAdapterTest {
+
+    private final Random random = new Random(System.currentTimeMillis());
+
+    private float coordinate(){
+        return (random.nextFloat() - 0.5f) * 100;
+    }
+
+    private float angle(){
+        return (random.nextFloat() - 0.5f) * MathFunctions.PITIMES2;
+    }
+
+    /**
+     * The 3D adapter matches the 2D one in the plane.
+     */
+    @Test
+    public void test_pointAdapter3D(){
+        PointAdapter2D adapter2D = new PointAdapter2D(0.2f, 0.3f);
+        PointAdapter3D adapter3D = new PointAdapter3D(0.2f, 0.3f, 0.5f);
+        for(int i = 0; i < 1000; i++){
+            Point3D point = new Point3D(coordinate(), coordinate(), coordinate());
+            Point3D adapted = adapter3D.adaptNodeID(point);
+            Point2D adapted2D = adapter2D.adaptNodeID(point);
+            assertEquals(adapted2D.x, adapted.x, 0f);
+            assertEquals(adapted2D.y, adapted.y, 0f);
+            assertEquals(0f, (adapted.z - point.z) / 0.5f, 0.5f + 1e-3f);
+            assertEquals(adapted, adapter3D.adaptNodeID(adapted));
+        }
+        assertEquals(1, adapter3D.getIDFromPosition(1f, 2f, 3f).size());
+    }
+
+    /**
+     * The headings are adapted to the closest bin.
+     */
+    @Test
+    public void test_poseAdapters(){
+        PoseAdapter2D adapter2D = new PoseAdapter2D(0.2f, 0.3f, 16);
+        PoseAdapter3D adapter3D = new PoseAdapter3D(0.2f, 0.3f, 0.5f, 16, 8, 1);
+        float dyaw = MathFunctions.PITIMES2 / 16;
+        for(int i = 0; i < 1000; i++){
+            Pose2D pose = new Pose2D(coordinate(), coordinate(), angle());
+            Pose2D adapted = adapter2D.adaptNodeID(pose);
+            assertTrue(Math.abs(MathFunctions.adjustAngleP(adapted.getYaw() - pose.getYaw())) <= dyaw / 2 + 1e-4f);
+            assertEquals(adapted.getYaw(), adapter2D.headingAt(adapter2D.headingIndex(pose.getYaw())), 0f);
+            assertEquals(adapted, adapter2D.adaptNodeID(adapted));
+
+            Pose3D pose3D = new Pose3D(coordinate(), coordinate(), coordinate(), angle(), angle(), angle());
+            Pose3D adapted3D = adapter3D.adaptNodeID(pose3D);
+            assertTrue(Math.abs(MathFunctions.adjustAngleP(adapted3D.getYaw() - pose3D.getYaw())) <= dyaw / 2 + 1e-4f);
+            assertTrue(Math.abs(MathFunctions.adjustAngleP(adapted3D.getPitch() - pose3D.getPitch())) <= 2 * dyaw / 2 + 1e-4f);
+            //a single bin ignores the angle
+            assertEquals(0f, adapted3D.getRoll(), 0f);
+            assertEquals(adapted3D, adapter3D.adaptNodeID(adapted3D));
+        }
+        //heading of -PI is the same bin than PI
+        assertEquals(adapter2D.headingIndex(MathFunctions.PI), adapter2D.headingIndex(-MathFunctions.PI + 1e-6f));
+        assertEquals(16, adapter2D.getIDFromPosition(1f, 2f, 0f).size());
+        assertEquals(16 * 8, adapter3D.getIDFromPosition(1f, 2f, 3f).size());
+    }
+
+    /**
+     * The finest level matches {@link PointAdapter2D}, and the cells of coarser levels contain the finer ones.
+     */
+    @Test
+    public void test_multiResolution(){
+        PointAdapter2D adapter2D = new PointAdapter2D(0.2f, 0.3f);
+        MultiResolutionAdapter adapter = new MultiResolutionAdapter(0.2f, 0.3f, 0f, 6);
+        assertFalse(adapter.is3D());
+        for(int i = 0; i < 1000; i++){
+            Point2D point = new Point2D(coordinate(), coordinate());
+            assertEquals(adapter2D.adaptNodeID(point), adapter.adaptNodeID(point));
+            int fineX = adapter.cellX(point.x, 0), fineY = adapter.cellY(point.y, 0);
+            for(int level = 1; level < adapter.getLevels(); level++){
+                int cellX = adapter.cellX(point.x, level), cellY = adapter.cellY(point.y, level);
+                assertEquals(MultiResolutionAdapter.ancestor(fineX, level), cellX);
+                assertEquals(MultiResolutionAdapter.parent(adapter.cellY(point.y, level - 1)), cellY);
+                assertTrue(MultiResolutionAdapter.contains(cellX, level, fineX, 0));
+                assertTrue(MultiResolutionAdapter.contains(cellY, level, fineY, 0));
+                int child = MultiResolutionAdapter.firstChild(cellX);
+                assertTrue(adapter.cellX(point.x, level - 1) == child || adapter.cellX(point.x, level - 1) == child + 1);
+                //the point is inside the coarse cell
+                assertEquals(0f, (point.x - adapter.centerX(cellX, level)) / adapter.resolutionX(level), 0.5f + 1e-3f);
+                assertEquals(0f, (point.y - adapter.centerY(cellY, level)) / adapter.resolutionY(level), 0.5f + 1e-3f);
+                Point adapted = adapter.adaptNodeID(point, level);
+                assertEquals(cellX, adapter.cellX(adapted.getX(), level));
+                assertEquals(cellY, adapter.cellY(adapted.getY(), level));
+            }
+        }
+        MultiResolutionAdapter adapter3D = new MultiResolutionAdapter(0.2f, 0.3f, 0.4f, 3);
+        assertTrue(adapter3D.adaptNodeID(new Point3D(1f, 2f, 3f), 2) instanceof Point3D);
+        assertFalse(MultiResolutionAdapter.contains(5, 1, 12, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidLevel(){
+        new MultiResolutionAdapter(0.2f, 0.3f, 0f, 2).cellX(1f, 2);
+    }
+
+}
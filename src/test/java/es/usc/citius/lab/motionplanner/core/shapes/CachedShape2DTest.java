@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.shapes;
+
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Vector3D;
+import java.util.Random;
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.ejml.data.FixedMatrix2x2_64F;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the class {@link CachedShape2D}, comparing its results with the ones of
+ * the decorated shape.
+ */
+public class CachedShape2DTest {
+
+    private static final float ERR = 1E-4f;
+    private static final int HEADINGS = 16;
+    private final Random random = new Random(System.currentTimeMillis());
+
+    private void assertSameGeometry(Shape2D expected, Shape2D actual, Pose2D pose){
+        Point3D[] expectedVertex = expected.vertexAt(pose);
+        Point3D[] actualVertex = actual.vertexAt(pose);
+        assertEquals(expectedVertex.length, actualVertex.length);
+        float[] buffer = new float[3 * expectedVertex.length + 1];
+        assertEquals(expectedVertex.length, actual.vertexAt(pose, buffer, 1));
+        for(int i = 0; i < expectedVertex.length; i++){
+            assertEquals(expectedVertex[i].x, actualVertex[i].x, ERR);
+            assertEquals(expectedVertex[i].y, actualVertex[i].y, ERR);
+            assertEquals(expectedVertex[i].x, buffer[1 + 3 * i], ERR);
+            assertEquals(expectedVertex[i].y, buffer[2 + 3 * i], ERR);
+        }
+        Vector3D[] expectedAxis = expected.axisAt(pose);
+        Vector3D[] actualAxis = actual.axisAt(pose);
+        assertEquals(expectedAxis.length, actual.axisAt(pose, buffer));
+        for(int i = 0; i < expectedAxis.length; i++){
+            assertEquals(expectedAxis[i].x, actualAxis[i].x, ERR);
+            assertEquals(expectedAxis[i].y, actualAxis[i].y, ERR);
+            assertEquals(expectedAxis[i].x, buffer[3 * i], ERR);
+            assertEquals(expectedAxis[i].y, buffer[1 + 3 * i], ERR);
+        }
+        FixedMatrix2x2_64F expectedMatrix = expected.axesMatrix2DAt(pose);
+        FixedMatrix2x2_64F actualMatrix = actual.axesMatrix2DAt(pose);
+        assertEquals(expectedMatrix.a11, actualMatrix.a11, ERR);
+        assertEquals(expectedMatrix.a12, actualMatrix.a12, ERR);
+        assertEquals(expectedMatrix.a21, actualMatrix.a21, ERR);
+        assertEquals(expectedMatrix.a22, actualMatrix.a22, ERR);
+        assertEquals(expected.axesMatrixAt(pose).a12, actual.axesMatrixAt(pose).a12, ERR);
+    }
+
+    /**
+     * Cached and non cached headings obtain the same values than the decorated shape.
+     */
+    @Test
+    public void test_sameGeometry(){
+        Shape2D[] shapes = new Shape2D[]{
+                new ShapeSquare2D(2.5f, 0.5f),
+                new ShapeSquare2DNonSimmetric(0.5f, 0.25f, 2f, 0.75f),
+                new ShapeCircle2D(1.5f)
+        };
+        for(Shape2D shape : shapes){
+            CachedShape2D cached = new CachedShape2D(shape, HEADINGS);
+            assertEquals(shape.getMaxRadius(), cached.getMaxRadius(), 0f);
+            for(int i = 0; i < 200; i++){
+                //cached heading, given in any turn of the circle
+                int index = random.nextInt(HEADINGS);
+                float yaw = cached.headingAt(index) + (random.nextInt(3) - 1) * (float) (2 * Math.PI);
+                assertEquals(index, cached.headingIndex(yaw));
+                Pose2D pose = new Pose2D(random.nextFloat() * 10, random.nextFloat() * 10, yaw);
+                assertSameGeometry(shape, cached, pose);
+                //heading out of the cache
+                Pose2D offGrid = new Pose2D(pose.x, pose.y, yaw + 0.01f);
+                assertEquals(-1, cached.headingIndex(offGrid.yaw));
+                assertSameGeometry(shape, cached, offGrid);
+            }
+        }
+    }
+
+    /**
+     * The cache can be created from a {@link HierarchicalConfiguration}.
+     */
+    @Test
+    public void test_createFromConfig(){
+        HierarchicalConfiguration config = new HierarchicalConfiguration();
+        config.addProperty("class", CachedShape2D.class.getName());
+        config.addProperty("parameters.headings", HEADINGS);
+        config.addProperty("parameters.shape.class", ShapeSquare2D.class.getName());
+        config.addProperty("parameters.shape.parameters.dimX", 2.5f);
+        config.addProperty("parameters.shape.parameters.dimY", 0.5f);
+        Shape shape = Shape.create(config);
+        assertTrue(shape instanceof CachedShape2D);
+        CachedShape2D cached = (CachedShape2D) shape;
+        assertEquals(HEADINGS, cached.getHeadings());
+        assertTrue(cached.getShape() instanceof ShapeSquare2D);
+        assertEquals(2.5f, ((ShapeSquare2D) cached.getShape()).getDimX(), 0f);
+    }
+
+}
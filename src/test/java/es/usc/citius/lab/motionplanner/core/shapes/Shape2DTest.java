@@ -15,7 +15,12 @@
  */
 package es.usc.citius.lab.motionplanner.core.shapes;
 
+import es.usc.citius.lab.motionplanner.core.spatial.Point2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose2D;
+import es.usc.citius.lab.motionplanner.core.spatial.Vector3D;
 import java.util.List;
+import java.util.Random;
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.commons.configuration.XMLConfiguration;
@@ -67,4 +72,115 @@ public class Shape2DTest {
         }
     }
 
+    /**
+     * Checks that the vertex and axis written in a buffer are the same than the returned as objects.
+     */
+    @Test
+    public void test_bufferMatchesObjects() {
+        Random random = new Random(System.currentTimeMillis());
+        Shape2D[] shapes = new Shape2D[]{
+                new ShapeSquare2D(2.5f, 0.5f),
+                new ShapeSquare2DNonSimmetric(0.5f, 0.25f, 2f, 0.75f),
+                new ShapeCircle2D(1.5f)
+        };
+        //buffer with an offset, to check it is respected
+        float[] buffer = new float[20];
+        for(Shape2D shape : shapes){
+            for(int i = 0; i < 100; i++){
+                Pose2D pose = new Pose2D(random.nextFloat() * 10, random.nextFloat() * 10, (random.nextFloat() - 0.5f) * 6.28f);
+                Point3D[] vertex = shape.vertexAt(pose);
+                assertEquals(vertex.length, shape.getVertexCount());
+                assertEquals(vertex.length, shape.vertexAt(pose, buffer, 2));
+                for(int j = 0; j < vertex.length; j++){
+                    assertEquals(vertex[j].x, buffer[2 + 3 * j], 1E-5);
+                    assertEquals(vertex[j].y, buffer[3 + 3 * j], 1E-5);
+                    assertEquals(vertex[j].z, buffer[4 + 3 * j], 1E-5);
+                }
+                Vector3D[] axis = shape.axisAt(pose);
+                assertEquals(axis.length, shape.getAxisCount());
+                assertEquals(axis.length, shape.axisAt(pose, buffer));
+                for(int j = 0; j < axis.length; j++){
+                    assertEquals(axis[j].x, buffer[3 * j], 1E-5);
+                    assertEquals(axis[j].y, buffer[1 + 3 * j], 1E-5);
+                    assertEquals(axis[j].z, buffer[2 + 3 * j], 1E-5);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the bounds of the distance from the shape to a point: 0 for the points inside, and
+     * between the distance to the center minus the maximum radius and the distance to any
+     * point of the border for the points outside.
+     */
+    @Test
+    public void test_distanceToPoint() {
+        Random random = new Random(System.currentTimeMillis());
+        Shape2D[] shapes = new Shape2D[]{
+                new ShapeSquare2D(2.5f, 0.5f),
+                new ShapeSquare2D(2.5f, 0.5f, 1f, true),
+                new ShapeSquare2DNonSimmetric(0.5f, 0.25f, 2f, 0.75f),
+                new ShapeCircle2D(1.5f)
+        };
+        for(Shape2D shape : shapes){
+            for(int i = 0; i < 1000; i++){
+                Pose2D pose = new Pose2D(random.nextFloat() * 10, random.nextFloat() * 10, (random.nextFloat() - 0.5f) * 6.28f);
+                float angle = (random.nextFloat() - 0.5f) * 6.28f;
+                Point2D border = shape.borderPointAtRelativeAngle(angle, 0f).rotate(pose.yaw, 0f, 0f).add(pose);
+                //point inside, in the segment between the center and the border
+                Point2D inside = new Point2D(pose.x + (border.x - pose.x) * 0.9f, pose.y + (border.y - pose.y) * 0.9f);
+                assertEquals(0f, shape.distanceToPoint(pose, inside.x, inside.y), 1E-5f);
+                //point outside, in the prolongation of the same segment
+                float scale = 1f + random.nextFloat() * 3f;
+                Point2D outside = new Point2D(pose.x + (border.x - pose.x) * scale, pose.y + (border.y - pose.y) * scale);
+                float distance = shape.distanceToPoint(pose, outside.x, outside.y);
+                assertTrue(distance <= outside.distance(border) + 1E-3f);
+                assertTrue(distance >= outside.distance(pose) - shape.getMaxRadius() - 1E-3f);
+            }
+        }
+        //exact values for a rectangle
+        Shape2D rectangle = new ShapeSquare2DNonSimmetric(0.5f, 0.25f, 2f, 0.75f);
+        Pose2D pose = new Pose2D(1f, 1f, (float) Math.PI / 2);
+        assertEquals(1f, rectangle.distanceToPoint(pose, 1f, 4f), 1E-5f);
+        assertEquals(0.5f, rectangle.distanceToPoint(pose, 1f, 0f), 1E-5f);
+        assertEquals(0.75f, rectangle.distanceToPoint(pose, 2f, 1f), 1E-5f);
+        assertEquals(Math.hypot(0.5f, 0.75f), rectangle.distanceToPoint(pose, 2f, 0f), 1E-5f);
+    }
+
+    /**
+     * Checks the squared radius and the predicates of the bounding circles against the
+     * distance from the center of the pose.
+     */
+    @Test
+    public void test_radiusSquared() {
+        Random random = new Random(System.currentTimeMillis());
+        Shape2D[] shapes = new Shape2D[]{
+                new ShapeSquare2D(2.5f, 0.5f),
+                new ShapeSquare2DNonSimmetric(0.5f, 0.25f, 2f, 0.75f),
+                //rotation center close to the back side, far from the centroid
+                new ShapeSquare2DNonSimmetric(0.1f, 1f, 2f, 1f),
+                new ShapeCircle2D(1.5f)
+        };
+        for(Shape2D shape : shapes){
+            assertEquals(shape.getMinRadius() * shape.getMinRadius(), shape.getMinRadiusSquared(), 1E-6f);
+            assertEquals(shape.getMaxRadius() * shape.getMaxRadius(), shape.getMaxRadiusSquared(), 1E-6f);
+            for(int i = 0; i < 1000; i++){
+                Pose2D pose = new Pose2D(random.nextFloat() * 10, random.nextFloat() * 10, (random.nextFloat() - 0.5f) * 6.28f);
+                Point2D point = new Point2D(random.nextFloat() * 10, random.nextFloat() * 10);
+                float distance = point.distance(pose);
+                assertEquals(distance <= shape.getMinRadius(), shape.withinMinRadius(pose, point));
+                assertEquals(distance <= shape.getMaxRadius(), shape.withinMaxRadius(pose, point));
+                assertEquals(distance <= shape.getInscribedRadius(), shape.withinInscribedRadius(pose, point));
+                //points within the inscribed circle are inside the shape
+                if(shape.withinInscribedRadius(pose, point)){
+                    assertTrue(shape.distanceToPoint(pose, point.x, point.y) <= 0f);
+                }
+                //points outside the bounding circle are outside the shape
+                if(!shape.withinMaxRadius(pose, point)){
+                    assertTrue(shape.distanceToPoint(pose, point.x, point.y) > 0f);
+                }
+            }
+        }
+    }
+
 }
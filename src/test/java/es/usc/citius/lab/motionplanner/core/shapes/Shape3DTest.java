@@ -1,11 +1,19 @@
 package es.usc.citius.lab.motionplanner.core.shapes;
 
 import es.usc.citius.lab.motionplanner.core.spatial.Point3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose;
+import es.usc.citius.lab.motionplanner.core.spatial.Pose3D;
+import es.usc.citius.lab.motionplanner.core.spatial.Vector3D;
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.ejml.data.FixedMatrix3x3_64F;
 import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 public class Shape3DTest {
 
     @Test
@@ -32,4 +40,131 @@ public class Shape3DTest {
 
     }
 
+    @Test
+    public void testBufferMatchesObjects(){
+        Random random = new Random(System.currentTimeMillis());
+        Shape3D[] shapes = new Shape3D[]{ new ShapeRectangle3D(2, 4, 6), new ShapeSphere3D(1.5f) };
+        float[] buffer = new float[30];
+        for(Shape3D shape : shapes){
+            for(int i = 0; i < 100; i++){
+                Pose3D pose = new Pose3D(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10,
+                        (random.nextFloat() - 0.5f) * 6.28f, (random.nextFloat() - 0.5f) * 3.14f, (random.nextFloat() - 0.5f) * 6.28f);
+                Point3D[] vertex = shape.vertexAt(pose);
+                assertEquals(vertex.length, shape.getVertexCount());
+                assertEquals(vertex.length, shape.vertexAt(pose, buffer, 3));
+                for(int j = 0; j < vertex.length; j++){
+                    assertEquals(vertex[j].x, buffer[3 + 3 * j], 1E-4);
+                    assertEquals(vertex[j].y, buffer[4 + 3 * j], 1E-4);
+                    assertEquals(vertex[j].z, buffer[5 + 3 * j], 1E-4);
+                }
+                Vector3D[] axis = shape.axisAt(pose);
+                assertEquals(axis.length, shape.getAxisCount());
+                assertEquals(axis.length, shape.axisAt(pose, buffer));
+                for(int j = 0; j < axis.length; j++){
+                    assertEquals(axis[j].x, buffer[3 * j], 1E-5);
+                    assertEquals(axis[j].y, buffer[1 + 3 * j], 1E-5);
+                    assertEquals(axis[j].z, buffer[2 + 3 * j], 1E-5);
+                }
+            }
+        }
+    }
+
+    /**
+     * The default implementation of {@link Shape3D#contains(Pose, float, float, float)}, based on the
+     * border by relative angle, matches the analytic one of the cuboid.
+     */
+    @Test
+    public void testContainsByBorder(){
+        Random random = new Random(System.currentTimeMillis());
+        ShapeRectangle3D rectangle = new ShapeRectangle3D(2, 4, 3);
+        Shape3D byBorder = new BorderShape3D(rectangle);
+        int checked = 0;
+        for(int i = 0; i < 10000; i++){
+            Pose3D pose = new Pose3D(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10,
+                    (random.nextFloat() - 0.5f) * 6.28f, (random.nextFloat() - 0.5f) * 3.14f, (random.nextFloat() - 0.5f) * 6.28f);
+            //point in the frame of the shape, away from the faces
+            float lx = (random.nextFloat() - 0.5f) * 4, ly = (random.nextFloat() - 0.5f) * 6, lz = (random.nextFloat() - 0.5f) * 5;
+            float margin = Math.min(Math.min(Math.abs(Math.abs(lx) - 1), Math.abs(Math.abs(ly) - 2)), Math.abs(Math.abs(lz) - 1.5f));
+            if(margin < 0.05f){
+                continue;
+            }
+            Point3D point = new Point3D(lx, ly, lz).rotate(pose.yaw, pose.pitch, pose.roll).add(pose);
+            assertEquals(rectangle.contains(pose, point.x, point.y, point.z), byBorder.contains(pose, point.x, point.y, point.z));
+            checked++;
+        }
+        assertTrue(checked > 1000);
+    }
+
+    /**
+     * Shape which only implements the border of a cuboid, to test the default implementations of {@link Shape3D}.
+     */
+    private static class BorderShape3D extends Shape3D {
+
+        private final ShapeRectangle3D shape;
+
+        BorderShape3D(ShapeRectangle3D shape) {
+            this.shape = shape;
+        }
+
+        @Override
+        public Point3D borderPointAtRelativeAngle(float yaw, float pitch) {
+            return shape.borderPointAtRelativeAngle(yaw, pitch);
+        }
+
+        @Override
+        public float borderDistanceAtRelativeAngle(float yaw, float pitch) {
+            return shape.borderDistanceAtRelativeAngle(yaw, pitch);
+        }
+
+        @Override
+        public Point3D[] vertexAt(Pose pose) {
+            return shape.vertexAt(pose);
+        }
+
+        @Override
+        public Vector3D[] axisAt(Pose pose) {
+            return shape.axisAt(pose);
+        }
+
+        @Override
+        public FixedMatrix3x3_64F axesMatrixAt(Pose pose) {
+            return shape.axesMatrixAt(pose);
+        }
+
+        @Override
+        public Vector3D distanceBetweenCenterandCentroid(Pose pose) {
+            return shape.distanceBetweenCenterandCentroid(pose);
+        }
+
+        @Override
+        public double distanceToCentroidX() {
+            return shape.distanceToCentroidX();
+        }
+
+        @Override
+        public double distanceToCentroidY() {
+            return shape.distanceToCentroidY();
+        }
+
+        @Override
+        public double distanceToCentroidZ() {
+            return shape.distanceToCentroidZ();
+        }
+
+        @Override
+        public float getMinRadius() {
+            return shape.getMinRadius();
+        }
+
+        @Override
+        public float getMaxRadius() {
+            return shape.getMaxRadius();
+        }
+
+        @Override
+        protected void loadConfig(HierarchicalConfiguration config) {
+            //not configurable
+        }
+    }
+
 }
@@ -114,5 +114,100 @@ public class ShapeSquare2DTest {
         assertArrayEquals("-135 degree point", new double[][]{{0}, {-2}}, d8_1);
         assertArrayEquals("-135 degree point", new double[][]{{-2}, {0}}, d8_2);
     }
-    
+
+    /**
+     * Checks the distances retrieved from the border table with different resolutions
+     * against the exact distance to the border of the rectangle.
+     */
+    @RepeatRule.Repeat(times = 10)
+    @Test
+    public void test_borderTableResolution(){
+        ShapeSquare2D fine = new ShapeSquare2D(dx, dy, 0.1f, false);
+        ShapeSquare2D interpolated = new ShapeSquare2D(dx, dy, 0.1f, true);
+        assertEquals(1f, shape.getAngularResolution(), 1E-4);
+        assertEquals(0.1f, fine.getAngularResolution(), 1E-4);
+        assertTrue(interpolated.isInterpolated());
+        float maxErrorDefault = 0, maxErrorFine = 0, maxErrorInterpolated = 0;
+        for(int i = 0; i < 10000; i++){
+            float angle = (float) ((RANDOM.nextDouble() - 0.5) * 2 * FastMath.PI);
+            //exact distance to the border of the rectangle at that angle
+            double exact = FastMath.min(dx / 2 / FastMath.abs(FastMath.cos(angle)), dy / 2 / FastMath.abs(FastMath.sin(angle)));
+            maxErrorDefault = (float) FastMath.max(maxErrorDefault, FastMath.abs(shape.borderDistanceAtRelativeAngle(angle, 0f) - exact) / exact);
+            maxErrorFine = (float) FastMath.max(maxErrorFine, FastMath.abs(fine.borderDistanceAtRelativeAngle(angle, 0f) - exact) / exact);
+            maxErrorInterpolated = (float) FastMath.max(maxErrorInterpolated, FastMath.abs(interpolated.borderDistanceAtRelativeAngle(angle, 0f) - exact) / exact);
+            //border points are consistent with the distances
+            assertEquals(interpolated.borderDistanceAtRelativeAngle(angle, 0f), interpolated.borderPointAtRelativeAngle(angle, 0f).distance(Point2D.ZERO), 1E-2 * exact);
+        }
+        assertTrue("finer tables must be more precise", maxErrorFine <= maxErrorDefault);
+        //the linear interpolation across a corner errs about step / (2 sin(2 corner)), larger for thin rectangles
+        double corner = FastMath.atan2(dy, dx);
+        double bound = FastMath.max(1E-2, FastMath.toRadians(0.1) / (2 * FastMath.sin(2 * corner)));
+        assertTrue("interpolated error " + maxErrorInterpolated + " above " + bound, maxErrorInterpolated < bound);
+    }
+
+    /**
+     * Checks that the default table keeps the values at whole degrees.
+     */
+    @Test
+    public void test_borderTableDegrees(){
+        for(int i = -180; i <= 180; i++){
+            float angle = (float) FastMath.toRadians(i);
+            double exact = FastMath.min(dx / 2 / FastMath.abs(FastMath.cos(angle)), dy / 2 / FastMath.abs(FastMath.sin(angle)));
+            assertEquals("degree " + i, exact, shape.borderDistanceAtRelativeAngle(angle, 0f), 1E-3 * exact);
+        }
+    }
+
+    /**
+     * Checks the analytic border against the exact distance to the border of the rectangle.
+     */
+    @RepeatRule.Repeat(times = 10)
+    @Test
+    public void test_exactBorder(){
+        shape.setExactBorder(true);
+        assertTrue(shape.isExactBorder());
+        for(int i = 0; i < 10000; i++){
+            float angle = (float) ((RANDOM.nextDouble() - 0.5) * 2 * FastMath.PI);
+            double exact = FastMath.min(dx / 2 / FastMath.abs(FastMath.cos(angle)), dy / 2 / FastMath.abs(FastMath.sin(angle)));
+            assertEquals(exact, shape.borderDistanceAtRelativeAngle(angle, 0f), 1E-5 * exact);
+            Point2D border = shape.borderPointAtRelativeAngle(angle, 0f);
+            assertEquals(exact, border.distance(Point2D.ZERO), 1E-5 * exact);
+            assertEquals(angle, Point2D.ZERO.yawTo(border), 1E-4);
+        }
+        //non symmetric shape with the same dimensions obtains the same border
+        ShapeSquare2DNonSimmetric other = new ShapeSquare2DNonSimmetric(dx / 2, dy / 2, dx / 2, dy / 2);
+        other.setExactBorder(true);
+        for(int i = -180; i <= 180; i++){
+            float angle = (float) FastMath.toRadians(i);
+            assertEquals(shape.borderDistanceAtRelativeAngle(angle, 0f), other.borderDistanceAtRelativeAngle(angle, 0f), 1E-5 * dx);
+        }
+    }
+
+    /**
+     * Checks the analytic border of a rectangle with a different length of each side from the
+     * rotation center: border points are on the border given by the distance to the shape, and
+     * points slightly further away are outside of it.
+     */
+    @RepeatRule.Repeat(times = 10)
+    @Test
+    public void test_exactBorderNonSimmetric(){
+        float negativeX = SHAPE_DIM_MAX * RANDOM.nextFloat(), positiveX = negativeX + SHAPE_DIM_MAX * RANDOM.nextFloat();
+        float negativeY = SHAPE_DIM_MAX * RANDOM.nextFloat(), positiveY = negativeY + SHAPE_DIM_MAX * RANDOM.nextFloat();
+        //sides closer to the rotation center are alternated between positive and negative
+        ShapeSquare2DNonSimmetric other = RANDOM.nextBoolean()
+                ? new ShapeSquare2DNonSimmetric(negativeX, positiveY, positiveX, negativeY)
+                : new ShapeSquare2DNonSimmetric(positiveX, negativeY, negativeX, positiveY);
+        other.setExactBorder(true);
+        for(int i = 0; i < 10000; i++){
+            float angle = (float) ((RANDOM.nextDouble() - 0.5) * 2 * FastMath.PI);
+            Point2D border = other.borderPointAtRelativeAngle(angle, 0f);
+            float distance = border.distance(Point2D.ZERO);
+            assertEquals(distance, other.borderDistanceAtRelativeAngle(angle, 0f), 1E-5 * distance);
+            assertEquals(angle, Point2D.ZERO.yawTo(border), 1E-4);
+            //the border point is on the border of the shape
+            assertEquals("angle " + angle, 0f, other.distanceToPoint(Pose2D.ZERO, border.x, border.y), 1E-4 * distance);
+            //a point further away in the same direction is outside the shape
+            assertTrue("angle " + angle, other.distanceToPoint(Pose2D.ZERO, border.x * 1.01f, border.y * 1.01f) > 0f);
+        }
+    }
+
 }
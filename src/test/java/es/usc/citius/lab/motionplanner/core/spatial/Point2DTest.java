@@ -224,6 +224,20 @@ public class Point2DTest {
         float expected = (float) FastMath.sqrt(FastMath.pow(x1 - x2, 2) + FastMath.pow(y1 - y2, 2));
         assertEquals("[distance] wrong value", expected, distance, ERR);
     }
+
+    /**
+     * Checks if the squared distance and the distance threshold are consistent with the distance.
+     */
+    @Test
+    @Repeat( times = EXECUTIONS)
+    public void test_distanceSquared(){
+        float distance = point1.distance(point2);
+        assertEquals("[distanceSquared] wrong value", distance * distance, point1.distanceSquared(point2), ERR * distance);
+        assertTrue("[withinDistance] wrong value", point1.withinDistance(point2, distance + ERR));
+        assertFalse("[withinDistance] wrong value", point1.withinDistance(point2, distance - ERR));
+        //negative thresholds are never satisfied, not even by the point itself
+        assertFalse("[withinDistance] wrong value", point1.withinDistance(point1, -ERR));
+    }
     
     /**
      * Checks if the adding operation is calculated properly.
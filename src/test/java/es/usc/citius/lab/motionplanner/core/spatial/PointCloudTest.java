@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.spatial;
+
+import static es.usc.citius.lab.motionplanner.core.spatial.Point2DTest.random;
+
+import es.usc.citius.lab.motionplanner.core.util.RandomUtils;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the classes {@link PointCloud2D} and {@link PointCloud3D}.
+ */
+public class PointCloudTest {
+
+    private static final float ERR = 1E-3f;
+    private static final float MAX = 20f;
+    private static final int POINTS = 500;
+
+    private static List<Point2D> randomPoints2D(){
+        List<Point2D> points = new ArrayList<Point2D>(POINTS);
+        for(int i = 0; i < POINTS; i++){
+            points.add(new Point2D(RandomUtils.randomToValue(random.nextFloat(), MAX), RandomUtils.randomToValue(random.nextFloat(), MAX)));
+        }
+        return points;
+    }
+
+    private static List<Point3D> randomPoints3D(){
+        List<Point3D> points = new ArrayList<Point3D>(POINTS);
+        for(int i = 0; i < POINTS; i++){
+            points.add(new Point3D(RandomUtils.randomToValue(random.nextFloat(), MAX), RandomUtils.randomToValue(random.nextFloat(), MAX), RandomUtils.randomToValue(random.nextFloat(), MAX)));
+        }
+        return points;
+    }
+
+    /**
+     * The cloud grows when adding points one by one and keeps the coordinates.
+     */
+    @Test
+    public void test_add2D(){
+        List<Point2D> points = randomPoints2D();
+        PointCloud2D cloud = new PointCloud2D(1);
+        for(Point2D point : points){
+            cloud.add(point);
+        }
+        assertEquals(POINTS, cloud.size());
+        assertEquals(points, cloud.toList());
+        for(int i = 0; i < POINTS; i++){
+            assertEquals(points.get(i), cloud.get(i));
+            assertEquals(points.get(i).distance(Point2D.ZERO), cloud.view(i).distance(Point2D.ZERO), ERR);
+        }
+        cloud.clear();
+        assertTrue(cloud.isEmpty());
+    }
+
+    /**
+     * Transformations, distances and queries obtain the same results than the
+     * equivalent operations over {@link Point2D}.
+     */
+    @Test
+    public void test_operations2D(){
+        List<Point2D> points = randomPoints2D();
+        PointCloud2D cloud = new PointCloud2D(points);
+        Pose2D pose = new Pose2D(RandomUtils.randomToValue(random.nextFloat(), MAX), RandomUtils.randomToValue(random.nextFloat(), MAX), RandomUtils.randomToValue(random.nextFloat(), 3f));
+        cloud.transform(pose);
+        float[] distances = new float[POINTS];
+        cloud.distances(pose, distances);
+        int nearest = 0;
+        for(int i = 0; i < POINTS; i++){
+            Point2D expected = points.get(i).rotate(pose.yaw, 0f, 0f).add(pose);
+            assertEquals(expected.x, cloud.getX(i), ERR);
+            assertEquals(expected.y, cloud.getY(i), ERR);
+            assertEquals(expected.distance(pose), distances[i], ERR);
+            if(distances[i] < distances[nearest]){
+                nearest = i;
+            }
+        }
+        assertEquals(distances[nearest], distances[cloud.nearest(pose.x, pose.y)], ERR);
+        float[] squared = new float[POINTS];
+        cloud.distancesSquared(pose, squared);
+        for(int i = 0; i < POINTS; i++){
+            assertEquals(distances[i] * distances[i], squared[i], ERR * distances[i]);
+            assertEquals(squared[i], cloud.view(i).distanceSquared(pose), 0f);
+        }
+        assertTrue(cloud.anyWithinDistance(pose, distances[nearest] + ERR));
+        assertFalse(cloud.anyWithinDistance(pose, distances[nearest] - ERR));
+        assertFalse(cloud.anyWithinDistance(cloud.view(nearest), -ERR));
+        assertFalse(cloud.view(nearest).withinDistance(cloud.view(nearest), -ERR));
+        float[] box = new float[4];
+        cloud.boundingBox(box);
+        for(Point point : cloud.asList()){
+            assertTrue(point.getX() >= box[0] && point.getX() <= box[2]);
+            assertTrue(point.getY() >= box[1] && point.getY() <= box[3]);
+        }
+    }
+
+    /**
+     * The views read and write the values stored in the cloud.
+     */
+    @Test
+    public void test_view2D(){
+        PointCloud2D cloud = new PointCloud2D(randomPoints2D());
+        PointCloud2D.PointView view = cloud.view(0);
+        Point2D move = new Point2D(1f, -2f);
+        for(int i = 0; i < cloud.size(); i++){
+            view.moveTo(i);
+            Point2D copy = cloud.get(i);
+            assertEquals(copy.add(move), view.add(move));
+            assertEquals(copy.yawTo(move), view.yawTo(move), ERR);
+            assertEquals(copy.rotate(1f, 0f, 0f), view.rotate(1f, 0f, 0f));
+            view.staticAdd(move);
+            assertEquals(copy.add(move), cloud.get(i));
+        }
+    }
+
+    /**
+     * Transformations, distances and queries obtain the same results than the
+     * equivalent operations over {@link Point3D}.
+     */
+    @Test
+    public void test_operations3D(){
+        List<Point3D> points = randomPoints3D();
+        PointCloud3D cloud = new PointCloud3D(points);
+        assertEquals(points, cloud.toList());
+        Pose3D pose = new Pose3D(RandomUtils.randomToValue(random.nextFloat(), MAX), RandomUtils.randomToValue(random.nextFloat(), MAX), RandomUtils.randomToValue(random.nextFloat(), MAX),
+                RandomUtils.randomToValue(random.nextFloat(), 3f), RandomUtils.randomToValue(random.nextFloat(), 1.5f), RandomUtils.randomToValue(random.nextFloat(), 3f));
+        cloud.transform(pose);
+        float[] distances = new float[POINTS];
+        cloud.distances(pose, distances);
+        int nearest = 0;
+        for(int i = 0; i < POINTS; i++){
+            Point3D expected = points.get(i).rotate(pose.getYaw(), pose.getPitch(), pose.getRoll()).add(pose);
+            assertEquals(expected.x, cloud.getX(i), ERR);
+            assertEquals(expected.y, cloud.getY(i), ERR);
+            assertEquals(expected.z, cloud.getZ(i), ERR);
+            assertEquals(expected.distance(pose), distances[i], ERR);
+            assertEquals(expected.pitchTo(pose), cloud.view(i).pitchTo(pose), ERR);
+            if(distances[i] < distances[nearest]){
+                nearest = i;
+            }
+        }
+        assertEquals(distances[nearest], distances[cloud.nearest(pose.getX(), pose.getY(), pose.getZ())], ERR);
+        float[] squared = new float[POINTS];
+        cloud.distancesSquared(pose, squared);
+        for(int i = 0; i < POINTS; i++){
+            assertEquals(distances[i] * distances[i], squared[i], ERR * distances[i]);
+            assertEquals(squared[i], cloud.view(i).distanceSquared(pose), 0f);
+        }
+        assertTrue(cloud.anyWithinDistance(pose, distances[nearest] + ERR));
+        assertFalse(cloud.anyWithinDistance(pose, distances[nearest] - ERR));
+        assertFalse(cloud.anyWithinDistance(cloud.view(nearest), -ERR));
+        assertFalse(cloud.view(nearest).withinDistance(cloud.view(nearest), -ERR));
+        float[] box = new float[6];
+        cloud.boundingBox(box);
+        for(Point point : cloud.asList()){
+            assertTrue(point.getX() >= box[0] && point.getX() <= box[3]);
+            assertTrue(point.getY() >= box[1] && point.getY() <= box[4]);
+            assertTrue(point.getZ() >= box[2] && point.getZ() <= box[5]);
+        }
+    }
+
+}
@@ -170,6 +170,21 @@ public class Pose2DTest extends Point2DTest{
     /**
      * Checks the symmetry calculation respect to axis X.
      */
+    /**
+     * Checks the heading as a binary angle and its index in a number of bins.
+     */
+    @Test
+    @Repeat( times = EXECUTIONS)
+    public void test_yawBam(){
+        Pose2D test = new Pose2D(pose1);
+        test.setYawBam(pose1.getYawBam());
+        assertEquals("[yawBam] wrong yaw value", pose1.yaw, test.yaw, ERR);
+        int bins = 72;
+        int index = pose1.yawIndex(bins);
+        float center = index * MathFunctions.PITIMES2 / bins;
+        assertTrue("[yawIndex] wrong bin", FastMath.abs(MathFunctions.adjustAngleP(pose1.yaw - center)) <= MathFunctions.PI / bins + ERR);
+    }
+
     @Test
     @Repeat( times = EXECUTIONS)
     public void test_symmetricAxisX(){
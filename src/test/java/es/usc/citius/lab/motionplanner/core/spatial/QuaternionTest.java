@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.spatial;
+
+import es.usc.citius.lab.motionplanner.core.util.RotationUtils;
+import java.util.Random;
+import org.ejml.data.FixedMatrix3x3_64F;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link Quaternion} and the orientation of {@link Pose3D}.
+ */
+public class QuaternionTest {
+
+    private static final float ERR = 1E-4f;
+    private static final int TESTS = 10000;
+    private final Random random = new Random(System.currentTimeMillis());
+
+    private float angle() {
+        return (random.nextFloat() - 0.5f) * 6.28f;
+    }
+
+    private Point3D point() {
+        return new Point3D((random.nextFloat() - 0.5f) * 100, (random.nextFloat() - 0.5f) * 100, (random.nextFloat() - 0.5f) * 100);
+    }
+
+    private static void assertPointEquals(Point expected, Point actual) {
+        assertEquals(expected.getX(), actual.getX(), ERR);
+        assertEquals(expected.getY(), actual.getY(), ERR);
+        assertEquals(expected.getZ(), actual.getZ(), ERR);
+    }
+
+    @Test
+    public void test_rotateAsEuler() {
+        for (int i = 0; i < TESTS; i++) {
+            float yaw = angle(), pitch = angle(), roll = angle();
+            Quaternion q = Quaternion.fromEuler(yaw, pitch, roll);
+            assertEquals(1, q.norm(), 1E-9);
+            Point3D point = point();
+            assertPointEquals(point.rotate(yaw, pitch, roll), q.rotate(point));
+            assertPointEquals(point, q.conjugate().rotate(q.rotate(point)));
+            float[] out = new float[3];
+            q.inverseRotate(point.x, point.y, point.z, out, 0);
+            assertPointEquals(q.inverse().rotate(point), new Point3D(out[0], out[1], out[2]));
+            //same matrix than the Euler angles
+            FixedMatrix3x3_64F expected = RotationUtils.rotationMatrix(yaw, pitch, roll);
+            FixedMatrix3x3_64F matrix = q.rotationMatrix();
+            for (int r = 0; r < 3; r++) {
+                for (int c = 0; c < 3; c++) {
+                    assertEquals(expected.get(r, c), matrix.get(r, c), 1E-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_compose() {
+        for (int i = 0; i < TESTS; i++) {
+            Quaternion a = Quaternion.fromEuler(angle(), angle(), angle());
+            Quaternion b = Quaternion.fromEuler(angle(), angle(), angle());
+            Point3D point = point();
+            assertPointEquals(a.rotate(b.rotate(point)), a.multiply(b).rotate(point));
+            assertPointEquals(point, a.multiply(a.inverse()).rotate(point));
+        }
+        //rotation around Z is a yaw
+        float yaw = angle();
+        Point3D point = point();
+        assertPointEquals(point.rotate(yaw, 0f, 0f), Quaternion.fromAxisAngle(new Vector3D(0f, 0f, 2f), yaw).rotate(point));
+    }
+
+    @Test
+    public void test_eulerAngles() {
+        for (int i = 0; i < TESTS; i++) {
+            float yaw = angle(), pitch = angle() / 2.1f, roll = angle();
+            Quaternion q = Quaternion.fromEuler(yaw, pitch, roll);
+            assertEquals(yaw, q.getYaw(), ERR);
+            assertEquals(pitch, q.getPitch(), ERR);
+            assertEquals(roll, q.getRoll(), ERR);
+        }
+    }
+
+    @Test
+    public void test_poseOrientation() {
+        for (int i = 0; i < TESTS; i++) {
+            Pose3D pose = new Pose3D(point(), angle(), angle() / 2.1f, angle());
+            Quaternion orientation = pose.getOrientation();
+            assertSame(orientation, pose.getOrientation());
+            Point3D point = point();
+            assertPointEquals(point.rotate(pose.yaw, pose.pitch, pose.roll).add(pose), pose.toGlobal(point));
+            assertPointEquals(new Transform3D(pose.x, pose.y, pose.z, pose.yaw, pose.pitch, pose.roll).apply(point),
+                    new Transform3D(pose).apply(point));
+            //the cache follows the changes of the angles
+            pose.yaw = angle();
+            assertNotSame(orientation, pose.getOrientation());
+            assertPointEquals(point.rotate(pose.yaw, pose.pitch, pose.roll), pose.getOrientation().rotate(point));
+            //composition of rotations
+            Quaternion rotation = Quaternion.fromEuler(angle(), angle(), angle());
+            Pose3D rotated = pose.rotate(rotation);
+            assertPointEquals(rotation.rotate(pose), rotated);
+            assertPointEquals(rotation.rotate(pose.getOrientation().rotate(point)), rotated.getOrientation().rotate(point));
+            Pose3D copy = new Pose3D(rotated, rotated.getOrientation());
+            assertPointEquals(rotated.toGlobal(point), copy.toGlobal(point));
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.spatial;
+
+import static es.usc.citius.lab.motionplanner.core.spatial.Point2DTest.random;
+
+import es.usc.citius.lab.motionplanner.core.util.MathFunctions;
+import es.usc.citius.lab.motionplanner.core.util.RandomUtils;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the classes {@link Transform2D} and {@link Transform3D}.
+ */
+public class TransformTest {
+
+    private static final float ERR = 1E-3f;
+    private static final float MAX = 20f;
+    private static final int POINTS = 100;
+    private static final int ITERATIONS = 1000;
+
+    private static float randomValue(float max){
+        return RandomUtils.randomToValue(random.nextFloat(), max);
+    }
+
+    private static Pose2D randomPose2D(){
+        return new Pose2D(randomValue(MAX), randomValue(MAX), randomValue(3f));
+    }
+
+    private static Pose3D randomPose3D(){
+        return new Pose3D(randomValue(MAX), randomValue(MAX), randomValue(MAX), randomValue(3f), randomValue(1.5f), randomValue(3f));
+    }
+
+    private static void assertPointEquals(Point expected, Point actual, float err){
+        assertEquals(expected.getX(), actual.getX(), err);
+        assertEquals(expected.getY(), actual.getY(), err);
+        assertEquals(expected.getZ(), actual.getZ(), err);
+    }
+
+    /**
+     * The batch transformation obtains the same points than rotate + add.
+     */
+    @Test
+    public void test_transform2D(){
+        Pose2D pose = new Pose2D(RandomUtils.randomToValue(random.nextFloat(), MAX), RandomUtils.randomToValue(random.nextFloat(), MAX), RandomUtils.randomToValue(random.nextFloat(), 3f));
+        Transform2D transform = new Transform2D(pose);
+        float[] xs = new float[POINTS], ys = new float[POINTS];
+        float[] outXs = new float[POINTS], outYs = new float[POINTS];
+        for(int i = 0; i < POINTS; i++){
+            xs[i] = RandomUtils.randomToValue(random.nextFloat(), MAX);
+            ys[i] = RandomUtils.randomToValue(random.nextFloat(), MAX);
+        }
+        transform.apply(xs, ys, outXs, outYs, 0, POINTS);
+        for(int i = 0; i < POINTS; i++){
+            Point2D expected = new Point2D(xs[i], ys[i]).rotate(pose.yaw, 0f, 0f).add(pose);
+            assertEquals(expected.x, outXs[i], ERR);
+            assertEquals(expected.y, outYs[i], ERR);
+            assertEquals(expected, transform.apply(new Point2D(xs[i], ys[i])));
+        }
+        //inverse recovers the original points
+        transform.applyInverse(outXs, outYs, outXs, outYs, 0, POINTS);
+        assertArrayEquals(xs, outXs, ERR);
+        assertArrayEquals(ys, outYs, ERR);
+        //in place transformation of a range
+        float[] copyXs = xs.clone(), copyYs = ys.clone();
+        transform.apply(xs, ys, 10, 20);
+        for(int i = 0; i < POINTS; i++){
+            if(i < 10 || i >= 30){
+                assertEquals(copyXs[i], xs[i], 0f);
+            } else {
+                assertEquals(transform.apply(new Point2D(copyXs[i], copyYs[i])).x, xs[i], ERR);
+            }
+        }
+    }
+
+    /**
+     * The batch transformation obtains the same points than rotate + add.
+     */
+    @Test
+    public void test_transform3D(){
+        Pose3D pose = new Pose3D(RandomUtils.randomToValue(random.nextFloat(), MAX), RandomUtils.randomToValue(random.nextFloat(), MAX), RandomUtils.randomToValue(random.nextFloat(), MAX),
+                RandomUtils.randomToValue(random.nextFloat(), 3f), RandomUtils.randomToValue(random.nextFloat(), 1.5f), RandomUtils.randomToValue(random.nextFloat(), 3f));
+        Transform3D transform = new Transform3D(pose);
+        float[] xs = new float[POINTS], ys = new float[POINTS], zs = new float[POINTS];
+        float[] outXs = new float[POINTS], outYs = new float[POINTS], outZs = new float[POINTS];
+        for(int i = 0; i < POINTS; i++){
+            xs[i] = RandomUtils.randomToValue(random.nextFloat(), MAX);
+            ys[i] = RandomUtils.randomToValue(random.nextFloat(), MAX);
+            zs[i] = RandomUtils.randomToValue(random.nextFloat(), MAX);
+        }
+        transform.apply(xs, ys, zs, outXs, outYs, outZs, 0, POINTS);
+        for(int i = 0; i < POINTS; i++){
+            Point3D expected = new Point3D(xs[i], ys[i], zs[i]).rotate(pose.yaw, pose.pitch, pose.roll).add(pose);
+            assertEquals(expected.x, outXs[i], ERR);
+            assertEquals(expected.y, outYs[i], ERR);
+            assertEquals(expected.z, outZs[i], ERR);
+        }
+        //inverse recovers the original points
+        transform.applyInverse(outXs, outYs, outZs, outXs, outYs, outZs, 0, POINTS);
+        assertArrayEquals(xs, outXs, ERR);
+        assertArrayEquals(ys, outYs, ERR);
+        assertArrayEquals(zs, outZs, ERR);
+    }
+
+    /**
+     * The composition is equivalent to apply the transformations in sequence, and
+     * the inverse recovers the original points.
+     */
+    @Test
+    public void test_composeAndInvert2D(){
+        for(int i = 0; i < ITERATIONS; i++){
+            Transform2D first = new Transform2D(randomPose2D());
+            Transform2D second = new Transform2D(randomPose2D());
+            Transform2D composed = new Transform2D(first).compose(second);
+            Point2D point = new Point2D(randomValue(MAX), randomValue(MAX));
+            assertPointEquals(first.apply(second.apply(point)), composed.apply(point), ERR);
+            assertEquals(0f, MathFunctions.adjustAngleP(composed.getYaw() - (float) MathFunctions.atan2(composed.getSin(), composed.getCos())), ERR);
+            //inverse
+            Transform2D inverse = new Transform2D(composed).invert();
+            assertPointEquals(point, inverse.apply(composed.apply(point)), ERR);
+            assertPointEquals(inverse.apply(point), composed.applyInverse(point), ERR);
+            Transform2D identity = inverse.compose(composed);
+            assertEquals(0f, identity.getX(), ERR);
+            assertEquals(0f, identity.getY(), ERR);
+            assertEquals(0f, identity.getYaw(), ERR);
+        }
+    }
+
+    /**
+     * The relative transformation between two poses moves the first one to the second.
+     */
+    @Test
+    public void test_relative2D(){
+        for(int i = 0; i < ITERATIONS; i++){
+            Pose2D reference = randomPose2D();
+            Pose2D pose = randomPose2D();
+            Pose2D result = new Transform2D(reference).apply(Transform2D.relative(reference, pose).toPose());
+            assertEquals(pose.x, result.x, ERR);
+            assertEquals(pose.y, result.y, ERR);
+            assertEquals(0f, MathFunctions.adjustAngleP(pose.yaw - result.yaw), ERR);
+        }
+    }
+
+    /**
+     * The transformation of packed arrays obtains the same points than the one of
+     * separate arrays.
+     */
+    @Test
+    public void test_packed2D(){
+        Transform2D transform = new Transform2D(randomPose2D());
+        float[] xs = new float[POINTS], ys = new float[POINTS];
+        float[] packed = new float[2 * POINTS];
+        for(int i = 0; i < POINTS; i++){
+            xs[i] = packed[2 * i] = randomValue(MAX);
+            ys[i] = packed[2 * i + 1] = randomValue(MAX);
+        }
+        float[] original = packed.clone();
+        transform.apply(xs, ys, 10, 20);
+        transform.applyPacked(packed, 10, 20);
+        for(int i = 0; i < POINTS; i++){
+            assertEquals(xs[i], packed[2 * i], 0f);
+            assertEquals(ys[i], packed[2 * i + 1], 0f);
+        }
+        transform.applyInversePacked(packed, 10, 20);
+        assertArrayEquals(original, packed, ERR);
+    }
+
+    /**
+     * The composition is equivalent to apply the transformations in sequence, and
+     * the inverse recovers the original points.
+     */
+    @Test
+    public void test_composeAndInvert3D(){
+        for(int i = 0; i < ITERATIONS; i++){
+            Transform3D first = new Transform3D(randomPose3D());
+            Transform3D second = new Transform3D(randomPose3D());
+            Transform3D composed = new Transform3D(first).compose(second);
+            Point3D point = new Point3D(randomValue(MAX), randomValue(MAX), randomValue(MAX));
+            assertPointEquals(first.apply(second.apply(point)), composed.apply(point), ERR);
+            //inverse
+            Transform3D inverse = new Transform3D(composed).invert();
+            assertPointEquals(point, inverse.apply(composed.apply(point)), ERR);
+            assertPointEquals(inverse.apply(point), composed.applyInverse(point), ERR);
+            Transform3D identity = inverse.compose(composed);
+            assertPointEquals(Point3D.ZERO, new Point3D(identity.getX(), identity.getY(), identity.getZ()), ERR);
+            assertPointEquals(point, identity.apply(point), ERR);
+        }
+    }
+
+    /**
+     * The transformation built from the angles, the cached orientation of the pose and the
+     * pose obtained back from it define the same frame.
+     */
+    @Test
+    public void test_construction3D(){
+        for(int i = 0; i < ITERATIONS; i++){
+            Pose3D pose = randomPose3D();
+            Transform3D fromPose = new Transform3D(pose);
+            Transform3D fromAngles = new Transform3D(pose.x, pose.y, pose.z, pose.yaw, pose.pitch, pose.roll);
+            Transform3D fromEuler = new Transform3D(fromPose.toPose());
+            Point3D point = new Point3D(randomValue(MAX), randomValue(MAX), randomValue(MAX));
+            Point3D expected = point.rotate(pose.yaw, pose.pitch, pose.roll).add(pose);
+            assertPointEquals(expected, fromPose.apply(point), ERR);
+            assertPointEquals(expected, fromAngles.apply(point), ERR);
+            assertPointEquals(expected, fromEuler.apply(point), ERR);
+        }
+    }
+
+    /**
+     * The relative transformation between two poses moves the first one to the second.
+     */
+    @Test
+    public void test_relative3D(){
+        for(int i = 0; i < ITERATIONS; i++){
+            Pose3D reference = randomPose3D();
+            Pose3D pose = randomPose3D();
+            Pose3D result = new Transform3D(reference).apply(Transform3D.relative(reference, pose).toPose());
+            Point3D point = new Point3D(randomValue(MAX), randomValue(MAX), randomValue(MAX));
+            assertPointEquals(new Transform3D(pose).apply(point), new Transform3D(result).apply(point), ERR);
+        }
+    }
+
+    /**
+     * The transformation of packed arrays obtains the same points than the one of
+     * separate arrays.
+     */
+    @Test
+    public void test_packed3D(){
+        Transform3D transform = new Transform3D(randomPose3D());
+        float[] xs = new float[POINTS], ys = new float[POINTS], zs = new float[POINTS];
+        float[] packed = new float[3 * POINTS];
+        for(int i = 0; i < POINTS; i++){
+            xs[i] = packed[3 * i] = randomValue(MAX);
+            ys[i] = packed[3 * i + 1] = randomValue(MAX);
+            zs[i] = packed[3 * i + 2] = randomValue(MAX);
+        }
+        float[] original = packed.clone();
+        transform.apply(xs, ys, zs, 10, 20);
+        transform.applyPacked(packed, 10, 20);
+        for(int i = 0; i < POINTS; i++){
+            assertEquals(xs[i], packed[3 * i], 0f);
+            assertEquals(ys[i], packed[3 * i + 1], 0f);
+            assertEquals(zs[i], packed[3 * i + 2], 0f);
+        }
+        transform.applyInversePacked(packed, 10, 20);
+        assertArrayEquals(original, packed, ERR);
+    }
+
+}
@@ -17,6 +17,7 @@ package es.usc.citius.lab.motionplanner.core.util;
 
 import org.apache.commons.math3.util.FastMath;
 import static es.usc.citius.lab.motionplanner.core.util.MathFunctions.*;
+import java.util.Random;
 import org.junit.Test;
 
 import junit.framework.TestCase;
@@ -49,6 +50,76 @@ public class MathFunctionsTest extends TestCase {
         }
     }
 
+    @Test
+    public void test02_adjustAngleLarge() {
+        Random random = new Random(System.currentTimeMillis());
+        for (int i = 0; i < 100000; i++) {
+            float angle = (random.nextFloat() - 0.5f) * 2E5f;
+            float angle2P = MathFunctions.adjustAngle2P(angle);
+            float angleP = MathFunctions.adjustAngleP(angle);
+            assertTrue("Angle out of [0, 2PI): " + angle2P, angle2P >= 0 && angle2P < PITIMES2);
+            assertTrue("Angle out of (-PI, PI]: " + angleP, angleP > -PI && angleP <= PI);
+            //same direction than the input, with the error of representing it in float and
+            //of the period, which is the float value of 2*PI
+            double tolerance = 4 * Math.ulp(angle) + (PITIMES2 - 2 * Math.PI) * Math.abs(angle) / PITIMES2 + 1E-6;
+            assertEquals(FastMath.cos(angle), FastMath.cos(angle2P), tolerance);
+            assertEquals(FastMath.sin(angle), FastMath.sin(angle2P), tolerance);
+            assertEquals(FastMath.cos(angle), FastMath.cos(angleP), tolerance);
+            assertEquals(FastMath.sin(angle), FastMath.sin(angleP), tolerance);
+        }
+        assertEquals(0f, MathFunctions.adjustAngle2P(PITIMES2), 0f);
+        assertEquals(PI, MathFunctions.adjustAngleP(-PI), 0f);
+        assertTrue(Float.isNaN(MathFunctions.adjustAngleP(Float.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    public void test02_adjustAngleInRange() {
+        Random random = new Random(System.currentTimeMillis());
+        for (int i = 0; i < 100000; i++) {
+            float angle = (random.nextFloat() - 0.5f) * PITIMES2;
+            assertEquals(angle, MathFunctions.adjustAngleP(angle), 0f);
+            //small angles close to 0, with the full precision of the float
+            float small = (random.nextFloat() - 0.5f) * (float) Math.pow(10, -random.nextInt(20));
+            assertEquals(small, MathFunctions.adjustAngleP(small), 0f);
+        }
+        assertEquals(-0.1f, MathFunctions.adjustAngleP(-0.1f), 0f);
+        assertEquals(-1e-3f, MathFunctions.adjustAngleP(-1e-3f), 0f);
+        assertEquals(-1e-10f, MathFunctions.adjustAngleP(-1e-10f), 0f);
+        assertEquals(PI, MathFunctions.adjustAngleP(PI), 0f);
+        assertEquals(Math.nextUp(-PI), MathFunctions.adjustAngleP(Math.nextUp(-PI)), 0f);
+        //out of the range by a whole period
+        assertEquals(-0.1f, MathFunctions.adjustAngleP(-0.1f + PITIMES2), 1E-6f);
+        assertEquals(-0.1f, MathFunctions.adjustAngleP(-0.1f - PITIMES2), 1E-6f);
+    }
+
+    @Test
+    public void test03_binaryAngles() {
+        Random random = new Random(System.currentTimeMillis());
+        for (int i = 0; i < 100000; i++) {
+            float angle = MathFunctions.adjustAngleP((random.nextFloat() - 0.5f) * 20f);
+            int bam = MathFunctions.radiansToBam(angle);
+            assertEquals(angle, MathFunctions.bamToRadians(bam), 2E-7);
+            //wraparound of the sum
+            float other = MathFunctions.adjustAngleP((random.nextFloat() - 0.5f) * 20f);
+            float sum = MathFunctions.adjustAngleP(angle + other);
+            int bamSum = bam + MathFunctions.radiansToBam(other);
+            assertEquals(0, MathFunctions.adjustAngleP(sum - MathFunctions.bamToRadians(bamSum)), 1E-6);
+            //index of the closest bin
+            int bins = 1 + random.nextInt(360);
+            int index = MathFunctions.bamToIndex(bam, bins);
+            assertTrue(index >= 0 && index < bins);
+            int offset = bam - MathFunctions.indexToBam(index, bins);
+            assertTrue("Angle " + angle + " out of bin " + index, Math.abs((long) offset) <= (1L << 31) / bins + 1);
+        }
+        assertEquals(PI, MathFunctions.bamToRadians(Integer.MIN_VALUE), 0f);
+        //float PI is slightly greater than PI, a few units of the binary angle
+        assertTrue(Math.abs(MathFunctions.radiansToBam(PI) - Integer.MIN_VALUE) < 256);
+        assertTrue(Math.abs(MathFunctions.radiansToBam(PITIMES2)) < 256);
+        assertEquals(2, MathFunctions.bamToIndex(MathFunctions.radiansToBam(PI), 4));
+        assertEquals(0, MathFunctions.bamToIndex(MathFunctions.radiansToBam(-0.1f), 4));
+        assertEquals(1 << 30, MathFunctions.indexToBam(1, 4));
+    }
+
     /**
      * Old implementation of {@link MathFunctions#adjustAngleP(float) }
      *
@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2014-2017 Adrián González Sieira (adrian.gonzalez@usc.es)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package es.usc.citius.lab.motionplanner.core.util;
+
+import java.util.Random;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the approximations of {@link MathKernel} and its selection in {@link MathFunctions}.
+ */
+public class MathKernelTest {
+
+    private final Random random = new Random(System.currentTimeMillis());
+    private static final int TESTS = 100000;
+
+    @Test
+    public void test_sinCos() {
+        double[] out = new double[2];
+        for (MathKernel kernel : MathKernel.values()) {
+            double tolerance = kernel.maxError() + 1E-15;
+            for (int i = 0; i < TESTS; i++) {
+                //angles in the usual range and some revolutions away
+                double angle = i % 2 == 0
+                        ? (random.nextDouble() - 0.5) * 4 * FastMath.PI
+                        : (random.nextDouble() - 0.5) * 2000;
+                assertEquals(kernel + " sin(" + angle + ")", FastMath.sin(angle), kernel.sin(angle), tolerance);
+                assertEquals(kernel + " cos(" + angle + ")", FastMath.cos(angle), kernel.cos(angle), tolerance);
+                kernel.sinCos(angle, out);
+                assertEquals(kernel + " sinCos(" + angle + ")", kernel.sin(angle), out[0], 0);
+                assertEquals(kernel + " sinCos(" + angle + ")", kernel.cos(angle), out[1], 0);
+            }
+        }
+    }
+
+    @Test
+    public void test_atan2() {
+        for (MathKernel kernel : MathKernel.values()) {
+            double tolerance = kernel.maxError() + 1E-15;
+            for (int i = 0; i < TESTS; i++) {
+                double y = (random.nextDouble() - 0.5) * 200;
+                double x = (random.nextDouble() - 0.5) * 200;
+                assertEquals(kernel + " atan2(" + y + ", " + x + ")", FastMath.atan2(y, x), kernel.atan2(y, x), tolerance);
+            }
+            //axes and origin
+            assertEquals(kernel.toString(), 0, kernel.atan2(0, 0), 0);
+            assertEquals(kernel.toString(), 0, kernel.atan2(0, 1), tolerance);
+            assertEquals(kernel.toString(), FastMath.PI, kernel.atan2(0, -1), tolerance);
+            assertEquals(kernel.toString(), FastMath.PI / 2, kernel.atan2(1, 0), tolerance);
+            assertEquals(kernel.toString(), -FastMath.PI / 2, kernel.atan2(-1, 0), tolerance);
+            assertEquals(kernel.toString(), FastMath.PI / 4, kernel.atan2(3, 3), tolerance);
+        }
+    }
+
+    @Test
+    public void test_hypotSqrt() {
+        for (MathKernel kernel : MathKernel.values()) {
+            for (int i = 0; i < TESTS; i++) {
+                double x = (random.nextDouble() - 0.5) * 200;
+                double y = (random.nextDouble() - 0.5) * 200;
+                double expected = FastMath.hypot(x, y);
+                assertEquals(kernel.toString(), expected, kernel.hypot(x, y), 1E-12 * expected);
+                assertEquals(kernel.toString(), FastMath.sqrt(expected), kernel.sqrt(expected), 0);
+            }
+        }
+    }
+
+    @Test
+    public void test_selection() {
+        assertEquals(MathKernel.EXACT, MathFunctions.getKernel());
+        try {
+            for (MathKernel kernel : MathKernel.values()) {
+                MathFunctions.setKernel(kernel);
+                assertEquals(kernel, MathFunctions.getKernel());
+                double angle = (random.nextDouble() - 0.5) * 4 * FastMath.PI;
+                assertEquals(kernel.sin(angle), MathFunctions.sin(angle), 0);
+                assertEquals(kernel.cos(angle), MathFunctions.cos(angle), 0);
+                assertEquals(kernel.atan2(angle, 1), MathFunctions.atan2(angle, 1), 0);
+            }
+        } finally {
+            MathFunctions.setKernel(MathKernel.EXACT);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_selectionNull() {
+        MathFunctions.setKernel(null);
+    }
+}